@@ -10,6 +10,7 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import tech.cassandre.trading.bot.batch.TickerFlux;
+import tech.cassandre.trading.bot.dto.market.CandleDTO;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
@@ -26,18 +27,23 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
 import java.util.concurrent.TimeUnit;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
  * Ticker flux mock - Allows developers to simulate tickers via tsv files.
  * Will read all files starting by "tickers-" and ending with ".tsv".
+ * Historical candles returned by getCandles() are read from files starting by "candles-" with the same format.
  * <p>
  * The file has the following format :
  * Field    Description
@@ -66,6 +72,9 @@ public class TickerFluxMock {
     /** Tickers file suffix. */
     private static final String TICKERS_FILE_SUFFIX = ".*sv";
 
+    /** Candles file prefix. */
+    private static final String CANDLES_FILE_PREFIX = "candles-";
+
     /** Flux status - true if the flux is over. */
     private final HashMap<CurrencyPairDTO, Boolean> fluxTerminated = new LinkedHashMap<>();
 
@@ -111,6 +120,19 @@ public class TickerFluxMock {
                     });
                 });
 
+        // For every candles files.
+        getCandleFilesToLoad()
+                .stream().filter(resource -> resource.getFilename() != null)
+                .forEach(resource -> {
+                    final CurrencyPairDTO cp = getCurrencyPairFromFileName(resource, CANDLES_FILE_PREFIX);
+                    logger.info("Adding candles data from " + resource.getFilename().substring(resource.getFilename().indexOf(CANDLES_FILE_PREFIX)));
+                    final List<CandleDTO> candles = getCandlesFromFile(resource);
+                    when(marketService.getCandles(eq(cp), any(), anyInt())).thenAnswer(invocationOnMock -> {
+                        final int count = invocationOnMock.getArgument(2);
+                        return new LinkedHashSet<>(candles.subList(Math.max(0, candles.size() - count), candles.size()));
+                    });
+                });
+
         return marketService;
     }
 
@@ -120,9 +142,28 @@ public class TickerFluxMock {
      * @return files to import.
      */
     public List<Resource> getFilesToLoad() {
+        return getFilesToLoad(TICKERS_FILE_PREFIX);
+    }
+
+    /**
+     * Returns the list of candles files to import.
+     *
+     * @return files to import.
+     */
+    public List<Resource> getCandleFilesToLoad() {
+        return getFilesToLoad(CANDLES_FILE_PREFIX);
+    }
+
+    /**
+     * Returns the list of files to import with the given prefix.
+     *
+     * @param prefix file prefix
+     * @return files to import.
+     */
+    private List<Resource> getFilesToLoad(final String prefix) {
         PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
         try {
-            final Resource[] resources = resolver.getResources("classpath*:" + TICKERS_FILE_PREFIX + "*" + TICKERS_FILE_SUFFIX);
+            final Resource[] resources = resolver.getResources("classpath*:" + prefix + "*" + TICKERS_FILE_SUFFIX);
             return Arrays.asList(resources);
         } catch (IOException e) {
             logger.error("TickerFluxMock encountered an error : " + e.getMessage());
@@ -137,9 +178,20 @@ public class TickerFluxMock {
      * @return currency pair
      */
     public CurrencyPairDTO getCurrencyPairFromFileName(final Resource file) {
+        return getCurrencyPairFromFileName(file, TICKERS_FILE_PREFIX);
+    }
+
+    /**
+     * Returns the currency pair from a filename with the given prefix.
+     *
+     * @param file   file
+     * @param prefix file prefix
+     * @return currency pair
+     */
+    private CurrencyPairDTO getCurrencyPairFromFileName(final Resource file, final String prefix) {
         // Getting the string value of currency pair.
         if (file.getFilename() != null) {
-            final int currencyPairIndexStart = file.getFilename().indexOf(TICKERS_FILE_PREFIX) + TICKERS_FILE_PREFIX.length();
+            final int currencyPairIndexStart = file.getFilename().indexOf(prefix) + prefix.length();
             final int currencyPairIndexStop = file.getFilename().indexOf("sv") - 2;
             final String currencyPairAsString = file.getFilename().substring(currencyPairIndexStart, currencyPairIndexStop);
             final String[] currencyPairAsSplit = currencyPairAsString.split("-");
@@ -158,6 +210,54 @@ public class TickerFluxMock {
     private List<TickerDTO> getTickersFromFile(final Resource file) {
         final CurrencyPairDTO currencyPair = getCurrencyPairFromFileName(file);
         final List<TickerDTO> tickers = new LinkedList<>();
+        getRowsFromFile(file).forEach(row -> {
+            // Creating the ticker.
+            TickerDTO t = TickerDTO.builder()
+                    .currencyPair(currencyPair)
+                    .timestamp(ZonedDateTime.ofInstant(new Date(Long.parseLong(row.time) * MILLISECONDS).toInstant(), ZoneId.systemDefault()))
+                    .open(new BigDecimal(row.open))
+                    .last(new BigDecimal(row.close))
+                    .bid(new BigDecimal(row.high))
+                    .ask(new BigDecimal(row.low))
+                    .volume(new BigDecimal(row.volume))
+                    .quoteVolume(new BigDecimal(row.turnover))
+                    .build();
+
+            // Add the ticker.
+            tickers.add(t);
+        });
+        return tickers;
+    }
+
+    /**
+     * Returns candles loaded from a file.
+     *
+     * @param file file
+     * @return candles
+     */
+    private List<CandleDTO> getCandlesFromFile(final Resource file) {
+        final CurrencyPairDTO currencyPair = getCurrencyPairFromFileName(file, CANDLES_FILE_PREFIX);
+        final List<CandleDTO> candles = new LinkedList<>();
+        getRowsFromFile(file).forEach(row -> candles.add(CandleDTO.builder()
+                .currencyPair(currencyPair)
+                .timestamp(ZonedDateTime.ofInstant(new Date(Long.parseLong(row.time) * MILLISECONDS).toInstant(), ZoneId.systemDefault()))
+                .open(new BigDecimal(row.open))
+                .high(new BigDecimal(row.high))
+                .low(new BigDecimal(row.low))
+                .close(new BigDecimal(row.close))
+                .volume(new BigDecimal(row.volume))
+                .build()));
+        return candles;
+    }
+
+    /**
+     * Returns the rows of a file.
+     *
+     * @param file file
+     * @return rows
+     */
+    private List<Row> getRowsFromFile(final Resource file) {
+        final List<Row> rows = new LinkedList<>();
         // Replies from TSV files.
         try (Scanner scanner = new Scanner(file.getFile())) {
             while (scanner.hasNextLine()) {
@@ -169,28 +269,15 @@ public class TickerFluxMock {
                     }
                     while (rowScanner.hasNext()) {
                         // Data retrieved from file.
-                        final String time = rowScanner.next().replaceAll("\"", "");
-                        final String open = rowScanner.next().replaceAll("\"", "");
-                        final String close = rowScanner.next().replaceAll("\"", "");
-                        final String high = rowScanner.next().replaceAll("\"", "");
-                        final String low = rowScanner.next().replaceAll("\"", "");
-                        final String volume = rowScanner.next().replaceAll("\"", "");
-                        final String turnover = rowScanner.next().replaceAll("\"", "");
-
-                        // Creating the ticker.
-                        TickerDTO t = TickerDTO.builder()
-                                .currencyPair(currencyPair)
-                                .timestamp(ZonedDateTime.ofInstant(new Date(Long.parseLong(time) * MILLISECONDS).toInstant(), ZoneId.systemDefault()))
-                                .open(new BigDecimal(open))
-                                .last(new BigDecimal(close))
-                                .bid(new BigDecimal(high))
-                                .ask(new BigDecimal(low))
-                                .volume(new BigDecimal(volume))
-                                .quoteVolume(new BigDecimal(turnover))
-                                .build();
-
-                        // Add the ticker.
-                        tickers.add(t);
+                        final Row row = new Row();
+                        row.time = rowScanner.next().replaceAll("\"", "");
+                        row.open = rowScanner.next().replaceAll("\"", "");
+                        row.close = rowScanner.next().replaceAll("\"", "");
+                        row.high = rowScanner.next().replaceAll("\"", "");
+                        row.low = rowScanner.next().replaceAll("\"", "");
+                        row.volume = rowScanner.next().replaceAll("\"", "");
+                        row.turnover = rowScanner.next().replaceAll("\"", "");
+                        rows.add(row);
                     }
                 }
             }
@@ -199,7 +286,7 @@ public class TickerFluxMock {
         } catch (IOException e) {
             logger.error("IOException : " + e);
         }
-        return tickers;
+        return rows;
     }
 
     /**
@@ -221,4 +308,32 @@ public class TickerFluxMock {
         return !fluxTerminated.containsValue(false);
     }
 
+    /**
+     * A row of a tickers or candles file.
+     */
+    private static final class Row {
+
+        /** Start time of the candle cycle. */
+        private String time;
+
+        /** Opening price. */
+        private String open;
+
+        /** Closing price. */
+        private String close;
+
+        /** Highest price. */
+        private String high;
+
+        /** Lowest price. */
+        private String low;
+
+        /** Transaction volume. */
+        private String volume;
+
+        /** Transaction amount. */
+        private String turnover;
+
+    }
+
 }
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.io.Resource;
+import tech.cassandre.trading.bot.dto.market.CandleDTO;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.service.MarketService;
 import tech.cassandre.trading.bot.test.strategy.TestableStrategy;
@@ -13,6 +14,8 @@ import tech.cassandre.trading.bot.test.util.BaseTest;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -92,4 +95,30 @@ public class TickerFluxMockTest extends BaseTest {
         assertEquals(0, new BigDecimal("0.85652").compareTo(ticker1.get().getLast()));
     }
 
+    @Test
+    @DisplayName("Check candles loaded")
+    public void checkCandlesLoaded() {
+        CurrencyPairDTO cp1 = new CurrencyPairDTO(BTC, USDT);
+        CurrencyPairDTO cp2 = new CurrencyPairDTO(ETH, BTC);
+
+        // Check the files we found.
+        List<Resource> resources = tickerFluxMock.getCandleFilesToLoad();
+        assertEquals(1, resources.size());
+        assertNotNull(resources.get(0).getFilename());
+        assertTrue(resources.get(0).getFilename().contains("candles-BTC-USDT.tsv"));
+
+        // Only the most recent candles are returned, from the oldest to the newest.
+        List<CandleDTO> candles = new ArrayList<>(marketService.getCandles(cp1, Duration.ofDays(1), 2));
+        assertEquals(2, candles.size());
+        assertEquals(1508198400000L, candles.get(0).getTimestamp().toInstant().toEpochMilli());
+        assertEquals(0, new BigDecimal("3700").compareTo(candles.get(0).getClose()));
+        assertEquals(1508284800000L, candles.get(1).getTimestamp().toInstant().toEpochMilli());
+        assertEquals(0, new BigDecimal("3850").compareTo(candles.get(1).getHigh()));
+        assertEquals(0, new BigDecimal("3690").compareTo(candles.get(1).getLow()));
+        assertEquals(3, marketService.getCandles(cp1, Duration.ofDays(1), 10).size());
+
+        // No candles file for this currency pair.
+        assertTrue(marketService.getCandles(cp2, Duration.ofDays(1), 10).isEmpty());
+    }
+
 }
@@ -1,17 +1,31 @@
 package tech.cassandre.trading.bot.batch;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
 import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceUpdateDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
 import tech.cassandre.trading.bot.service.UserService;
 import tech.cassandre.trading.bot.util.base.batch.BaseExternalFlux;
+import tech.cassandre.trading.bot.util.bus.EventBus;
 
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
+import static reactor.core.publisher.FluxSink.OverflowStrategy.BUFFER;
+
 /**
  * Account flux - push {@link AccountDTO}.
+ * Accounts are compared balance by balance: an account is only pushed if one of its balances changed and each changed
+ * balance is also pushed, alone, on the balance flux.
  */
 public class AccountFlux extends BaseExternalFlux<AccountDTO> {
 
@@ -21,6 +35,12 @@ public class AccountFlux extends BaseExternalFlux<AccountDTO> {
     /** Previous values. */
     private Map<String, AccountDTO> previousValues = new LinkedHashMap<>();
 
+    /** Balance flux. */
+    private final Flux<BalanceUpdateDTO> balanceFlux;
+
+    /** Balance flux sink. */
+    private FluxSink<BalanceUpdateDTO> balanceFluxSink;
+
     /**
      * Constructor.
      *
@@ -28,39 +48,116 @@ public class AccountFlux extends BaseExternalFlux<AccountDTO> {
      */
     public AccountFlux(final UserService newUserService) {
         this.userService = newUserService;
+        // Balance updates can't be dropped (unlike accounts, each one only holds a part of the account).
+        Flux<BalanceUpdateDTO> balanceFluxTemp = Flux.create(newFluxSink -> this.balanceFluxSink = newFluxSink, BUFFER);
+        this.balanceFlux = balanceFluxTemp.publishOn(Schedulers.boundedElastic());
     }
 
     @Override
     protected final Set<AccountDTO> getNewValues() {
         logger.debug("AccountFlux - Retrieving new values");
         Set<AccountDTO> newValues = new LinkedHashSet<>();
+        List<BalanceUpdateDTO> balanceUpdates = new LinkedList<>();
 
         // Calling the service and treating results.
         userService.getUser().ifPresent(user -> {
             // For each account, we check if there is something new.
             user.getAccounts().forEach((accountId, account) -> {
                 logger.debug("AccountFlux - Treating account : {}", accountId);
-                if (previousValues.containsKey(accountId)) {
-                    // If in the previous values, check the balances.
-                    if (!account.equals(previousValues.get(accountId))) {
-                        logger.debug("AccountFlux - Account {} has changed : {}", accountId, account);
-                        newValues.add(account);
-                    }
-                } else {
+                final AccountDTO previousAccount = previousValues.get(accountId);
+                if (previousAccount == account) {
+                    return;
+                }
+                final int changes = getBalanceUpdates(accountId, previousAccount, account, balanceUpdates);
+                if (previousAccount == null) {
                     // Send if it does not exist.
                     logger.debug("AccountFlux - New account : {}", account);
                     newValues.add(account);
+                } else if (changes > 0 || !Objects.equals(previousAccount.getName(), account.getName())) {
+                    logger.debug("AccountFlux - Account {} has changed ({} balance(s)) : {}", accountId, changes, account);
+                    newValues.add(account);
                 }
             });
             previousValues = user.getAccounts();
         });
-        logger.debug("AccountFlux - {} account(s) updated", newValues.size());
+        logger.debug("AccountFlux - {} account(s) and {} balance(s) updated", newValues.size(), balanceUpdates.size());
+        final EventBus eventBus = getEventBus();
+        if (eventBus != null) {
+            balanceUpdates.forEach(eventBus::publish);
+        }
+        if (balanceFluxSink != null) {
+            balanceUpdates.forEach(balanceFluxSink::next);
+        }
         return newValues;
     }
 
+    /**
+     * Compares the balances of an account with its previous values.
+     *
+     * @param accountId       account id
+     * @param previousAccount previous value of the account (null if new)
+     * @param account         account
+     * @param balanceUpdates  list where balance updates are added
+     * @return number of balances updated
+     */
+    private int getBalanceUpdates(final String accountId,
+                                  final AccountDTO previousAccount,
+                                  final AccountDTO account,
+                                  final List<BalanceUpdateDTO> balanceUpdates) {
+        Map<CurrencyDTO, BalanceDTO> previousBalances = new LinkedHashMap<>();
+        if (previousAccount != null) {
+            previousBalances = previousAccount.getBalances();
+        }
+        int changes = 0;
+        for (Map.Entry<CurrencyDTO, BalanceDTO> balance : account.getBalances().entrySet()) {
+            final BalanceDTO previousBalance = previousBalances.get(balance.getKey());
+            if (previousBalance != balance.getValue() && !balance.getValue().equals(previousBalance)) {
+                balanceUpdates.add(getBalanceUpdate(accountId, balance.getKey(), previousBalance, balance.getValue()));
+                changes++;
+            }
+        }
+        for (Map.Entry<CurrencyDTO, BalanceDTO> previousBalance : previousBalances.entrySet()) {
+            if (!account.getBalances().containsKey(previousBalance.getKey())) {
+                balanceUpdates.add(getBalanceUpdate(accountId, previousBalance.getKey(), previousBalance.getValue(), null));
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Builds a balance update.
+     *
+     * @param accountId       account id
+     * @param currency        currency
+     * @param previousBalance previous balance
+     * @param balance         new balance
+     * @return balance update
+     */
+    private BalanceUpdateDTO getBalanceUpdate(final String accountId,
+                                              final CurrencyDTO currency,
+                                              final BalanceDTO previousBalance,
+                                              final BalanceDTO balance) {
+        return BalanceUpdateDTO.builder()
+                .accountId(accountId)
+                .currency(currency)
+                .previousBalance(previousBalance)
+                .balance(balance)
+                .build();
+    }
+
     @Override
     protected final Optional<AccountDTO> saveValue(final AccountDTO newValue) {
         return Optional.ofNullable(newValue);
     }
 
+    /**
+     * Getter for balanceFlux.
+     *
+     * @return flux of balances that changed
+     */
+    public final Flux<BalanceUpdateDTO> getBalanceFlux() {
+        return balanceFlux;
+    }
+
 }
@@ -5,11 +5,13 @@ import tech.cassandre.trading.bot.dto.trade.OrderDTO;
 import tech.cassandre.trading.bot.repository.OrderRepository;
 import tech.cassandre.trading.bot.service.TradeService;
 import tech.cassandre.trading.bot.util.base.batch.BaseExternalFlux;
+import tech.cassandre.trading.bot.util.polling.TradePollingPolicy;
 
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Order flux - push {@link OrderDTO}.
@@ -22,6 +24,15 @@ public class OrderFlux extends BaseExternalFlux<OrderDTO> {
     /** Order repository. */
     private final OrderRepository orderRepository;
 
+    /** Trade polling policy - switched to hot mode while orders are open. */
+    private final TradePollingPolicy tradePollingPolicy;
+
+    /** Last values saved (order id and order as saved in database) of orders not final - used to detect changes without database access. */
+    private final Map<String, OrderDTO> lastValues = new ConcurrentHashMap<>();
+
+    /** Entities of the last values saved (order id and entity) - updated and saved again without reading them from database. */
+    private final Map<String, Order> lastEntities = new ConcurrentHashMap<>();
+
     /**
      * Constructor.
      *
@@ -29,8 +40,22 @@ public class OrderFlux extends BaseExternalFlux<OrderDTO> {
      * @param newOrderRepository order repository
      */
     public OrderFlux(final TradeService newTradeService, final OrderRepository newOrderRepository) {
+        this(newTradeService, newOrderRepository, new TradePollingPolicy());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newTradeService       trade service
+     * @param newOrderRepository    order repository
+     * @param newTradePollingPolicy trade polling policy
+     */
+    public OrderFlux(final TradeService newTradeService,
+                     final OrderRepository newOrderRepository,
+                     final TradePollingPolicy newTradePollingPolicy) {
         this.tradeService = newTradeService;
         this.orderRepository = newOrderRepository;
+        this.tradePollingPolicy = newTradePollingPolicy;
     }
 
     @Override
@@ -42,7 +67,10 @@ public class OrderFlux extends BaseExternalFlux<OrderDTO> {
         tradeService.getOrders()
                 .forEach(order -> {
                     logger.debug("OrderFlux - Treating order : {}", order.getOrderId());
-                    final Optional<Order> orderInDatabase = orderRepository.findByOrderId(order.getOrderId());
+                    if (order.getStatus() != null && order.getStatus().isOpen()) {
+                        tradePollingPolicy.markActive();
+                    }
+                    final Optional<OrderDTO> orderInDatabase = getLastValue(order.getOrderId());
 
                     // If it's not in database, we insert it only if strategy is set - meaning it's the local order.
                     if (orderInDatabase.isEmpty() && order.getStrategy() != null) {
@@ -50,8 +78,11 @@ public class OrderFlux extends BaseExternalFlux<OrderDTO> {
                         newValues.add(order);
                     }
 
+                    // The order is saved, the trade service doesn't have to return it as a local order anymore.
+                    orderInDatabase.ifPresent(o -> tradeService.orderSaved(o.getOrderId()));
+
                     // If the local order is already saved in database and this update change the data, it's a change.
-                    if (orderInDatabase.isPresent() && !orderMapper.mapToOrderDTO(orderInDatabase.get()).equals(order)) {
+                    if (orderInDatabase.isPresent() && !orderInDatabase.get().equals(order)) {
                         logger.debug("OrderFlux - Order {} has changed : {}", order.getOrderId(), order);
                         newValues.add(order);
                     }
@@ -63,21 +94,98 @@ public class OrderFlux extends BaseExternalFlux<OrderDTO> {
 
     @Override
     protected final Optional<OrderDTO> saveValue(final OrderDTO newValue) {
-        AtomicReference<Order> valueToSave = new AtomicReference<>();
-
-        orderRepository.findByOrderId(newValue.getOrderId())
-                .ifPresentOrElse(order -> {
-                    // Update order.
-                    orderMapper.updateOrder(newValue, order);
-                    valueToSave.set(order);
-                    logger.debug("OrderFlux - Updating order in database {}", order);
-                }, () -> {
-                    // Create order.
-                    valueToSave.set(orderMapper.mapToOrder(newValue));
-                    logger.debug("OrderFlux - Creating order in database {}", newValue);
-                });
+        // If nothing changed since the last save, the order is emitted without any database access.
+        final OrderDTO lastValue = lastValues.get(newValue.getOrderId());
+        if (newValue.equals(lastValue)) {
+            logger.debug("OrderFlux - Order {} unchanged, not saved", newValue.getOrderId());
+            return Optional.of(lastValue);
+        }
+
+        final Order lastEntity = lastEntities.get(newValue.getOrderId());
+        if (lastValue != null && lastEntity != null) {
+            // Known order: the entity saved last time is updated, the new value is emitted with its id.
+            final Order savedEntity;
+            synchronized (lastEntity) {
+                orderMapper.updateOrder(newValue, lastEntity);
+                logger.debug("OrderFlux - Updating order in database {}", lastEntity);
+                savedEntity = orderRepository.save(lastEntity);
+            }
+            final OrderDTO.OrderDTOBuilder builder = newValue.toBuilder().id(savedEntity.getId());
+            // Exchanges don't return the strategy that created the order nor its trades.
+            if (newValue.getStrategy() == null) {
+                builder.strategy(lastValue.getStrategy());
+            }
+            if (newValue.getTrades().isEmpty()) {
+                builder.trades(lastValue.getTrades());
+            }
+            final OrderDTO savedValue = builder.build();
+            retain(savedValue, savedEntity);
+            return Optional.of(savedValue);
+        }
+
+        final Optional<Order> orderInDatabase = orderRepository.findByOrderId(newValue.getOrderId());
+        if (orderInDatabase.isPresent()) {
+            // Update order (first update since it was loaded, the saved value gives the strategy and the trades).
+            orderMapper.updateOrder(newValue, orderInDatabase.get());
+            logger.debug("OrderFlux - Updating order in database {}", orderInDatabase.get());
+            final Order savedEntity = orderRepository.save(orderInDatabase.get());
+            final OrderDTO savedValue = orderMapper.mapToOrderDTO(savedEntity);
+            retain(savedValue, savedEntity);
+            return Optional.of(savedValue);
+        } else {
+            // Create order - only the id is generated by the database.
+            logger.debug("OrderFlux - Creating order in database {}", newValue);
+            final Order savedEntity = orderRepository.save(orderMapper.mapToOrder(newValue));
+            final OrderDTO savedValue = newValue.toBuilder().id(savedEntity.getId()).build();
+            retain(savedValue, savedEntity);
+            return Optional.of(savedValue);
+        }
+    }
+
+    /**
+     * Returns the number of orders retained to detect changes.
+     *
+     * @return number of orders retained
+     */
+    public final int getRetainedOrderCount() {
+        return lastValues.size();
+    }
+
+    /**
+     * Retains the last value of an order once saved - an order with a final status won't change anymore so it's evicted.
+     *
+     * @param order  order as saved in database
+     * @param entity order entity
+     */
+    private void retain(final OrderDTO order, final Order entity) {
+        tradeService.orderSaved(order.getOrderId());
+        if (order.getStatus() != null && order.getStatus().isFinal()) {
+            lastValues.remove(order.getOrderId());
+            lastEntities.remove(order.getOrderId());
+        } else {
+            lastValues.put(order.getOrderId(), order);
+            lastEntities.put(order.getOrderId(), entity);
+        }
+    }
 
-        return Optional.ofNullable(orderMapper.mapToOrderDTO(orderRepository.save(valueToSave.get())));
+    /**
+     * Returns the order as saved in database (only read from database the first time).
+     *
+     * @param orderId order id
+     * @return order
+     */
+    private Optional<OrderDTO> getLastValue(final String orderId) {
+        final OrderDTO lastValue = lastValues.get(orderId);
+        if (lastValue != null) {
+            return Optional.of(lastValue);
+        }
+        final Optional<Order> orderInDatabase = orderRepository.findByOrderId(orderId);
+        if (orderInDatabase.isEmpty()) {
+            return Optional.empty();
+        }
+        final OrderDTO order = orderMapper.mapToOrderDTO(orderInDatabase.get());
+        retain(order, orderInDatabase.get());
+        return Optional.of(order);
     }
 
 }
@@ -6,9 +6,13 @@ import tech.cassandre.trading.bot.repository.OrderRepository;
 import tech.cassandre.trading.bot.repository.PositionRepository;
 import tech.cassandre.trading.bot.util.base.batch.BaseInternalFlux;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
+
 /**
  * Position flux - push {@link PositionDTO}.
  */
@@ -20,6 +24,9 @@ public class PositionFlux extends BaseInternalFlux<PositionDTO> {
     /** Order repository. */
     private final OrderRepository orderRepository;
 
+    /** Last values saved (position id and position as saved in database) of positions not closed - used to skip saves that change nothing. */
+    private final Map<Long, PositionDTO> lastValues = new ConcurrentHashMap<>();
+
     /**
      * Constructor.
      *
@@ -34,6 +41,13 @@ public class PositionFlux extends BaseInternalFlux<PositionDTO> {
 
     @Override
     public final Optional<PositionDTO> saveValue(final PositionDTO newValue) {
+        // If nothing changed since the last save, the position is emitted without any database access.
+        final PositionDTO lastValue = lastValues.get(newValue.getId());
+        if (newValue.equals(lastValue)) {
+            logger.debug("PositionFlux - Position {} unchanged, not saved", newValue.getId());
+            return Optional.of(newValue);
+        }
+
         AtomicReference<Position> valueToSave = new AtomicReference<>();
 
         positionRepository.findById(newValue.getId())
@@ -52,7 +66,31 @@ public class PositionFlux extends BaseInternalFlux<PositionDTO> {
                     logger.debug("PositionFlux - Updating position in database {}", position);
                 }, () -> logger.error("PositionFlux - Position {} was not found in database", newValue));
 
-        return Optional.ofNullable(positionMapper.mapToPositionDTO(positionRepository.save(valueToSave.get())));
+        // The position is read before being saved as its orders are saved with it, but it already has its id.
+        final Position savedPosition = positionRepository.save(valueToSave.get());
+        PositionDTO savedValue = newValue;
+        if ((newValue.getOpeningOrder() == null && savedPosition.getOpeningOrder() != null)
+                || (newValue.getClosingOrder() == null && savedPosition.getClosingOrder() != null)) {
+            // Only a position that just got its orders from the database is mapped back.
+            savedValue = positionMapper.mapToPositionDTO(savedPosition);
+        }
+        if (savedValue.getStatus() == CLOSED) {
+            // A closed position won't change anymore.
+            lastValues.remove(savedValue.getId());
+        } else {
+            // A copy is kept as the emitted position can still be changed by its receivers.
+            lastValues.put(savedValue.getId(), savedValue.toBuilder().build());
+        }
+        return Optional.of(savedValue);
+    }
+
+    /**
+     * Returns the number of positions retained to skip saves.
+     *
+     * @return number of positions retained
+     */
+    public final int getRetainedPositionCount() {
+        return lastValues.size();
     }
 
 }
@@ -5,7 +5,9 @@ import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 import tech.cassandre.trading.bot.service.MarketService;
 import tech.cassandre.trading.bot.util.base.batch.BaseExternalFlux;
+import tech.cassandre.trading.bot.util.pair.CurrencyPairTable;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -21,11 +23,20 @@ public class TickerFlux extends BaseExternalFlux<TickerDTO> {
     /** Market service. */
     private final MarketService marketService;
 
-    /** Cycle iterator over requested currency pairs. */
-    private Iterator<CurrencyPairDTO> currencyPairsIterator;
+    /** Currency pairs requested by the strategy. */
+    private final Set<CurrencyPairDTO> requestedCurrencyPairs = new LinkedHashSet<>();
 
-    /** Previous values. */
-    private final Map<CurrencyPairDTO, TickerDTO> previousValues = new LinkedHashMap<>();
+    /** Currency pairs of the positions not closed (position id as key). */
+    private final Map<Long, CurrencyPairDTO> positionCurrencyPairs = new LinkedHashMap<>();
+
+    /** Currency pairs polled - requested by the strategy or with positions not closed. */
+    private volatile Set<CurrencyPairDTO> polledCurrencyPairs = Collections.emptySet();
+
+    /** Cycle iterator over polled currency pairs (replaced each time polled currency pairs change). */
+    private volatile Iterator<CurrencyPairDTO> currencyPairsIterator = Collections.emptyIterator();
+
+    /** Previous values - the counter of each currency pair is the number of tickers emitted. */
+    private final CurrencyPairTable<TickerDTO> previousValues = new CurrencyPairTable<>();
 
     /**
      * Constructor.
@@ -39,20 +50,136 @@ public class TickerFlux extends BaseExternalFlux<TickerDTO> {
     /**
      * Update the list of requested currency pairs.
      *
-     * @param requestedCurrencyPairs list of requested currency pairs.
+     * @param newRequestedCurrencyPairs list of requested currency pairs.
+     */
+    public synchronized void updateRequestedCurrencyPairs(final Set<CurrencyPairDTO> newRequestedCurrencyPairs) {
+        requestedCurrencyPairs.clear();
+        newRequestedCurrencyPairs.forEach(cp -> requestedCurrencyPairs.add(getCanonicalCurrencyPair(cp)));
+        updatePolledCurrencyPairs();
+    }
+
+    /**
+     * Adds a currency pair to the requested currency pairs.
+     *
+     * @param currencyPair currency pair
+     * @return true if the currency pair was not already requested
+     */
+    public synchronized boolean subscribe(final CurrencyPairDTO currencyPair) {
+        final boolean added = requestedCurrencyPairs.add(getCanonicalCurrencyPair(currencyPair));
+        if (added) {
+            updatePolledCurrencyPairs();
+        }
+        return added;
+    }
+
+    /**
+     * Removes a currency pair from the requested currency pairs.
+     * It's still polled while a position on this currency pair is not closed.
+     *
+     * @param currencyPair currency pair
+     * @return true if the currency pair was requested
+     */
+    public synchronized boolean unsubscribe(final CurrencyPairDTO currencyPair) {
+        final boolean removed = requestedCurrencyPairs.remove(getCanonicalCurrencyPair(currencyPair));
+        if (removed) {
+            updatePolledCurrencyPairs();
+        }
+        return removed;
+    }
+
+    /**
+     * Polls the currency pair of a position until the position is closed.
+     *
+     * @param positionId   position id
+     * @param currencyPair currency pair
+     */
+    public synchronized void subscribePosition(final long positionId, final CurrencyPairDTO currencyPair) {
+        final CurrencyPairDTO canonicalCurrencyPair = getCanonicalCurrencyPair(currencyPair);
+        if (!canonicalCurrencyPair.equals(positionCurrencyPairs.put(positionId, canonicalCurrencyPair))) {
+            updatePolledCurrencyPairs();
+        }
+    }
+
+    /**
+     * Stops polling the currency pair of a position (the position is closed).
+     *
+     * @param positionId position id
+     */
+    public synchronized void unsubscribePosition(final long positionId) {
+        if (positionCurrencyPairs.remove(positionId) != null) {
+            updatePolledCurrencyPairs();
+        }
+    }
+
+    /**
+     * Returns the currency pairs polled - requested by the strategy or with positions not closed.
+     *
+     * @return currency pairs
+     */
+    public Set<CurrencyPairDTO> getPolledCurrencyPairs() {
+        return polledCurrencyPairs;
+    }
+
+    /**
+     * Rebuilds the polled currency pairs and the iterator used by the poller.
+     */
+    private void updatePolledCurrencyPairs() {
+        final Set<CurrencyPairDTO> newPolledCurrencyPairs = new LinkedHashSet<>(requestedCurrencyPairs);
+        newPolledCurrencyPairs.addAll(positionCurrencyPairs.values());
+        if (!newPolledCurrencyPairs.equals(polledCurrencyPairs)) {
+            // Last tickers of the currency pairs not polled anymore are dropped (ticker counters are kept).
+            polledCurrencyPairs.stream()
+                    .filter(cp -> !newPolledCurrencyPairs.contains(cp))
+                    .forEach(previousValues::remove);
+            polledCurrencyPairs = Collections.unmodifiableSet(newPolledCurrencyPairs);
+            currencyPairsIterator = Iterators.cycle(polledCurrencyPairs);
+            logger.debug("TickerFlux - Currency pairs polled : {}", polledCurrencyPairs);
+        }
+    }
+
+    /**
+     * Returns the canonical instance of a currency pair (their ids index per currency pair state).
+     *
+     * @param currencyPair currency pair
+     * @return canonical instance
+     */
+    private static CurrencyPairDTO getCanonicalCurrencyPair(final CurrencyPairDTO currencyPair) {
+        return CurrencyPairDTO.getInstance(currencyPair.getBaseCurrency(), currencyPair.getQuoteCurrency());
+    }
+
+    /**
+     * Returns the number of tickers emitted for a currency pair.
+     *
+     * @param currencyPair currency pair
+     * @return number of tickers emitted
+     */
+    public long getTickerCount(final CurrencyPairDTO currencyPair) {
+        return previousValues.getCounter(currencyPair);
+    }
+
+    /**
+     * Returns the number of currency pairs whose last ticker is retained (to detect changes).
+     *
+     * @return number of tickers retained
      */
-    public void updateRequestedCurrencyPairs(final Set<CurrencyPairDTO> requestedCurrencyPairs) {
-        currencyPairsIterator = Iterators.cycle(requestedCurrencyPairs);
+    public int getRetainedTickerCount() {
+        return previousValues.size();
     }
 
     @Override
     protected final Set<TickerDTO> getNewValues() {
         logger.debug("TickerFlux - Retrieving new values");
         Set<TickerDTO> newValues = new LinkedHashSet<>();
-        marketService.getTicker(currencyPairsIterator.next()).ifPresent(ticker -> {
+        // The iterator is only used by the poller, other threads replace it.
+        final Iterator<CurrencyPairDTO> iterator = currencyPairsIterator;
+        if (!iterator.hasNext()) {
+            return newValues;
+        }
+        marketService.getTicker(iterator.next()).ifPresent(ticker -> {
             if (!ticker.equals(previousValues.get(ticker.getCurrencyPair()))) {
                 logger.debug("TickerFlux - New ticker received : {}", ticker);
                 previousValues.put(ticker.getCurrencyPair(), ticker);
+                previousValues.incrementCounter(ticker.getCurrencyPair());
                 newValues.add(ticker);
             }
         });
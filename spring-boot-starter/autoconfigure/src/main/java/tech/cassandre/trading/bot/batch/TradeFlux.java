@@ -6,10 +6,15 @@ import tech.cassandre.trading.bot.repository.OrderRepository;
 import tech.cassandre.trading.bot.repository.TradeRepository;
 import tech.cassandre.trading.bot.service.TradeService;
 import tech.cassandre.trading.bot.util.base.batch.BaseExternalFlux;
+import tech.cassandre.trading.bot.util.polling.TradePollingPolicy;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -17,6 +22,9 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class TradeFlux extends BaseExternalFlux<TradeDTO> {
 
+    /** Trades older than this are not retained - trade history polled doesn't go that far. */
+    private static final Duration TRADE_RETENTION = Duration.ofDays(8);
+
     /** Trade service. */
     private final TradeService tradeService;
 
@@ -26,6 +34,15 @@ public class TradeFlux extends BaseExternalFlux<TradeDTO> {
     /** Trade repository. */
     private final TradeRepository tradeRepository;
 
+    /** Trade polling policy - switched to hot mode when new trades arrive. */
+    private final TradePollingPolicy tradePollingPolicy;
+
+    /** Last values saved (trade id and trade as saved in database) of recent trades - used to detect changes without database access. */
+    private final Map<String, TradeDTO> lastValues = new ConcurrentHashMap<>();
+
+    /** Entities of the last values saved (trade id and entity) - updated and saved again without reading them from database. */
+    private final Map<String, Trade> lastEntities = new ConcurrentHashMap<>();
+
     /**
      * Constructor.
      *
@@ -36,9 +53,25 @@ public class TradeFlux extends BaseExternalFlux<TradeDTO> {
     public TradeFlux(final TradeService newTradeService,
                      final OrderRepository newOrderRepository,
                      final TradeRepository newTradeRepository) {
+        this(newTradeService, newOrderRepository, newTradeRepository, new TradePollingPolicy());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newTradeService       trade service
+     * @param newOrderRepository    order repository
+     * @param newTradeRepository    trade repository
+     * @param newTradePollingPolicy trade polling policy
+     */
+    public TradeFlux(final TradeService newTradeService,
+                     final OrderRepository newOrderRepository,
+                     final TradeRepository newTradeRepository,
+                     final TradePollingPolicy newTradePollingPolicy) {
         this.tradeRepository = newTradeRepository;
         this.orderRepository = newOrderRepository;
         this.tradeService = newTradeService;
+        this.tradePollingPolicy = newTradePollingPolicy;
     }
 
     @Override
@@ -48,41 +81,100 @@ public class TradeFlux extends BaseExternalFlux<TradeDTO> {
 
         // Finding which trades has been updated.
         tradeService.getTrades()
-                .stream().filter(t -> orderRepository.findByOrderId(t.getOrderId()).isPresent())    // We only accept trades with order present in database
+                .stream().filter(t -> lastValues.containsKey(t.getTradeId()) || orderRepository.findByOrderId(t.getOrderId()).isPresent())    // We only accept trades with order present in database
                 .forEach(trade -> {
                     logger.debug("TradeFlux - Treating trade : {}", trade.getTradeId());
-                    final Optional<Trade> tradeInDatabase = tradeRepository.findByTradeId(trade.getTradeId());
-                    if (tradeInDatabase.isEmpty() || !tradeMapper.mapToTradeDTO(tradeInDatabase.get()).equals(trade)) {
+                    final Optional<TradeDTO> tradeInDatabase = getLastValue(trade.getTradeId());
+                    if (tradeInDatabase.isEmpty() || !tradeInDatabase.get().equals(trade)) {
                         logger.debug("TradeFlux - Trade {} has changed : {}", trade.getTradeId(), trade);
                         newValues.add(trade);
                     }
                 });
+        if (!newValues.isEmpty()) {
+            tradePollingPolicy.markActive();
+        }
+
+        // Trades that can't be returned by the exchange anymore are evicted.
+        final ZonedDateTime retentionLimit = ZonedDateTime.now().minus(TRADE_RETENTION);
+        lastValues.values().removeIf(trade -> trade.getTimestamp() != null && trade.getTimestamp().isBefore(retentionLimit));
+        lastEntities.keySet().retainAll(lastValues.keySet());
         logger.debug("TradeFlux - {} trade(s) updated", newValues.size());
         return newValues;
     }
 
     @Override
     public final Optional<TradeDTO> saveValue(final TradeDTO newValue) {
-        AtomicReference<Trade> valueToSave = new AtomicReference<>();
-
-        tradeRepository.findByTradeId(newValue.getTradeId())
-                .ifPresentOrElse(trade -> {
-                    // Update trade.
-                    tradeMapper.updateTrade(newValue, trade);
-                    orderRepository.findByOrderId(newValue.getOrderId())
-                            .ifPresent(order -> trade.setOrder(order.getId()));
-                    valueToSave.set(trade);
-                    logger.debug("TradeFlux - Updating trade in database {}", trade);
-                }, () -> {
-                    // Create trade.
-                    final Trade newTrade = tradeMapper.mapToTrade(newValue);
-                    orderRepository.findByOrderId(newValue.getOrderId())
-                            .ifPresent(order -> newTrade.setOrder(order.getId()));
-                    valueToSave.set(newTrade);
-                    logger.debug("TradeFlux - Creating trade in database {}", newTrade);
-                });
+        // If nothing changed since the last save, the trade is emitted without any database access.
+        final TradeDTO lastValue = lastValues.get(newValue.getTradeId());
+        if (newValue.equals(lastValue)) {
+            logger.debug("TradeFlux - Trade {} unchanged, not saved", newValue.getTradeId());
+            return Optional.of(lastValue);
+        }
+
+        final Trade lastEntity = lastEntities.get(newValue.getTradeId());
+        final Trade savedEntity;
+        if (lastEntity != null) {
+            // Known trade: the entity saved last time is updated (its order can't change).
+            synchronized (lastEntity) {
+                tradeMapper.updateTrade(newValue, lastEntity);
+                logger.debug("TradeFlux - Updating trade in database {}", lastEntity);
+                savedEntity = tradeRepository.save(lastEntity);
+            }
+        } else {
+            AtomicReference<Trade> valueToSave = new AtomicReference<>();
 
-        return Optional.ofNullable(tradeMapper.mapToTradeDTO(tradeRepository.save(valueToSave.get())));
+            tradeRepository.findByTradeId(newValue.getTradeId())
+                    .ifPresentOrElse(trade -> {
+                        // Update trade.
+                        tradeMapper.updateTrade(newValue, trade);
+                        valueToSave.set(trade);
+                        logger.debug("TradeFlux - Updating trade in database {}", trade);
+                    }, () -> {
+                        // Create trade.
+                        final Trade newTrade = tradeMapper.mapToTrade(newValue);
+                        orderRepository.findByOrderId(newValue.getOrderId())
+                                .ifPresent(order -> newTrade.setOrder(order.getId()));
+                        valueToSave.set(newTrade);
+                        logger.debug("TradeFlux - Creating trade in database {}", newTrade);
+                    });
+            savedEntity = tradeRepository.save(valueToSave.get());
+        }
+
+        // Only the id is generated by the database.
+        final TradeDTO savedValue = newValue.toBuilder().id(savedEntity.getId()).build();
+        lastValues.put(savedValue.getTradeId(), savedValue);
+        lastEntities.put(savedValue.getTradeId(), savedEntity);
+        return Optional.of(savedValue);
+    }
+
+    /**
+     * Returns the number of trades retained to detect changes.
+     *
+     * @return number of trades retained
+     */
+    public final int getRetainedTradeCount() {
+        return lastValues.size();
+    }
+
+    /**
+     * Returns the trade as saved in database (only read from database the first time).
+     *
+     * @param tradeId trade id
+     * @return trade
+     */
+    private Optional<TradeDTO> getLastValue(final String tradeId) {
+        final TradeDTO lastValue = lastValues.get(tradeId);
+        if (lastValue != null) {
+            return Optional.of(lastValue);
+        }
+        final Optional<Trade> tradeInDatabase = tradeRepository.findByTradeId(tradeId);
+        if (tradeInDatabase.isEmpty()) {
+            return Optional.empty();
+        }
+        final TradeDTO trade = tradeMapper.mapToTradeDTO(tradeInDatabase.get());
+        lastValues.put(tradeId, trade);
+        lastEntities.put(tradeId, tradeInDatabase.get());
+        return Optional.of(trade);
     }
 
 }
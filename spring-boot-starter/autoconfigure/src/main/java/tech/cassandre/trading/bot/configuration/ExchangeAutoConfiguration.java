@@ -4,6 +4,7 @@ import org.apache.commons.lang3.math.NumberUtils;
 import org.knowm.xchange.Exchange;
 import org.knowm.xchange.ExchangeFactory;
 import org.knowm.xchange.ExchangeSpecification;
+import org.knowm.xchange.coinbasepro.service.CoinbaseProMarketDataServiceRaw;
 import org.knowm.xchange.service.account.AccountService;
 import org.knowm.xchange.service.marketdata.MarketDataService;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -33,10 +34,19 @@ import tech.cassandre.trading.bot.service.xchange.MarketServiceXChangeImplementa
 import tech.cassandre.trading.bot.service.xchange.TradeServiceXChangeImplementation;
 import tech.cassandre.trading.bot.service.xchange.UserServiceXChangeImplementation;
 import tech.cassandre.trading.bot.util.base.configuration.BaseConfiguration;
+import tech.cassandre.trading.bot.util.candle.CandleProvider;
+import tech.cassandre.trading.bot.util.candle.CoinbaseProCandleProvider;
 import tech.cassandre.trading.bot.util.exception.ConfigurationException;
+import tech.cassandre.trading.bot.util.journal.EventJournal;
+import tech.cassandre.trading.bot.util.limiter.ExchangeRateLimiter;
 import tech.cassandre.trading.bot.util.parameters.ExchangeParameters;
+import tech.cassandre.trading.bot.util.parameters.JournalParameters;
+import tech.cassandre.trading.bot.util.polling.TradePollingPolicy;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.StringJoiner;
@@ -45,7 +55,7 @@ import java.util.StringJoiner;
  * ExchangeConfiguration configures the exchange connection.
  */
 @Configuration
-@EnableConfigurationProperties(ExchangeParameters.class)
+@EnableConfigurationProperties({ExchangeParameters.class, JournalParameters.class})
 public class ExchangeAutoConfiguration extends BaseConfiguration {
 
     /** XChange user sandbox parameter. */
@@ -63,6 +73,12 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
     /** Exchange parameters. */
     private final ExchangeParameters exchangeParameters;
 
+    /** Journal parameters. */
+    private final JournalParameters journalParameters;
+
+    /** Event journal (null if disabled). */
+    private EventJournal eventJournal;
+
     /** Exchange service. */
     private ExchangeService exchangeService;
 
@@ -75,6 +91,9 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
     /** Trade service. */
     private TradeService tradeService;
 
+    /** Trade polling policy. */
+    private TradePollingPolicy tradePollingPolicy;
+
     /** Account flux. */
     private AccountFlux accountFlux;
 
@@ -107,6 +126,7 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
      *
      * @param newApplicationContext        application context
      * @param newExchangeParameters        exchange parameters
+     * @param newJournalParameters         journal parameters
      * @param newExchangeAccountRepository exchange account repository
      * @param newOrderRepository           order repository
      * @param newTradeRepository           trade repository
@@ -114,12 +134,14 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
      */
     public ExchangeAutoConfiguration(final ApplicationContext newApplicationContext,
                                      final ExchangeParameters newExchangeParameters,
+                                     final JournalParameters newJournalParameters,
                                      final ExchangeAccountRepository newExchangeAccountRepository,
                                      final OrderRepository newOrderRepository,
                                      final TradeRepository newTradeRepository,
                                      final PositionRepository newPositionRepository) {
         this.applicationContext = newApplicationContext;
         this.exchangeParameters = newExchangeParameters;
+        this.journalParameters = newJournalParameters;
         this.exchangeAccountRepository = newExchangeAccountRepository;
         this.orderRepository = newOrderRepository;
         this.tradeRepository = newTradeRepository;
@@ -161,6 +183,16 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
             long accountRate = getRateValue(exchangeParameters.getRates().getAccount());
             long tickerRate = getRateValue(exchangeParameters.getRates().getTicker());
             long tradeRate = getRateValue(exchangeParameters.getRates().getTrade());
+            long tradeIdleRate = getRateValue(exchangeParameters.getRates().getTradeIdle());
+
+            // Creates the rate limiter shared by all services calling the exchange.
+            final ExchangeRateLimiter rateLimiter = getRateLimiter();
+
+            // Creates the provider of historical candles.
+            final CandleProvider candleProvider = getCandleProvider(xChangeMarketDataService);
+
+            // Creates the policy deciding when orders and trades are polled (the dry mode trade service pushes them).
+            tradePollingPolicy = new TradePollingPolicy(Duration.ofMillis(tradeIdleRate));
 
             // Creates Cassandre services.
             UserServiceDryModeImplementation userServiceDryMode;
@@ -169,25 +201,25 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
                 // Normal mode.
                 logger.info("ExchangeConfiguration - Dry mode is OFF");
                 this.exchangeService = new ExchangeServiceXChangeImplementation(xChangeExchange);
-                this.userService = new UserServiceXChangeImplementation(accountRate, xChangeAccountService);
-                this.marketService = new MarketServiceXChangeImplementation(tickerRate, xChangeMarketDataService);
-                this.tradeService = new TradeServiceXChangeImplementation(tradeRate, orderRepository, xChangeTradeService);
+                this.userService = new UserServiceXChangeImplementation(accountRate, rateLimiter, xChangeAccountService);
+                this.marketService = new MarketServiceXChangeImplementation(tickerRate, rateLimiter, xChangeMarketDataService, candleProvider);
+                this.tradeService = new TradeServiceXChangeImplementation(tradeRate, rateLimiter, tradePollingPolicy, orderRepository, xChangeTradeService);
             } else {
                 // Dry mode.
                 logger.info("ExchangeConfiguration - Dry mode is ON");
                 this.exchangeService = new ExchangeServiceDryModeImplementation(applicationContext);
                 userServiceDryMode = new UserServiceDryModeImplementation();
                 this.userService = userServiceDryMode;
-                this.marketService = new MarketServiceXChangeImplementation(tickerRate, xChangeMarketDataService);
-                tradeServiceDryMode = new TradeServiceDryModeImplementation(userServiceDryMode, tradeRepository, orderRepository);
+                this.marketService = new MarketServiceXChangeImplementation(tickerRate, rateLimiter, xChangeMarketDataService, candleProvider);
+                tradeServiceDryMode = new TradeServiceDryModeImplementation(userServiceDryMode, tradeRepository, orderRepository, getRateValue(exchangeParameters.getModes().getDryLatency()));
                 this.tradeService = tradeServiceDryMode;
             }
 
             // Creates Cassandre flux.
             accountFlux = new AccountFlux(userService);
             tickerFlux = new TickerFlux(marketService);
-            orderFlux = new OrderFlux(tradeService, orderRepository);
-            tradeFlux = new TradeFlux(tradeService, orderRepository, tradeRepository);
+            orderFlux = new OrderFlux(tradeService, orderRepository, tradePollingPolicy);
+            tradeFlux = new TradeFlux(tradeService, orderRepository, tradeRepository, tradePollingPolicy);
             positionFlux = new PositionFlux(positionRepository, orderRepository);
 
             // Force login to check credentials.
@@ -230,6 +262,40 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
         } catch (Exception e) {
             throw new ConfigurationException("Unknown configuration error : " + e.getMessage());
         }
+
+        // Creates the event journal if required.
+        configureJournal();
+    }
+
+    /**
+     * Creates the event journal and sets it on all flux (if the journal is enabled).
+     */
+    private void configureJournal() {
+        if (!journalParameters.getEnabled()) {
+            return;
+        }
+        try {
+            eventJournal = new EventJournal(Path.of(journalParameters.getDirectory()), journalParameters.getSegmentSize());
+            accountFlux.setJournal(eventJournal);
+            tickerFlux.setJournal(eventJournal);
+            orderFlux.setJournal(eventJournal);
+            tradeFlux.setJournal(eventJournal);
+            positionFlux.setJournal(eventJournal);
+            logger.info("ExchangeConfiguration - Event journal is ON ({})", journalParameters.getDirectory());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ConfigurationException("Impossible to create the event journal in " + journalParameters.getDirectory() + " : " + e.getMessage(),
+                    "Check that " + JournalParameters.PARAMETER_JOURNAL_DIRECTORY + " is a writable directory and " + JournalParameters.PARAMETER_JOURNAL_SEGMENT_SIZE + " is lower than 2 GB");
+        }
+    }
+
+    /**
+     * Closes the event journal.
+     */
+    @PreDestroy
+    public void closeJournal() {
+        if (eventJournal != null) {
+            eventJournal.close();
+        }
     }
 
     /**
@@ -256,6 +322,42 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
                 .concat(xChangeCLassSuffix);                                            // Adding exchange (Exchange).
     }
 
+    /**
+     * Returns the rate limiter shared by all services calling the exchange.
+     *
+     * @return rate limiter (without limit if not configured)
+     */
+    private ExchangeRateLimiter getRateLimiter() {
+        final ExchangeParameters.RateLimit rateLimit = exchangeParameters.getRateLimit();
+        if (rateLimit != null && rateLimit.getRequests() != null) {
+            logger.info("ExchangeConfiguration - Exchange limit is {} request(s) every {}", rateLimit.getRequests(), rateLimit.getPeriod());
+            return new ExchangeRateLimiter(rateLimit.getRequests(), Duration.ofMillis(getRateValue(rateLimit.getPeriod())));
+        } else {
+            return new ExchangeRateLimiter();
+        }
+    }
+
+    /**
+     * Returns the provider of historical candles: the candle provider bean declared by the application if any, else the
+     * provider of the exchange if Cassandre has one.
+     *
+     * @param xChangeMarketDataService XChange market data service
+     * @return candle provider (null if none, candles will be built from trades)
+     */
+    private CandleProvider getCandleProvider(final MarketDataService xChangeMarketDataService) {
+        final CandleProvider candleProvider = applicationContext.getBeanProvider(CandleProvider.class).getIfAvailable();
+        if (candleProvider != null) {
+            logger.info("ExchangeConfiguration - Historical candles retrieved with {}", candleProvider.getClass().getSimpleName());
+            return candleProvider;
+        }
+        if (xChangeMarketDataService instanceof CoinbaseProMarketDataServiceRaw) {
+            logger.info("ExchangeConfiguration - Historical candles retrieved with Coinbase Pro candles API");
+            return new CoinbaseProCandleProvider((CoinbaseProMarketDataServiceRaw) xChangeMarketDataService);
+        }
+        logger.info("ExchangeConfiguration - No candle provider for this exchange, historical candles will be built from trades");
+        return null;
+    }
+
     /**
      * Return rate value in ms.
      *
@@ -310,6 +412,16 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
         return tradeService;
     }
 
+    /**
+     * Getter for tradePollingPolicy.
+     *
+     * @return tradePollingPolicy
+     */
+    @Bean
+    public TradePollingPolicy getTradePollingPolicy() {
+        return tradePollingPolicy;
+    }
+
     /**
      * Getter for accountFlux.
      *
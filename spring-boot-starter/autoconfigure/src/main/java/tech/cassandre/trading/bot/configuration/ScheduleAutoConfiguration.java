@@ -8,6 +8,9 @@ import tech.cassandre.trading.bot.batch.AccountFlux;
 import tech.cassandre.trading.bot.batch.OrderFlux;
 import tech.cassandre.trading.bot.batch.TickerFlux;
 import tech.cassandre.trading.bot.batch.TradeFlux;
+import tech.cassandre.trading.bot.service.TradeService;
+import tech.cassandre.trading.bot.service.dry.TradeServiceDryModeImplementation;
+import tech.cassandre.trading.bot.util.polling.TradePollingPolicy;
 
 import javax.annotation.PreDestroy;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -35,22 +38,35 @@ public class ScheduleAutoConfiguration {
     /** Trade flux. */
     private final TradeFlux tradeFlux;
 
+    /** Trade polling policy. */
+    private final TradePollingPolicy tradePollingPolicy;
+
+    /** True if orders and trades are pushed to flux by the trade service (they are never polled). */
+    private final boolean tradePushed;
+
     /**
      * Constructor.
      *
-     * @param newAccountFlux account flux
-     * @param newTickerFlux  ticker flux
-     * @param newOrderFlux   order flux
-     * @param newTradeFlux   trade flux
+     * @param newAccountFlux        account flux
+     * @param newTickerFlux         ticker flux
+     * @param newOrderFlux          order flux
+     * @param newTradeFlux          trade flux
+     * @param newTradePollingPolicy trade polling policy
+     * @param newTradeService       trade service
      */
     public ScheduleAutoConfiguration(final AccountFlux newAccountFlux,
                                      final TickerFlux newTickerFlux,
                                      final OrderFlux newOrderFlux,
-                                     final TradeFlux newTradeFlux) {
+                                     final TradeFlux newTradeFlux,
+                                     final TradePollingPolicy newTradePollingPolicy,
+                                     final TradeService newTradeService) {
         this.accountFlux = newAccountFlux;
         this.tickerFlux = newTickerFlux;
         this.orderFlux = newOrderFlux;
         this.tradeFlux = newTradeFlux;
+        this.tradePollingPolicy = newTradePollingPolicy;
+        // Only the dry mode trade service pushes its orders and trades (a replaced trade service is polled).
+        this.tradePushed = newTradeService instanceof TradeServiceDryModeImplementation;
     }
 
     /**
@@ -74,11 +90,12 @@ public class ScheduleAutoConfiguration {
     }
 
     /**
-     * Recurrent calls the trade flux.
+     * Recurrent calls the trade flux (only from time to time if there is no open order and no recent trade).
+     * Orders and trades pushed by the dry mode trade service are not polled.
      */
     @Scheduled(fixedDelay = 1)
     public void tradeFluxUpdate() {
-        if (enabled.get()) {
+        if (enabled.get() && !tradePushed && tradePollingPolicy.shouldPoll()) {
             orderFlux.update();
             tradeFlux.update();
         }
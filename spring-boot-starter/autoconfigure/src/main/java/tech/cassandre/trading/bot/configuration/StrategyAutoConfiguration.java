@@ -1,5 +1,6 @@
 package tech.cassandre.trading.bot.configuration;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,17 +12,20 @@ import tech.cassandre.trading.bot.batch.TickerFlux;
 import tech.cassandre.trading.bot.batch.TradeFlux;
 import tech.cassandre.trading.bot.domain.ExchangeAccount;
 import tech.cassandre.trading.bot.domain.Strategy;
+import tech.cassandre.trading.bot.dto.market.CandleDTO;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.position.PositionDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderDTO;
 import tech.cassandre.trading.bot.dto.trade.TradeDTO;
 import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceUpdateDTO;
 import tech.cassandre.trading.bot.dto.user.UserDTO;
 import tech.cassandre.trading.bot.repository.ExchangeAccountRepository;
 import tech.cassandre.trading.bot.repository.OrderRepository;
 import tech.cassandre.trading.bot.repository.PositionRepository;
 import tech.cassandre.trading.bot.repository.StrategyRepository;
 import tech.cassandre.trading.bot.repository.TradeRepository;
+import tech.cassandre.trading.bot.service.MarketService;
 import tech.cassandre.trading.bot.service.PositionService;
 import tech.cassandre.trading.bot.service.TradeService;
 import tech.cassandre.trading.bot.service.UserService;
@@ -34,15 +38,24 @@ import tech.cassandre.trading.bot.strategy.CassandreStrategy;
 import tech.cassandre.trading.bot.strategy.CassandreStrategyInterface;
 import tech.cassandre.trading.bot.strategy.GenericCassandreStrategy;
 import tech.cassandre.trading.bot.util.base.configuration.BaseConfiguration;
+import tech.cassandre.trading.bot.util.bus.BusEventType;
+import tech.cassandre.trading.bot.util.bus.EventBus;
 import tech.cassandre.trading.bot.util.exception.ConfigurationException;
+import tech.cassandre.trading.bot.util.ledger.LocalBalanceLedger;
+import tech.cassandre.trading.bot.util.parameters.EventBusParameters;
 import tech.cassandre.trading.bot.util.parameters.ExchangeParameters;
+import tech.cassandre.trading.bot.util.ticker.TickerDeliveryPolicy;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.StringJoiner;
 
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENING_FAILURE;
 import static tech.cassandre.trading.bot.dto.strategy.StrategyTypeDTO.BASIC_STRATEGY;
 import static tech.cassandre.trading.bot.dto.strategy.StrategyTypeDTO.BASIC_TA4J_STRATEGY;
 
@@ -50,6 +63,7 @@ import static tech.cassandre.trading.bot.dto.strategy.StrategyTypeDTO.BASIC_TA4J
  * StrategyAutoConfiguration configures the strategy.
  */
 @Configuration
+@EnableConfigurationProperties(EventBusParameters.class)
 public class StrategyAutoConfiguration extends BaseConfiguration {
 
     /** Application context. */
@@ -67,6 +81,9 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
     /** User service. */
     private final UserService userService;
 
+    /** Market service. */
+    private final MarketService marketService;
+
     /** Account flux. */
     private final AccountFlux accountFlux;
 
@@ -97,12 +114,22 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
     /** Position flux. */
     private final PositionFlux positionFlux;
 
+    /** Event bus parameters. */
+    private final EventBusParameters eventBusParameters;
+
+    /** Event bus (null if flux are used). */
+    private EventBus eventBus;
+
+    /** Strategy running. */
+    private CassandreStrategyInterface runningStrategy;
+
     /**
      * Constructor.
      *
      * @param newApplicationContext        application context
      * @param newExchangeParameters        exchange parameters
      * @param newUserService               user service
+     * @param newMarketService             market service
      * @param newTradeService              trade service
      * @param newAccountFlux               account flux
      * @param newTickerFlux                ticker flux
@@ -114,11 +141,13 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
      * @param newTradeRepository           trade repository
      * @param newPositionRepository        position repository
      * @param newPositionFlux              position flux
+     * @param newEventBusParameters        event bus parameters
      */
     @SuppressWarnings("checkstyle:ParameterNumber")
     public StrategyAutoConfiguration(final ApplicationContext newApplicationContext,
                                      final ExchangeParameters newExchangeParameters,
                                      final UserService newUserService,
+                                     final MarketService newMarketService,
                                      final TradeService newTradeService,
                                      final AccountFlux newAccountFlux,
                                      final TickerFlux newTickerFlux,
@@ -129,10 +158,12 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
                                      final OrderRepository newOrderRepository,
                                      final TradeRepository newTradeRepository,
                                      final PositionRepository newPositionRepository,
-                                     final PositionFlux newPositionFlux) {
+                                     final PositionFlux newPositionFlux,
+                                     final EventBusParameters newEventBusParameters) {
         this.applicationContext = newApplicationContext;
         this.exchangeParameters = newExchangeParameters;
         this.userService = newUserService;
+        this.marketService = newMarketService;
         this.tradeService = newTradeService;
         this.accountFlux = newAccountFlux;
         this.tickerFlux = newTickerFlux;
@@ -144,6 +175,7 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
         this.tradeRepository = newTradeRepository;
         this.positionRepository = newPositionRepository;
         this.positionFlux = newPositionFlux;
+        this.eventBusParameters = newEventBusParameters;
     }
 
     /**
@@ -197,6 +229,7 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
         // =============================================================================================================
         // Getting strategy information.
         CassandreStrategyInterface strategy = (CassandreStrategyInterface) o;
+        runningStrategy = strategy;
 
         // Displaying strategy name.
         CassandreStrategy cassandreStrategyAnnotation = o.getClass().getAnnotation(CassandreStrategy.class);
@@ -209,7 +242,10 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
 
         // =============================================================================================================
         // Setting up position service.
-        this.positionService = new PositionServiceImplementation(positionRepository, tradeService, positionFlux);
+        this.positionService = new PositionServiceImplementation(positionRepository, tradeService, positionFlux, cassandreStrategyAnnotation.nativeStopOrders());
+        if (cassandreStrategyAnnotation.nativeStopOrders()) {
+            logger.info("StrategyConfiguration - Positions protected on the exchange by native stop or limit orders");
+        }
 
         // =============================================================================================================
         // Setting up strategy.
@@ -248,12 +284,93 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
         strategy.setTradeService(tradeService);
         strategy.setPositionService(positionService);
         strategy.setPositionRepository(positionRepository);
+        // Batch callbacks.
+        if (cassandreStrategyAnnotation.maximumBatchSize() > 0) {
+            if (cassandreStrategyAnnotation.maximumBatchLinger() <= 0) {
+                throw new ConfigurationException("Invalid maximum batch linger in @CassandreStrategy",
+                        "maximumBatchLinger must be positive when maximumBatchSize is set");
+            }
+            strategy.setEventBatching(cassandreStrategyAnnotation.maximumBatchSize(), cassandreStrategyAnnotation.maximumBatchLinger());
+            logger.info("StrategyConfiguration - Batch callbacks enabled (maximum {} events, {} ms)",
+                    cassandreStrategyAnnotation.maximumBatchSize(),
+                    cassandreStrategyAnnotation.maximumBatchLinger());
+        }
+        // Local balance ledger (in dry mode, balances are already updated locally by the user service).
+        if (cassandreStrategyAnnotation.localBalanceLedger() && !(userService instanceof UserServiceDryModeImplementation)) {
+            strategy.setLocalBalanceLedger(new LocalBalanceLedger());
+            logger.info("StrategyConfiguration - Local balance ledger enabled");
+        }
+
+        // If the strategy uses ta4j, we preload its series with historical candles before receiving tickers.
+        if (strategy instanceof BasicTa4jCassandreStrategy) {
+            final BasicTa4jCassandreStrategy ta4jStrategy = (BasicTa4jCassandreStrategy) strategy;
+            final Set<CandleDTO> candles = marketService.getCandles(ta4jStrategy.getRequestedCurrencyPair(),
+                    ta4jStrategy.getDelayBetweenTwoBars(),
+                    ta4jStrategy.getMaximumBarCount());
+            if (candles != null) {
+                ta4jStrategy.initializeSeries(candles);
+            }
+            if (ta4jStrategy.getSeries().getBarCount() < ta4jStrategy.getMaximumBarCount()) {
+                // The exchange history doesn't cover the series, indicators will need live tickers to be reliable.
+                logger.warn("StrategyConfiguration - Only {} bar(s) of {} loaded in the series",
+                        ta4jStrategy.getSeries().getBarCount(),
+                        ta4jStrategy.getMaximumBarCount());
+            } else {
+                logger.info("StrategyConfiguration - {} bar(s) loaded in the series", ta4jStrategy.getSeries().getBarCount());
+            }
+        }
+
+        // Requested tickers and tickers of the positions not closed (they can change at runtime).
+        tickerFlux.updateRequestedCurrencyPairs(strategy.getRequestedCurrencyPairs());
+        positionService.getPositions()
+                .stream()
+                .filter(position -> position.getStatus() != CLOSED && position.getStatus() != OPENING_FAILURE)
+                .forEach(position -> tickerFlux.subscribePosition(position.getId(), position.getCurrencyPair()));
+        strategy.setTickerFlux(tickerFlux);
+
+        // Tickers delivered to the strategy.
+        if (cassandreStrategyAnnotation.minimumTickerInterval() < 0 || cassandreStrategyAnnotation.minimumTickerPriceChange() < 0) {
+            throw new ConfigurationException("Invalid ticker delivery policy in @CassandreStrategy",
+                    "minimumTickerInterval and minimumTickerPriceChange can't be negative");
+        }
+        final TickerDeliveryPolicy tickerDeliveryPolicy = new TickerDeliveryPolicy(cassandreStrategyAnnotation.minimumTickerInterval(),
+                cassandreStrategyAnnotation.minimumTickerPriceChange());
+        if (!tickerDeliveryPolicy.isDeliveringEveryTicker()) {
+            strategy.setTickerDeliveryPolicy(tickerDeliveryPolicy);
+            logger.info("StrategyConfiguration - Tickers delivered to the strategy at most every {} ms and on price changes of at least {} bps",
+                    cassandreStrategyAnnotation.minimumTickerInterval(),
+                    cassandreStrategyAnnotation.minimumTickerPriceChange());
+        }
+
+        // Values sent by flux or by the event bus.
+        if (eventBusParameters.getEnabled()) {
+            configureEventBus(strategy);
+        } else {
+            configureFlux(strategy);
+        }
+
+        // If in dry mode, we setup dependencies.
+        if (userService instanceof UserServiceDryModeImplementation) {
+            ((UserServiceDryModeImplementation) userService).setDependencies((GenericCassandreStrategy) strategy);
+        }
+    }
 
+    /**
+     * Sends flux values to the strategy and to the position service with connectable flux.
+     *
+     * @param strategy strategy
+     */
+    private void configureFlux(final CassandreStrategyInterface strategy) {
         // Account flux.
         final ConnectableFlux<AccountDTO> connectableAccountFlux = accountFlux.getFlux().publish();
         connectableAccountFlux.subscribe(strategy::accountUpdate);          // For strategy.
         connectableAccountFlux.connect();
 
+        // Balance flux (balances that changed in accounts).
+        final ConnectableFlux<BalanceUpdateDTO> connectableBalanceFlux = accountFlux.getBalanceFlux().publish();
+        connectableBalanceFlux.subscribe(strategy::balanceUpdate);          // For strategy.
+        connectableBalanceFlux.connect();
+
         // Position flux.
         final ConnectableFlux<PositionDTO> connectablePositionFlux = positionFlux.getFlux().publish();
         connectablePositionFlux.subscribe(strategy::positionUpdate);        // For strategy.
@@ -272,7 +389,6 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
         connectableTradeFlux.connect();
 
         // Ticker flux.
-        tickerFlux.updateRequestedCurrencyPairs(strategy.getRequestedCurrencyPairs());
         final ConnectableFlux<TickerDTO> connectableTickerFlux = tickerFlux.getFlux().publish();
         // if in dry mode, we also send the ticker to the trade service in dry mode.
         if (tradeService instanceof TradeServiceDryModeImplementation) {
@@ -281,10 +397,62 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
         connectableTickerFlux.subscribe(strategy::tickerUpdate);            // For strategy.
         connectableTickerFlux.subscribe(positionService::tickerUpdate);     // For position service.
         connectableTickerFlux.connect();
+    }
 
-        // If in dry mode, we setup dependencies.
-        if (userService instanceof UserServiceDryModeImplementation) {
-            ((UserServiceDryModeImplementation) userService).setDependencies((GenericCassandreStrategy) strategy);
+    /**
+     * Sends flux values to the strategy and to the position service with the event bus.
+     * Each consumer has its own thread and receives the events of all flux in a single global order.
+     *
+     * @param strategy strategy
+     */
+    private void configureEventBus(final CassandreStrategyInterface strategy) {
+        eventBus = new EventBus(eventBusParameters.getSize());
+
+        // For strategy (all events, in global sequence order).
+        eventBus.addConsumer("strategy", (sequence, type, event) -> {
+            // if in dry mode, we also send the ticker to the trade service in dry mode.
+            if (type == BusEventType.TICKER && tradeService instanceof TradeServiceDryModeImplementation) {
+                ((TradeServiceDryModeImplementation) tradeService).tickerUpdate((TickerDTO) event);
+            }
+            strategy.eventUpdate(sequence, type, event);
+        });
+
+        // For position service.
+        eventBus.addConsumer("position-service", (sequence, type, event) -> {
+            switch (type) {
+                case TICKER:
+                    positionService.tickerUpdate((TickerDTO) event);
+                    break;
+                case ORDER:
+                    positionService.orderUpdate((OrderDTO) event);
+                    break;
+                case TRADE:
+                    positionService.tradeUpdate((TradeDTO) event);
+                    break;
+                default:
+                    break;
+            }
+        });
+
+        accountFlux.setEventBus(eventBus);
+        tickerFlux.setEventBus(eventBus);
+        orderFlux.setEventBus(eventBus);
+        tradeFlux.setEventBus(eventBus);
+        positionFlux.setEventBus(eventBus);
+        eventBus.start();
+        logger.info("StrategyConfiguration - Events delivered with the event bus ({} slots)", eventBusParameters.getSize());
+    }
+
+    /**
+     * Stops the event bus and delivers the events waiting in batches.
+     */
+    @PreDestroy
+    public void closeEventBus() {
+        if (eventBus != null) {
+            eventBus.close();
+        }
+        if (runningStrategy != null) {
+            runningStrategy.stopEventBatching();
         }
     }
 
@@ -97,6 +97,10 @@ public class Position extends BaseDomain {
     @JoinColumn(name = "FK_CLOSING_ORDER_ID")
     private Order closingOrder;
 
+    /** The order id placed on the exchange to protect the position. */
+    @Column(name = "PROTECTIVE_ORDER_ID")
+    private String protectiveOrderId;
+
     /** Lowest price reached by tis position. */
     @Embedded
     @AttributeOverrides({
@@ -143,6 +147,7 @@ public class Position extends BaseDomain {
                 .append(this.openingOrder, that.openingOrder)
                 .append(this.closingOrderId, that.closingOrderId)
                 .append(this.closingOrder, that.closingOrder)
+                .append(this.protectiveOrderId, that.protectiveOrderId)
                 .append(this.lowestPrice, that.lowestPrice)
                 .append(this.highestPrice, that.highestPrice)
                 .append(this.latestPrice, that.latestPrice)
@@ -0,0 +1,69 @@
+package tech.cassandre.trading.bot.dto.market;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.util.java.EqualsBuilder;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * DTO representing a candle (also called kline or bar).
+ * A candle summarizes the prices and the volume traded on a currency pair during a fixed period of time.
+ */
+@Value
+@Builder
+@AllArgsConstructor(access = PRIVATE)
+@SuppressWarnings("checkstyle:VisibilityModifier")
+public class CandleDTO {
+
+    /** Currency pair. */
+    CurrencyPairDTO currencyPair;
+
+    /** Start time of the candle period. */
+    ZonedDateTime timestamp;
+
+    /** Opening price - price of the first trade of the period. */
+    BigDecimal open;
+
+    /** Highest price of the period. */
+    BigDecimal high;
+
+    /** Lowest price of the period. */
+    BigDecimal low;
+
+    /** Closing price - price of the last trade of the period. */
+    BigDecimal close;
+
+    /** Volume traded during the period. */
+    BigDecimal volume;
+
+    @Override
+    public final boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CandleDTO that = (CandleDTO) o;
+        return new EqualsBuilder()
+                .append(this.currencyPair, that.currencyPair)
+                .append(this.timestamp, that.timestamp)
+                .isEquals();
+    }
+
+    @Override
+    public final int hashCode() {
+        return new HashCodeBuilder()
+                .append(currencyPair)
+                .append(timestamp)
+                .toHashCode();
+    }
+
+}
@@ -37,7 +37,7 @@ import static tech.cassandre.trading.bot.dto.position.PositionTypeDTO.LONG;
  * A position is the amount of a security, commodity or currency which is owned by an individual, dealer, institution, or other fiscal entity.
  */
 @Getter
-@Builder
+@Builder(toBuilder = true)
 @ToString
 @AllArgsConstructor(access = PRIVATE)
 @SuppressWarnings("checkstyle:VisibilityModifier")
@@ -79,6 +79,9 @@ public class PositionDTO {
     /** The order created to close the position. */
     private OrderDTO closingOrder;
 
+    /** The order id placed on the exchange to protect the position (null if none). */
+    private String protectiveOrderId;
+
     /** Lowest price reached by tis position. */
     private CurrencyAmountDTO lowestPrice;
 
@@ -170,14 +173,14 @@ public class PositionDTO {
      */
     public final boolean orderUpdate(final OrderDTO updatedOrder) {
         if (openingOrderId.equals(updatedOrder.getOrderId())) {
-            this.openingOrder = updatedOrder;
+            this.openingOrder = withKnownTrades(updatedOrder, openingOrder);
             if (updatedOrder.getStatus().isInError()) {
                 this.status = OPENING_FAILURE;
             }
             return true;
         }
         if (closingOrderId != null && closingOrderId.equals(updatedOrder.getOrderId())) {
-            this.closingOrder = updatedOrder;
+            this.closingOrder = withKnownTrades(updatedOrder, closingOrder);
             if (updatedOrder.getStatus().isInError()) {
                 this.status = CLOSING_FAILURE;
             }
@@ -186,6 +189,24 @@ public class PositionDTO {
         return false;
     }
 
+    /**
+     * Returns an updated order with the trades of the current order if the update doesn't have trades.
+     * Order updates from the exchange don't have trades, they are received with trade updates.
+     *
+     * @param updatedOrder updated order
+     * @param currentOrder current order (null if none)
+     * @return updated order
+     */
+    private static OrderDTO withKnownTrades(final OrderDTO updatedOrder, final OrderDTO currentOrder) {
+        if (currentOrder == null
+                || currentOrder.getTrades() == null
+                || currentOrder.getTrades().isEmpty()
+                || (updatedOrder.getTrades() != null && !updatedOrder.getTrades().isEmpty())) {
+            return updatedOrder;
+        }
+        return updatedOrder.toBuilder().clearTrades().trades(currentOrder.getTrades()).build();
+    }
+
     /**
      * Method called by on every trade update.
      *
@@ -276,11 +297,28 @@ public class PositionDTO {
      * @return true if the rules says the position should be closed.
      */
     public boolean shouldBeClosed() {
-        final Optional<GainDTO> latestCalculatedGain = getLatestCalculatedGain();
         // Returns true if one of the rule is triggered.
-        return latestCalculatedGain.filter(gainDTO -> rules.isStopGainPercentageSet() && gainDTO.getPercentage() >= rules.getStopGainPercentage()
-                || rules.isStopLossPercentageSet() && gainDTO.getPercentage() <= -rules.getStopLossPercentage())
-                .isPresent();
+        return isStopGainTriggered() || isStopLossTriggered();
+    }
+
+    /**
+     * Returns true if the latest price triggers the stop gain rule.
+     *
+     * @return true if the stop gain percentage is reached
+     */
+    public final boolean isStopGainTriggered() {
+        return rules.isStopGainPercentageSet()
+                && getLatestCalculatedGain().filter(gainDTO -> gainDTO.getPercentage() >= rules.getStopGainPercentage()).isPresent();
+    }
+
+    /**
+     * Returns true if the latest price triggers the stop loss rule.
+     *
+     * @return true if the stop loss percentage is reached
+     */
+    public final boolean isStopLossTriggered() {
+        return rules.isStopLossPercentageSet()
+                && getLatestCalculatedGain().filter(gainDTO -> gainDTO.getPercentage() <= -rules.getStopLossPercentage()).isPresent();
     }
 
     /**
@@ -297,6 +335,15 @@ public class PositionDTO {
         status = CLOSING;
     }
 
+    /**
+     * Setter protectiveOrderId.
+     *
+     * @param newProtectiveOrderId the protectiveOrderId to set (null if the position is not protected anymore)
+     */
+    public final void setProtectiveOrderId(final String newProtectiveOrderId) {
+        protectiveOrderId = newProtectiveOrderId;
+    }
+
     /**
      * Getter lowestCalculatedGain.
      *
@@ -418,6 +465,7 @@ public class PositionDTO {
                 .append(this.openingOrderId, that.openingOrderId)
                 .append(this.closingOrder, that.closingOrder)
                 .append(this.closingOrderId, that.closingOrderId)
+                .append(this.protectiveOrderId, that.protectiveOrderId)
                 .append(this.lowestPrice, that.lowestPrice)
                 .append(this.highestPrice, that.highestPrice)
                 .append(this.latestPrice, that.latestPrice)
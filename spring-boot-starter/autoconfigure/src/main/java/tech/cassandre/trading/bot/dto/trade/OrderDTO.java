@@ -21,7 +21,7 @@ import static lombok.AccessLevel.PRIVATE;
  * A market order is a request by an investor to buy or sell in the current market.
  */
 @Value
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor(access = PRIVATE)
 @SuppressWarnings("checkstyle:VisibilityModifier")
 public class OrderDTO {
@@ -35,7 +35,7 @@ import static lombok.AccessLevel.PRIVATE;
  * price * amount = 0.034797 * 0.004
  */
 @Value
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor(access = PRIVATE)
 @SuppressWarnings("checkstyle:VisibilityModifier")
 public class TradeDTO {
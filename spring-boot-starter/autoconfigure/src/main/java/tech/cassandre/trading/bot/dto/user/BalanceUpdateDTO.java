@@ -0,0 +1,67 @@
+package tech.cassandre.trading.bot.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.util.java.EqualsBuilder;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * DTO representing the change of one balance of an {@link AccountDTO}.
+ */
+@Value
+@Builder
+@AllArgsConstructor(access = PRIVATE)
+@SuppressWarnings("checkstyle:VisibilityModifier")
+public class BalanceUpdateDTO {
+
+    /** Account id. */
+    String accountId;
+
+    /** Currency. */
+    CurrencyDTO currency;
+
+    /** Previous balance (null if the balance is new). */
+    BalanceDTO previousBalance;
+
+    /** New balance (null if the balance has been removed). */
+    BalanceDTO balance;
+
+    /**
+     * Returns true if the balance has been removed from the account.
+     *
+     * @return true if removed
+     */
+    public boolean isRemoved() {
+        return balance == null;
+    }
+
+    @Override
+    public final boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final BalanceUpdateDTO that = (BalanceUpdateDTO) o;
+        return new EqualsBuilder()
+                .append(this.accountId, that.accountId)
+                .append(this.currency, that.currency)
+                .append(this.previousBalance, that.previousBalance)
+                .append(this.balance, that.balance)
+                .isEquals();
+    }
+
+    @Override
+    public final int hashCode() {
+        return new HashCodeBuilder()
+                .append(accountId)
+                .append(currency)
+                .toHashCode();
+    }
+
+}
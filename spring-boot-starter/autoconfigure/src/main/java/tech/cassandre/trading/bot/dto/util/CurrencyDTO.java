@@ -3,21 +3,26 @@ package tech.cassandre.trading.bot.dto.util;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Currency.
+ * Instances returned by {@link #getInstance(String)} are canonical: the same instance is always returned for a code.
+ * Each currency has a compact id (shared by its alternative codes) that can be used as an array index.
  */
 @SuppressWarnings("unused")
 public final class CurrencyDTO implements Serializable {
 
     /** List of currencies. */
-    private static final Map<String, CurrencyDTO> CURRENCIES = new HashMap<>();
+    private static final Map<String, CurrencyDTO> CURRENCIES = new ConcurrentHashMap<>();
+
+    /** Next currency id. */
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
 
     /** United Arab Emirates Dirham. */
     public static final CurrencyDTO AED = createCurrency("AED", "United Arab Emirates Dirham", null);
@@ -916,8 +921,13 @@ public final class CurrencyDTO implements Serializable {
      * @return currency
      */
     public static CurrencyDTO getInstance(final String currencyCode) {
-        CurrencyDTO currency = getInstanceNoCreate(currencyCode.toUpperCase());
-        return Objects.requireNonNullElseGet(currency, () -> createCurrency(currencyCode.toUpperCase(), null, null));
+        final CurrencyDTO currency = getInstanceNoCreate(currencyCode);
+        if (currency != null) {
+            return currency;
+        }
+        // Unknown currencies have no alternative code, they can be created atomically.
+        return CURRENCIES.computeIfAbsent(currencyCode.toUpperCase(),
+                newCode -> new CurrencyDTO(newCode, new CurrencyDTO.CurrencyAttributes(newCode, null, null)));
     }
 
     /**
@@ -927,9 +937,22 @@ public final class CurrencyDTO implements Serializable {
      * @return currency
      */
     public static CurrencyDTO getInstanceNoCreate(final String currencyCode) {
+        final CurrencyDTO currency = CURRENCIES.get(currencyCode);
+        if (currency != null) {
+            return currency;
+        }
         return CURRENCIES.get(currencyCode.toUpperCase());
     }
 
+    /**
+     * Returns the number of currency ids given - all ids are lower than this value.
+     *
+     * @return number of currency ids
+     */
+    public static int getCurrencyCount() {
+        return NEXT_ID.get();
+    }
+
     /**
      * Factory.
      *
@@ -1035,6 +1058,15 @@ public final class CurrencyDTO implements Serializable {
         return code;
     }
 
+    /**
+     * Returns the currency id - a compact number, shared by all the codes of this currency, usable as an array index.
+     *
+     * @return id
+     */
+    public int getId() {
+        return attributes.id;
+    }
+
     /**
      * Gets the name that is suitable for displaying this currency.
      *
@@ -1051,7 +1083,7 @@ public final class CurrencyDTO implements Serializable {
 
     @Override
     public int hashCode() {
-        return attributes.hashCode();
+        return attributes.hash;
     }
 
     @Override
@@ -1066,7 +1098,7 @@ public final class CurrencyDTO implements Serializable {
             return false;
         }
         CurrencyDTO other = (CurrencyDTO) obj;
-        return attributes.equals(other.attributes);
+        return attributes == other.attributes || attributes.equals(other.attributes);
     }
 
     /**
@@ -1089,6 +1121,12 @@ public final class CurrencyDTO implements Serializable {
         /** Unicode. */
         private final String unicode;
 
+        /** Id. */
+        private final int id;
+
+        /** Hash code. */
+        private final int hash;
+
         /**
          * Constructor.
          *
@@ -1143,11 +1181,14 @@ public final class CurrencyDTO implements Serializable {
             } else {
                 this.unicode = newCommonCode;
             }
+
+            this.id = NEXT_ID.getAndIncrement();
+            this.hash = newCommonCode.hashCode();
         }
 
         @Override
         public int hashCode() {
-            return commonCode.hashCode();
+            return hash;
         }
 
         @Override
@@ -1204,7 +1245,7 @@ public final class CurrencyDTO implements Serializable {
          * @return wallet
          */
         public CurrencyDTO build() {
-            return new CurrencyDTO(this);
+            return getInstance(code);
         }
 
     }
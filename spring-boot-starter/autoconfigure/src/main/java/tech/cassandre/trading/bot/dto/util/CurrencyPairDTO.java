@@ -1,31 +1,49 @@
 package tech.cassandre.trading.bot.dto.util;
 
-import lombok.Builder;
+import lombok.Getter;
 import lombok.Value;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.instrument.Instrument;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static lombok.AccessLevel.NONE;
 
 /**
  * Currency pair for trading.
  * The base currency represents how much of the quote currency to get one unit of the base currency.
  * For example, if you were looking at the CAD/USD currency pair, the Canadian dollar would be the base currency, and the U.S. dollar would be the quote currency.
+ * Instances returned by the getInstance() methods are canonical: the same instance is always returned for a pair.
  */
 @Value
-@Builder
 @SuppressWarnings("checkstyle:VisibilityModifier")
 public class CurrencyPairDTO {
 
     /** Currency pair separator. */
     private static final String CURRENCY_PAIR_SEPARATOR = "/";
 
+    /** Canonical currency pairs - base currency code, quote currency code and currency pair. */
+    private static final Map<String, Map<String, CurrencyPairDTO>> CURRENCY_PAIRS = new ConcurrentHashMap<>();
+
+    /** Next currency pair id. */
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
     /** The base currency is the first currency appearing in a currency pair quotation. */
     CurrencyDTO baseCurrency;
 
     /** The quote currency is the second currency appearing in a currency pair quotation. */
     CurrencyDTO quoteCurrency;
 
+    /** Currency pair id - a compact number usable as an array index. */
+    int id;
+
+    /** Hash code. */
+    @Getter(NONE)
+    int hash;
+
     /**
      * Constructor.
      *
@@ -61,8 +79,7 @@ public class CurrencyPairDTO {
      * @param newQuoteCurrency The quote currency
      */
     public CurrencyPairDTO(final CurrencyDTO newBaseCurrency, final CurrencyDTO newQuoteCurrency) {
-        this.baseCurrency = newBaseCurrency;
-        this.quoteCurrency = newQuoteCurrency;
+        this(newBaseCurrency, newQuoteCurrency, getInstance(newBaseCurrency, newQuoteCurrency).id);
     }
 
     /**
@@ -71,9 +88,134 @@ public class CurrencyPairDTO {
      * @param instrument instrument
      */
     public CurrencyPairDTO(final Instrument instrument) {
+        this(CurrencyDTO.getInstance(((CurrencyPair) instrument).base.getCurrencyCode()),
+                CurrencyDTO.getInstance(((CurrencyPair) instrument).counter.getCurrencyCode()));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newBaseCurrency  The base currency
+     * @param newQuoteCurrency The quote currency
+     * @param newId            currency pair id
+     */
+    private CurrencyPairDTO(final CurrencyDTO newBaseCurrency, final CurrencyDTO newQuoteCurrency, final int newId) {
+        this.baseCurrency = newBaseCurrency;
+        this.quoteCurrency = newQuoteCurrency;
+        this.id = newId;
+        this.hash = Objects.hash(newBaseCurrency.getCode().toUpperCase(), newQuoteCurrency.getCode().toUpperCase());
+    }
+
+    /**
+     * Returns the canonical currency pair for two currencies.
+     *
+     * @param baseCurrency  The base currency
+     * @param quoteCurrency The quote currency
+     * @return currency pair
+     */
+    public static CurrencyPairDTO getInstance(final CurrencyDTO baseCurrency, final CurrencyDTO quoteCurrency) {
+        final Map<String, CurrencyPairDTO> quotes = CURRENCY_PAIRS.get(baseCurrency.getCode());
+        if (quotes != null) {
+            final CurrencyPairDTO currencyPair = quotes.get(quoteCurrency.getCode());
+            if (currencyPair != null) {
+                return currencyPair;
+            }
+        }
+        // Not found: we create it with its canonical currencies (codes are case insensitive).
+        final CurrencyDTO base = CurrencyDTO.getInstance(baseCurrency.getCode());
+        final CurrencyDTO quote = CurrencyDTO.getInstance(quoteCurrency.getCode());
+        final CurrencyPairDTO currencyPair = CURRENCY_PAIRS.computeIfAbsent(base.getCode(), key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(quote.getCode(), key -> new CurrencyPairDTO(base, quote, NEXT_ID.getAndIncrement()));
+        if (!base.getCode().equals(baseCurrency.getCode()) || !quote.getCode().equals(quoteCurrency.getCode())) {
+            // The codes used have a different case, we keep them as an alias.
+            CURRENCY_PAIRS.computeIfAbsent(baseCurrency.getCode(), key -> new ConcurrentHashMap<>())
+                    .putIfAbsent(quoteCurrency.getCode(), currencyPair);
+        }
+        return currencyPair;
+    }
+
+    /**
+     * Returns the canonical currency pair for two currency codes.
+     *
+     * @param baseCurrency  The base currency
+     * @param quoteCurrency The quote currency
+     * @return currency pair
+     */
+    public static CurrencyPairDTO getInstance(final String baseCurrency, final String quoteCurrency) {
+        return getInstance(CurrencyDTO.getInstance(baseCurrency), CurrencyDTO.getInstance(quoteCurrency));
+    }
+
+    /**
+     * Returns the canonical currency pair for a currency pair string (for example "ETH/BTC").
+     *
+     * @param currencyPair currency pair
+     * @return currency pair
+     */
+    public static CurrencyPairDTO getInstance(final String currencyPair) {
+        final String[] currencies = currencyPair.split(CURRENCY_PAIR_SEPARATOR);
+        return getInstance(currencies[0], currencies[1]);
+    }
+
+    /**
+     * Returns the canonical currency pair for a currency pair string (for example "ETH/BTC") without creating it.
+     *
+     * @param currencyPair currency pair
+     * @return currency pair (null if the currency pair is unknown)
+     */
+    public static CurrencyPairDTO getInstanceNoCreate(final String currencyPair) {
+        final String[] currencies = currencyPair.split(CURRENCY_PAIR_SEPARATOR);
+        if (currencies.length != 2) {
+            return null;
+        }
+        final CurrencyPairDTO cp = getInstanceNoCreate(currencies[0], currencies[1]);
+        if (cp != null) {
+            return cp;
+        }
+        return getInstanceNoCreate(currencies[0].toUpperCase(), currencies[1].toUpperCase());
+    }
+
+    /**
+     * Returns the canonical currency pair for two currency codes without creating it.
+     *
+     * @param baseCurrency  The base currency
+     * @param quoteCurrency The quote currency
+     * @return currency pair (null if the currency pair is unknown)
+     */
+    private static CurrencyPairDTO getInstanceNoCreate(final String baseCurrency, final String quoteCurrency) {
+        final Map<String, CurrencyPairDTO> quotes = CURRENCY_PAIRS.get(baseCurrency);
+        if (quotes == null) {
+            return null;
+        }
+        return quotes.get(quoteCurrency);
+    }
+
+    /**
+     * Returns the canonical currency pair for an XChange instrument.
+     *
+     * @param instrument instrument
+     * @return currency pair
+     */
+    public static CurrencyPairDTO getInstance(final Instrument instrument) {
         final CurrencyPair cp = (CurrencyPair) instrument;
-        this.baseCurrency = new CurrencyDTO(cp.base.getCurrencyCode());
-        this.quoteCurrency = new CurrencyDTO(cp.counter.getCurrencyCode());
+        return getInstance(CurrencyDTO.getInstance(cp.base.getCurrencyCode()), CurrencyDTO.getInstance(cp.counter.getCurrencyCode()));
+    }
+
+    /**
+     * Returns the number of currency pair ids given - all ids are lower than this value.
+     *
+     * @return number of currency pair ids
+     */
+    public static int getCurrencyPairCount() {
+        return NEXT_ID.get();
+    }
+
+    /**
+     * Returns builder.
+     *
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
     }
 
     @Override
@@ -85,13 +227,12 @@ public class CurrencyPairDTO {
             return false;
         }
         final CurrencyPairDTO that = (CurrencyPairDTO) o;
-        return getBaseCurrency().getCode().equalsIgnoreCase(that.getBaseCurrency().getCode())
-                && getQuoteCurrency().getCode().equalsIgnoreCase(that.getQuoteCurrency().getCode());
+        return id == that.id;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(getBaseCurrency().getCode(), getQuoteCurrency().getCode());
+        return hash;
     }
 
     @Override
@@ -99,4 +240,48 @@ public class CurrencyPairDTO {
         return baseCurrency + CURRENCY_PAIR_SEPARATOR + quoteCurrency;
     }
 
+    /**
+     * Builder - returns canonical currency pairs.
+     */
+    public static final class Builder {
+
+        /** Base currency. */
+        private CurrencyDTO baseCurrency;
+
+        /** Quote currency. */
+        private CurrencyDTO quoteCurrency;
+
+        /**
+         * Set base currency.
+         *
+         * @param newBaseCurrency base currency
+         * @return builder
+         */
+        public Builder baseCurrency(final CurrencyDTO newBaseCurrency) {
+            this.baseCurrency = newBaseCurrency;
+            return this;
+        }
+
+        /**
+         * Set quote currency.
+         *
+         * @param newQuoteCurrency quote currency
+         * @return builder
+         */
+        public Builder quoteCurrency(final CurrencyDTO newQuoteCurrency) {
+            this.quoteCurrency = newQuoteCurrency;
+            return this;
+        }
+
+        /**
+         * Create currency pair.
+         *
+         * @return currency pair
+         */
+        public CurrencyPairDTO build() {
+            return getInstance(baseCurrency, quoteCurrency);
+        }
+
+    }
+
 }
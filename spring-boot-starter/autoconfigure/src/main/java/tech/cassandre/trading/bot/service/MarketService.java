@@ -1,9 +1,12 @@
 package tech.cassandre.trading.bot.service;
 
+import tech.cassandre.trading.bot.dto.market.CandleDTO;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service getting information about market price.
@@ -18,4 +21,15 @@ public interface MarketService {
      */
     Optional<TickerDTO> getTicker(CurrencyPairDTO currencyPair);
 
+    /**
+     * Returns the most recent candles for a currency pair, sorted from the oldest to the newest.
+     * Used to warm up indicators at startup instead of waiting for live tickers.
+     *
+     * @param currencyPair currency pair
+     * @param period       duration of a candle
+     * @param count        maximum number of candles to return
+     * @return candles
+     */
+    Set<CandleDTO> getCandles(CurrencyPairDTO currencyPair, Duration period, int count);
+
 }
@@ -8,6 +8,7 @@ import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 
 import java.math.BigDecimal;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service getting information about orders, trades and allowing to create new orders.
@@ -66,6 +67,72 @@ public interface TradeService {
                                                 BigDecimal amount,
                                                 BigDecimal limitPrice);
 
+    /**
+     * Creates a sell stop order - placed on the exchange and sold at market price when the price falls to the stop price.
+     *
+     * @param strategy     strategy
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param stopPrice    price that triggers the sale
+     * @return order result (order id or error)
+     */
+    OrderCreationResultDTO createSellStopOrder(StrategyDTO strategy,
+                                               CurrencyPairDTO currencyPair,
+                                               BigDecimal amount,
+                                               BigDecimal stopPrice);
+
+    /**
+     * Creates a buy market order without blocking the calling thread.
+     *
+     * @param strategy     strategy
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @return future order result (order id or error)
+     */
+    CompletableFuture<OrderCreationResultDTO> createBuyMarketOrderAsync(StrategyDTO strategy,
+                                                                        CurrencyPairDTO currencyPair,
+                                                                        BigDecimal amount);
+
+    /**
+     * Creates a sell market order without blocking the calling thread.
+     *
+     * @param strategy     strategy
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @return future order result (order id or error)
+     */
+    CompletableFuture<OrderCreationResultDTO> createSellMarketOrderAsync(StrategyDTO strategy,
+                                                                         CurrencyPairDTO currencyPair,
+                                                                         BigDecimal amount);
+
+    /**
+     * Creates a buy limit order without blocking the calling thread.
+     *
+     * @param strategy     strategy
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param limitPrice   the highest acceptable price
+     * @return future order result (order id or error)
+     */
+    CompletableFuture<OrderCreationResultDTO> createBuyLimitOrderAsync(StrategyDTO strategy,
+                                                                       CurrencyPairDTO currencyPair,
+                                                                       BigDecimal amount,
+                                                                       BigDecimal limitPrice);
+
+    /**
+     * Creates a sell limit order without blocking the calling thread.
+     *
+     * @param strategy     strategy
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param limitPrice   the lowest acceptable price
+     * @return future order result (order id or error)
+     */
+    CompletableFuture<OrderCreationResultDTO> createSellLimitOrderAsync(StrategyDTO strategy,
+                                                                        CurrencyPairDTO currencyPair,
+                                                                        BigDecimal amount,
+                                                                        BigDecimal limitPrice);
+
     /**
      * Cancel order.
      *
@@ -88,4 +155,12 @@ public interface TradeService {
      */
     Set<TradeDTO> getTrades();
 
+    /**
+     * Method called by the order flux once an order is saved in database.
+     *
+     * @param orderId order id
+     */
+    default void orderSaved(final String orderId) {
+    }
+
 }
@@ -0,0 +1,461 @@
+package tech.cassandre.trading.bot.service.dry;
+
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+
+/**
+ * Dry mode order book for a currency pair - keeps resting limit orders indexed by price.
+ * Orders are matched against the tickers received (bid/ask and their sizes when the exchange provides them).
+ * An incoming order that is marketable on arrival takes liquidity and is filled at the ask (buy) or bid (sell) price.
+ * Orders resting in the book before a ticker are filled at their limit price, by price then time priority.
+ * Sell stop orders wait until the bid (or last) price falls to their stop price, then they are sold at market price.
+ */
+final class DryOrderBook {
+
+    /** Buy orders - highest price first. */
+    private final NavigableMap<BigDecimal, Deque<RestingOrder>> bids = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+
+    /** Sell orders - lowest price first. */
+    private final NavigableMap<BigDecimal, Deque<RestingOrder>> asks = new ConcurrentSkipListMap<>();
+
+    /** Resting orders by order id. */
+    private final Map<String, RestingOrder> orders = new ConcurrentHashMap<>();
+
+    /** Sell stop orders waiting to be triggered - highest stop price first. */
+    private final NavigableMap<BigDecimal, Deque<OrderDTO>> stops = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+
+    /** Stop prices by order id. */
+    private final Map<String, BigDecimal> stopPrices = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a limit order to the book - the order is first matched against the last ticker received (if any) and what's
+     * not filled rests in the book.
+     *
+     * @param order      limit order
+     * @param lastTicker last ticker received (null if none)
+     * @return fills of the incoming order
+     */
+    synchronized List<Fill> add(final OrderDTO order, final TickerDTO lastTicker) {
+        final RestingOrder restingOrder = new RestingOrder(order);
+        final List<Fill> fills = new LinkedList<>();
+        if (lastTicker != null) {
+            // Buy orders are filled by sellers (ask) and sell orders by buyers (bid).
+            BigDecimal counterPrice = getPrice(lastTicker.getBid(), lastTicker);
+            BigDecimal counterSize = lastTicker.getBidSize();
+            if (order.getType() == BID) {
+                counterPrice = getPrice(lastTicker.getAsk(), lastTicker);
+                counterSize = lastTicker.getAskSize();
+            }
+            if (counterPrice != null && isMarketable(order, counterPrice)) {
+                BigDecimal amount = restingOrder.getRemaining();
+                if (counterSize != null && counterSize.signum() > 0) {
+                    amount = amount.min(counterSize);
+                }
+                restingOrder.fill(amount, counterPrice);
+                fills.add(new Fill(restingOrder, amount, counterPrice));
+            }
+        }
+        if (!restingOrder.isFilled()) {
+            orders.put(order.getOrderId(), restingOrder);
+            getSide(order).computeIfAbsent(order.getLimitPrice().getValue(), price -> new ArrayDeque<>()).addLast(restingOrder);
+        }
+        return fills;
+    }
+
+    /**
+     * Removes an order from the book.
+     *
+     * @param orderId order id
+     * @return the order removed
+     */
+    synchronized Optional<RestingOrder> remove(final String orderId) {
+        final RestingOrder restingOrder = orders.remove(orderId);
+        if (restingOrder == null) {
+            return Optional.empty();
+        }
+        final NavigableMap<BigDecimal, Deque<RestingOrder>> side = getSide(restingOrder.getOrder());
+        final BigDecimal price = restingOrder.getOrder().getLimitPrice().getValue();
+        final Deque<RestingOrder> level = side.get(price);
+        if (level != null) {
+            level.remove(restingOrder);
+            if (level.isEmpty()) {
+                side.remove(price);
+            }
+        }
+        return Optional.of(restingOrder);
+    }
+
+    /**
+     * Adds a sell stop order to the book.
+     *
+     * @param order     stop order
+     * @param stopPrice price that triggers the order
+     */
+    synchronized void addStop(final OrderDTO order, final BigDecimal stopPrice) {
+        stopPrices.put(order.getOrderId(), stopPrice);
+        stops.computeIfAbsent(stopPrice, price -> new ArrayDeque<>()).addLast(order);
+    }
+
+    /**
+     * Removes a stop order from the book.
+     *
+     * @param orderId order id
+     * @return the order removed
+     */
+    synchronized Optional<OrderDTO> removeStop(final String orderId) {
+        final BigDecimal stopPrice = stopPrices.remove(orderId);
+        if (stopPrice == null) {
+            return Optional.empty();
+        }
+        final Deque<OrderDTO> level = stops.get(stopPrice);
+        Optional<OrderDTO> order = Optional.empty();
+        if (level != null) {
+            order = level.stream().filter(o -> o.getOrderId().equals(orderId)).findFirst();
+            order.ifPresent(level::remove);
+            if (level.isEmpty()) {
+                stops.remove(stopPrice);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Triggers the stop orders whose stop price has been reached - they are removed from the book.
+     *
+     * @param ticker ticker
+     * @return stop orders triggered (in trigger order)
+     */
+    synchronized List<OrderDTO> triggerStops(final TickerDTO ticker) {
+        final List<OrderDTO> triggeredOrders = new LinkedList<>();
+        // Sell stop orders are sold to buyers (bid).
+        final BigDecimal price = getPrice(ticker.getBid(), ticker);
+        if (price == null) {
+            return triggeredOrders;
+        }
+        final Iterator<Map.Entry<BigDecimal, Deque<OrderDTO>>> levels = stops.entrySet().iterator();
+        while (levels.hasNext()) {
+            final Map.Entry<BigDecimal, Deque<OrderDTO>> level = levels.next();
+            if (level.getKey().compareTo(price) < 0) {
+                // Levels are sorted, no other level can be triggered.
+                break;
+            }
+            level.getValue().forEach(order -> {
+                stopPrices.remove(order.getOrderId());
+                triggeredOrders.add(order);
+            });
+            levels.remove();
+        }
+        return triggeredOrders;
+    }
+
+    /**
+     * Matches resting orders against a ticker.
+     *
+     * @param ticker ticker
+     * @return fills (in execution order)
+     */
+    synchronized List<Fill> match(final TickerDTO ticker) {
+        final List<Fill> fills = new LinkedList<>();
+        // Buy orders are filled by sellers (ask) and sell orders by buyers (bid).
+        matchSide(bids, getPrice(ticker.getAsk(), ticker), ticker.getAskSize(), true, fills);
+        matchSide(asks, getPrice(ticker.getBid(), ticker), ticker.getBidSize(), false, fills);
+        return fills;
+    }
+
+    /**
+     * Returns the number of resting orders (limit and stop orders).
+     *
+     * @return number of resting orders
+     */
+    int size() {
+        return orders.size() + stopPrices.size();
+    }
+
+    /**
+     * Matches one side of the book.
+     *
+     * @param side         side of the book
+     * @param counterPrice best price on the other side (null if unknown)
+     * @param counterSize  liquidity available at this price (null if unknown - unlimited)
+     * @param buySide      true if side is the buy side
+     * @param fills        fills found
+     */
+    private void matchSide(final NavigableMap<BigDecimal, Deque<RestingOrder>> side,
+                           final BigDecimal counterPrice,
+                           final BigDecimal counterSize,
+                           final boolean buySide,
+                           final List<Fill> fills) {
+        if (counterPrice == null) {
+            return;
+        }
+        BigDecimal liquidity = null;
+        if (counterSize != null && counterSize.signum() > 0) {
+            liquidity = counterSize;
+        }
+        final Iterator<Map.Entry<BigDecimal, Deque<RestingOrder>>> levels = side.entrySet().iterator();
+        while (levels.hasNext() && (liquidity == null || liquidity.signum() > 0)) {
+            final Map.Entry<BigDecimal, Deque<RestingOrder>> level = levels.next();
+            final int comparison = level.getKey().compareTo(counterPrice);
+            if ((buySide && comparison < 0) || (!buySide && comparison > 0)) {
+                // Levels are sorted, no other level can be matched.
+                return;
+            }
+            final Iterator<RestingOrder> restingOrders = level.getValue().iterator();
+            while (restingOrders.hasNext() && (liquidity == null || liquidity.signum() > 0)) {
+                final RestingOrder restingOrder = restingOrders.next();
+                BigDecimal amount = restingOrder.getRemaining();
+                if (liquidity != null) {
+                    amount = amount.min(liquidity);
+                    liquidity = liquidity.subtract(amount);
+                }
+                restingOrder.fill(amount, level.getKey());
+                fills.add(new Fill(restingOrder, amount, level.getKey()));
+                if (restingOrder.isFilled()) {
+                    restingOrders.remove();
+                    orders.remove(restingOrder.getOrder().getOrderId());
+                }
+            }
+            if (level.getValue().isEmpty()) {
+                levels.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns true if an order can be executed at the best price of the other side.
+     *
+     * @param order        limit order
+     * @param counterPrice best price on the other side
+     * @return true if marketable
+     */
+    private static boolean isMarketable(final OrderDTO order, final BigDecimal counterPrice) {
+        final int comparison = order.getLimitPrice().getValue().compareTo(counterPrice);
+        if (order.getType() == BID) {
+            return comparison >= 0;
+        } else {
+            return comparison <= 0;
+        }
+    }
+
+    /**
+     * Returns the side of the book for an order.
+     *
+     * @param order order
+     * @return side
+     */
+    private NavigableMap<BigDecimal, Deque<RestingOrder>> getSide(final OrderDTO order) {
+        if (order.getType() == BID) {
+            return bids;
+        } else {
+            return asks;
+        }
+    }
+
+    /**
+     * Returns the price to use (last price if bid or ask is not provided by the exchange).
+     *
+     * @param price  bid or ask price
+     * @param ticker ticker
+     * @return price
+     */
+    private static BigDecimal getPrice(final BigDecimal price, final TickerDTO ticker) {
+        if (price != null) {
+            return price;
+        } else {
+            return ticker.getLast();
+        }
+    }
+
+    /**
+     * Limit order waiting in the book.
+     */
+    static final class RestingOrder {
+
+        /** Order as created. */
+        private final OrderDTO order;
+
+        /** Amount filled. */
+        private BigDecimal cumulativeAmount = BigDecimal.ZERO;
+
+        /** Cost of the amount filled (quote currency). */
+        private BigDecimal cumulativeCost = BigDecimal.ZERO;
+
+        /**
+         * Constructor.
+         *
+         * @param newOrder order
+         */
+        private RestingOrder(final OrderDTO newOrder) {
+            this.order = newOrder;
+        }
+
+        /**
+         * Fills a part of the order.
+         *
+         * @param amount amount filled
+         * @param price  price
+         */
+        private void fill(final BigDecimal amount, final BigDecimal price) {
+            cumulativeAmount = cumulativeAmount.add(amount);
+            cumulativeCost = cumulativeCost.add(amount.multiply(price));
+        }
+
+        /**
+         * Getter for order.
+         *
+         * @return order
+         */
+        OrderDTO getOrder() {
+            return order;
+        }
+
+        /**
+         * Getter for cumulativeAmount.
+         *
+         * @return cumulativeAmount
+         */
+        BigDecimal getCumulativeAmount() {
+            return cumulativeAmount;
+        }
+
+        /**
+         * Returns the average price of the amount filled.
+         *
+         * @return average price (null if nothing has been filled)
+         */
+        BigDecimal getAveragePrice() {
+            if (cumulativeAmount.signum() == 0) {
+                return null;
+            } else {
+                return cumulativeCost.divide(cumulativeAmount, MathContext.DECIMAL64);
+            }
+        }
+
+        /**
+         * Returns the amount still to fill.
+         *
+         * @return remaining amount
+         */
+        BigDecimal getRemaining() {
+            return order.getAmount().getValue().subtract(cumulativeAmount);
+        }
+
+        /**
+         * Returns true if the order is completely filled.
+         *
+         * @return true if filled
+         */
+        boolean isFilled() {
+            return getRemaining().signum() <= 0;
+        }
+
+    }
+
+    /**
+     * Execution of a part of a resting order.
+     */
+    static final class Fill {
+
+        /** Order filled. */
+        private final RestingOrder restingOrder;
+
+        /** Amount filled. */
+        private final BigDecimal amount;
+
+        /** Price. */
+        private final BigDecimal price;
+
+        /** Amount filled on the order after this fill. */
+        private final BigDecimal cumulativeAmount;
+
+        /** Average price of the order after this fill. */
+        private final BigDecimal averagePrice;
+
+        /**
+         * Constructor.
+         *
+         * @param newRestingOrder resting order (after the fill)
+         * @param newAmount       amount
+         * @param newPrice        price
+         */
+        private Fill(final RestingOrder newRestingOrder, final BigDecimal newAmount, final BigDecimal newPrice) {
+            this.restingOrder = newRestingOrder;
+            this.amount = newAmount;
+            this.price = newPrice;
+            this.cumulativeAmount = newRestingOrder.getCumulativeAmount();
+            this.averagePrice = newRestingOrder.getAveragePrice();
+        }
+
+        /**
+         * Getter for restingOrder.
+         *
+         * @return restingOrder
+         */
+        RestingOrder getRestingOrder() {
+            return restingOrder;
+        }
+
+        /**
+         * Getter for amount.
+         *
+         * @return amount
+         */
+        BigDecimal getAmount() {
+            return amount;
+        }
+
+        /**
+         * Getter for price.
+         *
+         * @return price
+         */
+        BigDecimal getPrice() {
+            return price;
+        }
+
+        /**
+         * Getter for cumulativeAmount.
+         *
+         * @return cumulativeAmount
+         */
+        BigDecimal getCumulativeAmount() {
+            return cumulativeAmount;
+        }
+
+        /**
+         * Getter for averagePrice.
+         *
+         * @return averagePrice
+         */
+        BigDecimal getAveragePrice() {
+            return averagePrice;
+        }
+
+        /**
+         * Returns true if the order is completely filled after this fill.
+         *
+         * @return true if filled
+         */
+        boolean isOrderFilled() {
+            return cumulativeAmount.compareTo(restingOrder.getOrder().getAmount().getValue()) >= 0;
+        }
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package tech.cassandre.trading.bot.service.dry;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import tech.cassandre.trading.bot.batch.OrderFlux;
 import tech.cassandre.trading.bot.batch.TradeFlux;
 import tech.cassandre.trading.bot.domain.Order;
@@ -7,40 +8,50 @@ import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.strategy.StrategyDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderStatusDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
 import tech.cassandre.trading.bot.dto.trade.TradeDTO;
 import tech.cassandre.trading.bot.dto.user.AccountDTO;
 import tech.cassandre.trading.bot.dto.user.BalanceDTO;
 import tech.cassandre.trading.bot.dto.user.UserDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 import tech.cassandre.trading.bot.repository.OrderRepository;
 import tech.cassandre.trading.bot.repository.TradeRepository;
 import tech.cassandre.trading.bot.service.TradeService;
 import tech.cassandre.trading.bot.util.base.service.BaseService;
+import tech.cassandre.trading.bot.util.pair.CurrencyPairTable;
 
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.CANCELED;
 import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.FILLED;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.NEW;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.PARTIALLY_FILLED;
 import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
 import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
 
 /**
  * Trade service (dry mode implementation).
+ * Orders and trades are pushed to flux when they are created, so they are never polled by the scheduler.
+ * getOrders() and getTrades() are only used by callers that want the whole history.
  */
 public class TradeServiceDryModeImplementation extends BaseService implements TradeService {
 
-    /** Waiting time before sending orders and trades to flux. */
-    private static final long WAITING_TIME = 500L;
+    /** Default simulated exchange latency - waiting time (ms) before sending orders and trades to flux. */
+    public static final long DEFAULT_LATENCY = 500L;
 
     /** Dry order prefix. */
     private static final String DRY_ORDER_PREFIX = "DRY_ORDER_";
@@ -58,7 +69,20 @@ public class TradeServiceDryModeImplementation extends BaseService implements Tr
     private final AtomicInteger tradeCounter = new AtomicInteger(1);
 
     /** Last received tickers. */
-    private final Map<CurrencyPairDTO, TickerDTO> lastTickers = new LinkedHashMap<>();
+    private final CurrencyPairTable<TickerDTO> lastTickers = new CurrencyPairTable<>();
+
+    /** Order books (resting limit and stop orders) per currency pair. */
+    private final Map<CurrencyPairDTO, DryOrderBook> orderBooks = new ConcurrentHashMap<>();
+
+    /** Funds locked by the orders of the order books (order id and funds still locked). */
+    private final Map<String, BigDecimal> lockedFunds = new ConcurrentHashMap<>();
+
+    /** Scheduler shared by all orders to simulate the exchange latency (a single thread keeps the emission order). */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("dry-exchange-%d").setDaemon(true).build());
+
+    /** Simulated exchange latency in ms. */
+    private final long latency;
 
     /** Order flux. */
     private OrderFlux orderFlux;
@@ -85,6 +109,22 @@ public class TradeServiceDryModeImplementation extends BaseService implements Tr
     public TradeServiceDryModeImplementation(final UserServiceDryModeImplementation newUserService,
                                              final TradeRepository newTradeRepository,
                                              final OrderRepository newOrderRepository) {
+        this(newUserService, newTradeRepository, newOrderRepository, DEFAULT_LATENCY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newUserService     user service
+     * @param newTradeRepository trade repository
+     * @param newOrderRepository order repository
+     * @param newLatency         simulated exchange latency in ms
+     */
+    public TradeServiceDryModeImplementation(final UserServiceDryModeImplementation newUserService,
+                                             final TradeRepository newTradeRepository,
+                                             final OrderRepository newOrderRepository,
+                                             final long newLatency) {
+        this.latency = newLatency;
         this.userService = newUserService;
         this.tradeRepository = newTradeRepository;
         this.orderRepository = newOrderRepository;
@@ -117,51 +157,10 @@ public class TradeServiceDryModeImplementation extends BaseService implements Tr
 
         // We create the order.
         if (t != null) {
-            // If we don't have enough assets, we can't buy.
-            // Example :
-            // ETH/BTC quote currency => BTC.
-            // ETH/BTC base currency => ETH.
-
-            // We check that we have a user and a trade account.
-            final Optional<UserDTO> user = userService.getUser();
-            final AccountDTO account;
-            if (user.isPresent()) {
-                account = userService.getUser().get().getAccounts().get(TRADE_ACCOUNT_ID);
-                if (account == null) {
-                    return new OrderCreationResultDTO("No trade account", new Exception("No trade account"));
-                }
-            } else {
-                return new OrderCreationResultDTO("No data for user", new Exception("No data for user"));
-            }
-
-            // We check if we have enough assets to buy/sell.
-            if (orderTypeDTO.equals(BID)) {
-                // Buying order - we buy ETH from BTC.
-                // We are buying the following amount : ticker last price * amount
-                Optional<BalanceDTO> balance = account.getBalance(currencyPair.getQuoteCurrency());
-                if (balance.isPresent()) {
-                    BigDecimal ownedAssets = balance.get().getAvailable();
-                    BigDecimal cost = t.getLast().multiply(amount);
-                    if (cost.compareTo(ownedAssets) > 0) {
-                        final String errorMessage = "Not enough assets (costs : " + cost + " " + currencyPair.getQuoteCurrency() + " - owned assets : " + ownedAssets + " " + currencyPair.getQuoteCurrency();
-                        return new OrderCreationResultDTO(errorMessage, new Exception(errorMessage));
-                    }
-                } else {
-                    return new OrderCreationResultDTO("No assets for " + currencyPair.getQuoteCurrency(), new Exception("No assets for " + currencyPair.getQuoteCurrency()));
-                }
-            } else {
-                // Selling order - we sell ETH for BTC.
-                // We are selling the amount
-                Optional<BalanceDTO> balance = account.getBalance(currencyPair.getBaseCurrency());
-                if (balance.isPresent()) {
-                    BigDecimal ownedAssets = balance.get().getAvailable();
-                    if (amount.compareTo(ownedAssets) > 0) {
-                        final String errorMessage = "Not enough assets (amount : " + amount + " " + currencyPair.getQuoteCurrency() + " - owned assets : " + ownedAssets + " " + currencyPair.getBaseCurrency();
-                        return new OrderCreationResultDTO(errorMessage, new Exception(errorMessage));
-                    }
-                } else {
-                    return new OrderCreationResultDTO("No assets for " + currencyPair.getBaseCurrency(), new Exception("No assets for " + currencyPair.getBaseCurrency()));
-                }
+            // We check that we have enough assets to buy/sell.
+            final Optional<OrderCreationResultDTO> error = checkAssets(orderTypeDTO, currencyPair, amount, t.getLast());
+            if (error.isPresent()) {
+                return error.get();
             }
 
             // We create and send the order.
@@ -187,49 +186,12 @@ public class TradeServiceDryModeImplementation extends BaseService implements Tr
                     .timestamp(ZonedDateTime.now())
                     .build();
 
-            // We create and send the trade.
-            final String tradeId = getNextTradeNumber();
-            final TradeDTO trade = TradeDTO.builder()
-                    .tradeId(tradeId)
-                    .type(orderTypeDTO)
-                    .orderId(orderId)
-                    .currencyPair(currencyPair)
-                    .amount(CurrencyAmountDTO.builder()
-                            .value(amount)
-                            .currency(currencyPair.getBaseCurrency())
-                            .build())
-                    .price(CurrencyAmountDTO.builder()
-                            .value(t.getLast())
-                            .currency(currencyPair.getQuoteCurrency())
-                            .build())
-                    .fee(CurrencyAmountDTO.ZERO)
-                    .timestamp(ZonedDateTime.now())
-                    .build();
-
-            // Sending the results after the method returns the result.
-            Executors.newFixedThreadPool(1).submit(() -> {
-                try {
-                    TimeUnit.MILLISECONDS.sleep(WAITING_TIME);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-                orderFlux.emitValue(order);
-                try {
-                    TimeUnit.MILLISECONDS.sleep(WAITING_TIME);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-                tradeFlux.emitValue(trade);
-            });
+            // We create the trade and send the results after the method returns the result.
+            final TradeDTO trade = getTrade(order, amount, t.getLast());
+            emitOrderAndTrade(order, trade);
 
             // We update the balances of the account with the values of the trade.
-            if (orderTypeDTO.equals(BID)) {
-                userService.addToBalance(currencyPair.getBaseCurrency(), amount);
-                userService.addToBalance(currencyPair.getQuoteCurrency(), amount.multiply(t.getLast()).multiply(new BigDecimal("-1")));
-            } else {
-                userService.addToBalance(currencyPair.getBaseCurrency(), amount.multiply(new BigDecimal("-1")));
-                userService.addToBalance(currencyPair.getQuoteCurrency(), amount.multiply(t.getLast()));
-            }
+            updateBalances(orderTypeDTO, currencyPair, amount, t.getLast());
 
             // We create and returns the result.
             return new OrderCreationResultDTO(order);
@@ -238,6 +200,353 @@ public class TradeServiceDryModeImplementation extends BaseService implements Tr
         }
     }
 
+    /**
+     * Creates a fake limit order - the order is kept in the order book of the currency pair until tickers match it.
+     *
+     * @param strategy     strategy
+     * @param orderTypeDTO order type
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param limitPrice   In a BID this is the highest acceptable price, in an ASK this is the lowest acceptable price
+     * @return order creation result
+     */
+    private OrderCreationResultDTO createLimitOrder(final StrategyDTO strategy,
+                                                    final OrderTypeDTO orderTypeDTO,
+                                                    final CurrencyPairDTO currencyPair,
+                                                    final BigDecimal amount,
+                                                    final BigDecimal limitPrice) {
+        if (amount == null || amount.signum() <= 0 || limitPrice == null || limitPrice.signum() <= 0) {
+            return new OrderCreationResultDTO("Invalid amount or limit price", new Exception("Invalid amount or limit price"));
+        }
+
+        // We check that we have enough assets to buy/sell at the limit price.
+        final Optional<OrderCreationResultDTO> error = checkAssets(orderTypeDTO, currencyPair, amount, limitPrice);
+        if (error.isPresent()) {
+            return error.get();
+        }
+
+        // We create the order and add it to the order book.
+        final OrderDTO order = OrderDTO.builder()
+                .orderId(getNextOrderNumber())
+                .type(orderTypeDTO)
+                .strategy(strategy)
+                .currencyPair(currencyPair)
+                .amount(CurrencyAmountDTO.builder()
+                        .value(amount)
+                        .currency(currencyPair.getBaseCurrency())
+                        .build())
+                .limitPrice(CurrencyAmountDTO.builder()
+                        .value(limitPrice)
+                        .currency(currencyPair.getQuoteCurrency())
+                        .build())
+                .status(NEW)
+                .cumulativeAmount(CurrencyAmountDTO.builder()
+                        .value(BigDecimal.ZERO)
+                        .currency(currencyPair.getBaseCurrency())
+                        .build())
+                .timestamp(ZonedDateTime.now())
+                .build();
+        final DryOrderBook orderBook = orderBooks.computeIfAbsent(currencyPair, cp -> new DryOrderBook());
+        lockFunds(order, amount);
+        scheduler.schedule(() -> orderFlux.emitValue(order), latency, TimeUnit.MILLISECONDS);
+
+        // If the order can be matched with the last ticker, it's filled right now at the market price.
+        orderBook.add(order, lastTickers.get(currencyPair)).forEach(this::processFill);
+        return new OrderCreationResultDTO(order);
+    }
+
+    /**
+     * Creates a fake sell stop order - the order is kept in the order book of the currency pair until the bid (or last)
+     * price falls to the stop price, then it's sold at this price like a market order.
+     *
+     * @param strategy     strategy
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param stopPrice    stop price
+     * @return order creation result
+     */
+    private OrderCreationResultDTO createStopOrder(final StrategyDTO strategy,
+                                                   final CurrencyPairDTO currencyPair,
+                                                   final BigDecimal amount,
+                                                   final BigDecimal stopPrice) {
+        if (amount == null || amount.signum() <= 0 || stopPrice == null || stopPrice.signum() <= 0) {
+            return new OrderCreationResultDTO("Invalid amount or stop price", new Exception("Invalid amount or stop price"));
+        }
+
+        // We check that we have enough assets to sell.
+        final Optional<OrderCreationResultDTO> error = checkAssets(ASK, currencyPair, amount, stopPrice);
+        if (error.isPresent()) {
+            return error.get();
+        }
+
+        // We create the order and add it to the order book.
+        final OrderDTO order = OrderDTO.builder()
+                .orderId(getNextOrderNumber())
+                .type(ASK)
+                .strategy(strategy)
+                .currencyPair(currencyPair)
+                .amount(CurrencyAmountDTO.builder()
+                        .value(amount)
+                        .currency(currencyPair.getBaseCurrency())
+                        .build())
+                .status(NEW)
+                .cumulativeAmount(CurrencyAmountDTO.builder()
+                        .value(BigDecimal.ZERO)
+                        .currency(currencyPair.getBaseCurrency())
+                        .build())
+                .timestamp(ZonedDateTime.now())
+                .build();
+        final DryOrderBook orderBook = orderBooks.computeIfAbsent(currencyPair, cp -> new DryOrderBook());
+        lockFunds(order, amount);
+        orderBook.addStop(order, stopPrice);
+        scheduler.schedule(() -> orderFlux.emitValue(order), latency, TimeUnit.MILLISECONDS);
+
+        // If the stop price is already reached, the order is triggered right now.
+        final TickerDTO t = lastTickers.get(currencyPair);
+        if (t != null) {
+            orderBook.triggerStops(t).forEach(o -> processStop(o, t));
+        }
+        return new OrderCreationResultDTO(order);
+    }
+
+    /**
+     * Checks that the trade account has enough assets for an order.
+     *
+     * @param orderTypeDTO order type
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param price        price
+     * @return an error if there are not enough assets
+     */
+    private Optional<OrderCreationResultDTO> checkAssets(final OrderTypeDTO orderTypeDTO,
+                                                         final CurrencyPairDTO currencyPair,
+                                                         final BigDecimal amount,
+                                                         final BigDecimal price) {
+        // If we don't have enough assets, we can't buy.
+        // Example :
+        // ETH/BTC quote currency => BTC.
+        // ETH/BTC base currency => ETH.
+
+        // We check that we have a user and a trade account.
+        final Optional<UserDTO> user = userService.getUser();
+        final AccountDTO account;
+        if (user.isPresent()) {
+            account = user.get().getAccounts().get(TRADE_ACCOUNT_ID);
+            if (account == null) {
+                return Optional.of(new OrderCreationResultDTO("No trade account", new Exception("No trade account")));
+            }
+        } else {
+            return Optional.of(new OrderCreationResultDTO("No data for user", new Exception("No data for user")));
+        }
+
+        // We check if we have enough assets to buy/sell.
+        if (orderTypeDTO.equals(BID)) {
+            // Buying order - we buy ETH from BTC.
+            // We are buying the following amount : price * amount
+            Optional<BalanceDTO> balance = account.getBalance(currencyPair.getQuoteCurrency());
+            if (balance.isPresent()) {
+                BigDecimal ownedAssets = balance.get().getAvailable();
+                BigDecimal cost = price.multiply(amount);
+                if (cost.compareTo(ownedAssets) > 0) {
+                    final String errorMessage = "Not enough assets (costs : " + cost + " " + currencyPair.getQuoteCurrency() + " - owned assets : " + ownedAssets + " " + currencyPair.getQuoteCurrency();
+                    return Optional.of(new OrderCreationResultDTO(errorMessage, new Exception(errorMessage)));
+                }
+            } else {
+                return Optional.of(new OrderCreationResultDTO("No assets for " + currencyPair.getQuoteCurrency(), new Exception("No assets for " + currencyPair.getQuoteCurrency())));
+            }
+        } else {
+            // Selling order - we sell ETH for BTC.
+            // We are selling the amount
+            Optional<BalanceDTO> balance = account.getBalance(currencyPair.getBaseCurrency());
+            if (balance.isPresent()) {
+                BigDecimal ownedAssets = balance.get().getAvailable();
+                if (amount.compareTo(ownedAssets) > 0) {
+                    final String errorMessage = "Not enough assets (amount : " + amount + " " + currencyPair.getQuoteCurrency() + " - owned assets : " + ownedAssets + " " + currencyPair.getBaseCurrency();
+                    return Optional.of(new OrderCreationResultDTO(errorMessage, new Exception(errorMessage)));
+                }
+            } else {
+                return Optional.of(new OrderCreationResultDTO("No assets for " + currencyPair.getBaseCurrency(), new Exception("No assets for " + currencyPair.getBaseCurrency())));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Processes the fill of a limit order - updates balances and sends the order update and the trade.
+     *
+     * @param fill fill
+     */
+    private void processFill(final DryOrderBook.Fill fill) {
+        final OrderDTO initialOrder = fill.getRestingOrder().getOrder();
+        OrderStatusDTO status = PARTIALLY_FILLED;
+        if (fill.isOrderFilled()) {
+            status = FILLED;
+        }
+        final OrderDTO order = OrderDTO.builder()
+                .orderId(initialOrder.getOrderId())
+                .type(initialOrder.getType())
+                .strategy(initialOrder.getStrategy())
+                .currencyPair(initialOrder.getCurrencyPair())
+                .amount(initialOrder.getAmount())
+                .averagePrice(CurrencyAmountDTO.builder()
+                        .value(fill.getAveragePrice())
+                        .currency(initialOrder.getCurrencyPair().getQuoteCurrency())
+                        .build())
+                .limitPrice(initialOrder.getLimitPrice())
+                .status(status)
+                .cumulativeAmount(CurrencyAmountDTO.builder()
+                        .value(fill.getCumulativeAmount())
+                        .currency(initialOrder.getCurrencyPair().getBaseCurrency())
+                        .build())
+                .timestamp(initialOrder.getTimestamp())
+                .build();
+        logger.debug("TradeService - Dry order {} filled : {} at {}", order.getOrderId(), fill.getAmount(), fill.getPrice());
+        // The funds used by the fill were locked when the order was added to the order book.
+        releaseFunds(order, fill.getAmount());
+        updateBalances(order.getType(), order.getCurrencyPair(), fill.getAmount(), fill.getPrice());
+        emitOrderAndTrade(order, getTrade(order, fill.getAmount(), fill.getPrice()));
+    }
+
+    /**
+     * Processes a triggered stop order - it's sold at the bid (or last) price, like a market order.
+     *
+     * @param initialOrder stop order
+     * @param ticker       ticker that triggered the order
+     */
+    private void processStop(final OrderDTO initialOrder, final TickerDTO ticker) {
+        BigDecimal price = ticker.getBid();
+        if (price == null) {
+            price = ticker.getLast();
+        }
+        final BigDecimal amount = initialOrder.getAmount().getValue();
+
+        final OrderDTO order = OrderDTO.builder()
+                .orderId(initialOrder.getOrderId())
+                .type(initialOrder.getType())
+                .strategy(initialOrder.getStrategy())
+                .currencyPair(initialOrder.getCurrencyPair())
+                .amount(initialOrder.getAmount())
+                .averagePrice(CurrencyAmountDTO.builder()
+                        .value(price)
+                        .currency(initialOrder.getCurrencyPair().getQuoteCurrency())
+                        .build())
+                .status(FILLED)
+                .cumulativeAmount(initialOrder.getAmount())
+                .timestamp(initialOrder.getTimestamp())
+                .build();
+        logger.debug("TradeService - Dry stop order {} triggered : {} at {}", order.getOrderId(), amount, price);
+        // The assets sold were locked when the order was created.
+        releaseFunds(order, amount);
+        updateBalances(ASK, order.getCurrencyPair(), amount, price);
+        emitOrderAndTrade(order, getTrade(order, amount, price));
+    }
+
+    /**
+     * Creates a trade.
+     *
+     * @param order  order
+     * @param amount amount
+     * @param price  price
+     * @return trade
+     */
+    private TradeDTO getTrade(final OrderDTO order, final BigDecimal amount, final BigDecimal price) {
+        return TradeDTO.builder()
+                .tradeId(getNextTradeNumber())
+                .type(order.getType())
+                .orderId(order.getOrderId())
+                .currencyPair(order.getCurrencyPair())
+                .amount(CurrencyAmountDTO.builder()
+                        .value(amount)
+                        .currency(order.getCurrencyPair().getBaseCurrency())
+                        .build())
+                .price(CurrencyAmountDTO.builder()
+                        .value(price)
+                        .currency(order.getCurrencyPair().getQuoteCurrency())
+                        .build())
+                .fee(CurrencyAmountDTO.ZERO)
+                .timestamp(ZonedDateTime.now())
+                .build();
+    }
+
+    /**
+     * Sends an order update then its trade to flux (with the simulated exchange latency).
+     *
+     * @param order order
+     * @param trade trade
+     */
+    private void emitOrderAndTrade(final OrderDTO order, final TradeDTO trade) {
+        scheduler.schedule(() -> orderFlux.emitValue(order), latency, TimeUnit.MILLISECONDS);
+        scheduler.schedule(() -> tradeFlux.emitValue(trade), latency * 2, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Locks the funds required by an order added to the order book so other orders can't use them.
+     * Buy orders lock their cost at the limit price, sell orders lock the amount sold.
+     *
+     * @param order  order
+     * @param amount amount
+     */
+    private void lockFunds(final OrderDTO order, final BigDecimal amount) {
+        final Map.Entry<CurrencyDTO, BigDecimal> funds = getFunds(order, amount);
+        lockedFunds.put(order.getOrderId(), funds.getValue());
+        userService.addToBalance(funds.getKey(), funds.getValue().negate());
+    }
+
+    /**
+     * Releases the funds locked for a part of an order (filled or canceled).
+     *
+     * @param order  order
+     * @param amount amount filled or canceled
+     */
+    private void releaseFunds(final OrderDTO order, final BigDecimal amount) {
+        final Map.Entry<CurrencyDTO, BigDecimal> funds = getFunds(order, amount);
+        final BigDecimal[] released = new BigDecimal[1];
+        lockedFunds.computeIfPresent(order.getOrderId(), (orderId, locked) -> {
+            released[0] = locked.min(funds.getValue());
+            final BigDecimal remaining = locked.subtract(released[0]);
+            if (remaining.signum() > 0) {
+                return remaining;
+            }
+            return null;
+        });
+        if (released[0] != null && released[0].signum() > 0) {
+            userService.addToBalance(funds.getKey(), released[0]);
+        }
+    }
+
+    /**
+     * Returns the currency and the funds required by an amount of an order.
+     *
+     * @param order  order
+     * @param amount amount
+     * @return currency and funds
+     */
+    private Map.Entry<CurrencyDTO, BigDecimal> getFunds(final OrderDTO order, final BigDecimal amount) {
+        if (order.getType() == BID) {
+            return Map.entry(order.getCurrencyPair().getQuoteCurrency(), amount.multiply(order.getLimitPrice().getValue()));
+        } else {
+            return Map.entry(order.getCurrencyPair().getBaseCurrency(), amount);
+        }
+    }
+
+    /**
+     * Updates the balances of the trade account with the values of a trade.
+     *
+     * @param orderTypeDTO order type
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param price        price
+     */
+    private void updateBalances(final OrderTypeDTO orderTypeDTO, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal price) {
+        if (orderTypeDTO.equals(BID)) {
+            userService.addToBalance(currencyPair.getBaseCurrency(), amount);
+            userService.addToBalance(currencyPair.getQuoteCurrency(), amount.multiply(price).negate());
+        } else {
+            userService.addToBalance(currencyPair.getBaseCurrency(), amount.negate());
+            userService.addToBalance(currencyPair.getQuoteCurrency(), amount.multiply(price));
+        }
+    }
+
     @Override
     public final OrderCreationResultDTO createBuyMarketOrder(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
         return createMarketOrder(strategy, BID, currencyPair, amount);
@@ -250,16 +559,99 @@ public class TradeServiceDryModeImplementation extends BaseService implements Tr
 
     @Override
     public final OrderCreationResultDTO createBuyLimitOrder(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
-        return new OrderCreationResultDTO("Not implemented", new Exception("Not implemented"));
+        return createLimitOrder(strategy, BID, currencyPair, amount, limitPrice);
     }
 
     @Override
     public final OrderCreationResultDTO createSellLimitOrder(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
-        return new OrderCreationResultDTO("Not implemented", new Exception("Not implemented"));
+        return createLimitOrder(strategy, ASK, currencyPair, amount, limitPrice);
+    }
+
+    @Override
+    public final OrderCreationResultDTO createSellStopOrder(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal stopPrice) {
+        return createStopOrder(strategy, currencyPair, amount, stopPrice);
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createBuyMarketOrderAsync(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+        // Dry mode doesn't call the exchange so we don't need another thread.
+        return CompletableFuture.completedFuture(createBuyMarketOrder(strategy, currencyPair, amount));
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createSellMarketOrderAsync(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+        return CompletableFuture.completedFuture(createSellMarketOrder(strategy, currencyPair, amount));
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createBuyLimitOrderAsync(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
+        return CompletableFuture.completedFuture(createBuyLimitOrder(strategy, currencyPair, amount, limitPrice));
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createSellLimitOrderAsync(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
+        return CompletableFuture.completedFuture(createSellLimitOrder(strategy, currencyPair, amount, limitPrice));
     }
 
     @Override
     public final boolean cancelOrder(final String orderId) {
+        // If the order is waiting in an order book, we cancel it.
+        final Optional<DryOrderBook.RestingOrder> restingOrder = orderBooks.values()
+                .stream()
+                .map(orderBook -> orderBook.remove(orderId))
+                .flatMap(Optional::stream)
+                .findFirst();
+        if (restingOrder.isPresent()) {
+            final OrderDTO initialOrder = restingOrder.get().getOrder();
+            CurrencyAmountDTO averagePrice = null;
+            if (restingOrder.get().getAveragePrice() != null) {
+                averagePrice = CurrencyAmountDTO.builder()
+                        .value(restingOrder.get().getAveragePrice())
+                        .currency(initialOrder.getCurrencyPair().getQuoteCurrency())
+                        .build();
+            }
+            final OrderDTO canceledOrder = OrderDTO.builder()
+                    .orderId(initialOrder.getOrderId())
+                    .type(initialOrder.getType())
+                    .strategy(initialOrder.getStrategy())
+                    .currencyPair(initialOrder.getCurrencyPair())
+                    .amount(initialOrder.getAmount())
+                    .averagePrice(averagePrice)
+                    .limitPrice(initialOrder.getLimitPrice())
+                    .status(CANCELED)
+                    .cumulativeAmount(CurrencyAmountDTO.builder()
+                            .value(restingOrder.get().getCumulativeAmount())
+                            .currency(initialOrder.getCurrencyPair().getBaseCurrency())
+                            .build())
+                    .timestamp(initialOrder.getTimestamp())
+                    .build();
+            releaseFunds(initialOrder, initialOrder.getAmount().getValue().subtract(restingOrder.get().getCumulativeAmount()));
+            scheduler.schedule(() -> orderFlux.emitValue(canceledOrder), latency, TimeUnit.MILLISECONDS);
+            return true;
+        }
+
+        // If the stop order is waiting to be triggered, we cancel it.
+        final Optional<OrderDTO> stopOrder = orderBooks.values()
+                .stream()
+                .map(orderBook -> orderBook.removeStop(orderId))
+                .flatMap(Optional::stream)
+                .findFirst();
+        if (stopOrder.isPresent()) {
+            final OrderDTO canceledOrder = OrderDTO.builder()
+                    .orderId(stopOrder.get().getOrderId())
+                    .type(stopOrder.get().getType())
+                    .strategy(stopOrder.get().getStrategy())
+                    .currencyPair(stopOrder.get().getCurrencyPair())
+                    .amount(stopOrder.get().getAmount())
+                    .status(CANCELED)
+                    .cumulativeAmount(stopOrder.get().getCumulativeAmount())
+                    .timestamp(stopOrder.get().getTimestamp())
+                    .build();
+            releaseFunds(stopOrder.get(), stopOrder.get().getAmount().getValue());
+            scheduler.schedule(() -> orderFlux.emitValue(canceledOrder), latency, TimeUnit.MILLISECONDS);
+            return true;
+        }
+
         final Optional<Order> order = orderRepository.findByOrderId(orderId);
         if (order.isPresent()) {
             orderRepository.delete(order.get());
@@ -292,6 +684,20 @@ public class TradeServiceDryModeImplementation extends BaseService implements Tr
      */
     public void tickerUpdate(final TickerDTO ticker) {
         lastTickers.put(ticker.getCurrencyPair(), ticker);
+
+        // We match the resting orders of the currency pair and trigger its stop orders.
+        final DryOrderBook orderBook = orderBooks.get(ticker.getCurrencyPair());
+        if (orderBook != null && orderBook.size() > 0) {
+            orderBook.match(ticker).forEach(this::processFill);
+            orderBook.triggerStops(ticker).forEach(order -> processStop(order, ticker));
+        }
+    }
+
+    /**
+     * Stops the scheduler used to simulate the exchange (called by Spring on shutdown).
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
     }
 
     /**
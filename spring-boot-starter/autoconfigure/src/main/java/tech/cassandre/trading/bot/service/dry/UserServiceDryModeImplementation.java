@@ -15,15 +15,19 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * User service (dry mode implementation).
+ * Balances are kept in a concurrent ledger (one atomic cell per account and currency) so fills are applied in constant time
+ * from any thread. getUser() returns an immutable snapshot, rebuilt only when a balance has changed.
  */
 public class UserServiceDryModeImplementation extends BaseService implements UserService {
 
@@ -39,8 +43,17 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
     /** Trade account ID. */
     private static final String TRADE_ACCOUNT_ID = "trade";
 
-    /** Simulated user information. */
-    private UserDTO user;
+    /** Account names (in file order). */
+    private final Map<String, String> accountNames = new LinkedHashMap<>();
+
+    /** Balances ledger - account id, currency and balance (currencies in file order). */
+    private final Map<String, Map<CurrencyDTO, AtomicReference<BigDecimal>>> ledger = new ConcurrentHashMap<>();
+
+    /** Ledger version - incremented each time a balance is updated. */
+    private final AtomicLong version = new AtomicLong();
+
+    /** Last user snapshot. */
+    private volatile UserSnapshot snapshot;
 
     /** strategy. */
     private GenericCassandreStrategy strategy;
@@ -49,8 +62,6 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
      * Constructor.
      */
     public UserServiceDryModeImplementation() {
-        Map<String, AccountDTO> accounts = new LinkedHashMap<>();
-
         getFilesToLoad().forEach(file -> {
             if (file.getFilename() != null) {
 
@@ -61,7 +72,7 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
                 logger.info("Adding account '" + accountName + "'");
 
                 // Balances.
-                HashMap<CurrencyDTO, BalanceDTO> balances = new LinkedHashMap<>();
+                Map<CurrencyDTO, AtomicReference<BigDecimal>> balances = Collections.synchronizedMap(new LinkedHashMap<>());
                 try (Scanner scanner = new Scanner(file.getFile())) {
                     while (scanner.hasNextLine()) {
                         try (Scanner rowScanner = new Scanner(scanner.nextLine())) {
@@ -75,11 +86,7 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
                             final String amount = rowScanner.next().replaceAll("\"", "");
                             // Creating balance.
                             logger.info("- Adding balance " + amount + " " + currency);
-                            BalanceDTO balance = BalanceDTO.builder()
-                                    .currency(new CurrencyDTO(currency))
-                                    .available(new BigDecimal(amount))
-                                    .build();
-                            balances.put(new CurrencyDTO(currency), balance);
+                            balances.put(CurrencyDTO.getInstance(currency), new AtomicReference<>(new BigDecimal(amount)));
                         }
                     }
                 } catch (FileNotFoundException e) {
@@ -89,20 +96,10 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
                 }
 
                 // Creating account.
-                accounts.put(accountName,
-                        AccountDTO.builder()
-                                .accountId(accountName)
-                                .name(accountName)
-                                .balances(balances)
-                                .build());
+                accountNames.put(accountName, accountName);
+                ledger.put(accountName, balances);
             }
         });
-
-        // Creates the user.
-        user = UserDTO.builder()
-                .id(USER_ID)
-                .accounts(accounts)
-                .build();
     }
 
     /**
@@ -112,63 +109,76 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
      */
     public void setDependencies(final GenericCassandreStrategy newStrategy) {
         this.strategy = newStrategy;
+        // The strategy receives all the accounts once, then only the balances that change.
+        getUser().ifPresent(user -> strategy.updateAccounts(user.getAccounts().values()));
     }
 
     @Override
     public final Optional<UserDTO> getUser() {
+        // If no balance changed since the last snapshot, we return it.
+        final long currentVersion = version.get();
+        final UserSnapshot lastSnapshot = snapshot;
+        if (lastSnapshot != null && lastSnapshot.version == currentVersion) {
+            return Optional.of(lastSnapshot.user);
+        }
+
+        // Else we build a new one.
+        final Map<String, AccountDTO> accounts = new LinkedHashMap<>();
+        accountNames.keySet().forEach(accountId -> accounts.put(accountId, getAccount(accountId)));
+        final UserDTO user = UserDTO.builder()
+                .id(USER_ID)
+                .accounts(accounts)
+                .build();
+        snapshot = new UserSnapshot(currentVersion, user);
         return Optional.of(user);
     }
 
+    /**
+     * Returns an immutable snapshot of an account.
+     *
+     * @param accountId account id
+     * @return account
+     */
+    private AccountDTO getAccount(final String accountId) {
+        final Map<CurrencyDTO, BalanceDTO> balances = new LinkedHashMap<>();
+        final Map<CurrencyDTO, AtomicReference<BigDecimal>> accountLedger = ledger.get(accountId);
+        synchronized (accountLedger) {
+            accountLedger.forEach((currency, balance) -> balances.put(currency, BalanceDTO.builder()
+                    .currency(currency)
+                    .available(balance.get())
+                    .build()));
+        }
+        return AccountDTO.builder()
+                .accountId(accountId)
+                .name(accountNames.get(accountId))
+                .balances(balances)
+                .build();
+    }
+
     /**
      * Update balance of trade account (method call by trade service).
+     * Only the changed balance is sent to the strategy.
      *
      * @param currency currency
      * @param amount   amount
      */
     public void addToBalance(final CurrencyDTO currency, final BigDecimal amount) {
-        Optional<BalanceDTO> balance = user.getAccounts().get(TRADE_ACCOUNT_ID).getBalance(currency);
-        if (balance.isPresent()) {
-            final Map<String, AccountDTO> accounts = new LinkedHashMap<>();
-
-            // For each account.
-            user.getAccounts().forEach((s, a) -> {
-                HashMap<CurrencyDTO, BalanceDTO> balances = new LinkedHashMap<>();
-
-                // For each balance.
-                a.getBalances().forEach((c, b) -> {
-                    BalanceDTO newBalance;
-                    if (a.getAccountId().equals(TRADE_ACCOUNT_ID) && b.getCurrency().equals(currency)) {
-                        // If we are on the account to update, we calculate the new value.
-                        newBalance = BalanceDTO.builder()
-                                .currency(b.getCurrency())
-                                .available(b.getAvailable().add(amount))
-                                .build();
-                    } else {
-                        // Else we keep the same value.
-                        newBalance = BalanceDTO.builder()
-                                .currency(b.getCurrency())
-                                .available(b.getAvailable())
-                                .build();
+        final Map<CurrencyDTO, AtomicReference<BigDecimal>> tradeAccount = ledger.get(TRADE_ACCOUNT_ID);
+        if (tradeAccount != null) {
+            final AtomicReference<BigDecimal> balance = tradeAccount.get(currency);
+            if (balance != null) {
+                // Locking the balance keeps the values sent to the strategy in the order they were computed.
+                synchronized (balance) {
+                    final BigDecimal newValue = balance.accumulateAndGet(amount, BigDecimal::add);
+                    version.incrementAndGet();
+                    if (strategy != null) {
+                        strategy.updateBalance(TRADE_ACCOUNT_ID, BalanceDTO.builder()
+                                .currency(currency)
+                                .available(newValue)
+                                .build());
                     }
-                    balances.put(newBalance.getCurrency(), newBalance);
-                });
-
-                // Creating account
-                AccountDTO account = AccountDTO.builder()
-                        .accountId(a.getAccountId())
-                        .name(a.getName())
-                        .balances(balances)
-                        .build();
-                accounts.put(account.getAccountId(), account);
-            });
-
-            // Change the user value and the account in the strategy.
-            strategy.getAccounts().clear();
-            strategy.getAccounts().putAll(accounts);
-            user = UserDTO.builder()
-                    .id(USER_ID)
-                    .accounts(accounts)
-                    .build();
+                }
+            }
         }
     }
 
@@ -188,4 +198,28 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
         return Collections.emptyList();
     }
 
+    /**
+     * User snapshot and the ledger version it was built from.
+     */
+    private static final class UserSnapshot {
+
+        /** Ledger version. */
+        private final long version;
+
+        /** User. */
+        private final UserDTO user;
+
+        /**
+         * Constructor.
+         *
+         * @param newVersion ledger version
+         * @param newUser    user
+         */
+        private UserSnapshot(final long newVersion, final UserDTO newUser) {
+            this.version = newVersion;
+            this.user = newUser;
+        }
+
+    }
+
 }
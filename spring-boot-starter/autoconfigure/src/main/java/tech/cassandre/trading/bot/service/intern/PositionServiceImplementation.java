@@ -6,6 +6,7 @@ import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.position.PositionCreationResultDTO;
 import tech.cassandre.trading.bot.dto.position.PositionDTO;
 import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.position.PositionStatusDTO;
 import tech.cassandre.trading.bot.dto.strategy.StrategyDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderDTO;
@@ -23,18 +24,32 @@ import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static java.math.BigDecimal.ONE;
 import static java.math.BigDecimal.ZERO;
 import static java.math.RoundingMode.HALF_UP;
 import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
 import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENED;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENING;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.NEW;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
 
 /**
  * Position service implementation.
+ * Stop gain and stop loss rules are checked on every ticker received and a market order closes the position when one
+ * of them is triggered. When native stop orders are enabled, one protective order is also placed on the exchange as soon
+ * as a position is opened, so the position is protected between two tickers : a stop order if the stop loss rule is set,
+ * else a limit order for the stop gain rule. Spot exchanges lock the assets of an order, so a second order on the same
+ * amount would be refused - the other rule is checked locally, and the protective order is canceled before the position
+ * is closed with a market order. The protective order becomes the closing order of the position as soon as it starts
+ * being executed. Its id is saved with the position, so it's still followed after a restart (or canceled if native stop
+ * orders are disabled). A rule without a live protective order on the exchange is checked locally.
  */
 public class PositionServiceImplementation extends BaseService implements PositionService {
 
@@ -47,6 +62,15 @@ public class PositionServiceImplementation extends BaseService implements Positi
     /** Position flux. */
     private final PositionFlux positionFlux;
 
+    /** True if stop gain and stop loss rules are also placed on the exchange as native orders. */
+    private final boolean nativeStopOrders;
+
+    /** Protective order placed on the exchange for each opened position (position id as key). */
+    private final Map<Long, ProtectiveOrder> protectiveOrders = new ConcurrentHashMap<>();
+
+    /** Position ids by protective order id. */
+    private final Map<String, Long> protectedPositionIds = new ConcurrentHashMap<>();
+
     /**
      * Constructor.
      *
@@ -57,9 +81,26 @@ public class PositionServiceImplementation extends BaseService implements Positi
     public PositionServiceImplementation(final PositionRepository newPositionRepository,
                                          final TradeService newTradeService,
                                          final PositionFlux newPositionFlux) {
+        this(newPositionRepository, newTradeService, newPositionFlux, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newPositionRepository position repository
+     * @param newTradeService       trade service
+     * @param newPositionFlux       position flux
+     * @param newNativeStopOrders   true to place stop gain and stop loss rules on the exchange as native orders
+     */
+    public PositionServiceImplementation(final PositionRepository newPositionRepository,
+                                         final TradeService newTradeService,
+                                         final PositionFlux newPositionFlux,
+                                         final boolean newNativeStopOrders) {
         this.positionRepository = newPositionRepository;
         this.tradeService = newTradeService;
         this.positionFlux = newPositionFlux;
+        this.nativeStopOrders = newNativeStopOrders;
+        restoreProtectiveOrders();
     }
 
     @Override
@@ -118,9 +159,16 @@ public class PositionServiceImplementation extends BaseService implements Positi
                 .stream()
                 .map(positionMapper::mapToPositionDTO)
                 .forEach(p -> {
-                    if (p.orderUpdate(order)) {
+                    boolean protectionUpdated = false;
+                    if (isProtectiveOrder(p, order.getOrderId())) {
+                        protectionUpdated = protectiveOrderUpdate(p, order);
+                    }
+                    if (p.orderUpdate(order) || protectionUpdated) {
                         logger.debug("PositionService - Position {} updated with order {}", p.getPositionId(), order);
                         positionFlux.emitValue(p);
+                        if (p.getStatus() == CLOSED) {
+                            forgetProtectiveOrders(p.getId());
+                        }
                     }
                 });
     }
@@ -132,17 +180,20 @@ public class PositionServiceImplementation extends BaseService implements Positi
                 .stream()
                 .map(positionMapper::mapToPositionDTO)
                 .forEach(p -> {
-/*                    tradeService.getOrders()
-                            .stream()
-                            .filter(o -> o.getOrderId().equals(trade.getOrderId()))
-                            .findFirst()
-                            .ifPresent(orderDTO -> {
-                                System.out.println("==> order update !");
-                                p.orderUpdate(orderDTO);
-                            });*/
+                    final PositionStatusDTO previousStatus = p.getStatus();
+                    // The trade of a protective order may arrive before its order update.
+                    if (isProtectiveOrder(p, trade.getOrderId())) {
+                        protectiveTradeUpdate(p, trade);
+                    }
                     if (p.tradeUpdate(trade)) {
                         logger.debug("PositionService - Position {} updated with trade {}", p.getPositionId(), trade);
+                        if (nativeStopOrders && previousStatus == OPENING && p.getStatus() == OPENED) {
+                            placeProtectiveOrder(p, trade);
+                        }
                         positionFlux.emitValue(p);
+                        if (p.getStatus() == CLOSED) {
+                            forgetProtectiveOrders(p.getId());
+                        }
                     }
                 });
     }
@@ -157,8 +208,8 @@ public class PositionServiceImplementation extends BaseService implements Positi
                 .filter(p -> p.tickerUpdate(ticker))
                 .peek(p -> logger.debug("PositionService - Position {} updated with ticker {}", p.getPositionId(), ticker))
                 .forEach(p -> {
-                    // We close the position if it triggers the rules.
-                    if (p.shouldBeClosed()) {
+                    // We close the position if it triggers the rules (and if no protective order will close it).
+                    if (p.shouldBeClosed() && !isClosedNatively(p) && cancelProtectiveOrder(p)) {
                         final OrderCreationResultDTO orderCreationResult = tradeService.createSellMarketOrder(p.getStrategy(), ticker.getCurrencyPair(), p.getAmount().getValue());
                         if (orderCreationResult.isSuccessful()) {
                             p.closePositionWithOrderId(orderCreationResult.getOrder().getOrderId());
@@ -169,6 +220,222 @@ public class PositionServiceImplementation extends BaseService implements Positi
                 });
     }
 
+    /**
+     * Returns the number of positions protected by an order placed on the exchange.
+     *
+     * @return number of protected positions
+     */
+    public final int getProtectedPositionCount() {
+        return protectiveOrders.size();
+    }
+
+    /**
+     * Follows again the protective orders of the opened positions saved in database (after a restart).
+     * If native stop orders are not enabled anymore, they are canceled and rules are checked locally.
+     */
+    private void restoreProtectiveOrders() {
+        positionRepository.findByStatus(OPENED)
+                .stream()
+                .map(positionMapper::mapToPositionDTO)
+                .filter(p -> p.getProtectiveOrderId() != null)
+                .forEach(p -> {
+                    if (nativeStopOrders) {
+                        final OrderDTO order = OrderDTO.builder()
+                                .orderId(p.getProtectiveOrderId())
+                                .type(ASK)
+                                .strategy(p.getStrategy())
+                                .currencyPair(p.getCurrencyPair())
+                                .amount(p.getAmount())
+                                .status(NEW)
+                                .build();
+                        // The type of the protective order is given by the rules (see placeProtectiveOrder()).
+                        protectiveOrders.put(p.getId(), new ProtectiveOrder(order, p.getRules().isStopLossPercentageSet()));
+                        protectedPositionIds.put(order.getOrderId(), p.getId());
+                        logger.debug("PositionService - Position {} still protected by order {}", p.getPositionId(), order.getOrderId());
+                    } else if (tradeService.cancelOrder(p.getProtectiveOrderId())) {
+                        logger.debug("PositionService - Protective order {} of position {} canceled", p.getProtectiveOrderId(), p.getPositionId());
+                        p.setProtectiveOrderId(null);
+                        positionFlux.emitValue(p);
+                    } else {
+                        logger.warn("PositionService - Protective order {} of position {} could not be canceled", p.getProtectiveOrderId(), p.getPositionId());
+                    }
+                });
+    }
+
+    /**
+     * Places the protective order of a position that was just opened - a stop order for the stop loss rule or, if only
+     * the stop gain rule is set, a limit order.
+     *
+     * @param p     position
+     * @param trade trade that opened the position
+     */
+    private synchronized void placeProtectiveOrder(final PositionDTO p, final TradeDTO trade) {
+        // Like gains, prices are calculated from the price of the first trade.
+        BigDecimal openingPrice = trade.getPrice().getValue();
+        if (p.getOpeningOrder() != null && !p.getOpeningOrder().getTrades().isEmpty()) {
+            openingPrice = p.getOpeningOrder().getTrades().iterator().next().getPrice().getValue();
+        }
+
+        final PositionRulesDTO rules = p.getRules();
+        final OrderCreationResultDTO result;
+        if (rules.isStopLossPercentageSet()) {
+            final BigDecimal stopPrice = openingPrice.multiply(ONE.subtract(getRate(rules.getStopLossPercentage()))).stripTrailingZeros();
+            result = tradeService.createSellStopOrder(p.getStrategy(), p.getCurrencyPair(), p.getAmount().getValue(), stopPrice);
+        } else if (rules.isStopGainPercentageSet()) {
+            final BigDecimal limitPrice = openingPrice.multiply(ONE.add(getRate(rules.getStopGainPercentage()))).stripTrailingZeros();
+            result = tradeService.createSellLimitOrder(p.getStrategy(), p.getCurrencyPair(), p.getAmount().getValue(), limitPrice);
+        } else {
+            return;
+        }
+
+        if (result.isSuccessful()) {
+            protectiveOrders.put(p.getId(), new ProtectiveOrder(result.getOrder(), rules.isStopLossPercentageSet()));
+            protectedPositionIds.put(result.getOrder().getOrderId(), p.getId());
+            p.setProtectiveOrderId(result.getOrder().getOrderId());
+            logger.debug("PositionService - Position {} protected by order {}", p.getPositionId(), result.getOrder().getOrderId());
+        } else {
+            logger.warn("PositionService - Protective order refused for position {}, rules checked locally : {}", p.getPositionId(), result.getErrorMessage());
+        }
+    }
+
+    /**
+     * Applies the update of a protective order.
+     *
+     * @param p     position
+     * @param order protective order
+     * @return true if the position is not protected anymore
+     */
+    private synchronized boolean protectiveOrderUpdate(final PositionDTO p, final OrderDTO order) {
+        final ProtectiveOrder protectiveOrder = protectiveOrders.get(p.getId());
+        if (protectiveOrder == null) {
+            return false;
+        }
+        protectiveOrder.order = order;
+        if (order.getStatus() != null && order.getStatus().isInError() && protectiveOrder.getExecutedAmount().signum() == 0) {
+            // The order is not on the exchange anymore, the rules are checked locally.
+            forgetProtectiveOrder(p);
+            logger.debug("PositionService - Protective order {} of position {} is {}", order.getOrderId(), p.getPositionId(), order.getStatus());
+            return true;
+        }
+        if (protectiveOrder.getExecutedAmount().signum() > 0) {
+            closeWithProtectiveOrder(p, protectiveOrder);
+        }
+        return false;
+    }
+
+    /**
+     * Applies a trade of a protective order - the trade may arrive before the order update.
+     *
+     * @param p     position
+     * @param trade trade of a protective order
+     */
+    private synchronized void protectiveTradeUpdate(final PositionDTO p, final TradeDTO trade) {
+        final ProtectiveOrder protectiveOrder = protectiveOrders.get(p.getId());
+        if (protectiveOrder == null) {
+            return;
+        }
+        protectiveOrder.trades.put(trade.getTradeId(), trade);
+        closeWithProtectiveOrder(p, protectiveOrder);
+    }
+
+    /**
+     * Closes a position with its protective order as soon as it starts being executed - all the trades of the order
+     * received are counted to close the position (partial executions included).
+     *
+     * @param p               position
+     * @param protectiveOrder protective order
+     */
+    private void closeWithProtectiveOrder(final PositionDTO p, final ProtectiveOrder protectiveOrder) {
+        final String orderId = protectiveOrder.order.getOrderId();
+        if (p.getStatus() == OPENED) {
+            p.closePositionWithOrderId(orderId);
+            logger.debug("PositionService - Position {} closed with protective order {}", p.getPositionId(), orderId);
+        }
+        if (orderId.equals(p.getClosingOrderId())) {
+            // The closing order is known before it's saved, with all the trades already received.
+            final Set<TradeDTO> trades = protectiveOrder.getTrades();
+            p.orderUpdate(protectiveOrder.order.toBuilder().clearTrades().trades(trades).build());
+            // All the trades may have been received before the order update.
+            trades.stream().findFirst().ifPresent(p::tradeUpdate);
+        }
+    }
+
+    /**
+     * Returns true if the protective order on the exchange will close the position for the rule triggered.
+     *
+     * @param p position
+     * @return true if the position should not be closed locally
+     */
+    private boolean isClosedNatively(final PositionDTO p) {
+        final ProtectiveOrder protectiveOrder = protectiveOrders.get(p.getId());
+        return protectiveOrder != null
+                && (p.isStopLossTriggered() && protectiveOrder.stopLoss
+                || p.isStopGainTriggered() && !protectiveOrder.stopLoss);
+    }
+
+    /**
+     * Cancels the protective order of a position before it's closed locally - the assets it locks are released.
+     *
+     * @param p position
+     * @return true if the position has no protective order left on the exchange
+     */
+    private synchronized boolean cancelProtectiveOrder(final PositionDTO p) {
+        final ProtectiveOrder protectiveOrder = protectiveOrders.get(p.getId());
+        if (protectiveOrder == null) {
+            return true;
+        }
+        if (tradeService.cancelOrder(protectiveOrder.order.getOrderId())) {
+            forgetProtectiveOrder(p);
+            return true;
+        }
+        logger.warn("PositionService - Protective order {} of position {} could not be canceled, position not closed", protectiveOrder.order.getOrderId(), p.getPositionId());
+        return false;
+    }
+
+    /**
+     * Forgets the protective order of a position that is still opened - its rules are checked locally.
+     *
+     * @param p position
+     */
+    private void forgetProtectiveOrder(final PositionDTO p) {
+        forgetProtectiveOrders(p.getId());
+        p.setProtectiveOrderId(null);
+    }
+
+    /**
+     * Forgets the protective order of a position.
+     *
+     * @param positionId position id
+     */
+    private synchronized void forgetProtectiveOrders(final long positionId) {
+        final ProtectiveOrder protectiveOrder = protectiveOrders.remove(positionId);
+        if (protectiveOrder != null) {
+            protectedPositionIds.remove(protectiveOrder.order.getOrderId());
+        }
+    }
+
+    /**
+     * Returns true if the order is the protective order of the position.
+     *
+     * @param p       position
+     * @param orderId order id
+     * @return true if protective order
+     */
+    private boolean isProtectiveOrder(final PositionDTO p, final String orderId) {
+        final Long positionId = protectedPositionIds.get(orderId);
+        return positionId != null && positionId == p.getId();
+    }
+
+    /**
+     * Returns the rate of a percentage.
+     *
+     * @param percentage percentage
+     * @return rate
+     */
+    private static BigDecimal getRate(final Float percentage) {
+        return new BigDecimal(Float.toString(percentage)).movePointLeft(2);
+    }
+
     @Override
     public final HashMap<CurrencyDTO, GainDTO> getGains() {
         HashMap<CurrencyDTO, BigDecimal> totalBought = new LinkedHashMap<>();
@@ -232,4 +499,56 @@ public class PositionServiceImplementation extends BaseService implements Positi
         return gains;
     }
 
+    /**
+     * Protective order of a position (its last known value).
+     */
+    private static final class ProtectiveOrder {
+
+        /** Order placed on the exchange. */
+        private OrderDTO order;
+
+        /** True if it's a stop order for the stop loss rule, false if it's a limit order for the stop gain rule. */
+        private final boolean stopLoss;
+
+        /** Trades of the order received (trade id as key). */
+        private final Map<String, TradeDTO> trades = new LinkedHashMap<>();
+
+        /**
+         * Constructor.
+         *
+         * @param newOrder    order placed on the exchange
+         * @param newStopLoss true if it's a stop order for the stop loss rule
+         */
+        private ProtectiveOrder(final OrderDTO newOrder, final boolean newStopLoss) {
+            this.order = newOrder;
+            this.stopLoss = newStopLoss;
+        }
+
+        /**
+         * Returns the trades of the order received.
+         *
+         * @return trades
+         */
+        private Set<TradeDTO> getTrades() {
+            return new LinkedHashSet<>(trades.values());
+        }
+
+        /**
+         * Returns the amount executed (from the trades or from the last order update).
+         *
+         * @return amount executed
+         */
+        private BigDecimal getExecutedAmount() {
+            final BigDecimal tradedAmount = trades.values()
+                    .stream()
+                    .map(trade -> trade.getAmount().getValue())
+                    .reduce(ZERO, BigDecimal::add);
+            if (order.getCumulativeAmount() != null && order.getCumulativeAmount().getValue() != null) {
+                return tradedAmount.max(order.getCumulativeAmount().getValue());
+            }
+            return tradedAmount;
+        }
+
+    }
+
 }
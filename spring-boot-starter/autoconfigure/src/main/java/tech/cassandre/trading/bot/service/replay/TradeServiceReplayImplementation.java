@@ -0,0 +1,334 @@
+package tech.cassandre.trading.bot.service.replay;
+
+import tech.cassandre.trading.bot.dto.strategy.StrategyDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.service.TradeService;
+import tech.cassandre.trading.bot.util.base.service.BaseService;
+import tech.cassandre.trading.bot.util.replay.ReplayClock;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.PENDING_NEW;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+
+/**
+ * Trade service (replay implementation).
+ * Orders created by the strategy are matched with the orders created during the recorded session (same type,
+ * currency pair, amount and limit price, recorded less than the time tolerance before or after the replay clock time).
+ * When several recorded orders match, the first one recorded is used. A matched order gets the recorded order id so the
+ * recorded order and trade updates that follow apply to it, and the difference between the replay clock time and the
+ * time the order was recorded is kept. Orders without a match get a replay order id and are reported as unexpected.
+ */
+public class TradeServiceReplayImplementation extends BaseService implements TradeService {
+
+    /** Replay order prefix (orders without a match in the recorded session). */
+    private static final String REPLAY_ORDER_PREFIX = "REPLAY_ORDER_";
+
+    /** Replay clock. */
+    private final ReplayClock clock;
+
+    /** Orders created by the strategy during the recorded session (in creation order). */
+    private final List<OrderDTO> recordedOrders;
+
+    /** Time when the orders of the recorded session were recorded - order id and epoch milliseconds. */
+    private final Map<String, Long> recordedTimes;
+
+    /** Maximum difference between the time an order was recorded and the time it's created again. */
+    private final Duration timeTolerance;
+
+    /** Difference between the replay clock time and the recorded time of the orders matched - order id and difference. */
+    private final Map<String, Duration> timingDifferences = new LinkedHashMap<>();
+
+    /** Recorded order ids matched with an order created during the replay. */
+    private final Set<String> matchedOrderIds = new LinkedHashSet<>();
+
+    /** Orders created by the strategy during the replay. */
+    private final List<OrderDTO> producedOrders = new LinkedList<>();
+
+    /** Orders created by the strategy during the replay without a match in the recorded session. */
+    private final List<OrderDTO> unexpectedOrders = new LinkedList<>();
+
+    /** Last known value of the orders replayed. */
+    private final Map<String, OrderDTO> orders = new LinkedHashMap<>();
+
+    /** Trades replayed. */
+    private final Map<String, TradeDTO> trades = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param newClock          replay clock
+     * @param newRecordedOrders orders created by the strategy during the recorded session (in creation order)
+     * @param newRecordedTimes  time when the orders were recorded - order id and epoch milliseconds
+     * @param newTimeTolerance  maximum difference between the time an order was recorded and the time it's created again
+     */
+    public TradeServiceReplayImplementation(final ReplayClock newClock,
+                                            final List<OrderDTO> newRecordedOrders,
+                                            final Map<String, Long> newRecordedTimes,
+                                            final Duration newTimeTolerance) {
+        this.clock = newClock;
+        this.recordedOrders = new LinkedList<>(newRecordedOrders);
+        this.recordedTimes = new LinkedHashMap<>(newRecordedTimes);
+        this.timeTolerance = newTimeTolerance;
+    }
+
+    @Override
+    public final OrderCreationResultDTO createBuyMarketOrder(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+        return createOrder(strategy, BID, currencyPair, amount, null);
+    }
+
+    @Override
+    public final OrderCreationResultDTO createSellMarketOrder(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+        return createOrder(strategy, ASK, currencyPair, amount, null);
+    }
+
+    @Override
+    public final OrderCreationResultDTO createBuyLimitOrder(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
+        return createOrder(strategy, BID, currencyPair, amount, limitPrice);
+    }
+
+    @Override
+    public final OrderCreationResultDTO createSellLimitOrder(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
+        return createOrder(strategy, ASK, currencyPair, amount, limitPrice);
+    }
+
+    /**
+     * {@inheritDoc}
+     * During a replay, stop orders are matched like market orders - the recorded order updates tell when they were triggered.
+     */
+    @Override
+    public final OrderCreationResultDTO createSellStopOrder(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal stopPrice) {
+        return createOrder(strategy, ASK, currencyPair, amount, null);
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createBuyMarketOrderAsync(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+        // Replay doesn't call the exchange so we don't need another thread.
+        return CompletableFuture.completedFuture(createBuyMarketOrder(strategy, currencyPair, amount));
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createSellMarketOrderAsync(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+        return CompletableFuture.completedFuture(createSellMarketOrder(strategy, currencyPair, amount));
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createBuyLimitOrderAsync(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
+        return CompletableFuture.completedFuture(createBuyLimitOrder(strategy, currencyPair, amount, limitPrice));
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createSellLimitOrderAsync(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
+        return CompletableFuture.completedFuture(createSellLimitOrder(strategy, currencyPair, amount, limitPrice));
+    }
+
+    /**
+     * {@inheritDoc}
+     * During a replay, cancellations are not simulated - the recorded order updates tell what really happened.
+     */
+    @Override
+    public final synchronized boolean cancelOrder(final String orderId) {
+        logger.debug("TradeService - Cancel order {} during replay", orderId);
+        return orders.containsKey(orderId) || matchedOrderIds.contains(orderId);
+    }
+
+    @Override
+    public final synchronized Set<OrderDTO> getOrders() {
+        return new LinkedHashSet<>(orders.values());
+    }
+
+    @Override
+    public final synchronized Set<TradeDTO> getTrades() {
+        return new LinkedHashSet<>(trades.values());
+    }
+
+    /**
+     * Method called by the replay runner on every order replayed.
+     *
+     * @param order order
+     */
+    public final synchronized void orderUpdate(final OrderDTO order) {
+        orders.put(order.getOrderId(), order);
+    }
+
+    /**
+     * Method called by the replay runner on every trade replayed.
+     *
+     * @param trade trade
+     */
+    public final synchronized void tradeUpdate(final TradeDTO trade) {
+        trades.put(trade.getTradeId(), trade);
+    }
+
+    /**
+     * Returns true if the recorded order was created again during the replay.
+     *
+     * @param orderId recorded order id
+     * @return true if matched
+     */
+    public final synchronized boolean isMatched(final String orderId) {
+        return matchedOrderIds.contains(orderId);
+    }
+
+    /**
+     * Returns the orders created by the strategy during the replay.
+     *
+     * @return orders
+     */
+    public final synchronized List<OrderDTO> getProducedOrders() {
+        return new LinkedList<>(producedOrders);
+    }
+
+    /**
+     * Returns the orders created during the replay without a match in the recorded session.
+     *
+     * @return orders
+     */
+    public final synchronized List<OrderDTO> getUnexpectedOrders() {
+        return new LinkedList<>(unexpectedOrders);
+    }
+
+    /**
+     * Returns, for each order matched, the difference between the time it was created during the replay and the time it
+     * was recorded (negative if the order was created earlier than during the recorded session).
+     *
+     * @return recorded order id and timing difference
+     */
+    public final synchronized Map<String, Duration> getTimingDifferences() {
+        return new LinkedHashMap<>(timingDifferences);
+    }
+
+    /**
+     * Returns the orders of the recorded session that were not created during the replay.
+     *
+     * @return orders
+     */
+    public final synchronized List<OrderDTO> getMissingOrders() {
+        return recordedOrders.stream()
+                .filter(order -> !matchedOrderIds.contains(order.getOrderId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates an order and matches it with the recorded orders.
+     *
+     * @param strategy     strategy
+     * @param type         order type
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param limitPrice   limit price (null for market orders)
+     * @return order creation result
+     */
+    private synchronized OrderCreationResultDTO createOrder(final StrategyDTO strategy,
+                                                            final OrderTypeDTO type,
+                                                            final CurrencyPairDTO currencyPair,
+                                                            final BigDecimal amount,
+                                                            final BigDecimal limitPrice) {
+        final long now = clock.millis();
+        final Optional<OrderDTO> recordedOrder = recordedOrders.stream()
+                .filter(order -> !matchedOrderIds.contains(order.getOrderId()))
+                .filter(order -> isSameOrder(order, type, currencyPair, amount, limitPrice))
+                .filter(order -> getTimingDifference(order, now).abs().compareTo(timeTolerance) <= 0)
+                .findFirst();
+        final String orderId;
+        if (recordedOrder.isPresent()) {
+            orderId = recordedOrder.get().getOrderId();
+            matchedOrderIds.add(orderId);
+            timingDifferences.put(orderId, getTimingDifference(recordedOrder.get(), now));
+        } else {
+            orderId = REPLAY_ORDER_PREFIX + (producedOrders.size() + 1);
+        }
+
+        final OrderDTO.OrderDTOBuilder builder = OrderDTO.builder()
+                .orderId(orderId)
+                .type(type)
+                .strategy(strategy)
+                .currencyPair(currencyPair)
+                .amount(CurrencyAmountDTO.builder()
+                        .value(amount)
+                        .currency(currencyPair.getBaseCurrency())
+                        .build())
+                .status(PENDING_NEW)
+                .timestamp(clock.now());
+        if (limitPrice != null) {
+            builder.limitPrice(CurrencyAmountDTO.builder()
+                    .value(limitPrice)
+                    .currency(currencyPair.getQuoteCurrency())
+                    .build());
+        }
+        final OrderDTO order = builder.build();
+        producedOrders.add(order);
+        if (recordedOrder.isEmpty()) {
+            unexpectedOrders.add(order);
+            logger.warn("TradeService - Order created during replay without match in the recorded session : {}", order);
+        }
+        return new OrderCreationResultDTO(order);
+    }
+
+    /**
+     * Returns the difference between a time of the replay and the time a recorded order was recorded.
+     *
+     * @param order recorded order
+     * @param time  replay time (epoch milliseconds)
+     * @return difference (zero if the recorded time is unknown)
+     */
+    private Duration getTimingDifference(final OrderDTO order, final long time) {
+        final Long recordedTime = recordedTimes.get(order.getOrderId());
+        if (recordedTime == null) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(time - recordedTime);
+    }
+
+    /**
+     * Returns true if a recorded order has the characteristics of an order created during the replay.
+     *
+     * @param order        recorded order
+     * @param type         order type
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param limitPrice   limit price (null for market orders)
+     * @return true if they are the same
+     */
+    private static boolean isSameOrder(final OrderDTO order,
+                                       final OrderTypeDTO type,
+                                       final CurrencyPairDTO currencyPair,
+                                       final BigDecimal amount,
+                                       final BigDecimal limitPrice) {
+        return order.getType() == type
+                && currencyPair.equals(order.getCurrencyPair())
+                && isSameValue(order.getAmount(), amount)
+                && isSameValue(order.getLimitPrice(), limitPrice);
+    }
+
+    /**
+     * Returns true if a recorded amount has the same value.
+     *
+     * @param recordedValue recorded amount
+     * @param value         value
+     * @return true if both are null or equal
+     */
+    private static boolean isSameValue(final CurrencyAmountDTO recordedValue, final BigDecimal value) {
+        if (recordedValue == null || recordedValue.getValue() == null) {
+            return value == null;
+        }
+        return value != null && recordedValue.getValue().compareTo(value) == 0;
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Replay mode implementation.
+ */
+package tech.cassandre.trading.bot.service.replay;
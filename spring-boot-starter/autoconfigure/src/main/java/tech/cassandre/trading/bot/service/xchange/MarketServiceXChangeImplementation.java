@@ -1,13 +1,32 @@
 package tech.cassandre.trading.bot.service.xchange;
 
+import org.knowm.xchange.dto.marketdata.Trade;
+import org.knowm.xchange.exceptions.ExchangeException;
 import org.knowm.xchange.service.marketdata.MarketDataService;
+import tech.cassandre.trading.bot.dto.market.CandleDTO;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 import tech.cassandre.trading.bot.service.MarketService;
 import tech.cassandre.trading.bot.util.base.service.BaseService;
+import tech.cassandre.trading.bot.util.candle.CandleProvider;
+import tech.cassandre.trading.bot.util.limiter.ExchangeRateLimiter;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static tech.cassandre.trading.bot.util.limiter.RequestPriority.HISTORY;
+import static tech.cassandre.trading.bot.util.limiter.RequestPriority.TICKER;
 
 /**
  * Market service - XChange implementation.
@@ -17,6 +36,9 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
     /** XChange service. */
     private final MarketDataService marketDataService;
 
+    /** Candle provider of the exchange (null if the exchange has none). */
+    private final CandleProvider candleProvider;
+
     /**
      * Constructor.
      *
@@ -26,6 +48,37 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
     public MarketServiceXChangeImplementation(final long rate, final MarketDataService newMarketDataService) {
         super(rate);
         this.marketDataService = newMarketDataService;
+        this.candleProvider = null;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rate                 rate in ms
+     * @param rateLimiter          rate limiter shared by all services calling the exchange
+     * @param newMarketDataService market data service
+     */
+    public MarketServiceXChangeImplementation(final long rate,
+                                              final ExchangeRateLimiter rateLimiter,
+                                              final MarketDataService newMarketDataService) {
+        this(rate, rateLimiter, newMarketDataService, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rate                 rate in ms
+     * @param rateLimiter          rate limiter shared by all services calling the exchange
+     * @param newMarketDataService market data service
+     * @param newCandleProvider    candle provider of the exchange (null if the exchange has none)
+     */
+    public MarketServiceXChangeImplementation(final long rate,
+                                              final ExchangeRateLimiter rateLimiter,
+                                              final MarketDataService newMarketDataService,
+                                              final CandleProvider newCandleProvider) {
+        super(rate, rateLimiter);
+        this.marketDataService = newMarketDataService;
+        this.candleProvider = newCandleProvider;
     }
 
     @Override
@@ -34,12 +87,15 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
             // Consume a token from the token bucket.
             // If a token is not available this method will block until the refill adds one to the bucket.
             getBucket().asScheduler().consume(1);
+            getRateLimiter().acquire(TICKER);
 
             logger.debug("MarketService - Getting ticker for {}", currencyPair);
             TickerDTO t = tickerMapper.mapToTickerDTO(marketDataService.getTicker(currencyMapper.mapToCurrencyPair(currencyPair)));
+            getRateLimiter().reportSuccess();
             logger.debug("MarketService - Retrieved value is : {}", t);
             return Optional.ofNullable(t);
-        } catch (IOException e) {
+        } catch (IOException | ExchangeException e) {
+            getRateLimiter().reportFailure(e);
             logger.error("MarketService - Error retrieving ticker about {} : {}", currencyPair, e.getMessage());
             return Optional.empty();
         } catch (InterruptedException e) {
@@ -48,4 +104,231 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * XChange (5.0.x) doesn't offer a generic kline API so candles are retrieved with the candle provider of the
+     * exchange when there is one supporting the period. Otherwise (or if the provider fails), candles are built from
+     * the public trades returned by the exchange. The history available then depends on the exchange (usually the last
+     * few hundred trades, so a few minutes) - a warning is logged when the trades don't cover the period requested, as
+     * fewer candles are returned.
+     */
+    @Override
+    public final Set<CandleDTO> getCandles(final CurrencyPairDTO currencyPair, final Duration period, final int count) {
+        if (period == null || period.isZero() || period.isNegative() || count <= 0) {
+            return Collections.emptySet();
+        }
+        if (candleProvider != null && candleProvider.isSupported(period)) {
+            final Set<CandleDTO> candles = getCandlesFromProvider(currencyPair, period, count);
+            if (!candles.isEmpty()) {
+                return candles;
+            }
+            logger.warn("MarketService - No candle returned by the candle provider for {}, candles will be built from trades", currencyPair);
+        }
+        return getCandlesFromTrades(currencyPair, period, count);
+    }
+
+    /**
+     * Retrieves candles with the candle provider, requesting them by pages from the oldest to the newest.
+     *
+     * @param currencyPair currency pair
+     * @param period       duration of a candle
+     * @param count        maximum number of candles to return
+     * @return candles sorted from the oldest to the newest (empty if the provider failed)
+     */
+    private Set<CandleDTO> getCandlesFromProvider(final CurrencyPairDTO currencyPair, final Duration period, final int count) {
+        final long periodInMillis = period.toMillis();
+        final long now = System.currentTimeMillis();
+        // The current candle is not finished, so it's not requested (the ticker flux will build it).
+        final long end = now - Math.floorMod(now, periodInMillis);
+        final int pageSize = Math.max(1, candleProvider.getMaximumCandlesPerRequest());
+        final NavigableMap<Long, CandleDTO> candles = new TreeMap<>();
+        try {
+            final long pageDuration = pageSize * periodInMillis;
+            for (long pageStart = end - count * periodInMillis; pageStart < end; pageStart += pageDuration) {
+                final long pageEnd = Math.min(end, pageStart + pageDuration);
+                getBucket().asScheduler().consume(1);
+                getRateLimiter().acquire(HISTORY);
+                logger.debug("MarketService - Getting candles for {} from candle provider", currencyPair);
+                candleProvider.getCandles(currencyPair,
+                        period,
+                        ZonedDateTime.ofInstant(Instant.ofEpochMilli(pageStart), ZoneId.systemDefault()),
+                        ZonedDateTime.ofInstant(Instant.ofEpochMilli(pageEnd), ZoneId.systemDefault()))
+                        .stream()
+                        .filter(candle -> candle.getTimestamp() != null)
+                        .forEach(candle -> candles.put(candle.getTimestamp().toInstant().toEpochMilli(), candle));
+                getRateLimiter().reportSuccess();
+            }
+        } catch (IOException | ExchangeException | UnsupportedOperationException e) {
+            getRateLimiter().reportFailure(e);
+            logger.error("MarketService - Error retrieving candles from candle provider about {} : {}", currencyPair, e.getMessage());
+            return Collections.emptySet();
+        } catch (InterruptedException e) {
+            logger.error("MarketService - InterruptedException {} : {}", currencyPair, e.getMessage());
+            return Collections.emptySet();
+        }
+
+        // We only keep the most recent finished candles.
+        candles.tailMap(end, true).clear();
+        while (candles.size() > count) {
+            candles.pollFirstEntry();
+        }
+        logger.debug("MarketService - {} candles retrieved from candle provider", candles.size());
+        return new LinkedHashSet<>(candles.values());
+    }
+
+    /**
+     * Builds candles from the public trades returned by the exchange.
+     *
+     * @param currencyPair currency pair
+     * @param period       duration of a candle
+     * @param count        maximum number of candles to return
+     * @return candles sorted from the oldest to the newest
+     */
+    private Set<CandleDTO> getCandlesFromTrades(final CurrencyPairDTO currencyPair, final Duration period, final int count) {
+        try {
+            // Consume a token from the token bucket.
+            // If a token is not available this method will block until the refill adds one to the bucket.
+            getBucket().asScheduler().consume(1);
+            getRateLimiter().acquire(HISTORY);
+
+            logger.debug("MarketService - Getting candles for {}", currencyPair);
+            final List<Trade> trades = marketDataService.getTrades(currencyMapper.mapToCurrencyPair(currencyPair)).getTrades();
+            getRateLimiter().reportSuccess();
+            final Set<CandleDTO> candles = buildCandles(currencyPair, trades, period, count);
+            logger.debug("MarketService - {} candles built from {} trades", candles.size(), trades.size());
+            checkHistoryCoverage(currencyPair, trades, period, count, candles.size());
+            return candles;
+        } catch (IOException | ExchangeException | UnsupportedOperationException e) {
+            getRateLimiter().reportFailure(e);
+            logger.error("MarketService - Error retrieving candles about {} : {}", currencyPair, e.getMessage());
+            return Collections.emptySet();
+        } catch (InterruptedException e) {
+            logger.error("MarketService - InterruptedException {} : {}", currencyPair, e.getMessage());
+            return Collections.emptySet();
+        }
+    }
+
+    /**
+     * Logs a warning if the trades returned by the exchange don't cover the period of the candles requested.
+     *
+     * @param currencyPair currency pair
+     * @param trades       trades
+     * @param period       duration of a candle
+     * @param count        number of candles requested
+     * @param candleCount  number of candles built
+     */
+    private void checkHistoryCoverage(final CurrencyPairDTO currencyPair,
+                                      final List<Trade> trades,
+                                      final Duration period,
+                                      final int count,
+                                      final int candleCount) {
+        final Duration requested = period.multipliedBy(count);
+        final Optional<Instant> oldestTrade = trades.stream()
+                .filter(trade -> trade.getTimestamp() != null)
+                .map(trade -> trade.getTimestamp().toInstant())
+                .min(Instant::compareTo);
+        if (oldestTrade.isEmpty()) {
+            logger.warn("MarketService - No trade returned for {}, {} candle(s) of {} requested can't be built", currencyPair, count, period);
+            return;
+        }
+        final Duration covered = Duration.between(oldestTrade.get(), Instant.now());
+        if (covered.compareTo(requested) < 0) {
+            logger.warn("MarketService - Trades returned for {} only cover {} of the {} requested ({} candle(s) of {} built instead of {})",
+                    currencyPair, covered, requested, candleCount, period, count);
+        }
+    }
+
+    /**
+     * Aggregates trades into candles.
+     *
+     * @param currencyPair currency pair
+     * @param trades       trades
+     * @param period       duration of a candle
+     * @param count        maximum number of candles to return
+     * @return candles sorted from the oldest to the newest
+     */
+    private Set<CandleDTO> buildCandles(final CurrencyPairDTO currencyPair,
+                                        final List<Trade> trades,
+                                        final Duration period,
+                                        final int count) {
+        final long periodInMillis = period.toMillis();
+        final NavigableMap<Long, CandleAggregate> aggregates = new TreeMap<>();
+        trades.stream()
+                .filter(trade -> trade.getTimestamp() != null && trade.getPrice() != null && trade.getOriginalAmount() != null)
+                .forEach(trade -> {
+                    final long time = trade.getTimestamp().getTime();
+                    aggregates.computeIfAbsent(time - Math.floorMod(time, periodInMillis), start -> new CandleAggregate())
+                            .add(time, trade.getPrice(), trade.getOriginalAmount());
+                });
+
+        // We only keep the most recent candles.
+        while (aggregates.size() > count) {
+            aggregates.pollFirstEntry();
+        }
+        final Set<CandleDTO> candles = new LinkedHashSet<>();
+        aggregates.forEach((start, aggregate) -> candles.add(CandleDTO.builder()
+                .currencyPair(currencyPair)
+                .timestamp(ZonedDateTime.ofInstant(Instant.ofEpochMilli(start), ZoneId.systemDefault()))
+                .open(aggregate.open)
+                .high(aggregate.high)
+                .low(aggregate.low)
+                .close(aggregate.close)
+                .volume(aggregate.volume)
+                .build()));
+        return candles;
+    }
+
+    /**
+     * Candle being built from trades.
+     */
+    private static final class CandleAggregate {
+
+        /** Timestamp of the first trade. */
+        private long openTime = Long.MAX_VALUE;
+
+        /** Timestamp of the last trade. */
+        private long closeTime = Long.MIN_VALUE;
+
+        /** Open price. */
+        private BigDecimal open;
+
+        /** High price. */
+        private BigDecimal high;
+
+        /** Low price. */
+        private BigDecimal low;
+
+        /** Close price. */
+        private BigDecimal close;
+
+        /** Volume. */
+        private BigDecimal volume = BigDecimal.ZERO;
+
+        /**
+         * Adds a trade to the candle.
+         *
+         * @param time   trade timestamp
+         * @param price  trade price
+         * @param amount trade amount
+         */
+        private void add(final long time, final BigDecimal price, final BigDecimal amount) {
+            if (time < openTime) {
+                open = price;
+                openTime = time;
+            }
+            if (time >= closeTime) {
+                close = price;
+                closeTime = time;
+            }
+            if (high == null || price.compareTo(high) > 0) {
+                high = price;
+            }
+            if (low == null || price.compareTo(low) < 0) {
+                low = price;
+            }
+            volume = volume.add(amount);
+        }
+
+    }
+
 }
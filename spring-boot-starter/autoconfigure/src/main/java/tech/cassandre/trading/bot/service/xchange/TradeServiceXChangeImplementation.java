@@ -1,8 +1,15 @@
 package tech.cassandre.trading.bot.service.xchange;
 
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.lang3.time.DateUtils;
+import org.knowm.xchange.dto.Order;
 import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.dto.trade.MarketOrder;
+import org.knowm.xchange.dto.trade.StopOrder;
+import org.knowm.xchange.exceptions.ExchangeException;
+import org.knowm.xchange.exceptions.NotAvailableFromExchangeException;
+import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
 import org.knowm.xchange.service.trade.params.TradeHistoryParamsAll;
 import tech.cassandre.trading.bot.dto.strategy.StrategyDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
@@ -14,37 +21,80 @@ import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 import tech.cassandre.trading.bot.repository.OrderRepository;
 import tech.cassandre.trading.bot.service.TradeService;
 import tech.cassandre.trading.bot.util.base.service.BaseService;
+import tech.cassandre.trading.bot.util.limiter.ExchangeRateLimiter;
+import tech.cassandre.trading.bot.util.polling.TradePollingPolicy;
+import tech.cassandre.trading.bot.util.tracker.OrderTracker;
 
+import javax.annotation.PreDestroy;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.PENDING_NEW;
 import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
 import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+import static tech.cassandre.trading.bot.util.limiter.RequestPriority.HISTORY;
+import static tech.cassandre.trading.bot.util.limiter.RequestPriority.ORDER;
+import static tech.cassandre.trading.bot.util.limiter.RequestPriority.ORDER_STATUS;
 
 /**
  * Trade service - XChange implementation.
  */
 public class TradeServiceXChangeImplementation extends BaseService implements TradeService {
 
+    /** Number of threads used to send orders concurrently to the exchange. */
+    private static final int ORDER_GATEWAY_THREADS = 4;
+
+    /** Time given to the order gateway to send the orders already submitted on shutdown (ms). */
+    private static final long ORDER_GATEWAY_SHUTDOWN_TIMEOUT = 5_000;
+
+    /** Maximum number of orders queried in one call to the exchange. */
+    private static final int ORDER_QUERY_BATCH_SIZE = 20;
+
+    /** Maximum time a local order is returned by getOrders() if the order flux doesn't save it (minutes). */
+    private static final long LOCAL_ORDER_MAXIMUM_AGE = 10;
+
     /** Order repository. */
     private final OrderRepository orderRepository;
 
     /** XChange service. */
     private final org.knowm.xchange.service.trade.TradeService tradeService;
 
-    /** Hashmap used to store orders created locally. */
+    /** Trade polling policy - switched to hot mode when an order is created. */
+    private final TradePollingPolicy tradePollingPolicy;
+
+    /** Orders created locally and not yet saved in database - also returned by getOrders() until the order flux saves them. */
     private final Map<String, OrderDTO> localOrders = new ConcurrentHashMap<>();
 
+    /** Orders placed by strategies whose status is followed until they are terminal. */
+    private final OrderTracker orderTracker = new OrderTracker();
+
+    /** True once the orders not terminal saved in database are tracked. */
+    private boolean orderTrackerInitialized;
+
+    /** False if the exchange can't return the status of an order by its id. */
+    private volatile boolean orderQueryAvailable = true;
+
+    /** Executor used to send orders without blocking the caller (flux threads). */
+    private final ExecutorService orderGatewayExecutor = Executors.newFixedThreadPool(ORDER_GATEWAY_THREADS,
+            new ThreadFactoryBuilder().setNameFormat("order-gateway-%d").setDaemon(true).build());
+
     /**
      * Constructor.
      *
@@ -58,6 +108,27 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
         super(rate);
         this.orderRepository = newOrderRepository;
         this.tradeService = newTradeService;
+        this.tradePollingPolicy = new TradePollingPolicy();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rate               rate in ms
+     * @param rateLimiter           rate limiter shared by all services calling the exchange
+     * @param newTradePollingPolicy trade polling policy
+     * @param newOrderRepository    order repository
+     * @param newTradeService       market data service
+     */
+    public TradeServiceXChangeImplementation(final long rate,
+                                             final ExchangeRateLimiter rateLimiter,
+                                             final TradePollingPolicy newTradePollingPolicy,
+                                             final OrderRepository newOrderRepository,
+                                             final org.knowm.xchange.service.trade.TradeService newTradeService) {
+        super(rate, rateLimiter);
+        this.tradePollingPolicy = newTradePollingPolicy;
+        this.orderRepository = newOrderRepository;
+        this.tradeService = newTradeService;
     }
 
     /**
@@ -80,8 +151,11 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
                     currencyMapper.mapToCurrencyPair(currencyPair));
             logger.debug("TradeService - Sending market order : {} - {} - {}", orderTypeDTO, currencyPair, amount);
 
-            // Sending the order.
+            // Sending the order (orders have the highest priority and don't wait for the service rate).
+            getRateLimiter().acquire(ORDER);
             final String orderId = tradeService.placeMarketOrder(m);
+            getRateLimiter().reportSuccess();
+            tradePollingPolicy.markActive();
             OrderDTO openingOrder = OrderDTO.builder()
                     .orderId(orderId)
                     .type(orderTypeDTO)
@@ -95,10 +169,12 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
                     .timestamp(ZonedDateTime.now())
                     .build();
             localOrders.put(orderId, openingOrder);
+            orderTracker.track(openingOrder);
             final OrderCreationResultDTO result = new OrderCreationResultDTO(openingOrder);
             logger.debug("TradeService - Order created : {}", result);
             return result;
         } catch (Exception e) {
+            getRateLimiter().reportFailure(e);
             logger.error("TradeService - Error calling createBuyMarketOrder : {}", e.getMessage());
             e.printStackTrace();
             return new OrderCreationResultDTO("TradeService - Error calling createBuyMarketOrder : " + e.getMessage(), e);
@@ -130,8 +206,11 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
                     limitPrice);
             logger.debug("TradeService - Sending market order : {} - {} - {}", orderTypeDTO, currencyPair, amount);
 
-            // Sending & creating the order.
+            // Sending & creating the order (orders have the highest priority and don't wait for the service rate).
+            getRateLimiter().acquire(ORDER);
             final String orderId = tradeService.placeLimitOrder(l);
+            getRateLimiter().reportSuccess();
+            tradePollingPolicy.markActive();
             OrderDTO openingOrder = OrderDTO.builder()
                     .orderId(orderId)
                     .type(orderTypeDTO)
@@ -149,15 +228,69 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
                     .timestamp(ZonedDateTime.now())
                     .build();
             localOrders.put(orderId, openingOrder);
+            orderTracker.track(openingOrder);
             final OrderCreationResultDTO result = new OrderCreationResultDTO(openingOrder);
             logger.debug("TradeService - Order creation result : {}", result);
             return result;
         } catch (Exception e) {
+            getRateLimiter().reportFailure(e);
             logger.error("TradeService - Error calling createLimitOrder : {}", e.getMessage());
             return new OrderCreationResultDTO("TradeService - Error calling createLimitOrder : " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Creates a sell stop order.
+     *
+     * @param strategy     strategy
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param stopPrice    price that triggers the sale
+     * @return order creation result
+     */
+    private OrderCreationResultDTO createStopOrder(final StrategyDTO strategy,
+                                                   final CurrencyPairDTO currencyPair,
+                                                   final BigDecimal amount,
+                                                   final BigDecimal stopPrice) {
+        try {
+            // Making the order.
+            StopOrder s = new StopOrder(utilMapper.mapToOrderType(ASK),
+                    amount,
+                    currencyMapper.mapToCurrencyPair(currencyPair),
+                    null,
+                    null,
+                    stopPrice);
+            logger.debug("TradeService - Sending stop order : {} - {} - {}", currencyPair, amount, stopPrice);
+
+            // Sending & creating the order (orders have the highest priority and don't wait for the service rate).
+            getRateLimiter().acquire(ORDER);
+            final String orderId = tradeService.placeStopOrder(s);
+            getRateLimiter().reportSuccess();
+            tradePollingPolicy.markActive();
+            OrderDTO stopOrder = OrderDTO.builder()
+                    .orderId(orderId)
+                    .type(ASK)
+                    .strategy(strategy)
+                    .currencyPair(currencyPair)
+                    .amount(CurrencyAmountDTO.builder()
+                            .value(amount)
+                            .currency(currencyPair.getBaseCurrency())
+                            .build())
+                    .status(PENDING_NEW)
+                    .timestamp(ZonedDateTime.now())
+                    .build();
+            localOrders.put(orderId, stopOrder);
+            orderTracker.track(stopOrder);
+            final OrderCreationResultDTO result = new OrderCreationResultDTO(stopOrder);
+            logger.debug("TradeService - Order creation result : {}", result);
+            return result;
+        } catch (Exception e) {
+            getRateLimiter().reportFailure(e);
+            logger.error("TradeService - Error calling createStopOrder : {}", e.getMessage());
+            return new OrderCreationResultDTO("TradeService - Error calling createStopOrder : " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public final OrderCreationResultDTO createBuyMarketOrder(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
         return createMarketOrder(strategy, BID, currencyPair, amount);
@@ -178,14 +311,44 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
         return createLimitOrder(strategy, ASK, currencyPair, amount, limitPrice);
     }
 
+    @Override
+    public final OrderCreationResultDTO createSellStopOrder(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal stopPrice) {
+        return createStopOrder(strategy, currencyPair, amount, stopPrice);
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createBuyMarketOrderAsync(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+        return CompletableFuture.supplyAsync(() -> createMarketOrder(strategy, BID, currencyPair, amount), orderGatewayExecutor);
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createSellMarketOrderAsync(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+        return CompletableFuture.supplyAsync(() -> createMarketOrder(strategy, ASK, currencyPair, amount), orderGatewayExecutor);
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createBuyLimitOrderAsync(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
+        return CompletableFuture.supplyAsync(() -> createLimitOrder(strategy, BID, currencyPair, amount, limitPrice), orderGatewayExecutor);
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createSellLimitOrderAsync(final StrategyDTO strategy, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
+        return CompletableFuture.supplyAsync(() -> createLimitOrder(strategy, ASK, currencyPair, amount, limitPrice), orderGatewayExecutor);
+    }
+
     @Override
     public final boolean cancelOrder(final String orderId) {
         logger.debug("TradeService - Canceling order {}", orderId);
         if (orderId != null) {
             try {
+                getRateLimiter().acquire(ORDER);
+                final boolean canceled = tradeService.cancelOrder(orderId);
+                getRateLimiter().reportSuccess();
+                tradePollingPolicy.markActive();
                 logger.debug("TradeService - Successfully canceled order {}", orderId);
-                return tradeService.cancelOrder(orderId);
+                return canceled;
             } catch (Exception e) {
+                getRateLimiter().reportFailure(e);
                 logger.error("TradeService - Error canceling order {} : {}", orderId, e.getMessage());
                 return false;
             }
@@ -202,30 +365,52 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
             // Consume a token from the token bucket.
             // If a token is not available this method will block until the refill adds one to the bucket.
             getBucket().asScheduler().consume(1);
+            getRateLimiter().acquire(ORDER_STATUS);
 
-            // We clean the local orders if they are already in database.
-            localOrders.keySet()
+            // Local orders the order flux never saved are forgotten after a while.
+            final ZonedDateTime localOrderLimit = ZonedDateTime.now().minusMinutes(LOCAL_ORDER_MAXIMUM_AGE);
+            localOrders.values().removeIf(o -> {
+                if (o.getTimestamp().isBefore(localOrderLimit)) {
+                    logger.warn("TradeService - Local order {} was never saved, it's not returned anymore", o.getOrderId());
+                    return true;
+                }
+                return false;
+            });
+
+            // Open orders are retrieved from the exchange.
+            initializeOrderTracker();
+            final Set<OrderDTO> remoteOrders = tradeService.getOpenOrders()
+                    .getOpenOrders()
                     .stream()
-                    .filter(o -> orderRepository.findByOrderId(o).isPresent())
-                    .forEach(localOrders::remove);
-
-            // If we have local orders, we return them.
-            if (!localOrders.isEmpty()) {
-                return localOrders.values()
-                        .stream()
-                        .sorted(Comparator.comparing(OrderDTO::getTimestamp))
-                        .peek(o -> logger.debug("TradeService - {} local order retrieved", o))
-                        .collect(Collectors.toCollection(LinkedHashSet::new));
-            } else {
-                // Else we get them from the exchange
-                return tradeService.getOpenOrders()
-                        .getOpenOrders()
-                        .stream()
-                        .map(orderMapper::mapToOrderDTO)
-                        .peek(o -> logger.debug("TradeService - {} remote order retrieved", o))
-                        .collect(Collectors.toCollection(LinkedHashSet::new));
-            }
-        } catch (IOException e) {
+                    .map(orderMapper::mapToOrderDTO)
+                    .filter(orderTracker::update)
+                    .peek(o -> logger.debug("TradeService - {} remote order retrieved", o))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            getRateLimiter().reportSuccess();
+
+            // Orders we track that are not open anymore (filled, canceled...) are queried one by one.
+            final Set<String> openOrderIds = remoteOrders.stream().map(OrderDTO::getOrderId).collect(Collectors.toSet());
+            remoteOrders.addAll(getTrackedOrders(orderTracker.getTrackedOrderIds(openOrderIds)));
+
+            // Local orders are returned first until the order flux saves them.
+            // As the exchange doesn't return the strategy of an order, it's taken from the local order.
+            final Map<String, OrderDTO> orders = new LinkedHashMap<>();
+            localOrders.values()
+                    .stream()
+                    .sorted(Comparator.comparing(OrderDTO::getTimestamp))
+                    .peek(o -> logger.debug("TradeService - {} local order retrieved", o))
+                    .forEach(o -> orders.put(o.getOrderId(), o));
+            remoteOrders.forEach(o -> {
+                final OrderDTO localOrder = orders.get(o.getOrderId());
+                if (localOrder != null && o.getStrategy() == null) {
+                    orders.put(o.getOrderId(), o.toBuilder().strategy(localOrder.getStrategy()).build());
+                } else {
+                    orders.put(o.getOrderId(), o);
+                }
+            });
+            return new LinkedHashSet<>(orders.values());
+        } catch (IOException | ExchangeException e) {
+            getRateLimiter().reportFailure(e);
             logger.error("TradeService - Error retrieving open orders : {}", e.getMessage());
             return Collections.emptySet();
         } catch (InterruptedException e) {
@@ -234,6 +419,119 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
         }
     }
 
+    /**
+     * Loads the orders not terminal saved in database - they are tracked again after a restart.
+     */
+    private void initializeOrderTracker() {
+        if (!orderTrackerInitialized) {
+            orderRepository.findByOrderByTimestampAsc()
+                    .stream()
+                    .map(orderMapper::mapToOrderDTO)
+                    .filter(o -> o.getStatus() != null)
+                    .forEach(orderTracker::track);
+            orderTrackerInitialized = true;
+            logger.debug("TradeService - {} order(s) tracked", orderTracker.size());
+        }
+    }
+
+    /**
+     * Queries the status of tracked orders, by batches, with the exchange per-order endpoint.
+     *
+     * @param orderIds ids of the orders to query
+     * @return orders updated
+     * @throws IOException          exchange error
+     * @throws InterruptedException interrupted while waiting for the rate limiter
+     */
+    private Set<OrderDTO> getTrackedOrders(final Set<String> orderIds) throws IOException, InterruptedException {
+        final Set<OrderDTO> orders = new LinkedHashSet<>();
+        if (!orderQueryAvailable || orderIds.isEmpty()) {
+            return orders;
+        }
+        for (List<String> batch : Iterables.partition(orderIds, ORDER_QUERY_BATCH_SIZE)) {
+            getRateLimiter().acquire(ORDER_STATUS);
+            final Collection<Order> replies;
+            try {
+                replies = tradeService.getOrder(batch.toArray(new String[0]));
+            } catch (NotAvailableFromExchangeException | NotYetImplementedForExchangeException e) {
+                logger.warn("TradeService - Order status can't be queried on this exchange, only open orders are retrieved");
+                orderQueryAvailable = false;
+                return orders;
+            }
+            getRateLimiter().reportSuccess();
+
+            final Set<String> repliedOrderIds = new LinkedHashSet<>();
+            if (replies != null) {
+                replies.stream()
+                        .filter(Objects::nonNull)
+                        .map(this::mapToOrderDTO)
+                        .peek(o -> repliedOrderIds.add(o.getOrderId()))
+                        .filter(orderTracker::update)
+                        .peek(o -> logger.debug("TradeService - {} tracked order retrieved", o))
+                        .forEach(orders::add);
+            }
+            batch.stream()
+                    .filter(orderId -> !repliedOrderIds.contains(orderId))
+                    .filter(orderTracker::miss)
+                    .forEach(orderId -> logger.warn("TradeService - Order {} not found on the exchange, not tracked anymore", orderId));
+        }
+        return orders;
+    }
+
+    /**
+     * Maps an XChange order (limit or not) to a DTO.
+     *
+     * @param order XChange order
+     * @return order
+     */
+    private OrderDTO mapToOrderDTO(final Order order) {
+        if (order instanceof LimitOrder) {
+            return orderMapper.mapToOrderDTO((LimitOrder) order);
+        }
+        return orderMapper.mapToOrderDTO(LimitOrder.Builder.from(order).build());
+    }
+
+    /**
+     * Stops the executor used to send orders (called by Spring on shutdown) - orders already submitted are sent.
+     */
+    @PreDestroy
+    public void shutdown() {
+        orderGatewayExecutor.shutdown();
+        try {
+            if (!orderGatewayExecutor.awaitTermination(ORDER_GATEWAY_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                logger.warn("TradeService - Orders still being sent on shutdown");
+                orderGatewayExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            orderGatewayExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of orders tracked (placed by strategies and not terminal).
+     *
+     * @return number of orders tracked
+     */
+    public final int getTrackedOrderCount() {
+        return orderTracker.size();
+    }
+
+    @Override
+    public final void orderSaved(final String orderId) {
+        if (localOrders.remove(orderId) != null) {
+            logger.debug("TradeService - Local order {} saved", orderId);
+        }
+    }
+
+    /**
+     * Returns the number of orders created locally and not yet saved in database.
+     *
+     * @return number of local orders
+     */
+    public final int getLocalOrderCount() {
+        return localOrders.size();
+    }
+
     @Override
     public final Set<TradeDTO> getTrades() {
         logger.debug("TradeService - Getting trades from exchange");
@@ -241,6 +539,7 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
             // Consume a token from the token bucket.
             // If a token is not available this method will block until the refill adds one to the bucket.
             getBucket().asScheduler().consume(1);
+            getRateLimiter().acquire(HISTORY);
 
             // Query 1 week of trades.
             TradeHistoryParamsAll params = new TradeHistoryParamsAll();
@@ -254,9 +553,11 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
                     .map(tradeMapper::mapToTradeDTO)
                     .sorted(Comparator.comparing(TradeDTO::getTimestamp))
                     .collect(Collectors.toCollection(LinkedHashSet::new));
+            getRateLimiter().reportSuccess();
             logger.debug("TradeService - {} trade(s) found", results.size());
             return results;
-        } catch (IOException e) {
+        } catch (IOException | ExchangeException e) {
+            getRateLimiter().reportFailure(e);
             logger.error("TradeService - Error retrieving trades : {}", e.getMessage());
             return Collections.emptySet();
         } catch (InterruptedException e) {
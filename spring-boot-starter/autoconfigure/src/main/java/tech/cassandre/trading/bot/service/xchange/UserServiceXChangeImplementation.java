@@ -1,12 +1,16 @@
 package tech.cassandre.trading.bot.service.xchange;
 
+import org.knowm.xchange.exceptions.ExchangeException;
 import tech.cassandre.trading.bot.dto.user.UserDTO;
 import tech.cassandre.trading.bot.service.UserService;
 import tech.cassandre.trading.bot.util.base.service.BaseService;
+import tech.cassandre.trading.bot.util.limiter.ExchangeRateLimiter;
 
 import java.io.IOException;
 import java.util.Optional;
 
+import static tech.cassandre.trading.bot.util.limiter.RequestPriority.HISTORY;
+
 /**
  * User service - XChange implementation.
  */
@@ -26,18 +30,35 @@ public class UserServiceXChangeImplementation extends BaseService implements Use
         this.xChangeAccountService = newXChangeAccountService;
     }
 
+    /**
+     * Constructor.
+     *
+     * @param rate                     rate in ms
+     * @param rateLimiter              rate limiter shared by all services calling the exchange
+     * @param newXChangeAccountService xchange account service
+     */
+    public UserServiceXChangeImplementation(final long rate,
+                                            final ExchangeRateLimiter rateLimiter,
+                                            final org.knowm.xchange.service.account.AccountService newXChangeAccountService) {
+        super(rate, rateLimiter);
+        this.xChangeAccountService = newXChangeAccountService;
+    }
+
     @Override
     public final Optional<UserDTO> getUser() {
         try {
             // Consume a token from the token bucket.
             // If a token is not available this method will block until the refill adds one to the bucket.
             getBucket().asScheduler().consume(1);
+            getRateLimiter().acquire(HISTORY);
 
             logger.debug("UserService - Retrieving account information");
             final UserDTO user = accountMapper.mapToUserDTO(xChangeAccountService.getAccountInfo());
+            getRateLimiter().reportSuccess();
             logger.debug("UserService - Account information retrieved " + user);
             return Optional.ofNullable(user);
-        } catch (IOException e) {
+        } catch (IOException | ExchangeException e) {
+            getRateLimiter().reportFailure(e);
             logger.error("UserService - Error retrieving account information : {}", e.getMessage());
             return Optional.empty();
         } catch (InterruptedException e) {
@@ -5,6 +5,7 @@ import org.ta4j.core.BarSeries;
 import org.ta4j.core.BaseBarSeriesBuilder;
 import org.ta4j.core.Strategy;
 import org.ta4j.core.num.DoubleNum;
+import tech.cassandre.trading.bot.dto.market.CandleDTO;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.user.AccountDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
@@ -12,7 +13,8 @@ import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.ZonedDateTime;
-import java.util.LinkedHashSet;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Optional;
 import java.util.Set;
 
@@ -83,7 +85,7 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
 
     @Override
     public final void tickerUpdate(final TickerDTO ticker) {
-        getLastTickers().put(ticker.getCurrencyPair(), ticker);
+        updateLastTicker(ticker);
         // If there is no bar or if the duration between the last bar and the ticker is enough.
         if (lastAddedBarTimestamp == null
                 || ticker.getTimestamp().isEqual(lastAddedBarTimestamp.plus(getDelayBetweenTwoBars()))
@@ -108,7 +110,30 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
                 shouldExit();
             }
         }
-        onTickerUpdate(ticker);
+        deliverTickerUpdate(ticker);
+    }
+
+    /**
+     * Preloads the series with historical candles so indicators are meaningful as soon as the strategy starts.
+     * Candles older than the last bar of the series are ignored; the strategy is not asked to enter or exit.
+     *
+     * @param candles candles
+     */
+    public final void initializeSeries(final Collection<CandleDTO> candles) {
+        candles.stream()
+                .filter(candle -> candle.getTimestamp() != null)
+                .sorted(Comparator.comparing(CandleDTO::getTimestamp))
+                .forEachOrdered(candle -> {
+                    if (lastAddedBarTimestamp == null || candle.getTimestamp().isAfter(lastAddedBarTimestamp)) {
+                        Number openPrice = MoreObjects.firstNonNull(candle.getOpen(), 0);
+                        Number highPrice = MoreObjects.firstNonNull(candle.getHigh(), 0);
+                        Number lowPrice = MoreObjects.firstNonNull(candle.getLow(), 0);
+                        Number closePrice = MoreObjects.firstNonNull(candle.getClose(), 0);
+                        Number volume = MoreObjects.firstNonNull(candle.getVolume(), 0);
+                        series.addBar(candle.getTimestamp(), openPrice, highPrice, lowPrice, closePrice, volume);
+                        lastAddedBarTimestamp = candle.getTimestamp();
+                    }
+                });
     }
 
     /**
@@ -118,7 +143,7 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
      * @return true if we there is enough assets to buy
      */
     public final boolean canBuy(final BigDecimal amount) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(getAccounts().values()));
+        final Optional<AccountDTO> tradeAccount = getTradeAccount();
         return tradeAccount.filter(accountDTO -> canBuy(accountDTO, getRequestedCurrencyPair(), amount)).isPresent();
     }
 
@@ -131,7 +156,7 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
      */
     public final boolean canBuy(final BigDecimal amount,
                                 final BigDecimal minimumBalanceAfter) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(getAccounts().values()));
+        final Optional<AccountDTO> tradeAccount = getTradeAccount();
         return tradeAccount.filter(accountDTO -> canBuy(accountDTO, getRequestedCurrencyPair(), amount, minimumBalanceAfter)).isPresent();
     }
 
@@ -170,7 +195,7 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
      */
     public final boolean canSell(final BigDecimal amount,
                                  final BigDecimal minimumBalanceAfter) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(getAccounts().values()));
+        final Optional<AccountDTO> tradeAccount = getTradeAccount();
         return tradeAccount.filter(accountDTO -> canSell(accountDTO, getRequestedCurrencyPair().getBaseCurrency(), amount, minimumBalanceAfter)).isPresent();
     }
 
@@ -181,7 +206,7 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
      * @return true if we there is enough assets to sell
      */
     public final boolean canSell(final BigDecimal amount) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(getAccounts().values()));
+        final Optional<AccountDTO> tradeAccount = getTradeAccount();
         return tradeAccount.filter(accountDTO -> canSell(accountDTO, getRequestedCurrencyPair().getBaseCurrency(), amount)).isPresent();
     }
 
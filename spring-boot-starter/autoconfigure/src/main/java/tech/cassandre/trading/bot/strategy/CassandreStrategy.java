@@ -30,4 +30,55 @@ public @interface CassandreStrategy {
      */
     String strategyName() default "My strategy";
 
+    /**
+     * Maximum number of tickers, orders or trades delivered in a batch callback (0 disables batch callbacks).
+     *
+     * @return maximum batch size
+     */
+    int maximumBatchSize() default 0;
+
+    /**
+     * Maximum time a ticker, order or trade waits before being delivered in a batch callback (ms).
+     *
+     * @return maximum batch linger
+     */
+    long maximumBatchLinger() default 1000;
+
+    /**
+     * Minimum time between two tickers of the same currency pair delivered to the strategy (ms - 0 for none).
+     * The position service still receives every ticker so position rules are checked immediately, and every ticker still
+     * updates the last tickers of the strategy (and the bars of ta4j strategies).
+     *
+     * @return minimum ticker interval
+     */
+    long minimumTickerInterval() default 0;
+
+    /**
+     * Minimum price change since the last ticker of the same currency pair delivered to the strategy (bps - 0 for none).
+     * The position service still receives every ticker so position rules are checked immediately, and every ticker still
+     * updates the last tickers of the strategy (and the bars of ta4j strategies).
+     *
+     * @return minimum ticker price change
+     */
+    int minimumTickerPriceChange() default 0;
+
+    /**
+     * True to protect positions on the exchange as soon as they are opened : a stop order is placed for the stop loss
+     * rule or, if only the stop gain rule is set, a limit order. The other rule is checked locally on every ticker and
+     * the protective order is canceled before the position is closed (both orders can't lock the same assets).
+     * The protective order id is saved with the position, so it's still followed after a restart - it's canceled if this
+     * option is disabled. Rules are checked locally when the order can't be placed or is not on the exchange anymore.
+     *
+     * @return true to place native stop orders
+     */
+    boolean nativeStopOrders() default false;
+
+    /**
+     * True to keep a local balance ledger - funds are reserved when orders are created and trades are applied as soon
+     * as they are received, so canBuy/canSell don't wait for the next account update (ignored in dry mode).
+     *
+     * @return true to use a local balance ledger
+     */
+    boolean localBalanceLedger() default false;
+
 }
@@ -1,18 +1,24 @@
 package tech.cassandre.trading.bot.strategy;
 
+import tech.cassandre.trading.bot.batch.TickerFlux;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.position.PositionDTO;
 import tech.cassandre.trading.bot.dto.strategy.StrategyDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderDTO;
 import tech.cassandre.trading.bot.dto.trade.TradeDTO;
 import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceUpdateDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 import tech.cassandre.trading.bot.repository.OrderRepository;
 import tech.cassandre.trading.bot.repository.PositionRepository;
 import tech.cassandre.trading.bot.repository.TradeRepository;
 import tech.cassandre.trading.bot.service.PositionService;
 import tech.cassandre.trading.bot.service.TradeService;
+import tech.cassandre.trading.bot.util.bus.BusEventType;
+import tech.cassandre.trading.bot.util.ledger.LocalBalanceLedger;
+import tech.cassandre.trading.bot.util.ticker.TickerDeliveryPolicy;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -65,6 +71,43 @@ public interface CassandreStrategyInterface {
      */
     void setPositionService(PositionService newPositionService);
 
+    /**
+     * Setter for localBalanceLedger.
+     *
+     * @param newLocalBalanceLedger local balance ledger (null to only rely on account updates)
+     */
+    void setLocalBalanceLedger(LocalBalanceLedger newLocalBalanceLedger);
+
+    /**
+     * Setter for tickerFlux (used to subscribe to currency pairs at runtime).
+     *
+     * @param newTickerFlux ticker flux
+     */
+    void setTickerFlux(TickerFlux newTickerFlux);
+
+    /**
+     * Enables batch callbacks (onTickersUpdate, onOrdersUpdate and onTradesUpdate).
+     * Full batches are delivered by the thread delivering events, but batches whose linger time is over are delivered by
+     * a thread of the strategy, so batch callbacks can run at the same time as the other callbacks.
+     *
+     * @param maximumBatchSize   maximum number of events in a batch
+     * @param maximumBatchLinger maximum time an event waits before being delivered in a batch (ms)
+     */
+    void setEventBatching(int maximumBatchSize, long maximumBatchLinger);
+
+    /**
+     * Setter for tickerDeliveryPolicy - tickers are still saved as last tickers (and added to bars), the policy only
+     * decides which ones are delivered to onTickerUpdate and onTickersUpdate.
+     *
+     * @param newTickerDeliveryPolicy ticker delivery policy (null to deliver every ticker)
+     */
+    void setTickerDeliveryPolicy(TickerDeliveryPolicy newTickerDeliveryPolicy);
+
+    /**
+     * Delivers the events waiting in batches and stops the thread delivering batches when their linger time is over.
+     */
+    void stopEventBatching();
+
     /**
      * Method called by streams at every account update.
      *
@@ -72,6 +115,13 @@ public interface CassandreStrategyInterface {
      */
     void accountUpdate(AccountDTO account);
 
+    /**
+     * Method called by streams at every balance update.
+     *
+     * @param balanceUpdate balance update
+     */
+    void balanceUpdate(BalanceUpdateDTO balanceUpdate);
+
     /**
      * Method called by streams at every ticker update.
      *
@@ -100,6 +150,15 @@ public interface CassandreStrategyInterface {
      */
     void positionUpdate(PositionDTO position);
 
+    /**
+     * Method called by the event bus on every event - events of all streams are received in a single global order.
+     *
+     * @param sequence global sequence number of the event
+     * @param type     event type
+     * @param event    account, balance update, ticker, order, trade or position
+     */
+    void eventUpdate(long sequence, BusEventType type, Object event);
+
     /**
      * Implements this method to tell the bot which currency pairs your strategy will receive.
      *
@@ -129,6 +188,13 @@ public interface CassandreStrategyInterface {
      */
     void onAccountUpdate(AccountDTO account);
 
+    /**
+     * Method triggered for every balance that changed in an account (only the balances that changed are sent).
+     *
+     * @param balanceUpdate balance update
+     */
+    void onBalanceUpdate(BalanceUpdateDTO balanceUpdate);
+
     /**
      * Method triggered at every ticker update.
      *
@@ -164,4 +230,25 @@ public interface CassandreStrategyInterface {
      */
     void onPositionStatusUpdate(PositionDTO position);
 
+    /**
+     * Method triggered with the tickers received since the last call (only if batch callbacks are enabled).
+     *
+     * @param tickers tickers, in the order they were received
+     */
+    void onTickersUpdate(List<TickerDTO> tickers);
+
+    /**
+     * Method triggered with the order updates received since the last call (only if batch callbacks are enabled).
+     *
+     * @param orders orders, in the order they were received
+     */
+    void onOrdersUpdate(List<OrderDTO> orders);
+
+    /**
+     * Method triggered with the trades received since the last call (only if batch callbacks are enabled).
+     *
+     * @param trades trades, in the order they were received
+     */
+    void onTradesUpdate(List<TradeDTO> trades);
+
 }
@@ -1,6 +1,7 @@
 package tech.cassandre.trading.bot.strategy;
 
 import org.mapstruct.factory.Mappers;
+import tech.cassandre.trading.bot.batch.TickerFlux;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.position.PositionCreationResultDTO;
 import tech.cassandre.trading.bot.dto.position.PositionDTO;
@@ -9,9 +10,11 @@ import tech.cassandre.trading.bot.dto.position.PositionStatusDTO;
 import tech.cassandre.trading.bot.dto.strategy.StrategyDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
 import tech.cassandre.trading.bot.dto.trade.TradeDTO;
 import tech.cassandre.trading.bot.dto.user.AccountDTO;
 import tech.cassandre.trading.bot.dto.user.BalanceDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceUpdateDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
@@ -21,20 +24,39 @@ import tech.cassandre.trading.bot.repository.PositionRepository;
 import tech.cassandre.trading.bot.repository.TradeRepository;
 import tech.cassandre.trading.bot.service.PositionService;
 import tech.cassandre.trading.bot.service.TradeService;
+import tech.cassandre.trading.bot.util.accumulator.EventAccumulator;
+import tech.cassandre.trading.bot.util.bus.BusEventType;
+import tech.cassandre.trading.bot.util.ledger.LocalBalanceLedger;
 import tech.cassandre.trading.bot.util.mapper.CurrencyMapper;
 import tech.cassandre.trading.bot.util.mapper.OrderMapper;
 import tech.cassandre.trading.bot.util.mapper.PositionMapper;
 import tech.cassandre.trading.bot.util.mapper.TradeMapper;
+import tech.cassandre.trading.bot.util.pair.CurrencyPairTable;
+import tech.cassandre.trading.bot.util.ticker.TickerDeliveryPolicy;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static java.math.BigDecimal.ZERO;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENING_FAILURE;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
 
 /**
  * Generic Cassandre strategy implementation.
@@ -42,6 +64,9 @@ import static java.math.BigDecimal.ZERO;
 @SuppressWarnings("checkstyle:DesignForExtension")
 public abstract class GenericCassandreStrategy implements CassandreStrategyInterface {
 
+    /** Maximum number of positions closed or that failed to open remembered. */
+    private static final int MAXIMUM_TERMINAL_POSITIONS = 10_000;
+
     /** Currency mapper. */
     protected final CurrencyMapper currencyMapper = Mappers.getMapper(CurrencyMapper.class);
 
@@ -72,14 +97,55 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
     /** Position service. */
     private PositionService positionService;
 
-    /** The accounts owned by the user. */
-    private final Map<String, AccountDTO> accounts = new LinkedHashMap<>();
+    /** Local balance ledger (null if balances only come from account updates). */
+    private LocalBalanceLedger localBalanceLedger;
+
+    /** Ticker flux (null if currency pairs can't be subscribed at runtime). */
+    private TickerFlux tickerFlux;
+
+    /** The accounts owned by the user - immutable snapshot replaced on each update. */
+    private final AtomicReference<Map<String, AccountDTO>> accounts = new AtomicReference<>(Collections.emptyMap());
+
+    /** Trade account resolved from an accounts snapshot (resolved again when the snapshot changes). */
+    private volatile TradeAccountCache tradeAccountCache = new TradeAccountCache(Collections.emptyMap(), null);
+
+    /** Positions previous status (positions closed or that failed to open are evicted). */
+    private final Map<Long, PositionStatusDTO> previousPositionsStatus = new ConcurrentHashMap<>();
+
+    /** Ids of the last positions closed or that failed to open - their status update was already sent. */
+    private final Set<Long> terminalPositions = Collections.synchronizedSet(Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, Boolean> eldest) {
+            return size() > MAXIMUM_TERMINAL_POSITIONS;
+        }
+    }));
+
+    /** Last ticker received (fast read by currency pair). */
+    private final CurrencyPairTable<TickerDTO> lastTickers = new CurrencyPairTable<>();
+
+    /** Number of tickers saved in last tickers - used to know when the snapshot must be built again. */
+    private final AtomicLong lastTickersVersion = new AtomicLong();
 
-    /** Positions previous status. */
-    private final Map<Long, PositionStatusDTO> previousPositionsStatus = new LinkedHashMap<>();
+    /** Last tickers snapshot (only built when requested and when tickers changed). */
+    private volatile LastTickersSnapshot lastTickersSnapshot = new LastTickersSnapshot(0, Collections.emptyMap());
 
-    /** Last ticker received. */
-    private final Map<CurrencyPairDTO, TickerDTO> lastTickers = new LinkedHashMap<>();
+    /** Tickers delivered to onTickerUpdate and onTickersUpdate (null if every ticker is delivered). */
+    private TickerDeliveryPolicy tickerDeliveryPolicy;
+
+    /** Scheduler delivering batches when their linger time is over (null if batch callbacks are disabled). */
+    private ScheduledExecutorService batchScheduler;
+
+    /** Ticker accumulator (null if batch callbacks are disabled). */
+    private EventAccumulator<TickerDTO> tickerAccumulator;
+
+    /** Order accumulator (null if batch callbacks are disabled). */
+    private EventAccumulator<OrderDTO> orderAccumulator;
+
+    /** Trade accumulator (null if batch callbacks are disabled). */
+    private EventAccumulator<TradeDTO> tradeAccumulator;
+
+    /** Sequence number of the last event received from the event bus (-1 if events are received from flux). */
+    private volatile long eventSequence = -1;
 
     // =================================================================================================================
     // Internal methods to setup dependencies.
@@ -123,53 +189,252 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
         this.positionService = newPositionService;
     }
 
+    @Override
+    public final void setLocalBalanceLedger(final LocalBalanceLedger newLocalBalanceLedger) {
+        this.localBalanceLedger = newLocalBalanceLedger;
+    }
+
+    @Override
+    public final void setTickerFlux(final TickerFlux newTickerFlux) {
+        this.tickerFlux = newTickerFlux;
+    }
+
+    @Override
+    public final void setEventBatching(final int maximumBatchSize, final long maximumBatchLinger) {
+        stopEventBatching();
+        // One thread per strategy, so a slow batch callback doesn't delay the batches of other strategies.
+        this.batchScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "cassandre-batch-" + getClass().getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.tickerAccumulator = new EventAccumulator<>(maximumBatchSize, maximumBatchLinger, batchScheduler, this::onTickersUpdate);
+        this.orderAccumulator = new EventAccumulator<>(maximumBatchSize, maximumBatchLinger, batchScheduler, this::onOrdersUpdate);
+        this.tradeAccumulator = new EventAccumulator<>(maximumBatchSize, maximumBatchLinger, batchScheduler, this::onTradesUpdate);
+    }
+
+    @Override
+    public final void setTickerDeliveryPolicy(final TickerDeliveryPolicy newTickerDeliveryPolicy) {
+        this.tickerDeliveryPolicy = newTickerDeliveryPolicy;
+    }
+
+    @Override
+    public final void stopEventBatching() {
+        if (batchScheduler == null) {
+            return;
+        }
+        batchScheduler.shutdownNow();
+        tickerAccumulator.flush();
+        orderAccumulator.flush();
+        tradeAccumulator.flush();
+    }
+
+    /**
+     * Getter for localBalanceLedger.
+     *
+     * @return local balance ledger (empty if balances only come from account updates)
+     */
+    public final Optional<LocalBalanceLedger> getLocalBalanceLedger() {
+        return Optional.ofNullable(localBalanceLedger);
+    }
+
     // =================================================================================================================
     // Internal methods for event management.
 
     @Override
     public void accountUpdate(final AccountDTO account) {
-        accounts.put(account.getAccountId(), account);
+        // The exchange balances of the trade account replace the ones computed locally.
+        if (localBalanceLedger != null && getTradeAccount(Set.of(account)).isPresent()) {
+            localBalanceLedger.reconcile(account);
+        }
+        updateAccounts(Set.of(account));
         onAccountUpdate(account);
     }
 
+    @Override
+    public void balanceUpdate(final BalanceUpdateDTO balanceUpdate) {
+        onBalanceUpdate(balanceUpdate);
+    }
+
     @Override
     public void tickerUpdate(final TickerDTO ticker) {
+        updateLastTicker(ticker);
+        deliverTickerUpdate(ticker);
+    }
+
+    /**
+     * Saves the last ticker received for its currency pair.
+     *
+     * @param ticker ticker
+     */
+    final void updateLastTicker(final TickerDTO ticker) {
         lastTickers.put(ticker.getCurrencyPair(), ticker);
+        lastTickersVersion.incrementAndGet();
+    }
+
+    /**
+     * Sends a ticker to the strategy (single and batch callbacks) if the ticker delivery policy accepts it.
+     *
+     * @param ticker ticker
+     */
+    final void deliverTickerUpdate(final TickerDTO ticker) {
+        if (tickerDeliveryPolicy != null && !tickerDeliveryPolicy.test(ticker)) {
+            return;
+        }
         onTickerUpdate(ticker);
+        if (tickerAccumulator != null) {
+            tickerAccumulator.add(ticker);
+        }
     }
 
     @Override
     public void orderUpdate(final OrderDTO order) {
+        if (localBalanceLedger != null && order.getStatus() != null && order.getStatus().isFinal()) {
+            localBalanceLedger.release(order.getOrderId());
+        }
         onOrderUpdate(order);
+        if (orderAccumulator != null) {
+            orderAccumulator.add(order);
+        }
     }
 
     @Override
     public void tradeUpdate(final TradeDTO trade) {
+        if (localBalanceLedger != null) {
+            localBalanceLedger.applyTrade(trade);
+        }
         onTradeUpdate(trade);
+        if (tradeAccumulator != null) {
+            tradeAccumulator.add(trade);
+        }
+    }
+
+    @Override
+    public void eventUpdate(final long sequence, final BusEventType type, final Object event) {
+        eventSequence = sequence;
+        switch (type) {
+            case ACCOUNT:
+                accountUpdate((AccountDTO) event);
+                break;
+            case BALANCE:
+                balanceUpdate((BalanceUpdateDTO) event);
+                break;
+            case TICKER:
+                tickerUpdate((TickerDTO) event);
+                break;
+            case ORDER:
+                orderUpdate((OrderDTO) event);
+                break;
+            case TRADE:
+                tradeUpdate((TradeDTO) event);
+                break;
+            case POSITION:
+                positionUpdate((PositionDTO) event);
+                break;
+            default:
+                break;
+        }
     }
 
     @Override
     public void positionUpdate(final PositionDTO position) {
+        // Tickers of a position currency pair are received until the position is closed.
+        if (tickerFlux != null) {
+            if (position.getStatus() == CLOSED || position.getStatus() == OPENING_FAILURE) {
+                tickerFlux.unsubscribePosition(position.getId());
+            } else {
+                tickerFlux.subscribePosition(position.getId(), position.getCurrencyPair());
+            }
+        }
+
         // For every position update.
         onPositionUpdate(position);
 
         // For every position status update.
-        if (previousPositionsStatus.get(position.getId()) != position.getStatus()) {
-            previousPositionsStatus.put(position.getId(), position.getStatus());
+        if (position.getStatus() == CLOSED || position.getStatus() == OPENING_FAILURE) {
+            // A position closed or that failed to open will not change anymore, we stop tracking its status.
+            // Positions that failed to open are still emitted by the position service, we remember their id so
+            // the status update is only sent once.
+            previousPositionsStatus.remove(position.getId());
+            if (terminalPositions.add(position.getId())) {
+                onPositionStatusUpdate(position);
+            }
+        } else if (!terminalPositions.contains(position.getId())
+                && previousPositionsStatus.put(position.getId(), position.getStatus()) != position.getStatus()) {
             onPositionStatusUpdate(position);
         }
     }
 
+    /**
+     * Returns the number of positions whose status is tracked (positions not closed and that did not fail to open).
+     *
+     * @return number of positions tracked
+     */
+    public final int getTrackedPositionCount() {
+        return previousPositionsStatus.size();
+    }
+
+    /**
+     * Returns the global sequence number of the event being processed (or of the last one processed).
+     * With the event bus, events of all streams are received in this order : when a trade is received, the order
+     * update emitted before it was already received.
+     *
+     * @return sequence number (-1 if events are received from flux, without global order)
+     */
+    public final long getEventSequence() {
+        return eventSequence;
+    }
+
     // =================================================================================================================
     // Related to accounts.
 
     /**
      * Returns list of accounts.
+     * The map is an immutable snapshot that can be read from any thread; it's replaced on each account update.
      *
      * @return accounts
      */
     public final Map<String, AccountDTO> getAccounts() {
-        return accounts;
+        return accounts.get();
+    }
+
+    /**
+     * Replaces accounts in the accounts snapshot (internal method called on account updates).
+     *
+     * @param updatedAccounts updated accounts
+     */
+    public final void updateAccounts(final Collection<AccountDTO> updatedAccounts) {
+        accounts.updateAndGet(currentAccounts -> {
+            final Map<String, AccountDTO> newAccounts = new LinkedHashMap<>(currentAccounts);
+            updatedAccounts.forEach(account -> newAccounts.put(account.getAccountId(), account));
+            return Collections.unmodifiableMap(newAccounts);
+        });
+    }
+
+    /**
+     * Replaces one balance of an account in the accounts snapshot (internal method called when a single balance changes).
+     * Nothing is done if the account is not in the snapshot yet.
+     *
+     * @param accountId account id
+     * @param balance   new balance
+     */
+    public final void updateBalance(final String accountId, final BalanceDTO balance) {
+        accounts.updateAndGet(currentAccounts -> {
+            final AccountDTO account = currentAccounts.get(accountId);
+            if (account == null) {
+                return currentAccounts;
+            }
+            final Map<CurrencyDTO, BalanceDTO> balances = new LinkedHashMap<>(account.getBalances());
+            balances.put(balance.getCurrency(), balance);
+            final Map<String, AccountDTO> newAccounts = new LinkedHashMap<>(currentAccounts);
+            newAccounts.put(accountId, AccountDTO.builder()
+                    .accountId(account.getAccountId())
+                    .name(account.getName())
+                    .features(account.getFeatures())
+                    .balances(balances)
+                    .build());
+            return Collections.unmodifiableMap(newAccounts);
+        });
     }
 
     /**
@@ -179,16 +444,27 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
      * @return account
      */
     public final Optional<AccountDTO> getAccountByAccountId(final String accountId) {
-        if (accounts.containsKey(accountId)) {
-            return Optional.of(accounts.get(accountId));
-        } else {
-            return Optional.empty();
-        }
+        return Optional.ofNullable(accounts.get().get(accountId));
     }
 
     @Override
     public final Optional<AccountDTO> getTradeAccount() {
-        return getTradeAccount(new LinkedHashSet<>(getAccounts().values()));
+        return Optional.ofNullable(getCachedTradeAccount());
+    }
+
+    /**
+     * Returns the trade account - only resolved again when accounts changed.
+     *
+     * @return trade account (null if not found)
+     */
+    private AccountDTO getCachedTradeAccount() {
+        final Map<String, AccountDTO> currentAccounts = accounts.get();
+        TradeAccountCache cache = tradeAccountCache;
+        if (cache.accounts != currentAccounts) {
+            cache = new TradeAccountCache(currentAccounts, getTradeAccount(new LinkedHashSet<>(currentAccounts.values())).orElse(null));
+            tradeAccountCache = cache;
+        }
+        return cache.tradeAccount;
     }
 
     // =================================================================================================================
@@ -196,11 +472,19 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
 
     /**
      * Return last received tickers.
+     * The map is an immutable snapshot that can be read from any thread; it's built again only when tickers changed.
      *
      * @return ticker
      */
     public final Map<CurrencyPairDTO, TickerDTO> getLastTickers() {
-        return lastTickers;
+        // The version is read before the tickers so a ticker saved while copying is seen by the next call.
+        final long version = lastTickersVersion.get();
+        LastTickersSnapshot snapshot = lastTickersSnapshot;
+        if (snapshot.version != version) {
+            snapshot = new LastTickersSnapshot(version, Collections.unmodifiableMap(new LinkedHashMap<>(lastTickers.asMap())));
+            lastTickersSnapshot = snapshot;
+        }
+        return snapshot.tickers;
     }
 
     /**
@@ -213,7 +497,8 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
         if (currencyPair == null) {
             return Optional.empty();
         } else {
-            return getLastTickerByCurrencyPair(new CurrencyPairDTO(currencyPair));
+            // An unknown currency pair has no ticker, we don't create it.
+            return getLastTickerByCurrencyPair(CurrencyPairDTO.getInstanceNoCreate(currencyPair));
         }
     }
 
@@ -231,6 +516,40 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
         }
     }
 
+    /**
+     * Subscribes to the tickers of a currency pair (in addition to the currency pairs requested at startup).
+     *
+     * @param currencyPair currency pair
+     * @return true if the currency pair was not already subscribed
+     */
+    public final boolean subscribe(final CurrencyPairDTO currencyPair) {
+        return tickerFlux != null && tickerFlux.subscribe(currencyPair);
+    }
+
+    /**
+     * Unsubscribes from the tickers of a currency pair.
+     * Tickers are still received while a position on this currency pair is not closed.
+     *
+     * @param currencyPair currency pair
+     * @return true if the currency pair was subscribed
+     */
+    public final boolean unsubscribe(final CurrencyPairDTO currencyPair) {
+        return tickerFlux != null && tickerFlux.unsubscribe(currencyPair);
+    }
+
+    /**
+     * Returns the currency pairs whose tickers are received - subscribed or with positions not closed.
+     *
+     * @return currency pairs
+     */
+    public final Set<CurrencyPairDTO> getSubscribedCurrencyPairs() {
+        if (tickerFlux == null) {
+            return getRequestedCurrencyPairs();
+        } else {
+            return tickerFlux.getPolledCurrencyPairs();
+        }
+    }
+
     // =================================================================================================================
     // Related to orders.
 
@@ -327,7 +646,7 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
      */
     public OrderCreationResultDTO createBuyMarketOrder(final CurrencyPairDTO currencyPair,
                                                        final BigDecimal amount) {
-        return tradeService.createBuyMarketOrder(strategyDTO, currencyPair, amount);
+        return reserve(tradeService.createBuyMarketOrder(strategyDTO, currencyPair, amount), getLastPrice(currencyPair));
     }
 
     /**
@@ -339,7 +658,7 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
      */
     public OrderCreationResultDTO createSellMarketOrder(final CurrencyPairDTO currencyPair,
                                                         final BigDecimal amount) {
-        return tradeService.createSellMarketOrder(strategyDTO, currencyPair, amount);
+        return reserve(tradeService.createSellMarketOrder(strategyDTO, currencyPair, amount), getLastPrice(currencyPair));
     }
 
     /**
@@ -353,7 +672,7 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
     public OrderCreationResultDTO createBuyLimitOrder(final CurrencyPairDTO currencyPair,
                                                       final BigDecimal amount,
                                                       final BigDecimal limitPrice) {
-        return tradeService.createBuyLimitOrder(strategyDTO, currencyPair, amount, limitPrice);
+        return reserve(tradeService.createBuyLimitOrder(strategyDTO, currencyPair, amount, limitPrice), limitPrice);
     }
 
     /**
@@ -367,7 +686,85 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
     public OrderCreationResultDTO createSellLimitOrder(final CurrencyPairDTO currencyPair,
                                                        final BigDecimal amount,
                                                        final BigDecimal limitPrice) {
-        return tradeService.createSellLimitOrder(strategyDTO, currencyPair, amount, limitPrice);
+        return reserve(tradeService.createSellLimitOrder(strategyDTO, currencyPair, amount, limitPrice), limitPrice);
+    }
+
+    /**
+     * Creates a sell stop order.
+     *
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param stopPrice    price that triggers the sale
+     * @return order result (order id or error)
+     */
+    public OrderCreationResultDTO createSellStopOrder(final CurrencyPairDTO currencyPair,
+                                                      final BigDecimal amount,
+                                                      final BigDecimal stopPrice) {
+        return reserve(tradeService.createSellStopOrder(strategyDTO, currencyPair, amount, stopPrice), stopPrice);
+    }
+
+    /**
+     * Creates a buy market order without blocking the thread delivering data to the strategy.
+     *
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @return future order result (order id or error)
+     */
+    public CompletableFuture<OrderCreationResultDTO> createBuyMarketOrderAsync(final CurrencyPairDTO currencyPair,
+                                                                               final BigDecimal amount) {
+        // Funds are reserved before the order is sent so other orders can't use them.
+        final String reservationId = reservePending(BID, currencyPair, amount, getLastPrice(currencyPair));
+        return tradeService.createBuyMarketOrderAsync(strategyDTO, currencyPair, amount)
+                .whenComplete((result, throwable) -> confirmReservation(reservationId, result));
+    }
+
+    /**
+     * Creates a sell market order without blocking the thread delivering data to the strategy.
+     *
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @return future order result (order id or error)
+     */
+    public CompletableFuture<OrderCreationResultDTO> createSellMarketOrderAsync(final CurrencyPairDTO currencyPair,
+                                                                                final BigDecimal amount) {
+        // Funds are reserved before the order is sent so other orders can't use them.
+        final String reservationId = reservePending(ASK, currencyPair, amount, getLastPrice(currencyPair));
+        return tradeService.createSellMarketOrderAsync(strategyDTO, currencyPair, amount)
+                .whenComplete((result, throwable) -> confirmReservation(reservationId, result));
+    }
+
+    /**
+     * Creates a buy limit order without blocking the thread delivering data to the strategy.
+     *
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param limitPrice   the highest acceptable price
+     * @return future order result (order id or error)
+     */
+    public CompletableFuture<OrderCreationResultDTO> createBuyLimitOrderAsync(final CurrencyPairDTO currencyPair,
+                                                                              final BigDecimal amount,
+                                                                              final BigDecimal limitPrice) {
+        // Funds are reserved before the order is sent so other orders can't use them.
+        final String reservationId = reservePending(BID, currencyPair, amount, limitPrice);
+        return tradeService.createBuyLimitOrderAsync(strategyDTO, currencyPair, amount, limitPrice)
+                .whenComplete((result, throwable) -> confirmReservation(reservationId, result));
+    }
+
+    /**
+     * Creates a sell limit order without blocking the thread delivering data to the strategy.
+     *
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param limitPrice   the lowest acceptable price
+     * @return future order result (order id or error)
+     */
+    public CompletableFuture<OrderCreationResultDTO> createSellLimitOrderAsync(final CurrencyPairDTO currencyPair,
+                                                                               final BigDecimal amount,
+                                                                               final BigDecimal limitPrice) {
+        // Funds are reserved before the order is sent so other orders can't use them.
+        final String reservationId = reservePending(ASK, currencyPair, amount, limitPrice);
+        return tradeService.createSellLimitOrderAsync(strategyDTO, currencyPair, amount, limitPrice)
+                .whenComplete((result, throwable) -> confirmReservation(reservationId, result));
     }
 
     /**
@@ -381,7 +778,74 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
     public PositionCreationResultDTO createLongPosition(final CurrencyPairDTO currencyPair,
                                                         final BigDecimal amount,
                                                         final PositionRulesDTO rules) {
-        return positionService.createLongPosition(strategyDTO, currencyPair, amount, rules);
+        final PositionCreationResultDTO result = positionService.createLongPosition(strategyDTO, currencyPair, amount, rules);
+        // We don't wait for the position update to receive the tickers checking the position rules.
+        if (tickerFlux != null && result.isSuccessful()) {
+            tickerFlux.subscribePosition(result.getPosition().getId(), currencyPair);
+        }
+        return result;
+    }
+
+    /**
+     * Reserves, in the local balance ledger, the funds required by an order that has been created.
+     *
+     * @param result order creation result
+     * @param price  price used to estimate the cost of the order
+     * @return order creation result
+     */
+    private OrderCreationResultDTO reserve(final OrderCreationResultDTO result, final BigDecimal price) {
+        if (localBalanceLedger != null && result != null && result.isSuccessful()) {
+            localBalanceLedger.reserve(result.getOrder(), price);
+        }
+        return result;
+    }
+
+    /**
+     * Reserves, in the local balance ledger, the funds required by an order before it's sent.
+     *
+     * @param type         order type
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param price        price used to estimate the cost of the order
+     * @return reservation id (null if nothing was reserved)
+     */
+    private String reservePending(final OrderTypeDTO type, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal price) {
+        if (localBalanceLedger == null) {
+            return null;
+        }
+        return localBalanceLedger.reservePending(type, currencyPair, amount, price);
+    }
+
+    /**
+     * Confirms a reservation made before an order was sent, or releases it if the order was not created.
+     *
+     * @param reservationId reservation id
+     * @param result        order creation result (null if the order creation failed with an exception)
+     */
+    private void confirmReservation(final String reservationId, final OrderCreationResultDTO result) {
+        if (localBalanceLedger == null || reservationId == null) {
+            return;
+        }
+        if (result != null && result.isSuccessful()) {
+            localBalanceLedger.confirm(reservationId, result.getOrder().getOrderId());
+        } else {
+            localBalanceLedger.release(reservationId);
+        }
+    }
+
+    /**
+     * Returns the last price received for a currency pair.
+     *
+     * @param currencyPair currency pair
+     * @return last price (null if no ticker received)
+     */
+    private BigDecimal getLastPrice(final CurrencyPairDTO currencyPair) {
+        final TickerDTO ticker = lastTickers.get(currencyPair);
+        if (ticker == null) {
+            return null;
+        } else {
+            return ticker.getLast();
+        }
     }
 
     // =================================================================================================================
@@ -392,6 +856,11 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
 
     }
 
+    @Override
+    public void onBalanceUpdate(final BalanceUpdateDTO balanceUpdate) {
+
+    }
+
     @Override
     public void onTickerUpdate(final TickerDTO ticker) {
 
@@ -417,6 +886,21 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
 
     }
 
+    @Override
+    public void onTickersUpdate(final List<TickerDTO> tickers) {
+
+    }
+
+    @Override
+    public void onOrdersUpdate(final List<OrderDTO> orders) {
+
+    }
+
+    @Override
+    public void onTradesUpdate(final List<TradeDTO> trades) {
+
+    }
+
     // =================================================================================================================
     // Related to canBuy & canSell methods.
 
@@ -444,14 +928,14 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
          */
 
         // We get the last ticker from the last values received.
-        final TickerDTO ticker = lastTickers.get(currencyPair);
-        if (ticker == null) {
+        final BigDecimal cost = getEstimatedBuyingCostValue(currencyPair, amount);
+        if (cost == null) {
             // No ticker for this currency pair.
             return Optional.empty();
         } else {
             // Make the calculation.
             return Optional.of(CurrencyAmountDTO.builder()
-                    .value(ticker.getLast().multiply(amount))
+                    .value(cost)
                     .currency(currencyPair.getQuoteCurrency())
                     .build());
         }
@@ -466,8 +950,7 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
      */
     public final boolean canBuy(final CurrencyPairDTO currencyPair,
                                 final BigDecimal amount) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(accounts.values()));
-        return tradeAccount.filter(account -> canBuy(account, currencyPair, amount)).isPresent();
+        return canBuy(currencyPair, amount, ZERO);
     }
 
     /**
@@ -481,8 +964,12 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
     public final boolean canBuy(final CurrencyPairDTO currencyPair,
                                 final BigDecimal amount,
                                 final BigDecimal minimumBalanceAfter) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(accounts.values()));
-        return tradeAccount.filter(account -> canBuy(account, currencyPair, amount, minimumBalanceAfter)).isPresent();
+        // If there is no way to calculate the price for the moment (no ticker).
+        final BigDecimal cost = getEstimatedBuyingCostValue(currencyPair, amount);
+        if (cost == null) {
+            return false;
+        }
+        return isEnough(currencyPair.getQuoteCurrency(), getRequiredBalance(cost, minimumBalanceAfter));
     }
 
     /**
@@ -512,27 +999,13 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
                                 final CurrencyPairDTO currencyPair,
                                 final BigDecimal amount,
                                 final BigDecimal minimumBalanceAfter) {
-        // We get the amount.
-        final Optional<BalanceDTO> balance = account.getBalance(currencyPair.getQuoteCurrency());
-        if (balance.isPresent()) {
-            // We get the estimated cost of buying.
-            final Optional<CurrencyAmountDTO> estimatedBuyingCost = getEstimatedBuyingCost(currencyPair, amount);
-
-            // We calculate.
-            // Balance in the account
-            // Minus
-            // Estimated cost
-            // Must be superior to zero
-            // If there is no way to calculate the price for the moment (no ticker).
-            return estimatedBuyingCost.filter(currencyAmountDTO -> balance.get().getAvailable()
-                    .subtract(currencyAmountDTO.getValue().add(minimumBalanceAfter))
-                    .compareTo(ZERO) > 0).isPresent() || estimatedBuyingCost.filter(currencyAmountDTO -> balance.get().getAvailable()
-                    .subtract(currencyAmountDTO.getValue().add(minimumBalanceAfter))
-                    .compareTo(ZERO) == 0).isPresent();
-        } else {
-            // If the is no balance in this currency, we can't buy.
+        // If there is no way to calculate the price for the moment (no ticker).
+        final BigDecimal cost = getEstimatedBuyingCostValue(currencyPair, amount);
+        if (cost == null) {
             return false;
         }
+        // The available balance must cover the estimated cost and the minimum balance after.
+        return isEnough(getAvailableBalance(account, currencyPair.getQuoteCurrency()), getRequiredBalance(cost, minimumBalanceAfter));
     }
 
     /**
@@ -544,8 +1017,7 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
      */
     public final boolean canSell(final CurrencyDTO currency,
                                  final BigDecimal amount) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(accounts.values()));
-        return tradeAccount.filter(account -> canSell(account, currency, amount)).isPresent();
+        return canSell(currency, amount, ZERO);
     }
 
     /**
@@ -559,8 +1031,7 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
     public final boolean canSell(final CurrencyDTO currency,
                                  final BigDecimal amount,
                                  final BigDecimal minimumBalanceAfter) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(accounts.values()));
-        return tradeAccount.filter(account -> canSell(account, currency, amount, minimumBalanceAfter)).isPresent();
+        return isEnough(currency, getRequiredBalance(amount, minimumBalanceAfter));
     }
 
     /**
@@ -590,13 +1061,129 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
                                  final CurrencyDTO currency,
                                  final BigDecimal amount,
                                  final BigDecimal minimumBalanceAfter) {
-        // We get the amount.
-        final Optional<BalanceDTO> balance = account.getBalance(currency);
-        // public int compareTo(BigDecimal bg) returns
-        // 1 : if value of this BigDecimal is greater than that of BigDecimal object passed as parameter.
-        // If the is no balance in this currency, we can't buy.
-        return balance.filter(balanceDTO -> balanceDTO.getAvailable().subtract(amount).subtract(minimumBalanceAfter).compareTo(ZERO) > 0
-                || balanceDTO.getAvailable().subtract(amount).subtract(minimumBalanceAfter).compareTo(ZERO) == 0).isPresent();
+        // If the is no balance in this currency, we can't sell.
+        return isEnough(getAvailableBalance(account, currency), getRequiredBalance(amount, minimumBalanceAfter));
+    }
+
+    // Pre-trade checks below are called for every pair on every ticker : they don't create objects except the cost.
+
+    /**
+     * Returns the estimated cost of buying an amount of a currency pair.
+     *
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @return cost (null if no price was received for this currency pair)
+     */
+    private BigDecimal getEstimatedBuyingCostValue(final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+        final TickerDTO ticker = lastTickers.get(currencyPair);
+        if (ticker == null || ticker.getLast() == null) {
+            return null;
+        }
+        return ticker.getLast().multiply(amount);
+    }
+
+    /**
+     * Returns true if the trade account has a required balance available in a currency.
+     *
+     * @param currency currency
+     * @param required required balance
+     * @return true if there is enough
+     */
+    private boolean isEnough(final CurrencyDTO currency, final BigDecimal required) {
+        // Balances computed locally are more recent than the ones from the last account update.
+        if (localBalanceLedger != null && localBalanceLedger.isInitialized()) {
+            return localBalanceLedger.isAvailable(currency, required);
+        }
+        final AccountDTO tradeAccount = getCachedTradeAccount();
+        return tradeAccount != null && isEnough(getAvailableBalance(tradeAccount, currency), required);
+    }
+
+    /**
+     * Returns the available balance of a currency in an account.
+     *
+     * @param account  account
+     * @param currency currency
+     * @return available balance (null if the account has no balance in this currency)
+     */
+    private static BigDecimal getAvailableBalance(final AccountDTO account, final CurrencyDTO currency) {
+        final BalanceDTO balance = account.getBalances().get(currency);
+        if (balance == null) {
+            return null;
+        }
+        return balance.getAvailable();
+    }
+
+    /**
+     * Returns the balance required to spend an amount while keeping minimumBalanceAfter.
+     *
+     * @param amount              amount to spend
+     * @param minimumBalanceAfter minimum balance that should be left after
+     * @return required balance
+     */
+    private static BigDecimal getRequiredBalance(final BigDecimal amount, final BigDecimal minimumBalanceAfter) {
+        if (minimumBalanceAfter == null || minimumBalanceAfter.signum() == 0) {
+            return amount;
+        }
+        return amount.add(minimumBalanceAfter);
+    }
+
+    /**
+     * Returns true if an available balance covers a required balance.
+     *
+     * @param available available balance (null if none)
+     * @param required  required balance
+     * @return true if there is enough
+     */
+    private static boolean isEnough(final BigDecimal available, final BigDecimal required) {
+        return available != null && available.compareTo(required) >= 0;
+    }
+
+    /**
+     * Trade account resolved from an accounts snapshot.
+     */
+    private static final class TradeAccountCache {
+
+        /** Accounts snapshot. */
+        private final Map<String, AccountDTO> accounts;
+
+        /** Trade account (null if not found). */
+        private final AccountDTO tradeAccount;
+
+        /**
+         * Constructor.
+         *
+         * @param newAccounts     accounts snapshot
+         * @param newTradeAccount trade account
+         */
+        private TradeAccountCache(final Map<String, AccountDTO> newAccounts, final AccountDTO newTradeAccount) {
+            this.accounts = newAccounts;
+            this.tradeAccount = newTradeAccount;
+        }
+
+    }
+
+    /**
+     * Last tickers snapshot and the version of the tickers it was built from.
+     */
+    private static final class LastTickersSnapshot {
+
+        /** Tickers version. */
+        private final long version;
+
+        /** Tickers snapshot. */
+        private final Map<CurrencyPairDTO, TickerDTO> tickers;
+
+        /**
+         * Constructor.
+         *
+         * @param newVersion tickers version
+         * @param newTickers tickers snapshot
+         */
+        private LastTickersSnapshot(final long newVersion, final Map<CurrencyPairDTO, TickerDTO> newTickers) {
+            this.version = newVersion;
+            this.tickers = newTickers;
+        }
+
     }
 
 }
@@ -0,0 +1,162 @@
+package tech.cassandre.trading.bot.util.accumulator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Accumulates events and delivers them in batches.
+ * A batch is delivered when it reaches the maximum batch size or when its first event has waited for the maximum
+ * linger time, whichever comes first. Batches are delivered one at a time, in the order events were added.
+ * The handler is called without holding the accumulator lock, so events can be added while a batch is delivered.
+ * A full batch (or a flush) is delivered by the thread adding the event, but a batch whose linger time is over is
+ * delivered by the scheduler thread given to the accumulator: the handler can then run at the same time as the code
+ * adding events. Once the scheduler is shut down, batches are only delivered when they are full or flushed.
+ *
+ * @param <T> event type
+ */
+public class EventAccumulator<T> {
+
+    /** Logger. */
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /** Maximum batch size. */
+    private final int maximumSize;
+
+    /** Maximum time an event waits before being delivered (ms). */
+    private final long maximumLinger;
+
+    /** Scheduler delivering batches when the linger time is over. */
+    private final ScheduledExecutorService scheduler;
+
+    /** Handler receiving the batches. */
+    private final Consumer<List<T>> handler;
+
+    /** Events accumulated since the last batch. */
+    private List<T> events;
+
+    /** Delivery scheduled when the linger time of the current batch is over. */
+    private ScheduledFuture<?> lingerDelivery;
+
+    /** Batches taken but not delivered yet. */
+    private final Queue<List<T>> batches = new ArrayDeque<>();
+
+    /** True when a thread is delivering batches (the others only add their batch to the queue). */
+    private boolean delivering;
+
+    /**
+     * Constructor.
+     *
+     * @param newMaximumSize   maximum batch size
+     * @param newMaximumLinger maximum time an event waits before being delivered (ms)
+     * @param newScheduler     scheduler delivering batches when the linger time is over (owned by the caller)
+     * @param newHandler       handler receiving the batches
+     */
+    public EventAccumulator(final int newMaximumSize,
+                            final long newMaximumLinger,
+                            final ScheduledExecutorService newScheduler,
+                            final Consumer<List<T>> newHandler) {
+        if (newMaximumSize <= 0 || newMaximumLinger <= 0) {
+            throw new IllegalArgumentException("Batch size and linger time must be positive : " + newMaximumSize + " / " + newMaximumLinger);
+        }
+        this.maximumSize = newMaximumSize;
+        this.maximumLinger = newMaximumLinger;
+        this.scheduler = newScheduler;
+        this.handler = newHandler;
+        this.events = new ArrayList<>(maximumSize);
+    }
+
+    /**
+     * Adds an event - delivers the batch if it's full.
+     *
+     * @param event event
+     */
+    public final void add(final T event) {
+        synchronized (this) {
+            if (events.isEmpty()) {
+                scheduleLingerDelivery();
+            }
+            events.add(event);
+            if (events.size() < maximumSize) {
+                return;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Delivers the events accumulated since the last batch (if any).
+     */
+    public final void flush() {
+        synchronized (this) {
+            if (!events.isEmpty()) {
+                if (lingerDelivery != null) {
+                    lingerDelivery.cancel(false);
+                    lingerDelivery = null;
+                }
+                batches.add(Collections.unmodifiableList(events));
+                events = new ArrayList<>(maximumSize);
+            }
+            // If another thread is delivering, it will also deliver this batch, after the previous ones.
+            if (delivering || batches.isEmpty()) {
+                return;
+            }
+            delivering = true;
+        }
+        deliverBatches();
+    }
+
+    /**
+     * Schedules the delivery of the current batch when its linger time is over.
+     */
+    private void scheduleLingerDelivery() {
+        try {
+            lingerDelivery = scheduler.schedule(this::flush, maximumLinger, MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // The scheduler is shut down (the strategy is stopping), the batch will be delivered when full or flushed.
+            lingerDelivery = null;
+        }
+    }
+
+    /**
+     * Delivers the batches taken until there is none left - the handler is called outside the lock.
+     */
+    private void deliverBatches() {
+        while (true) {
+            final List<T> batch;
+            synchronized (this) {
+                batch = batches.poll();
+                if (batch == null) {
+                    delivering = false;
+                    return;
+                }
+            }
+            try {
+                handler.accept(batch);
+            } catch (RuntimeException e) {
+                logger.error("EventAccumulator - Error while delivering a batch of {} events : {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events waiting to be delivered.
+     *
+     * @return number of events
+     */
+    public final synchronized int getSize() {
+        return events.size();
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Event accumulators (batch callbacks).
+ */
+package tech.cassandre.trading.bot.util.accumulator;
@@ -4,6 +4,8 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import reactor.core.scheduler.Schedulers;
 import tech.cassandre.trading.bot.util.base.Base;
+import tech.cassandre.trading.bot.util.bus.EventBus;
+import tech.cassandre.trading.bot.util.journal.EventJournal;
 
 import java.util.Optional;
 
@@ -22,6 +24,12 @@ public abstract class BaseFlux<T> extends Base {
     /** Flux sink. */
     protected FluxSink<T> fluxSink;
 
+    /** Event journal where emitted values are written (null if the journal is disabled). */
+    private volatile EventJournal journal;
+
+    /** Event bus where emitted values are published (null if values are only sent to the flux). */
+    private volatile EventBus eventBus;
+
     /**
      * Constructor.
      */
@@ -58,10 +66,48 @@ public abstract class BaseFlux<T> extends Base {
         saveValue(newValue)
                 .ifPresent(t -> {
                     logger.debug("{} flux emits a new value : {}", this.getClass().getName(), t);
-                    fluxSink.next(t);
+                    final EventJournal currentJournal = journal;
+                    if (currentJournal != null) {
+                        currentJournal.append(t);
+                    }
+                    final EventBus currentEventBus = eventBus;
+                    if (currentEventBus != null) {
+                        currentEventBus.publish(t);
+                    }
+                    // When the event bus is used, the flux may have no subscriber.
+                    if (fluxSink != null) {
+                        fluxSink.next(t);
+                    }
                 });
     }
 
+    /**
+     * Setter for journal.
+     *
+     * @param newJournal event journal where emitted values are written (null to disable it)
+     */
+    public final void setJournal(final EventJournal newJournal) {
+        this.journal = newJournal;
+    }
+
+    /**
+     * Getter for eventBus.
+     *
+     * @return eventBus (null if values are only sent to the flux)
+     */
+    protected final EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Setter for eventBus.
+     *
+     * @param newEventBus event bus where emitted values are published
+     */
+    public final void setEventBus(final EventBus newEventBus) {
+        this.eventBus = newEventBus;
+    }
+
     /**
      * Getter for flux.
      *
@@ -4,6 +4,7 @@ import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.Bucket4j;
 import tech.cassandre.trading.bot.util.base.Base;
+import tech.cassandre.trading.bot.util.limiter.ExchangeRateLimiter;
 
 import java.time.Duration;
 
@@ -15,12 +16,16 @@ public abstract class BaseService extends Base {
     /** Bucket. */
     private final Bucket bucket;
 
+    /** Rate limiter shared by all services calling the exchange. */
+    private final ExchangeRateLimiter rateLimiter;
+
     /**
      * Construct a base service without rate limit.
      */
     public BaseService() {
         Bandwidth limit = Bandwidth.simple(1, Duration.ofMillis(1));
         bucket = Bucket4j.builder().addLimit(limit).build();
+        rateLimiter = new ExchangeRateLimiter();
     }
 
     /**
@@ -29,8 +34,19 @@ public abstract class BaseService extends Base {
      * @param rate rate in ms
      */
     public BaseService(final long rate) {
+        this(rate, new ExchangeRateLimiter());
+    }
+
+    /**
+     * Constructs a base service with a rate limit and a rate limiter shared with other services.
+     *
+     * @param rate           rate in ms
+     * @param newRateLimiter rate limiter shared by all services calling the exchange
+     */
+    public BaseService(final long rate, final ExchangeRateLimiter newRateLimiter) {
         Bandwidth limit = Bandwidth.simple(1, Duration.ofMillis(rate));
         bucket = Bucket4j.builder().addLimit(limit).build();
+        rateLimiter = newRateLimiter;
     }
 
     /**
@@ -42,4 +58,13 @@ public abstract class BaseService extends Base {
         return bucket;
     }
 
+    /**
+     * Getter for rateLimiter.
+     *
+     * @return rateLimiter
+     */
+    public final ExchangeRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
 }
@@ -0,0 +1,74 @@
+package tech.cassandre.trading.bot.util.bus;
+
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceUpdateDTO;
+
+/**
+ * Type of the events published on the event bus.
+ */
+public enum BusEventType {
+
+    /** Account. */
+    ACCOUNT(AccountDTO.class),
+
+    /** Balance update. */
+    BALANCE(BalanceUpdateDTO.class),
+
+    /** Ticker. */
+    TICKER(TickerDTO.class),
+
+    /** Order. */
+    ORDER(OrderDTO.class),
+
+    /** Trade. */
+    TRADE(TradeDTO.class),
+
+    /** Position. */
+    POSITION(PositionDTO.class);
+
+    /** Values - cached as values() creates a new array on each call. */
+    private static final BusEventType[] TYPES = values();
+
+    /** Class of the event. */
+    private final Class<?> eventClass;
+
+    /**
+     * Constructor.
+     *
+     * @param newEventClass class of the event
+     */
+    BusEventType(final Class<?> newEventClass) {
+        this.eventClass = newEventClass;
+    }
+
+    /**
+     * Getter for eventClass.
+     *
+     * @return eventClass
+     */
+    public Class<?> getEventClass() {
+        return eventClass;
+    }
+
+    /**
+     * Returns the type of an event (without allocation as it's called for each event published).
+     *
+     * @param event event
+     * @return type (null if the event can't be published)
+     */
+    public static BusEventType getType(final Object event) {
+        if (event != null) {
+            for (BusEventType type : TYPES) {
+                if (type.eventClass == event.getClass()) {
+                    return type;
+                }
+            }
+        }
+        return null;
+    }
+
+}
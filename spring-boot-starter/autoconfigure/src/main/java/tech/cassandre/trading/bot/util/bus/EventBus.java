@@ -0,0 +1,405 @@
+package tech.cassandre.trading.bot.util.bus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Event bus backed by a preallocated ring buffer (disruptor style).
+ * <p>
+ * Events are written in reusable slots by a single writer at a time and each event receives a global sequence number,
+ * whatever the flux that emitted it. Every consumer has its own thread and reads all events, in sequence order, at its
+ * own pace - a consumer never sees a trade before the order update emitted before it, or a position updated by a ticker
+ * before this ticker. A consumer that has
+ * nothing to read spins, then yields, then parks for a short time. Publishers wait when the slowest consumer is a
+ * whole ring behind, so events are never dropped. Publishing doesn't allocate.
+ * <p>
+ * Consumers also publish (for example, the position service updates positions when it reads a ticker). As a consumer
+ * can't wait for its own progress, the events it publishes when the ring is full are queued and written in the ring
+ * as soon as the slowest consumer frees slots - other publishers wait for this queue to be empty so the order of the
+ * events is kept.
+ */
+public class EventBus implements Closeable {
+
+    /** Default ring size. */
+    public static final int DEFAULT_SIZE = 1024;
+
+    /** Number of busy spins before a consumer yields. */
+    private static final int SPIN_TRIES = 10_000;
+
+    /** Number of yields before a consumer parks. */
+    private static final int YIELD_TRIES = 100;
+
+    /** Park duration in nanoseconds (when there is nothing to read or no space to write). */
+    private static final long PARK_NANOS = 50_000;
+
+    /** Time given to consumers to read the remaining events when the bus is closed (ms). */
+    private static final long CLOSE_TIMEOUT = 5_000;
+
+    /** Logger. */
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /** Slots. */
+    private final EventSlot[] slots;
+
+    /** Mask used to get the slot of a sequence (size - 1). */
+    private final int mask;
+
+    /** Consumers. */
+    private final List<EventBusConsumer> consumers = new CopyOnWriteArrayList<>();
+
+    /** Events published by consumers while the ring was full (only written under the publication lock). */
+    private final Queue<Object> overflow = new ConcurrentLinkedQueue<>();
+
+    /** Sequence of the last event published (only written under the publication lock). */
+    private volatile long cursor = -1;
+
+    /** True when consumers are running. */
+    private volatile boolean running;
+
+    /**
+     * Constructor.
+     */
+    public EventBus() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param size ring size (power of two)
+     */
+    public EventBus(final int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Event bus size must be a power of two : " + size);
+        }
+        this.slots = new EventSlot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new EventSlot();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds a consumer - consumers must be added before the bus is started.
+     *
+     * @param name    consumer name (used to name its thread)
+     * @param handler handler called for each event
+     */
+    public final void addConsumer(final String name, final EventBusHandler handler) {
+        if (running) {
+            throw new IllegalStateException("Consumers must be added before the event bus is started");
+        }
+        consumers.add(new EventBusConsumer(name, handler));
+    }
+
+    /**
+     * Starts the consumer threads.
+     */
+    public final synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        consumers.forEach(consumer -> {
+            consumer.thread = new Thread(consumer, "cassandre-event-bus-" + consumer.name);
+            consumer.thread.setDaemon(true);
+            consumer.thread.start();
+        });
+        logger.info("EventBus - Started with {} slots and {} consumer(s)", slots.length, consumers.size());
+    }
+
+    /**
+     * Publishes an event - waits if a consumer is a whole ring behind (unless it's called by a consumer).
+     *
+     * @param event account, balance update, ticker, order, trade or position
+     * @return true if the event was published
+     */
+    public final boolean publish(final Object event) {
+        final BusEventType type = BusEventType.getType(event);
+        if (type == null) {
+            return false;
+        }
+        final boolean consumerThread = isConsumerThread();
+        boolean published = false;
+        while (!published) {
+            synchronized (this) {
+                writeOverflow();
+                if (overflow.isEmpty() && (!running || hasSpace())) {
+                    write(type, event);
+                    published = true;
+                } else if (consumerThread) {
+                    // The consumer can't wait for the slots it has not read yet - the event will be written later.
+                    overflow.add(event);
+                    return true;
+                }
+            }
+            if (!published) {
+                // The publication lock is not held while waiting, so consumers can publish and write the queue.
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+        unparkConsumers();
+        return true;
+    }
+
+    /**
+     * Writes the events published by consumers while the ring was full - must be called under the publication lock.
+     *
+     * @return true if events were written
+     */
+    private boolean writeOverflow() {
+        boolean written = false;
+        while (!overflow.isEmpty() && hasSpace()) {
+            final Object event = overflow.poll();
+            write(BusEventType.getType(event), event);
+            written = true;
+        }
+        return written;
+    }
+
+    /**
+     * Returns true if the next event can be written without overwriting a slot not read by all consumers.
+     *
+     * @return true if there is space
+     */
+    private boolean hasSpace() {
+        return cursor + 1 - slots.length <= getMinimumSequence();
+    }
+
+    /**
+     * Writes an event in the next slot - must be called under the publication lock.
+     *
+     * @param type  event type
+     * @param event event
+     */
+    private void write(final BusEventType type, final Object event) {
+        final long sequence = cursor + 1;
+        final EventSlot slot = slots[(int) (sequence & mask)];
+        slot.type = type;
+        slot.event = event;
+        slot.remainingReads.set(consumers.size());
+        // Writing the sequence makes the event visible to consumers.
+        slot.sequence = sequence;
+        cursor = sequence;
+    }
+
+    /**
+     * Returns true if the current thread is a consumer thread.
+     *
+     * @return true if called by a consumer
+     */
+    private boolean isConsumerThread() {
+        final Thread currentThread = Thread.currentThread();
+        for (EventBusConsumer consumer : consumers) {
+            if (consumer.thread == currentThread) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wakes up the consumers waiting for events.
+     */
+    private void unparkConsumers() {
+        for (EventBusConsumer consumer : consumers) {
+            if (consumer.parked) {
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    /**
+     * Stops the consumers once they have read the events already published.
+     */
+    @Override
+    public final void close() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        for (EventBusConsumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+            try {
+                consumer.thread.join(CLOSE_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.info("EventBus - Stopped after {} events", cursor + 1);
+    }
+
+    /**
+     * Returns the sequence of the last event published.
+     *
+     * @return sequence (-1 if no event was published)
+     */
+    public final long getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Returns the number of events published but not yet read by the slowest consumer.
+     *
+     * @return number of events waiting
+     */
+    public final long getBacklog() {
+        if (consumers.isEmpty()) {
+            return 0;
+        }
+        return cursor - getMinimumSequence();
+    }
+
+    /**
+     * Returns the sequence of the last event read by the slowest consumer.
+     *
+     * @return sequence
+     */
+    private long getMinimumSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (EventBusConsumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * Ring buffer slot - reused for all the events with the same position in the ring.
+     */
+    private static final class EventSlot {
+
+        /** Event type. */
+        private BusEventType type;
+
+        /** Event (cleared once read by all consumers). */
+        private Object event;
+
+        /** Number of consumers that have not read the event yet. */
+        private final AtomicInteger remainingReads = new AtomicInteger();
+
+        /** Sequence of the event in this slot. */
+        private volatile long sequence = -1;
+
+    }
+
+    /**
+     * Consumer reading all events on its own thread.
+     */
+    private final class EventBusConsumer implements Runnable {
+
+        /** Consumer name. */
+        private final String name;
+
+        /** Handler. */
+        private final EventBusHandler handler;
+
+        /** Sequence of the last event read. */
+        private final AtomicLong sequence = new AtomicLong(-1);
+
+        /** Consumer thread. */
+        private Thread thread;
+
+        /** True when the consumer thread is parked, waiting for events. */
+        private volatile boolean parked;
+
+        /**
+         * Constructor.
+         *
+         * @param newName    consumer name
+         * @param newHandler handler
+         */
+        private EventBusConsumer(final String newName, final EventBusHandler newHandler) {
+            this.name = newName;
+            this.handler = newHandler;
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            int idleCount = 0;
+            while (running || isPublished(next) || !overflow.isEmpty()) {
+                if (isPublished(next)) {
+                    final EventSlot slot = slots[(int) (next & mask)];
+                    try {
+                        handler.onEvent(next, slot.type, slot.event);
+                    } catch (RuntimeException e) {
+                        logger.error("EventBus - Consumer {} failed on event {} : {}", name, slot.event, e.getMessage());
+                    }
+                    // The last consumer reading the event releases it (the slot is reused only after that).
+                    if (slot.remainingReads.decrementAndGet() == 0) {
+                        slot.event = null;
+                    }
+                    sequence.lazySet(next);
+                    next++;
+                    idleCount = 0;
+                    // Slots freed by this consumer can receive the events published by consumers while the ring was full.
+                    if (!overflow.isEmpty()) {
+                        writeOverflowEvents();
+                    }
+                } else {
+                    idleCount = idle(idleCount, next);
+                }
+            }
+        }
+
+        /**
+         * Writes the events published by consumers while the ring was full.
+         */
+        private void writeOverflowEvents() {
+            final boolean written;
+            synchronized (EventBus.this) {
+                written = writeOverflow();
+            }
+            if (written) {
+                unparkConsumers();
+            }
+        }
+
+        /**
+         * Returns true if an event was published with this sequence.
+         *
+         * @param next sequence
+         * @return true if published
+         */
+        private boolean isPublished(final long next) {
+            return slots[(int) (next & mask)].sequence == next;
+        }
+
+        /**
+         * Waits for the next event - spins, then yields, then parks.
+         *
+         * @param idleCount number of times the consumer already waited
+         * @param next      sequence of the event waited
+         * @return new idle count
+         */
+        private int idle(final int idleCount, final long next) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                parked = true;
+                // The event may have been published before the publisher saw we were parked.
+                if (running && !isPublished(next)) {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+                parked = false;
+                return idleCount;
+            }
+            return idleCount + 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,18 @@
+package tech.cassandre.trading.bot.util.bus;
+
+/**
+ * Handler called by an event bus consumer thread for each event published.
+ */
+@FunctionalInterface
+public interface EventBusHandler {
+
+    /**
+     * Method called for each event, in sequence order.
+     *
+     * @param sequence global sequence number of the event
+     * @param type     event type
+     * @param event    event (account, balance update, ticker, order, trade or position)
+     */
+    void onEvent(long sequence, BusEventType type, Object event);
+
+}
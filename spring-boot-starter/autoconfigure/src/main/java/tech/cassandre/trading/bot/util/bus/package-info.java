@@ -0,0 +1,4 @@
+/**
+ * Ring buffer event bus.
+ */
+package tech.cassandre.trading.bot.util.bus;
@@ -0,0 +1,47 @@
+package tech.cassandre.trading.bot.util.candle;
+
+import tech.cassandre.trading.bot.dto.market.CandleDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Candle provider - retrieves historical candles (klines / OHLC) from an exchange specific API.
+ * XChange doesn't offer a generic kline API, so the market service uses a provider when one exists for the exchange
+ * (or when the application declares a bean implementing this interface) and only builds candles from public trades
+ * when no provider can serve the period requested.
+ * A provider bean is created before Cassandre services, so it must not depend on them.
+ */
+public interface CandleProvider {
+
+    /**
+     * Returns true if the provider can return candles of this duration.
+     *
+     * @param period duration of a candle
+     * @return true if supported
+     */
+    boolean isSupported(Duration period);
+
+    /**
+     * Returns the maximum number of candles the exchange returns in one request.
+     *
+     * @return maximum number of candles per request
+     */
+    int getMaximumCandlesPerRequest();
+
+    /**
+     * Returns the candles starting between two dates (in any order).
+     *
+     * @param currencyPair currency pair
+     * @param period       duration of a candle
+     * @param start        start date (inclusive)
+     * @param end          end date (exclusive)
+     * @return candles
+     * @throws IOException exchange error
+     */
+    List<CandleDTO> getCandles(CurrencyPairDTO currencyPair, Duration period, ZonedDateTime start, ZonedDateTime end) throws IOException;
+
+}
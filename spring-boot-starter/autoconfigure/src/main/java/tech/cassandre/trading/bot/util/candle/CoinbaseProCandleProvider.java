@@ -0,0 +1,79 @@
+package tech.cassandre.trading.bot.util.candle;
+
+import org.knowm.xchange.coinbasepro.dto.marketdata.CoinbaseProCandle;
+import org.knowm.xchange.coinbasepro.service.CoinbaseProMarketDataServiceRaw;
+import org.knowm.xchange.currency.CurrencyPair;
+import tech.cassandre.trading.bot.dto.market.CandleDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Candle provider - Coinbase Pro implementation (GET /products/{product-id}/candles).
+ */
+public class CoinbaseProCandleProvider implements CandleProvider {
+
+    /** Candle durations accepted by Coinbase Pro (in seconds). */
+    private static final Set<Long> GRANULARITIES = Set.of(60L, 300L, 900L, 3600L, 21600L, 86400L);
+
+    /** Maximum number of candles returned by Coinbase Pro in one request. */
+    private static final int MAXIMUM_CANDLES_PER_REQUEST = 300;
+
+    /** Coinbase Pro market data service. */
+    private final CoinbaseProMarketDataServiceRaw marketDataService;
+
+    /**
+     * Constructor.
+     *
+     * @param newMarketDataService Coinbase Pro market data service
+     */
+    public CoinbaseProCandleProvider(final CoinbaseProMarketDataServiceRaw newMarketDataService) {
+        this.marketDataService = newMarketDataService;
+    }
+
+    @Override
+    public final boolean isSupported(final Duration period) {
+        return GRANULARITIES.contains(period.getSeconds()) && period.getNano() == 0;
+    }
+
+    @Override
+    public final int getMaximumCandlesPerRequest() {
+        return MAXIMUM_CANDLES_PER_REQUEST;
+    }
+
+    @Override
+    public final List<CandleDTO> getCandles(final CurrencyPairDTO currencyPair,
+                                            final Duration period,
+                                            final ZonedDateTime start,
+                                            final ZonedDateTime end) throws IOException {
+        final CoinbaseProCandle[] candles = marketDataService.getCoinbaseProHistoricalCandles(
+                new CurrencyPair(currencyPair.getBaseCurrency().getCode(), currencyPair.getQuoteCurrency().getCode()),
+                DateTimeFormatter.ISO_INSTANT.format(start),
+                DateTimeFormatter.ISO_INSTANT.format(end.minusSeconds(1)),
+                String.valueOf(period.getSeconds()));
+        if (candles == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(candles)
+                .map(candle -> CandleDTO.builder()
+                        .currencyPair(currencyPair)
+                        .timestamp(ZonedDateTime.ofInstant(candle.getTime().toInstant(), ZoneId.systemDefault()))
+                        .open(candle.getOpen())
+                        .high(candle.getHigh())
+                        .low(candle.getLow())
+                        .close(candle.getClose())
+                        .volume(candle.getVolume())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Historical candles (klines) providers.
+ */
+package tech.cassandre.trading.bot.util.candle;
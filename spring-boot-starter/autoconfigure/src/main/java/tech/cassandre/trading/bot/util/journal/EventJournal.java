@@ -0,0 +1,263 @@
+package tech.cassandre.trading.bot.util.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only event journal - records every ticker, account, order, trade and position emitted by flux.
+ * Events are written in memory-mapped segment files of a fixed size. When a segment is full, a new one is created.
+ * A new segment is also created each time the journal is opened so existing files are never modified.
+ * <p>
+ * Segment layout : magic number (int), version (int), then records.
+ * Record layout : length (int), event type (byte), time of writing (long - epoch milliseconds), event.
+ * The length is written last so a record is only visible once complete. A length of zero marks the end of a segment.
+ */
+public class EventJournal implements Closeable {
+
+    /** Default segment size (64 MB). */
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    /** Magic number written at the beginning of each segment ("CSDJ"). */
+    static final int MAGIC_NUMBER = 0x4353444A;
+
+    /** Journal format version. */
+    static final int VERSION = 2;
+
+    /** Segment header size. */
+    static final int SEGMENT_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+
+    /** Record header size (length, type and time). */
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Byte.BYTES + Long.BYTES;
+
+    /** Segment file name format (segment index). */
+    private static final String SEGMENT_FILE_NAME = "journal-%019d.dat";
+
+    /** Segment file name pattern. */
+    private static final String SEGMENT_FILE_PATTERN = "journal-\\d{19}\\.dat";
+
+    /** Segment file name prefix. */
+    private static final String SEGMENT_FILE_PREFIX = "journal-";
+
+    /** Logger. */
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /** Directory where segments are written. */
+    private final Path directory;
+
+    /** Segment size. */
+    private final int segmentSize;
+
+    /** Current segment (null if the journal is closed or failed). */
+    private MappedByteBuffer segment;
+
+    /** Current segment index. */
+    private long segmentIndex;
+
+    /** Number of events written. */
+    private long eventCount;
+
+    /**
+     * Constructor.
+     *
+     * @param newDirectory directory where segments are written (created if it doesn't exist)
+     * @throws IOException if the directory or the first segment can't be created
+     */
+    public EventJournal(final Path newDirectory) throws IOException {
+        this(newDirectory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newDirectory   directory where segments are written (created if it doesn't exist)
+     * @param newSegmentSize segment size in bytes
+     * @throws IOException if the directory or the first segment can't be created
+     */
+    public EventJournal(final Path newDirectory, final long newSegmentSize) throws IOException {
+        if (newSegmentSize <= SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE || newSegmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid journal segment size : " + newSegmentSize);
+        }
+        this.directory = newDirectory;
+        this.segmentSize = (int) newSegmentSize;
+        Files.createDirectories(directory);
+        final List<Path> segments = getSegments(directory);
+        if (!segments.isEmpty()) {
+            segmentIndex = getSegmentIndex(segments.get(segments.size() - 1)) + 1;
+        }
+        openSegment();
+    }
+
+    /**
+     * Appends an event to the journal.
+     *
+     * @param event ticker, account, order, trade or position
+     * @return true if the event was written
+     */
+    public final synchronized boolean append(final Object event) {
+        final Optional<JournalEventType> type = JournalEventType.getType(event);
+        if (segment == null || type.isEmpty()) {
+            return false;
+        }
+        final long timestamp = System.currentTimeMillis();
+        if (!write(type.get(), timestamp, event)) {
+            // The segment is full, we continue in a new one.
+            if (!rollSegment()) {
+                return false;
+            }
+            if (!write(type.get(), timestamp, event)) {
+                logger.error("EventJournal - Event is larger than a journal segment : {}", event);
+                return false;
+            }
+        }
+        eventCount++;
+        return true;
+    }
+
+    /**
+     * Forces the events written to be saved on disk.
+     */
+    public final synchronized void flush() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Closes the journal - events appended after are ignored.
+     */
+    @Override
+    public final synchronized void close() {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+            logger.info("EventJournal - Journal closed ({} events written)", eventCount);
+        }
+    }
+
+    /**
+     * Getter for directory.
+     *
+     * @return directory
+     */
+    public final Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the number of events written since the journal was opened.
+     *
+     * @return number of events written
+     */
+    public final synchronized long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Writes a record in the current segment.
+     *
+     * @param type      event type
+     * @param timestamp time of writing
+     * @param event     event
+     * @return false if there is not enough space left in the segment
+     */
+    private boolean write(final JournalEventType type, final long timestamp, final Object event) {
+        final int start = segment.position();
+        if (segment.remaining() < RECORD_HEADER_SIZE) {
+            return false;
+        }
+        try {
+            segment.position(start + Integer.BYTES);
+            segment.put(type.getCode());
+            segment.putLong(timestamp);
+            JournalCodec.encode(type, event, segment);
+            // The length is written last - the record becomes readable.
+            segment.putInt(start, segment.position() - start - Integer.BYTES);
+            return true;
+        } catch (BufferOverflowException e) {
+            // We erase what was written so the end of the segment stays a zero length.
+            final int end = segment.position();
+            for (int i = start; i < end; i++) {
+                segment.put(i, (byte) 0);
+            }
+            segment.position(start);
+            return false;
+        }
+    }
+
+    /**
+     * Closes the current segment and opens the next one.
+     *
+     * @return true if a new segment was opened
+     */
+    private boolean rollSegment() {
+        segment.force();
+        segmentIndex++;
+        try {
+            openSegment();
+            return true;
+        } catch (IOException e) {
+            logger.error("EventJournal - Impossible to create a new journal segment, journal stopped : {}", e.getMessage());
+            segment = null;
+            return false;
+        }
+    }
+
+    /**
+     * Creates and maps a new segment.
+     *
+     * @throws IOException if the segment can't be created
+     */
+    private void openSegment() throws IOException {
+        final Path path = directory.resolve(String.format(SEGMENT_FILE_NAME, segmentIndex));
+        try (FileChannel channel = FileChannel.open(path, CREATE_NEW, READ, WRITE)) {
+            segment = channel.map(READ_WRITE, 0, segmentSize);
+        }
+        segment.putInt(MAGIC_NUMBER);
+        segment.putInt(VERSION);
+        logger.info("EventJournal - Writing events in {}", path);
+    }
+
+    /**
+     * Returns the segments of a journal, from the oldest to the newest.
+     *
+     * @param journalDirectory journal directory
+     * @return segments
+     * @throws IOException if the directory can't be read
+     */
+    static List<Path> getSegments(final Path journalDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            return files.filter(file -> file.getFileName().toString().matches(SEGMENT_FILE_PATTERN))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns the index of a segment.
+     *
+     * @param segmentPath segment
+     * @return index
+     */
+    private static long getSegmentIndex(final Path segmentPath) {
+        final String fileName = segmentPath.getFileName().toString();
+        return Long.parseLong(fileName.substring(SEGMENT_FILE_PREFIX.length(), fileName.indexOf('.')));
+    }
+
+}
@@ -0,0 +1,104 @@
+package tech.cassandre.trading.bot.util.journal;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+import static tech.cassandre.trading.bot.util.journal.EventJournal.MAGIC_NUMBER;
+import static tech.cassandre.trading.bot.util.journal.EventJournal.SEGMENT_HEADER_SIZE;
+import static tech.cassandre.trading.bot.util.journal.EventJournal.VERSION;
+
+/**
+ * Reads the events written by {@link EventJournal}, segment after segment, in the order they were written.
+ */
+public class EventJournalReader {
+
+    /** Journal directory. */
+    private final Path directory;
+
+    /**
+     * Constructor.
+     *
+     * @param newDirectory journal directory
+     */
+    public EventJournalReader(final Path newDirectory) {
+        this.directory = newDirectory;
+    }
+
+    /**
+     * Reads all events.
+     *
+     * @param consumer consumer called for each event
+     * @return number of events read
+     * @throws IOException if a segment can't be read or is corrupted
+     */
+    public final long read(final Consumer<JournalEvent> consumer) throws IOException {
+        long count = 0;
+        for (Path segment : EventJournal.getSegments(directory)) {
+            count += readSegment(segment, consumer);
+        }
+        return count;
+    }
+
+    /**
+     * Returns all events.
+     *
+     * @return events
+     * @throws IOException if a segment can't be read or is corrupted
+     */
+    public final List<JournalEvent> readAll() throws IOException {
+        final List<JournalEvent> events = new LinkedList<>();
+        read(events::add);
+        return events;
+    }
+
+    /**
+     * Reads the events of a segment.
+     *
+     * @param segmentPath segment
+     * @param consumer    consumer called for each event
+     * @return number of events read
+     * @throws IOException if the segment can't be read or is corrupted
+     */
+    private long readSegment(final Path segmentPath, final Consumer<JournalEvent> consumer) throws IOException {
+        final MappedByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(segmentPath, READ)) {
+            segment = channel.map(READ_ONLY, 0, channel.size());
+        }
+        if (segment.remaining() < SEGMENT_HEADER_SIZE || segment.getInt() != MAGIC_NUMBER || segment.getInt() != VERSION) {
+            throw new IOException("Invalid journal segment : " + segmentPath);
+        }
+
+        long count = 0;
+        while (segment.remaining() >= Integer.BYTES) {
+            final int length = segment.getInt();
+            if (length <= 0 || length > segment.remaining()) {
+                // End of the segment (or a record still being written).
+                break;
+            }
+            final ByteBuffer record = segment.slice();
+            record.limit(length);
+            segment.position(segment.position() + length);
+            try {
+                final byte code = record.get();
+                final JournalEventType type = JournalEventType.getType(code)
+                        .orElseThrow(() -> new IOException("Unknown event type " + code + " in " + segmentPath));
+                final long timestamp = record.getLong();
+                consumer.accept(new JournalEvent(type, timestamp, JournalCodec.decode(type, record)));
+                count++;
+            } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IOException("Corrupted record in journal segment " + segmentPath, e);
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,771 @@
+package tech.cassandre.trading.bot.util.journal;
+
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.position.PositionStatusDTO;
+import tech.cassandre.trading.bot.dto.position.PositionTypeDTO;
+import tech.cassandre.trading.bot.dto.strategy.StrategyDTO;
+import tech.cassandre.trading.bot.dto.strategy.StrategyTypeDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderStatusDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.AccountFeatureDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary encoding of the events written in the journal.
+ * Values are written field by field, in declaration order, without field names. Nullable values are preceded by a
+ * presence byte (or a length of -1 for strings and numbers) and enums are written with their ordinal.
+ */
+final class JournalCodec {
+
+    /** Length written for a null string or a null number. */
+    private static final int NULL_LENGTH = -1;
+
+    /** Presence byte - value is null. */
+    private static final byte ABSENT = 0;
+
+    /** Presence byte - value follows. */
+    private static final byte PRESENT = 1;
+
+    /**
+     * Private constructor.
+     */
+    private JournalCodec() {
+    }
+
+    /**
+     * Writes an event.
+     *
+     * @param type   event type
+     * @param event  event
+     * @param buffer buffer
+     */
+    static void encode(final JournalEventType type, final Object event, final ByteBuffer buffer) {
+        switch (type) {
+            case TICKER:
+                putTicker(buffer, (TickerDTO) event);
+                break;
+            case ACCOUNT:
+                putAccount(buffer, (AccountDTO) event);
+                break;
+            case ORDER:
+                putOrder(buffer, (OrderDTO) event);
+                break;
+            case TRADE:
+                putTrade(buffer, (TradeDTO) event);
+                break;
+            case POSITION:
+                putPosition(buffer, (PositionDTO) event);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported event type : " + type);
+        }
+    }
+
+    /**
+     * Reads an event.
+     *
+     * @param type   event type
+     * @param buffer buffer
+     * @return event
+     */
+    static Object decode(final JournalEventType type, final ByteBuffer buffer) {
+        switch (type) {
+            case TICKER:
+                return getTicker(buffer);
+            case ACCOUNT:
+                return getAccount(buffer);
+            case ORDER:
+                return getOrder(buffer);
+            case TRADE:
+                return getTrade(buffer);
+            case POSITION:
+                return getPosition(buffer);
+            default:
+                throw new IllegalArgumentException("Unsupported event type : " + type);
+        }
+    }
+
+    // =================================================================================================================
+    // Events.
+
+    /**
+     * Writes a ticker.
+     *
+     * @param buffer buffer
+     * @param ticker ticker
+     */
+    private static void putTicker(final ByteBuffer buffer, final TickerDTO ticker) {
+        putCurrencyPair(buffer, ticker.getCurrencyPair());
+        putBigDecimal(buffer, ticker.getOpen());
+        putBigDecimal(buffer, ticker.getLast());
+        putBigDecimal(buffer, ticker.getBid());
+        putBigDecimal(buffer, ticker.getAsk());
+        putBigDecimal(buffer, ticker.getHigh());
+        putBigDecimal(buffer, ticker.getLow());
+        putBigDecimal(buffer, ticker.getVwap());
+        putBigDecimal(buffer, ticker.getVolume());
+        putBigDecimal(buffer, ticker.getQuoteVolume());
+        putBigDecimal(buffer, ticker.getBidSize());
+        putBigDecimal(buffer, ticker.getAskSize());
+        putDate(buffer, ticker.getTimestamp());
+    }
+
+    /**
+     * Reads a ticker.
+     *
+     * @param buffer buffer
+     * @return ticker
+     */
+    private static TickerDTO getTicker(final ByteBuffer buffer) {
+        return TickerDTO.builder()
+                .currencyPair(getCurrencyPair(buffer))
+                .open(getBigDecimal(buffer))
+                .last(getBigDecimal(buffer))
+                .bid(getBigDecimal(buffer))
+                .ask(getBigDecimal(buffer))
+                .high(getBigDecimal(buffer))
+                .low(getBigDecimal(buffer))
+                .vwap(getBigDecimal(buffer))
+                .volume(getBigDecimal(buffer))
+                .quoteVolume(getBigDecimal(buffer))
+                .bidSize(getBigDecimal(buffer))
+                .askSize(getBigDecimal(buffer))
+                .timestamp(getDate(buffer))
+                .build();
+    }
+
+    /**
+     * Writes an account.
+     *
+     * @param buffer  buffer
+     * @param account account
+     */
+    private static void putAccount(final ByteBuffer buffer, final AccountDTO account) {
+        putString(buffer, account.getAccountId());
+        putString(buffer, account.getName());
+        putCount(buffer, account.getFeatures());
+        if (account.getFeatures() != null) {
+            account.getFeatures().forEach(feature -> putEnum(buffer, feature));
+        }
+        if (account.getBalances() != null) {
+            putCount(buffer, account.getBalances().values());
+            account.getBalances().values().forEach(balance -> putBalance(buffer, balance));
+        } else {
+            buffer.putInt(0);
+        }
+    }
+
+    /**
+     * Reads an account.
+     *
+     * @param buffer buffer
+     * @return account
+     */
+    private static AccountDTO getAccount(final ByteBuffer buffer) {
+        final AccountDTO.AccountDTOBuilder builder = AccountDTO.builder()
+                .accountId(getString(buffer))
+                .name(getString(buffer));
+        final int featureCount = buffer.getInt();
+        final Set<AccountFeatureDTO> features = new LinkedHashSet<>();
+        for (int i = 0; i < featureCount; i++) {
+            features.add(getEnum(buffer, AccountFeatureDTO.values()));
+        }
+        final int balanceCount = buffer.getInt();
+        final Map<CurrencyDTO, BalanceDTO> balances = new LinkedHashMap<>();
+        for (int i = 0; i < balanceCount; i++) {
+            final BalanceDTO balance = getBalance(buffer);
+            balances.put(balance.getCurrency(), balance);
+        }
+        return builder.features(features)
+                .balances(balances)
+                .build();
+    }
+
+    /**
+     * Writes an order.
+     *
+     * @param buffer buffer
+     * @param order  order
+     */
+    private static void putOrder(final ByteBuffer buffer, final OrderDTO order) {
+        putLong(buffer, order.getId());
+        putString(buffer, order.getOrderId());
+        putEnum(buffer, order.getType());
+        putStrategy(buffer, order.getStrategy());
+        putCurrencyPair(buffer, order.getCurrencyPair());
+        putCurrencyAmount(buffer, order.getAmount());
+        putCurrencyAmount(buffer, order.getAveragePrice());
+        putCurrencyAmount(buffer, order.getLimitPrice());
+        putString(buffer, order.getLeverage());
+        putEnum(buffer, order.getStatus());
+        putCurrencyAmount(buffer, order.getCumulativeAmount());
+        putString(buffer, order.getUserReference());
+        putDate(buffer, order.getTimestamp());
+        putCount(buffer, order.getTrades());
+        if (order.getTrades() != null) {
+            order.getTrades().forEach(trade -> putTrade(buffer, trade));
+        }
+    }
+
+    /**
+     * Reads an order.
+     *
+     * @param buffer buffer
+     * @return order
+     */
+    private static OrderDTO getOrder(final ByteBuffer buffer) {
+        final OrderDTO.OrderDTOBuilder builder = OrderDTO.builder()
+                .id(getLong(buffer))
+                .orderId(getString(buffer))
+                .type(getEnum(buffer, OrderTypeDTO.values()))
+                .strategy(getStrategy(buffer))
+                .currencyPair(getCurrencyPair(buffer))
+                .amount(getCurrencyAmount(buffer))
+                .averagePrice(getCurrencyAmount(buffer))
+                .limitPrice(getCurrencyAmount(buffer))
+                .leverage(getString(buffer))
+                .status(getEnum(buffer, OrderStatusDTO.values()))
+                .cumulativeAmount(getCurrencyAmount(buffer))
+                .userReference(getString(buffer))
+                .timestamp(getDate(buffer));
+        final int tradeCount = buffer.getInt();
+        for (int i = 0; i < tradeCount; i++) {
+            builder.trade(getTrade(buffer));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes a trade.
+     *
+     * @param buffer buffer
+     * @param trade  trade
+     */
+    private static void putTrade(final ByteBuffer buffer, final TradeDTO trade) {
+        putLong(buffer, trade.getId());
+        putString(buffer, trade.getTradeId());
+        putEnum(buffer, trade.getType());
+        putString(buffer, trade.getOrderId());
+        putCurrencyPair(buffer, trade.getCurrencyPair());
+        putCurrencyAmount(buffer, trade.getAmount());
+        putCurrencyAmount(buffer, trade.getPrice());
+        putCurrencyAmount(buffer, trade.getFee());
+        putString(buffer, trade.getUserReference());
+        putDate(buffer, trade.getTimestamp());
+    }
+
+    /**
+     * Reads a trade.
+     *
+     * @param buffer buffer
+     * @return trade
+     */
+    private static TradeDTO getTrade(final ByteBuffer buffer) {
+        return TradeDTO.builder()
+                .id(getLong(buffer))
+                .tradeId(getString(buffer))
+                .type(getEnum(buffer, OrderTypeDTO.values()))
+                .orderId(getString(buffer))
+                .currencyPair(getCurrencyPair(buffer))
+                .amount(getCurrencyAmount(buffer))
+                .price(getCurrencyAmount(buffer))
+                .fee(getCurrencyAmount(buffer))
+                .userReference(getString(buffer))
+                .timestamp(getDate(buffer))
+                .build();
+    }
+
+    /**
+     * Writes a position.
+     *
+     * @param buffer   buffer
+     * @param position position
+     */
+    private static void putPosition(final ByteBuffer buffer, final PositionDTO position) {
+        buffer.putLong(position.getId());
+        putLong(buffer, position.getPositionId());
+        putEnum(buffer, position.getType());
+        putStrategy(buffer, position.getStrategy());
+        putCurrencyPair(buffer, position.getCurrencyPair());
+        putCurrencyAmount(buffer, position.getAmount());
+        putRules(buffer, position.getRules());
+        putEnum(buffer, position.getStatus());
+        putString(buffer, position.getOpeningOrderId());
+        if (putPresence(buffer, position.getOpeningOrder())) {
+            putOrder(buffer, position.getOpeningOrder());
+        }
+        putString(buffer, position.getClosingOrderId());
+        if (putPresence(buffer, position.getClosingOrder())) {
+            putOrder(buffer, position.getClosingOrder());
+        }
+        putString(buffer, position.getProtectiveOrderId());
+        putCurrencyAmount(buffer, position.getLowestPrice());
+        putCurrencyAmount(buffer, position.getHighestPrice());
+        putCurrencyAmount(buffer, position.getLatestPrice());
+    }
+
+    /**
+     * Reads a position.
+     *
+     * @param buffer buffer
+     * @return position
+     */
+    private static PositionDTO getPosition(final ByteBuffer buffer) {
+        final PositionDTO.PositionDTOBuilder builder = PositionDTO.builder()
+                .id(buffer.getLong())
+                .positionId(getLong(buffer))
+                .type(getEnum(buffer, PositionTypeDTO.values()))
+                .strategy(getStrategy(buffer))
+                .currencyPair(getCurrencyPair(buffer))
+                .amount(getCurrencyAmount(buffer))
+                .rules(getRules(buffer))
+                .status(getEnum(buffer, PositionStatusDTO.values()))
+                .openingOrderId(getString(buffer));
+        if (getPresence(buffer)) {
+            builder.openingOrder(getOrder(buffer));
+        }
+        builder.closingOrderId(getString(buffer));
+        if (getPresence(buffer)) {
+            builder.closingOrder(getOrder(buffer));
+        }
+        return builder.protectiveOrderId(getString(buffer))
+                .lowestPrice(getCurrencyAmount(buffer))
+                .highestPrice(getCurrencyAmount(buffer))
+                .latestPrice(getCurrencyAmount(buffer))
+                .build();
+    }
+
+    // =================================================================================================================
+    // Values used by events.
+
+    /**
+     * Writes a balance.
+     *
+     * @param buffer  buffer
+     * @param balance balance
+     */
+    private static void putBalance(final ByteBuffer buffer, final BalanceDTO balance) {
+        putCurrency(buffer, balance.getCurrency());
+        putBigDecimal(buffer, balance.getTotal());
+        putBigDecimal(buffer, balance.getAvailable());
+        putBigDecimal(buffer, balance.getFrozen());
+        putBigDecimal(buffer, balance.getLoaned());
+        putBigDecimal(buffer, balance.getBorrowed());
+        putBigDecimal(buffer, balance.getWithdrawing());
+        putBigDecimal(buffer, balance.getDepositing());
+    }
+
+    /**
+     * Reads a balance.
+     *
+     * @param buffer buffer
+     * @return balance
+     */
+    private static BalanceDTO getBalance(final ByteBuffer buffer) {
+        return BalanceDTO.builder()
+                .currency(getCurrency(buffer))
+                .total(getBigDecimal(buffer))
+                .available(getBigDecimal(buffer))
+                .frozen(getBigDecimal(buffer))
+                .loaned(getBigDecimal(buffer))
+                .borrowed(getBigDecimal(buffer))
+                .withdrawing(getBigDecimal(buffer))
+                .depositing(getBigDecimal(buffer))
+                .build();
+    }
+
+    /**
+     * Writes a strategy.
+     *
+     * @param buffer   buffer
+     * @param strategy strategy
+     */
+    private static void putStrategy(final ByteBuffer buffer, final StrategyDTO strategy) {
+        if (putPresence(buffer, strategy)) {
+            putLong(buffer, strategy.getId());
+            putString(buffer, strategy.getStrategyId());
+            putEnum(buffer, strategy.getType());
+            putString(buffer, strategy.getName());
+        }
+    }
+
+    /**
+     * Reads a strategy.
+     *
+     * @param buffer buffer
+     * @return strategy
+     */
+    private static StrategyDTO getStrategy(final ByteBuffer buffer) {
+        if (!getPresence(buffer)) {
+            return null;
+        }
+        return StrategyDTO.builder()
+                .id(getLong(buffer))
+                .strategyId(getString(buffer))
+                .type(getEnum(buffer, StrategyTypeDTO.values()))
+                .name(getString(buffer))
+                .build();
+    }
+
+    /**
+     * Writes position rules.
+     *
+     * @param buffer buffer
+     * @param rules  position rules
+     */
+    private static void putRules(final ByteBuffer buffer, final PositionRulesDTO rules) {
+        if (putPresence(buffer, rules)) {
+            if (putPresence(buffer, getStopGain(rules))) {
+                buffer.putFloat(rules.getStopGainPercentage());
+            }
+            if (putPresence(buffer, getStopLoss(rules))) {
+                buffer.putFloat(rules.getStopLossPercentage());
+            }
+        }
+    }
+
+    /**
+     * Reads position rules.
+     *
+     * @param buffer buffer
+     * @return position rules
+     */
+    private static PositionRulesDTO getRules(final ByteBuffer buffer) {
+        if (!getPresence(buffer)) {
+            return null;
+        }
+        final PositionRulesDTO.Builder builder = PositionRulesDTO.builder();
+        if (getPresence(buffer)) {
+            builder.stopGainPercentage(buffer.getFloat());
+        }
+        if (getPresence(buffer)) {
+            builder.stopLossPercentage(buffer.getFloat());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the stop gain percentage if it's set.
+     *
+     * @param rules position rules
+     * @return stop gain percentage (null if not set)
+     */
+    private static Float getStopGain(final PositionRulesDTO rules) {
+        if (rules.isStopGainPercentageSet()) {
+            return rules.getStopGainPercentage();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the stop loss percentage if it's set.
+     *
+     * @param rules position rules
+     * @return stop loss percentage (null if not set)
+     */
+    private static Float getStopLoss(final PositionRulesDTO rules) {
+        if (rules.isStopLossPercentageSet()) {
+            return rules.getStopLossPercentage();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a currency amount.
+     *
+     * @param buffer buffer
+     * @param amount currency amount
+     */
+    private static void putCurrencyAmount(final ByteBuffer buffer, final CurrencyAmountDTO amount) {
+        if (putPresence(buffer, amount)) {
+            putBigDecimal(buffer, amount.getValue());
+            putCurrency(buffer, amount.getCurrency());
+        }
+    }
+
+    /**
+     * Reads a currency amount.
+     *
+     * @param buffer buffer
+     * @return currency amount
+     */
+    private static CurrencyAmountDTO getCurrencyAmount(final ByteBuffer buffer) {
+        if (!getPresence(buffer)) {
+            return null;
+        }
+        return CurrencyAmountDTO.builder()
+                .value(getBigDecimal(buffer))
+                .currency(getCurrency(buffer))
+                .build();
+    }
+
+    /**
+     * Writes a currency pair.
+     *
+     * @param buffer       buffer
+     * @param currencyPair currency pair
+     */
+    private static void putCurrencyPair(final ByteBuffer buffer, final CurrencyPairDTO currencyPair) {
+        if (putPresence(buffer, currencyPair)) {
+            putCurrency(buffer, currencyPair.getBaseCurrency());
+            putCurrency(buffer, currencyPair.getQuoteCurrency());
+        }
+    }
+
+    /**
+     * Reads a currency pair.
+     *
+     * @param buffer buffer
+     * @return currency pair
+     */
+    private static CurrencyPairDTO getCurrencyPair(final ByteBuffer buffer) {
+        if (!getPresence(buffer)) {
+            return null;
+        }
+        final CurrencyDTO baseCurrency = getCurrency(buffer);
+        return CurrencyPairDTO.getInstance(baseCurrency, getCurrency(buffer));
+    }
+
+    /**
+     * Writes a currency.
+     *
+     * @param buffer   buffer
+     * @param currency currency
+     */
+    private static void putCurrency(final ByteBuffer buffer, final CurrencyDTO currency) {
+        if (currency == null) {
+            putString(buffer, null);
+        } else {
+            putString(buffer, currency.getCode());
+        }
+    }
+
+    /**
+     * Reads a currency.
+     *
+     * @param buffer buffer
+     * @return currency
+     */
+    private static CurrencyDTO getCurrency(final ByteBuffer buffer) {
+        final String code = getString(buffer);
+        if (code == null) {
+            return null;
+        }
+        return CurrencyDTO.getInstance(code);
+    }
+
+    // =================================================================================================================
+    // Basic values.
+
+    /**
+     * Writes a presence byte.
+     *
+     * @param buffer buffer
+     * @param value  value
+     * @return true if the value is not null (and must be written)
+     */
+    private static boolean putPresence(final ByteBuffer buffer, final Object value) {
+        if (value == null) {
+            buffer.put(ABSENT);
+            return false;
+        }
+        buffer.put(PRESENT);
+        return true;
+    }
+
+    /**
+     * Reads a presence byte.
+     *
+     * @param buffer buffer
+     * @return true if a value follows
+     */
+    private static boolean getPresence(final ByteBuffer buffer) {
+        return buffer.get() == PRESENT;
+    }
+
+    /**
+     * Writes the number of elements of a collection.
+     *
+     * @param buffer     buffer
+     * @param collection collection (null is written as empty)
+     */
+    private static void putCount(final ByteBuffer buffer, final Collection<?> collection) {
+        if (collection == null) {
+            buffer.putInt(0);
+        } else {
+            buffer.putInt(collection.size());
+        }
+    }
+
+    /**
+     * Writes a nullable long.
+     *
+     * @param buffer buffer
+     * @param value  value
+     */
+    private static void putLong(final ByteBuffer buffer, final Long value) {
+        if (putPresence(buffer, value)) {
+            buffer.putLong(value);
+        }
+    }
+
+    /**
+     * Reads a nullable long.
+     *
+     * @param buffer buffer
+     * @return value
+     */
+    private static Long getLong(final ByteBuffer buffer) {
+        if (!getPresence(buffer)) {
+            return null;
+        }
+        return buffer.getLong();
+    }
+
+    /**
+     * Writes an enum (ordinal).
+     *
+     * @param buffer buffer
+     * @param value  value
+     */
+    private static void putEnum(final ByteBuffer buffer, final Enum<?> value) {
+        if (value == null) {
+            buffer.put((byte) NULL_LENGTH);
+        } else {
+            buffer.put((byte) value.ordinal());
+        }
+    }
+
+    /**
+     * Reads an enum.
+     *
+     * @param buffer buffer
+     * @param values enum values
+     * @param <E>    enum type
+     * @return value
+     */
+    private static <E extends Enum<E>> E getEnum(final ByteBuffer buffer, final E[] values) {
+        final byte ordinal = buffer.get();
+        if (ordinal == NULL_LENGTH) {
+            return null;
+        }
+        return values[ordinal];
+    }
+
+    /**
+     * Writes a string (UTF-8).
+     *
+     * @param buffer buffer
+     * @param value  value
+     */
+    private static void putString(final ByteBuffer buffer, final String value) {
+        if (value == null) {
+            buffer.putInt(NULL_LENGTH);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    /**
+     * Reads a string.
+     *
+     * @param buffer buffer
+     * @return value
+     */
+    private static String getString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a big decimal (unscaled value and scale).
+     *
+     * @param buffer buffer
+     * @param value  value
+     */
+    private static void putBigDecimal(final ByteBuffer buffer, final BigDecimal value) {
+        if (value == null) {
+            buffer.putInt(NULL_LENGTH);
+        } else {
+            final byte[] unscaledValue = value.unscaledValue().toByteArray();
+            buffer.putInt(unscaledValue.length);
+            buffer.put(unscaledValue);
+            buffer.putInt(value.scale());
+        }
+    }
+
+    /**
+     * Reads a big decimal.
+     *
+     * @param buffer buffer
+     * @return value
+     */
+    private static BigDecimal getBigDecimal(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        final byte[] unscaledValue = new byte[length];
+        buffer.get(unscaledValue);
+        return new BigDecimal(new BigInteger(unscaledValue), buffer.getInt());
+    }
+
+    /**
+     * Writes a date (instant and time zone).
+     *
+     * @param buffer buffer
+     * @param value  value
+     */
+    private static void putDate(final ByteBuffer buffer, final ZonedDateTime value) {
+        if (putPresence(buffer, value)) {
+            buffer.putLong(value.toEpochSecond());
+            buffer.putInt(value.getNano());
+            putString(buffer, value.getZone().getId());
+        }
+    }
+
+    /**
+     * Reads a date.
+     *
+     * @param buffer buffer
+     * @return value
+     */
+    private static ZonedDateTime getDate(final ByteBuffer buffer) {
+        if (!getPresence(buffer)) {
+            return null;
+        }
+        final Instant instant = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        return ZonedDateTime.ofInstant(instant, ZoneId.of(getString(buffer)));
+    }
+
+}
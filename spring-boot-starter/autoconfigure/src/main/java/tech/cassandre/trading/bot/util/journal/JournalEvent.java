@@ -0,0 +1,79 @@
+package tech.cassandre.trading.bot.util.journal;
+
+import java.time.Instant;
+
+/**
+ * Event read from the journal.
+ */
+public final class JournalEvent {
+
+    /** Event type. */
+    private final JournalEventType type;
+
+    /** Time at which the event was written in the journal (epoch milliseconds). */
+    private final long timestamp;
+
+    /** Event value (ticker, account, order, trade or position). */
+    private final Object value;
+
+    /**
+     * Constructor.
+     *
+     * @param newType      event type
+     * @param newTimestamp time at which the event was written (epoch milliseconds)
+     * @param newValue     event value
+     */
+    public JournalEvent(final JournalEventType newType, final long newTimestamp, final Object newValue) {
+        this.type = newType;
+        this.timestamp = newTimestamp;
+        this.value = newValue;
+    }
+
+    /**
+     * Getter for type.
+     *
+     * @return type
+     */
+    public JournalEventType getType() {
+        return type;
+    }
+
+    /**
+     * Getter for timestamp.
+     *
+     * @return timestamp (epoch milliseconds)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Getter for value.
+     *
+     * @return value
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the value with its type.
+     *
+     * @param valueClass value class
+     * @param <V>        value type
+     * @return value
+     */
+    public <V> V getValue(final Class<V> valueClass) {
+        return valueClass.cast(value);
+    }
+
+    @Override
+    public String toString() {
+        return "JournalEvent{"
+                + "type=" + type
+                + ", timestamp=" + Instant.ofEpochMilli(timestamp)
+                + ", value=" + value
+                + '}';
+    }
+
+}
@@ -0,0 +1,95 @@
+package tech.cassandre.trading.bot.util.journal;
+
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Type of the events written in the journal.
+ * Codes are written in journal files - they must never change.
+ */
+public enum JournalEventType {
+
+    /** Ticker. */
+    TICKER((byte) 1, TickerDTO.class),
+
+    /** Account. */
+    ACCOUNT((byte) 2, AccountDTO.class),
+
+    /** Order. */
+    ORDER((byte) 3, OrderDTO.class),
+
+    /** Trade. */
+    TRADE((byte) 4, TradeDTO.class),
+
+    /** Position. */
+    POSITION((byte) 5, PositionDTO.class);
+
+    /** Code written in the journal. */
+    private final byte code;
+
+    /** Class of the event. */
+    private final Class<?> eventClass;
+
+    /**
+     * Constructor.
+     *
+     * @param newCode       code written in the journal
+     * @param newEventClass class of the event
+     */
+    JournalEventType(final byte newCode, final Class<?> newEventClass) {
+        this.code = newCode;
+        this.eventClass = newEventClass;
+    }
+
+    /**
+     * Getter for code.
+     *
+     * @return code
+     */
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Getter for eventClass.
+     *
+     * @return eventClass
+     */
+    public Class<?> getEventClass() {
+        return eventClass;
+    }
+
+    /**
+     * Returns the type of an event.
+     *
+     * @param event event
+     * @return type (empty if the event can't be written in the journal)
+     */
+    public static Optional<JournalEventType> getType(final Object event) {
+        if (event == null) {
+            return Optional.empty();
+        }
+        return Arrays.stream(values())
+                .filter(type -> type.eventClass == event.getClass())
+                .findFirst();
+    }
+
+    /**
+     * Returns the type corresponding to a code read in the journal.
+     *
+     * @param code code
+     * @return type
+     */
+    public static Optional<JournalEventType> getType(final byte code) {
+        return Arrays.stream(values())
+                .filter(type -> type.code == code)
+                .findFirst();
+    }
+
+}
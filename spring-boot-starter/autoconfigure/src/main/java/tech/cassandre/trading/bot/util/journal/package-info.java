@@ -0,0 +1,4 @@
+/**
+ * Event journal.
+ */
+package tech.cassandre.trading.bot.util.journal;
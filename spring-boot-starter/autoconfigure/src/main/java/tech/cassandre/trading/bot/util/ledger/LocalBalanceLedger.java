@@ -0,0 +1,364 @@
+package tech.cassandre.trading.bot.util.ledger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.math.BigDecimal.ZERO;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+
+/**
+ * Local balance ledger - an optimistic view of the trade account balances between two account updates.
+ * Funds are reserved when an order is created, trades are applied as soon as they are received and reservations are
+ * released when orders are over (orders sent asynchronously reserve their funds before being sent). Each account update received from the exchange replaces the local balances and the
+ * difference found (drift) is kept for monitoring.
+ * The available balances of an account update already exclude the funds of the orders known by the exchange: funds of
+ * those orders are not released again and only the reservations of orders still being sent are applied on top of the
+ * exchange balances.
+ * Trades are identified by their ids, not by their dates (the exchange clock and the local clock differ): a trade
+ * applied before an account update is never applied again, and a trade received after an account update is always
+ * applied, even if the exchange made it just before the update (the next account update corrects the balances).
+ */
+public class LocalBalanceLedger {
+
+    /** Prefix of the reservations made before the order id is known. */
+    private static final String PENDING_RESERVATION_PREFIX = "PENDING_";
+
+    /** Maximum number of applied trade ids kept to ignore duplicates. */
+    private static final int MAXIMUM_APPLIED_TRADES = 10_000;
+
+    /** Logger. */
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /** Available balances. */
+    private final Map<CurrencyDTO, BigDecimal> balances = new ConcurrentHashMap<>();
+
+    /** Funds reserved by orders - order id and reservation. */
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+    /** Trades already applied (the oldest ones are forgotten, only accessed under the ledger lock). */
+    private final Set<String> appliedTrades = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest) {
+            return size() > MAXIMUM_APPLIED_TRADES;
+        }
+    });
+
+    /** Drift between the local balances and the last account update from the exchange. */
+    private final Map<CurrencyDTO, BigDecimal> drifts = new ConcurrentHashMap<>();
+
+    /** True once an account update has been received. */
+    private volatile boolean initialized;
+
+    /** Number of pending reservations made (used to build their ids). */
+    private long pendingReservationCount;
+
+    /**
+     * Reconciles the local balances with an account update from the exchange.
+     *
+     * @param account trade account
+     */
+    public final synchronized void reconcile(final AccountDTO account) {
+        // Funds reserved by orders still being sent are not in the exchange balances yet.
+        final Map<CurrencyDTO, BigDecimal> pendingReservations = new HashMap<>();
+        reservations.forEach((reservationId, reservation) -> {
+            if (reservationId.startsWith(PENDING_RESERVATION_PREFIX)) {
+                pendingReservations.merge(reservation.currency, reservation.remaining, BigDecimal::add);
+            }
+        });
+        final Set<CurrencyDTO> currencies = new HashSet<>(balances.keySet());
+        account.getBalances().forEach((currency, balance) -> {
+            final BigDecimal available = Optional.ofNullable(balance.getAvailable()).orElse(ZERO);
+            if (initialized) {
+                final BigDecimal expected = available.subtract(pendingReservations.getOrDefault(currency, ZERO));
+                recordDrift(currency, balances.getOrDefault(currency, ZERO).subtract(expected));
+            }
+            balances.put(currency, available);
+            currencies.remove(currency);
+        });
+        // Currencies that are not on the exchange anymore.
+        currencies.forEach(currency -> {
+            recordDrift(currency, balances.remove(currency));
+        });
+
+        // The exchange already froze the funds of the orders it knows, orders still being sent are applied again.
+        reservations.forEach((reservationId, reservation) -> {
+            if (reservationId.startsWith(PENDING_RESERVATION_PREFIX)) {
+                add(reservation.currency, reservation.remaining.negate());
+            } else {
+                reservation.covered = true;
+            }
+        });
+        initialized = true;
+    }
+
+    /**
+     * Reserves the funds required by an order.
+     *
+     * @param order order
+     * @param price price used to estimate the cost of a buy order
+     */
+    public final synchronized void reserve(final OrderDTO order, final BigDecimal price) {
+        if (order == null || order.getAmount() == null || order.getAmount().getValue() == null) {
+            return;
+        }
+        reserve(order.getOrderId(), order.getType(), order.getCurrencyPair(), order.getAmount().getValue(), price);
+    }
+
+    /**
+     * Reserves the funds required by an order that is being sent to the exchange (its id is not known yet).
+     * The reservation must then be confirmed with the order id or released if the order was not created.
+     *
+     * @param type         order type
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param price        price used to estimate the cost of a buy order
+     * @return reservation id (null if nothing was reserved)
+     */
+    public final synchronized String reservePending(final OrderTypeDTO type,
+                                                    final CurrencyPairDTO currencyPair,
+                                                    final BigDecimal amount,
+                                                    final BigDecimal price) {
+        final String reservationId = PENDING_RESERVATION_PREFIX + (++pendingReservationCount);
+        if (amount != null && reserve(reservationId, type, currencyPair, amount, price)) {
+            return reservationId;
+        }
+        return null;
+    }
+
+    /**
+     * Confirms a pending reservation once the exchange returned the id of the order.
+     *
+     * @param reservationId reservation id
+     * @param orderId       order id
+     */
+    public final synchronized void confirm(final String reservationId, final String orderId) {
+        final Reservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            return;
+        }
+        if (reservations.containsKey(orderId)) {
+            // The order was already reserved, we don't reserve its funds twice.
+            release(reservationId);
+        } else {
+            reservations.remove(reservationId);
+            reservations.put(orderId, reservation);
+        }
+    }
+
+    /**
+     * Applies a trade to the local balances.
+     *
+     * @param trade trade
+     */
+    public final synchronized void applyTrade(final TradeDTO trade) {
+        if (trade == null || trade.getAmount() == null || trade.getPrice() == null || !appliedTrades.add(trade.getTradeId())) {
+            return;
+        }
+        final BigDecimal amount = trade.getAmount().getValue();
+        final BigDecimal cost = amount.multiply(trade.getPrice().getValue());
+        final CurrencyDTO baseCurrency = trade.getCurrencyPair().getBaseCurrency();
+        final CurrencyDTO quoteCurrency = trade.getCurrencyPair().getQuoteCurrency();
+        if (trade.getType() == BID) {
+            // We receive the base currency and pay with funds reserved in quote currency.
+            add(baseCurrency, amount);
+            add(quoteCurrency, consume(trade.getOrderId(), cost).subtract(cost));
+        } else {
+            // We sell the base currency reserved and receive the quote currency.
+            add(baseCurrency, consume(trade.getOrderId(), amount).subtract(amount));
+            add(quoteCurrency, cost);
+        }
+        final CurrencyAmountDTO fee = trade.getFee();
+        if (fee != null && fee.getValue() != null && fee.getCurrency() != null) {
+            add(fee.getCurrency(), fee.getValue().negate());
+        }
+    }
+
+    /**
+     * Releases the funds still reserved by an order (when the order is over).
+     *
+     * @param orderId order id
+     */
+    public final synchronized void release(final String orderId) {
+        final Reservation reservation = reservations.remove(orderId);
+        // Funds of an order known by the exchange at the last account update will be in the next one.
+        if (reservation != null && !reservation.covered && reservation.remaining.signum() > 0) {
+            add(reservation.currency, reservation.remaining);
+            logger.debug("LocalBalanceLedger - {} {} released for order {}", reservation.remaining, reservation.currency, orderId);
+        }
+    }
+
+    /**
+     * Returns the available balance of a currency.
+     *
+     * @param currency currency
+     * @return available balance (empty if unknown)
+     */
+    public final Optional<BigDecimal> getAvailable(final CurrencyDTO currency) {
+        return Optional.ofNullable(balances.get(currency));
+    }
+
+    /**
+     * Returns true if at least an amount is available in a currency (without creating objects).
+     *
+     * @param currency currency
+     * @param amount   amount
+     * @return true if available
+     */
+    public final boolean isAvailable(final CurrencyDTO currency, final BigDecimal amount) {
+        final BigDecimal available = balances.get(currency);
+        return available != null && available.compareTo(amount) >= 0;
+    }
+
+    /**
+     * Returns true once an account update has been received.
+     *
+     * @return true if initialized
+     */
+    public final boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * Returns the drift found, per currency, at the last account update.
+     * A positive drift means the local ledger was more optimistic than the exchange.
+     *
+     * @return drifts
+     */
+    public final Map<CurrencyDTO, BigDecimal> getDrifts() {
+        return Collections.unmodifiableMap(new HashMap<>(drifts));
+    }
+
+    /**
+     * Returns the number of orders with funds reserved.
+     *
+     * @return number of reservations
+     */
+    public final int getReservationCount() {
+        return reservations.size();
+    }
+
+    /**
+     * Reserves funds.
+     *
+     * @param reservationId reservation id (order id or pending reservation id)
+     * @param type          order type
+     * @param currencyPair  currency pair
+     * @param amount        amount
+     * @param price         price used to estimate the cost of a buy order
+     * @return true if funds were reserved
+     */
+    private boolean reserve(final String reservationId,
+                            final OrderTypeDTO type,
+                            final CurrencyPairDTO currencyPair,
+                            final BigDecimal amount,
+                            final BigDecimal price) {
+        if (reservations.containsKey(reservationId)) {
+            return false;
+        }
+        final CurrencyDTO currency;
+        final BigDecimal reservedAmount;
+        if (type == BID) {
+            if (price == null) {
+                return false;
+            }
+            currency = currencyPair.getQuoteCurrency();
+            reservedAmount = amount.multiply(price);
+        } else {
+            currency = currencyPair.getBaseCurrency();
+            reservedAmount = amount;
+        }
+        reservations.put(reservationId, new Reservation(currency, reservedAmount));
+        add(currency, reservedAmount.negate());
+        logger.debug("LocalBalanceLedger - {} {} reserved for order {}", reservedAmount, currency, reservationId);
+        return true;
+    }
+
+    /**
+     * Adds an amount to a balance.
+     *
+     * @param currency currency
+     * @param amount   amount
+     */
+    private void add(final CurrencyDTO currency, final BigDecimal amount) {
+        if (amount.signum() != 0) {
+            balances.merge(currency, amount, BigDecimal::add);
+        }
+    }
+
+    /**
+     * Consumes funds reserved by an order.
+     *
+     * @param orderId order id
+     * @param amount  amount to consume
+     * @return amount taken from the reservation
+     */
+    private BigDecimal consume(final String orderId, final BigDecimal amount) {
+        final Reservation reservation = reservations.get(orderId);
+        if (reservation == null) {
+            return ZERO;
+        }
+        final BigDecimal consumed = reservation.remaining.min(amount).max(ZERO);
+        reservation.remaining = reservation.remaining.subtract(consumed);
+        return consumed;
+    }
+
+    /**
+     * Records the drift of a currency.
+     *
+     * @param currency currency
+     * @param drift    drift
+     */
+    private void recordDrift(final CurrencyDTO currency, final BigDecimal drift) {
+        if (drift != null && drift.signum() != 0) {
+            drifts.put(currency, drift);
+            logger.debug("LocalBalanceLedger - Drift of {} {} found with the exchange", drift, currency);
+        } else {
+            drifts.remove(currency);
+        }
+    }
+
+    /**
+     * Funds reserved by an order.
+     */
+    private static final class Reservation {
+
+        /** Currency. */
+        private final CurrencyDTO currency;
+
+        /** Amount still reserved. */
+        private BigDecimal remaining;
+
+        /** True if the funds were already excluded from the available balances of the last account update. */
+        private boolean covered;
+
+        /**
+         * Constructor.
+         *
+         * @param newCurrency currency
+         * @param newAmount   amount
+         */
+        private Reservation(final CurrencyDTO newCurrency, final BigDecimal newAmount) {
+            this.currency = newCurrency;
+            this.remaining = newAmount;
+        }
+
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Local balance ledger.
+ */
+package tech.cassandre.trading.bot.util.ledger;
@@ -0,0 +1,299 @@
+package tech.cassandre.trading.bot.util.limiter;
+
+import org.knowm.xchange.exceptions.ExchangeUnavailableException;
+import org.knowm.xchange.exceptions.RateLimitExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import si.mazi.rescu.HttpResponseAware;
+import si.mazi.rescu.HttpStatusIOException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive rate controller (AIMD - additive increase / multiplicative decrease).
+ * Requests are not paced until the exchange complains (rate limit errors, server errors or a low remaining quota).
+ * Then, the request rate is divided by two and, after a cooldown, it is increased a little after each successful request.
+ * When the rate is back to what it was before the first error, pacing stops.
+ */
+public class AdaptiveRateController {
+
+    /** Logger. */
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /** Rate multiplier applied when the exchange complains. */
+    private static final double DECREASE_FACTOR = 0.5;
+
+    /** Share of the rate before the backoff added to the current rate after each successful request. */
+    private static final double INCREASE_STEP = 0.05;
+
+    /** Minimum rate in requests per second. */
+    private static final double MINIMUM_RATE = 0.1;
+
+    /** Rate used when neither the maximum rate nor the observed rate is known (requests per second). */
+    private static final double UNKNOWN_RATE = 1;
+
+    /** Weight of the last interval in the observed rate. */
+    private static final double OBSERVED_RATE_WEIGHT = 0.1;
+
+    /** Default cooldown - time after a decrease during which the rate is neither decreased nor increased. */
+    private static final Duration DEFAULT_COOLDOWN = Duration.ofSeconds(10);
+
+    /** Remaining quota (in percent) under which the rate is decreased. */
+    private static final int LOW_QUOTA_THRESHOLD = 10;
+
+    /** Percent. */
+    private static final int PERCENT = 100;
+
+    /** HTTP status - too many requests. */
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /** HTTP status - I'm a teapot (used by some exchanges when an IP is banned for sending too many requests). */
+    private static final int HTTP_IM_A_TEAPOT = 418;
+
+    /** HTTP status - first server error code. */
+    private static final int HTTP_SERVER_ERROR = 500;
+
+    /** Nanoseconds in a second. */
+    private static final double NANOSECONDS_IN_SECOND = 1_000_000_000d;
+
+    /** Header - retry after (in seconds). */
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    /** Header - remaining requests. */
+    private static final String HEADER_REMAINING = "X-RateLimit-Remaining";
+
+    /** Header - request limit. */
+    private static final String HEADER_LIMIT = "X-RateLimit-Limit";
+
+    /** Maximum rate in requests per second (infinite if unknown). */
+    private final double maximumRate;
+
+    /** Cooldown in nanoseconds. */
+    private final long cooldown;
+
+    /** Current rate in requests per second (infinite when requests are not paced). */
+    private double currentRate = Double.POSITIVE_INFINITY;
+
+    /** Rate before the first decrease - pacing stops when the current rate reaches it again. */
+    private double recoveryRate = Double.POSITIVE_INFINITY;
+
+    /** Average interval between two requests in nanoseconds. */
+    private double averageInterval;
+
+    /** Time of the last request (System.nanoTime()). */
+    private long lastRequestTime;
+
+    /** Time before which no request can be sent. */
+    private long nextRequestTime;
+
+    /** End of the cooldown. */
+    private long cooldownEnd;
+
+    /**
+     * Constructor.
+     *
+     * @param newMaximumRate maximum rate in requests per second (Double.POSITIVE_INFINITY if unknown)
+     */
+    public AdaptiveRateController(final double newMaximumRate) {
+        this(newMaximumRate, DEFAULT_COOLDOWN);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newMaximumRate maximum rate in requests per second (Double.POSITIVE_INFINITY if unknown)
+     * @param newCooldown    time after a decrease during which the rate is neither decreased nor increased
+     */
+    public AdaptiveRateController(final double newMaximumRate, final Duration newCooldown) {
+        this.maximumRate = newMaximumRate;
+        this.cooldown = newCooldown.toNanos();
+    }
+
+    /**
+     * Waits until a request can be sent according to the current rate.
+     *
+     * @param wait false if the request must be sent immediately (it will still delay the next ones)
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public final void pace(final boolean wait) throws InterruptedException {
+        final long waitingTime;
+        synchronized (this) {
+            final long now = System.nanoTime();
+            long requestTime = now;
+            if (wait) {
+                requestTime = Math.max(now, nextRequestTime);
+            }
+            if (lastRequestTime != 0 && requestTime > lastRequestTime) {
+                final long interval = requestTime - lastRequestTime;
+                if (averageInterval == 0) {
+                    averageInterval = interval;
+                } else {
+                    averageInterval = averageInterval * (1 - OBSERVED_RATE_WEIGHT) + interval * OBSERVED_RATE_WEIGHT;
+                }
+            }
+            lastRequestTime = Math.max(lastRequestTime, requestTime);
+            if (Double.isInfinite(currentRate)) {
+                nextRequestTime = lastRequestTime;
+            } else {
+                nextRequestTime = lastRequestTime + (long) (NANOSECONDS_IN_SECOND / currentRate);
+            }
+            waitingTime = requestTime - now;
+        }
+        if (waitingTime > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitingTime);
+        }
+    }
+
+    /**
+     * Reports a successful request - the rate is slowly increased.
+     */
+    public final synchronized void reportSuccess() {
+        if (Double.isInfinite(currentRate) || System.nanoTime() - cooldownEnd < 0) {
+            return;
+        }
+        currentRate += Math.max(MINIMUM_RATE, recoveryRate * INCREASE_STEP);
+        if (currentRate >= recoveryRate) {
+            currentRate = Double.POSITIVE_INFINITY;
+            recoveryRate = Double.POSITIVE_INFINITY;
+            logger.info("ExchangeRateLimiter - Rate recovered, requests are no longer paced");
+        }
+    }
+
+    /**
+     * Reports a failed request - the rate is decreased if the error shows that the exchange is overloaded.
+     *
+     * @param throwable error
+     */
+    public final void reportFailure(final Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause != null) {
+            if (cause instanceof HttpResponseAware) {
+                readHeaders(((HttpResponseAware) cause).getResponseHeaders());
+            }
+            if (isOverloadError(cause)) {
+                decrease(cause.getClass().getSimpleName() + " - " + cause.getMessage());
+                return;
+            }
+            if (cause.getCause() == cause) {
+                return;
+            }
+            cause = cause.getCause();
+        }
+    }
+
+    /**
+     * Reports the remaining quota returned by the exchange - the rate is decreased if the quota is low.
+     *
+     * @param remaining remaining requests
+     * @param limit     request limit
+     */
+    public final void reportQuota(final long remaining, final long limit) {
+        if (limit > 0 && remaining * PERCENT < limit * LOW_QUOTA_THRESHOLD) {
+            decrease("low quota (" + remaining + "/" + limit + ")");
+        }
+    }
+
+    /**
+     * Returns true if the error means we are sending too many requests or the exchange is overloaded.
+     *
+     * @param throwable error
+     * @return true if the rate should be decreased
+     */
+    private boolean isOverloadError(final Throwable throwable) {
+        if (throwable instanceof RateLimitExceededException || throwable instanceof ExchangeUnavailableException) {
+            return true;
+        }
+        if (throwable instanceof HttpStatusIOException) {
+            final int status = ((HttpStatusIOException) throwable).getHttpStatusCode();
+            return status == HTTP_TOO_MANY_REQUESTS || status == HTTP_IM_A_TEAPOT || status >= HTTP_SERVER_ERROR;
+        }
+        return false;
+    }
+
+    /**
+     * Reads rate limit headers.
+     *
+     * @param headers response headers
+     */
+    private void readHeaders(final Map<String, List<String>> headers) {
+        if (headers == null) {
+            return;
+        }
+        getHeader(headers, HEADER_RETRY_AFTER).ifPresent(retryAfter -> {
+            synchronized (this) {
+                nextRequestTime = Math.max(nextRequestTime, System.nanoTime() + TimeUnit.SECONDS.toNanos(retryAfter));
+            }
+            logger.warn("ExchangeRateLimiter - Exchange asked to retry after {} seconds", retryAfter);
+        });
+        getHeader(headers, HEADER_REMAINING).ifPresent(remaining ->
+                getHeader(headers, HEADER_LIMIT).ifPresent(limit -> reportQuota(remaining, limit)));
+    }
+
+    /**
+     * Returns the numeric value of a header (header names are case insensitive).
+     *
+     * @param headers response headers
+     * @param name    header name
+     * @return header value
+     */
+    private Optional<Long> getHeader(final Map<String, List<String>> headers, final String name) {
+        return headers.entrySet()
+                .stream()
+                .filter(header -> name.equalsIgnoreCase(header.getKey()))
+                .filter(header -> header.getValue() != null && !header.getValue().isEmpty())
+                .map(header -> header.getValue().get(0))
+                .filter(value -> value != null && value.trim().matches("\\d+"))
+                .map(value -> Long.parseLong(value.trim()))
+                .findFirst();
+    }
+
+    /**
+     * Decreases the rate (only once per cooldown).
+     *
+     * @param reason reason
+     */
+    private synchronized void decrease(final String reason) {
+        final long now = System.nanoTime();
+        if (cooldownEnd != 0 && now - cooldownEnd < 0) {
+            return;
+        }
+        if (Double.isInfinite(currentRate)) {
+            double rate = Math.min(maximumRate, getObservedRate());
+            if (Double.isInfinite(rate)) {
+                rate = UNKNOWN_RATE;
+            }
+            recoveryRate = Math.max(MINIMUM_RATE, rate);
+            currentRate = recoveryRate;
+        }
+        currentRate = Math.max(MINIMUM_RATE, currentRate * DECREASE_FACTOR);
+        cooldownEnd = now + cooldown;
+        logger.warn("ExchangeRateLimiter - Rate decreased to {} requests per second because of {}", String.format("%.2f", currentRate), reason);
+    }
+
+    /**
+     * Returns the current rate.
+     *
+     * @return requests per second (Double.POSITIVE_INFINITY when requests are not paced)
+     */
+    public final synchronized double getCurrentRate() {
+        return currentRate;
+    }
+
+    /**
+     * Returns the rate observed on the last requests.
+     *
+     * @return requests per second (Double.POSITIVE_INFINITY if unknown)
+     */
+    public final synchronized double getObservedRate() {
+        if (averageInterval <= 0) {
+            return Double.POSITIVE_INFINITY;
+        } else {
+            return NANOSECONDS_IN_SECOND / averageInterval;
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+package tech.cassandre.trading.bot.util.limiter;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Bucket4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exchange rate limiter - a single budget of requests shared by all the services calling the exchange.
+ * Each priority must leave a share of the budget to higher priorities, so polling yields to trading when the budget is low.
+ * On top of this budget, an adaptive controller slows requests down when the exchange complains.
+ */
+public class ExchangeRateLimiter {
+
+    /** Share of the budget (in percent) that order status requests leave to orders. */
+    private static final int ORDER_STATUS_RESERVE = 10;
+
+    /** Share of the budget (in percent) that ticker requests leave to orders and order status requests. */
+    private static final int TICKER_RESERVE = 20;
+
+    /** Share of the budget (in percent) that history requests leave to other requests. */
+    private static final int HISTORY_RESERVE = 30;
+
+    /** Percent. */
+    private static final int PERCENT = 100;
+
+    /** Minimum waiting time in nanoseconds when tokens are not available. */
+    private static final long MINIMUM_WAITING_TIME = 1_000_000L;
+
+    /** Nanoseconds in a second. */
+    private static final double NANOSECONDS_IN_SECOND = 1_000_000_000d;
+
+    /** Adaptive rate controller. */
+    private final AdaptiveRateController adaptiveRateController;
+
+    /** Bucket (null if there is no limit). */
+    private final Bucket bucket;
+
+    /** Number of requests allowed during the period. */
+    private final long capacity;
+
+    /**
+     * Constructs an exchange rate limiter without limit.
+     */
+    public ExchangeRateLimiter() {
+        this.bucket = null;
+        this.capacity = 0;
+        this.adaptiveRateController = new AdaptiveRateController(Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Constructs an exchange rate limiter.
+     *
+     * @param newRequests number of requests allowed during the period
+     * @param newPeriod   period
+     */
+    public ExchangeRateLimiter(final long newRequests, final Duration newPeriod) {
+        this.capacity = newRequests;
+        this.bucket = Bucket4j.builder().addLimit(Bandwidth.simple(newRequests, newPeriod)).build();
+        this.adaptiveRateController = new AdaptiveRateController(newRequests * NANOSECONDS_IN_SECOND / newPeriod.toNanos());
+    }
+
+    /**
+     * Waits until a request of weight 1 can be sent.
+     *
+     * @param priority request priority
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public final void acquire(final RequestPriority priority) throws InterruptedException {
+        acquire(priority, 1);
+    }
+
+    /**
+     * Waits until a request can be sent.
+     *
+     * @param priority request priority
+     * @param weight   request weight (number of tokens consumed)
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public final void acquire(final RequestPriority priority, final long weight) throws InterruptedException {
+        if (bucket != null) {
+            final long tokens = Math.min(Math.max(weight, 1), capacity);
+            final long reserve = Math.min(getReservedTokens(priority), capacity - tokens);
+            while (!tryAcquire(tokens, reserve)) {
+                final long waitingTime = bucket.estimateAbilityToConsume(tokens + reserve).getNanosToWaitForRefill();
+                TimeUnit.NANOSECONDS.sleep(Math.max(waitingTime, MINIMUM_WAITING_TIME));
+            }
+        }
+        adaptiveRateController.pace(priority != RequestPriority.ORDER);
+    }
+
+    /**
+     * Reports a successful request to the adaptive controller.
+     */
+    public final void reportSuccess() {
+        adaptiveRateController.reportSuccess();
+    }
+
+    /**
+     * Reports a failed request to the adaptive controller.
+     *
+     * @param throwable error
+     */
+    public final void reportFailure(final Throwable throwable) {
+        adaptiveRateController.reportFailure(throwable);
+    }
+
+    /**
+     * Returns the current rate decided by the adaptive controller.
+     *
+     * @return requests per second (Double.POSITIVE_INFINITY when requests are not slowed down)
+     */
+    public final double getCurrentRate() {
+        return adaptiveRateController.getCurrentRate();
+    }
+
+    /**
+     * Consumes tokens if, after that, the reserve is still available.
+     *
+     * @param tokens  tokens to consume
+     * @param reserve tokens that must be left
+     * @return true if tokens were consumed
+     */
+    private synchronized boolean tryAcquire(final long tokens, final long reserve) {
+        return bucket.getAvailableTokens() - reserve >= tokens && bucket.tryConsume(tokens);
+    }
+
+    /**
+     * Returns the number of tokens a priority must leave to higher priorities.
+     *
+     * @param priority priority
+     * @return number of tokens
+     */
+    private long getReservedTokens(final RequestPriority priority) {
+        switch (priority) {
+            case ORDER_STATUS:
+                return capacity * ORDER_STATUS_RESERVE / PERCENT;
+            case TICKER:
+                return capacity * TICKER_RESERVE / PERCENT;
+            case HISTORY:
+                return capacity * HISTORY_RESERVE / PERCENT;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Returns true if this limiter has a limit.
+     *
+     * @return true if enabled
+     */
+    public final boolean isEnabled() {
+        return bucket != null;
+    }
+
+    /**
+     * Returns the number of requests that can be sent immediately.
+     *
+     * @return available tokens (Long.MAX_VALUE if there is no limit)
+     */
+    public final long getAvailableTokens() {
+        if (bucket != null) {
+            return bucket.getAvailableTokens();
+        } else {
+            return Long.MAX_VALUE;
+        }
+    }
+
+}
@@ -0,0 +1,21 @@
+package tech.cassandre.trading.bot.util.limiter;
+
+/**
+ * Priority of a request sent to the exchange.
+ * When the exchange budget is tight, low priority requests wait so that high priority requests can still be sent.
+ */
+public enum RequestPriority {
+
+    /** Order placement and cancellation - can use the whole budget. */
+    ORDER,
+
+    /** Order status (open orders). */
+    ORDER_STATUS,
+
+    /** Tickers. */
+    TICKER,
+
+    /** Account information, trade history and market history. */
+    HISTORY
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Exchange API rate limiting.
+ */
+package tech.cassandre.trading.bot.util.limiter;
\ No newline at end of file
@@ -28,7 +28,7 @@ public interface CurrencyMapper {
     }
 
     default CurrencyDTO mapToCurrencyDTO(String value) {
-        return new CurrencyDTO(value);
+        return CurrencyDTO.getInstance(value);
     }
 
     @Mapping(source = "currencyCode", target = "code")
@@ -39,14 +39,11 @@ public interface CurrencyMapper {
     }
 
     default CurrencyPairDTO mapToCurrencyPairDTO(Instrument source) {
-        final CurrencyPair cp = (CurrencyPair) source;
-        CurrencyDTO base = new CurrencyDTO(cp.base.getCurrencyCode());
-        CurrencyDTO quote = new CurrencyDTO(cp.counter.getCurrencyCode());
-        return CurrencyPairDTO.builder().baseCurrency(base).quoteCurrency(quote).build();
+        return CurrencyPairDTO.getInstance(source);
     }
 
     default CurrencyPairDTO mapToCurrencyPairDTO(String source) {
-        return new CurrencyPairDTO(source);
+        return CurrencyPairDTO.getInstance(source);
     }
 
     @Mapping(source = "base", target = "baseCurrency")
@@ -34,7 +34,7 @@ public interface OrderMapper {
 
     @Named("mapLimitOrderToOrderDTOAmount")
     default CurrencyAmountDTO mapLimitOrderToOrderDTOAmount(LimitOrder source) {
-        CurrencyPairDTO cp = new CurrencyPairDTO(source.getInstrument());
+        CurrencyPairDTO cp = CurrencyPairDTO.getInstance(source.getInstrument());
         if (source.getOriginalAmount() != null && source.getInstrument() != null) {
             return CurrencyAmountDTO.builder()
                     .value(source.getOriginalAmount())
@@ -47,7 +47,7 @@ public interface OrderMapper {
 
     @Named("mapLimitOrderToOrderDTOCumulativeAmount")
     default CurrencyAmountDTO mapLimitOrderToOrderDTOCumulativeAmount(LimitOrder source) {
-        CurrencyPairDTO cp = new CurrencyPairDTO(source.getInstrument());
+        CurrencyPairDTO cp = CurrencyPairDTO.getInstance(source.getInstrument());
         if (source.getCumulativeAmount() != null && source.getInstrument() != null) {
             return CurrencyAmountDTO.builder()
                     .value(source.getCumulativeAmount())
@@ -60,7 +60,7 @@ public interface OrderMapper {
 
     @Named("mapLimitOrderToOrderDTOAveragePrice")
     default CurrencyAmountDTO mapLimitOrderToOrderDTOAveragePrice(LimitOrder source) {
-        CurrencyPairDTO cp = new CurrencyPairDTO(source.getInstrument());
+        CurrencyPairDTO cp = CurrencyPairDTO.getInstance(source.getInstrument());
         if (source.getAveragePrice() != null && source.getInstrument() != null) {
             return CurrencyAmountDTO.builder()
                     .value(source.getAveragePrice())
@@ -73,7 +73,7 @@ public interface OrderMapper {
 
     @Named("mapLimitOrderToOrderDTOLimitPrice")
     default CurrencyAmountDTO mapLimitOrderToOrderDTOLimitPrice(LimitOrder source) {
-        CurrencyPairDTO cp = new CurrencyPairDTO(source.getInstrument());
+        CurrencyPairDTO cp = CurrencyPairDTO.getInstance(source.getInstrument());
         if (source.getLimitPrice() != null && source.getInstrument() != null) {
             return CurrencyAmountDTO.builder()
                     .value(source.getLimitPrice())
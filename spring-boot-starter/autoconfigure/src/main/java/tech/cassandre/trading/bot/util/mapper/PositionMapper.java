@@ -8,6 +8,7 @@ import tech.cassandre.trading.bot.dto.position.PositionDTO;
 import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
 
 import static org.mapstruct.NullValuePropertyMappingStrategy.IGNORE;
+import static org.mapstruct.NullValuePropertyMappingStrategy.SET_TO_NULL;
 
 /**
  * Position mapper.
@@ -31,6 +32,7 @@ public interface PositionMapper {
     @Mapping(target = "createdOn", ignore = true)
     @Mapping(target = "updatedOn", ignore = true)
     @Mapping(target = "strategy", ignore = true)
+    @Mapping(target = "protectiveOrderId", nullValuePropertyMappingStrategy = SET_TO_NULL)
     void updatePosition(PositionDTO source, @MappingTarget Position target);
 
     // =================================================================================================================
@@ -35,7 +35,7 @@ public interface TradeMapper {
     @Mapping(target = "createdOn", ignore = true)
     @Mapping(target = "updatedOn", ignore = true)
     default CurrencyAmountDTO mapUserTradeToTradeDTOAmount(UserTrade source) {
-        CurrencyPairDTO cp = new CurrencyPairDTO(source.getInstrument());
+        CurrencyPairDTO cp = CurrencyPairDTO.getInstance(source.getInstrument());
         return CurrencyAmountDTO.builder()
                 .value(source.getOriginalAmount())
                 .currency(cp.getBaseCurrency())
@@ -44,7 +44,7 @@ public interface TradeMapper {
 
     @Named("mapUserTradeToTradeDTOPrice")
     default CurrencyAmountDTO mapUserTradeToTradeDTOPrice(UserTrade source) {
-        CurrencyPairDTO cp = new CurrencyPairDTO(source.getInstrument());
+        CurrencyPairDTO cp = CurrencyPairDTO.getInstance(source.getInstrument());
         return CurrencyAmountDTO.builder()
                 .value(source.getPrice())
                 .currency(cp.getQuoteCurrency())
@@ -56,7 +56,7 @@ public interface TradeMapper {
         if (source.getFeeAmount() != null && source.getFeeCurrency() != null) {
             return CurrencyAmountDTO.builder()
                     .value(source.getFeeAmount())
-                    .currency(new CurrencyDTO(source.getFeeCurrency().toString()))
+                    .currency(CurrencyDTO.getInstance(source.getFeeCurrency().toString()))
                     .build();
         } else {
             return null;
@@ -0,0 +1,285 @@
+package tech.cassandre.trading.bot.util.pair;
+
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per currency pair state table - the latest value and a counter for each currency pair.
+ * Slots are indexed by the currency pair id ({@link CurrencyPairDTO#getId()}) so reads and writes neither hash nor box,
+ * and each slot is an atomic reference that can be safely read from any thread.
+ * Slots are allocated by blocks that never move, so a write is never lost when the table grows.
+ *
+ * @param <V> value type
+ */
+public final class CurrencyPairTable<V> {
+
+    /** Number of bits of the slot index in a block. */
+    private static final int BLOCK_BITS = 6;
+
+    /** Number of slots in a block. */
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+    /** Mask giving the slot index in a block. */
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    /** Blocks of slots. */
+    private volatile AtomicReferenceArray<Block<V>> blocks;
+
+    /** Number of currency pairs with a value. */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** Map view. */
+    private final Map<CurrencyPairDTO, V> mapView = new MapView();
+
+    /**
+     * Constructor.
+     */
+    public CurrencyPairTable() {
+        blocks = new AtomicReferenceArray<>((CurrencyPairDTO.getCurrencyPairCount() >>> BLOCK_BITS) + 1);
+    }
+
+    /**
+     * Returns the value of a currency pair.
+     *
+     * @param currencyPair currency pair
+     * @return value (null if none)
+     */
+    public V get(final CurrencyPairDTO currencyPair) {
+        final Block<V> block = getBlock(currencyPair.getId(), false);
+        if (block == null) {
+            return null;
+        } else {
+            return block.values.get(currencyPair.getId() & BLOCK_MASK);
+        }
+    }
+
+    /**
+     * Sets the value of a currency pair.
+     *
+     * @param currencyPair currency pair
+     * @param value        value
+     * @return previous value (null if none)
+     */
+    public V put(final CurrencyPairDTO currencyPair, final V value) {
+        if (value == null) {
+            return remove(currencyPair);
+        }
+        final Block<V> block = getBlock(currencyPair.getId(), true);
+        final int index = currencyPair.getId() & BLOCK_MASK;
+        if (block.keys.get(index) == null && block.keys.compareAndSet(index, null, currencyPair)) {
+            size.incrementAndGet();
+        }
+        return block.values.getAndSet(index, value);
+    }
+
+    /**
+     * Removes the value of a currency pair.
+     *
+     * @param currencyPair currency pair
+     * @return value removed (null if none)
+     */
+    public V remove(final CurrencyPairDTO currencyPair) {
+        final Block<V> block = getBlock(currencyPair.getId(), false);
+        final int index = currencyPair.getId() & BLOCK_MASK;
+        if (block == null || block.keys.getAndSet(index, null) == null) {
+            return null;
+        }
+        size.decrementAndGet();
+        return block.values.getAndSet(index, null);
+    }
+
+    /**
+     * Increments the counter of a currency pair.
+     *
+     * @param currencyPair currency pair
+     * @return counter value
+     */
+    public long incrementCounter(final CurrencyPairDTO currencyPair) {
+        return getBlock(currencyPair.getId(), true).counters.incrementAndGet(currencyPair.getId() & BLOCK_MASK);
+    }
+
+    /**
+     * Returns the counter of a currency pair.
+     *
+     * @param currencyPair currency pair
+     * @return counter value
+     */
+    public long getCounter(final CurrencyPairDTO currencyPair) {
+        final Block<V> block = getBlock(currencyPair.getId(), false);
+        if (block == null) {
+            return 0;
+        } else {
+            return block.counters.get(currencyPair.getId() & BLOCK_MASK);
+        }
+    }
+
+    /**
+     * Returns the number of currency pairs with a value.
+     *
+     * @return size
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Removes all values (counters are kept).
+     */
+    public void clear() {
+        final AtomicReferenceArray<Block<V>> currentBlocks = blocks;
+        for (int i = 0; i < currentBlocks.length(); i++) {
+            final Block<V> block = currentBlocks.get(i);
+            for (int j = 0; block != null && j < BLOCK_SIZE; j++) {
+                if (block.keys.getAndSet(j, null) != null) {
+                    size.decrementAndGet();
+                    block.values.set(j, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a map view of the table (changes to the map are written to the table).
+     *
+     * @return map view
+     */
+    public Map<CurrencyPairDTO, V> asMap() {
+        return mapView;
+    }
+
+    /**
+     * Returns the block of a currency pair id.
+     *
+     * @param id     currency pair id
+     * @param create true to create the block if it doesn't exist
+     * @return block (null if it doesn't exist and create is false)
+     */
+    private Block<V> getBlock(final int id, final boolean create) {
+        final int blockIndex = id >>> BLOCK_BITS;
+        final AtomicReferenceArray<Block<V>> currentBlocks = blocks;
+        if (blockIndex < currentBlocks.length()) {
+            final Block<V> block = currentBlocks.get(blockIndex);
+            if (block != null || !create) {
+                return block;
+            }
+        } else if (!create) {
+            return null;
+        }
+        synchronized (this) {
+            if (blockIndex >= blocks.length()) {
+                // Blocks are shared between the old and the new array - only references are copied.
+                final AtomicReferenceArray<Block<V>> newBlocks = new AtomicReferenceArray<>(Math.max(blockIndex + 1, blocks.length() * 2));
+                for (int i = 0; i < blocks.length(); i++) {
+                    newBlocks.set(i, blocks.get(i));
+                }
+                blocks = newBlocks;
+            }
+            if (blocks.get(blockIndex) == null) {
+                blocks.set(blockIndex, new Block<>());
+            }
+            return blocks.get(blockIndex);
+        }
+    }
+
+    /**
+     * Block of slots - currency pairs, values and counters.
+     *
+     * @param <V> value type
+     */
+    private static final class Block<V> {
+
+        /** Currency pairs. */
+        private final AtomicReferenceArray<CurrencyPairDTO> keys = new AtomicReferenceArray<>(BLOCK_SIZE);
+
+        /** Values. */
+        private final AtomicReferenceArray<V> values = new AtomicReferenceArray<>(BLOCK_SIZE);
+
+        /** Counters. */
+        private final AtomicLongArray counters = new AtomicLongArray(BLOCK_SIZE);
+
+    }
+
+    /**
+     * Map view of the table.
+     */
+    private final class MapView extends AbstractMap<CurrencyPairDTO, V> {
+
+        @Override
+        public V get(final Object key) {
+            if (key instanceof CurrencyPairDTO) {
+                return CurrencyPairTable.this.get((CurrencyPairDTO) key);
+            } else {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public V put(final CurrencyPairDTO key, final V value) {
+            return CurrencyPairTable.this.put(key, value);
+        }
+
+        @Override
+        public V remove(final Object key) {
+            if (key instanceof CurrencyPairDTO) {
+                return CurrencyPairTable.this.remove((CurrencyPairDTO) key);
+            } else {
+                return null;
+            }
+        }
+
+        @Override
+        public int size() {
+            return CurrencyPairTable.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CurrencyPairTable.this.clear();
+        }
+
+        @Override
+        public Set<Entry<CurrencyPairDTO, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<CurrencyPairDTO, V>> iterator() {
+                    // Iterates over a snapshot, ordered by currency pair id.
+                    final AtomicReferenceArray<Block<V>> currentBlocks = blocks;
+                    final List<Entry<CurrencyPairDTO, V>> entries = new LinkedList<>();
+                    for (int i = 0; i < currentBlocks.length(); i++) {
+                        final Block<V> block = currentBlocks.get(i);
+                        for (int j = 0; block != null && j < BLOCK_SIZE; j++) {
+                            final CurrencyPairDTO key = block.keys.get(j);
+                            final V value = block.values.get(j);
+                            if (key != null && value != null) {
+                                entries.add(new SimpleImmutableEntry<>(key, value));
+                            }
+                        }
+                    }
+                    return entries.iterator();
+                }
+
+                @Override
+                public int size() {
+                    return CurrencyPairTable.this.size();
+                }
+            };
+        }
+
+    }
+
+}
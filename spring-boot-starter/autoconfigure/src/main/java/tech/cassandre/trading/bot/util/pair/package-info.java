@@ -0,0 +1,4 @@
+/**
+ * Per currency pair state.
+ */
+package tech.cassandre.trading.bot.util.pair;
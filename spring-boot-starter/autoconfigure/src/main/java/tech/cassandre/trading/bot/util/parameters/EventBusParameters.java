@@ -0,0 +1,37 @@
+package tech.cassandre.trading.bot.util.parameters;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+import tech.cassandre.trading.bot.util.bus.EventBus;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+/**
+ * Event bus parameters from application.properties.
+ */
+@Validated
+@Getter
+@Setter
+@ToString
+@ConfigurationProperties(prefix = "cassandre.trading.bot.event-bus")
+public class EventBusParameters {
+
+    /** Enabled parameter. */
+    public static final String PARAMETER_EVENT_BUS_ENABLED = "cassandre.trading.bot.event-bus.enabled";
+
+    /** Size parameter. */
+    public static final String PARAMETER_EVENT_BUS_SIZE = "cassandre.trading.bot.event-bus.size";
+
+    /** Set it to true to deliver flux events to the strategy and the position service with the event bus. */
+    @NotNull(message = "Event bus enabled parameter must be true or false")
+    private Boolean enabled = false;
+
+    /** Number of slots in the event bus ring (power of two). */
+    @Positive(message = "Event bus size must be positive")
+    private Integer size = EventBus.DEFAULT_SIZE;
+
+}
@@ -10,6 +10,7 @@ import tech.cassandre.trading.bot.util.validator.Rate;
 import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 
 /**
  * Exchange parameters from application.properties.
@@ -76,6 +77,10 @@ public class ExchangeParameters {
     @Valid
     private Rates rates = new Rates();
 
+    /** Exchange API limit shared by all calls. */
+    @Valid
+    private RateLimit rateLimit = new RateLimit();
+
     /** Exchange API rate calls. */
     @Validated
     @Getter
@@ -90,6 +95,9 @@ public class ExchangeParameters {
         /** Dry parameter. */
         public static final String PARAMETER_EXCHANGE_DRY = "cassandre.trading.bot.exchange.modes.dry";
 
+        /** Dry latency parameter. */
+        public static final String PARAMETER_EXCHANGE_DRY_LATENCY = "cassandre.trading.bot.exchange.modes.dry-latency";
+
         /** Set it to true to use the sandbox. */
         @NotNull(message = "Sandbox parameter required, set it to true to use the sandbox")
         private Boolean sandbox;
@@ -98,6 +106,10 @@ public class ExchangeParameters {
         @NotNull(message = "Dry parameter required, set it to true to use the dry mode")
         private Boolean dry;
 
+        /** Simulated exchange latency in dry mode. */
+        @Rate(message = "Invalid dry latency - Enter a long value (ex: 123) or a standard ISO 8601 duration (ex: PT10H)")
+        private String dryLatency = "500";
+
     }
 
     /** Exchange API rate calls. */
@@ -117,6 +129,9 @@ public class ExchangeParameters {
         /** Rate for order parameter. */
         public static final String PARAMETER_EXCHANGE_RATE_TRADE = "cassandre.trading.bot.exchange.rates.trade";
 
+        /** Idle rate for order parameter. */
+        public static final String PARAMETER_EXCHANGE_RATE_TRADE_IDLE = "cassandre.trading.bot.exchange.rates.trade-idle";
+
         /** Delay between calls to account API. */
         @NotNull(message = "Delay between calls to account API is mandatory")
         @Rate(message = "Invalid account rate - Enter a long value (ex: 123) or a standard ISO 8601 duration (ex: PT10H)")
@@ -132,6 +147,35 @@ public class ExchangeParameters {
         @Rate(message = "Invalid trade rate - Enter a long value (ex: 123) or a standard ISO 8601 duration (ex: PT10H)")
         private String trade;
 
+        /** Delay between calls to trade API when there is no open order and no recent trade (0 means always use the trade rate). */
+        @NotNull(message = "Delay between idle calls to trade API is mandatory")
+        @Rate(message = "Invalid idle trade rate - Enter a long value (ex: 123) or a standard ISO 8601 duration (ex: PT10H)")
+        private String tradeIdle = "0";
+
+    }
+
+    /** Exchange API limit shared by all calls (optional). */
+    @Validated
+    @Getter
+    @Setter
+    @ToString
+    @ConfigurationProperties(prefix = "cassandre.trading.bot.exchange.rate-limit")
+    public static class RateLimit {
+
+        /** Requests parameter. */
+        public static final String PARAMETER_EXCHANGE_RATE_LIMIT_REQUESTS = "cassandre.trading.bot.exchange.rate-limit.requests";
+
+        /** Period parameter. */
+        public static final String PARAMETER_EXCHANGE_RATE_LIMIT_PERIOD = "cassandre.trading.bot.exchange.rate-limit.period";
+
+        /** Number of calls allowed by the exchange during the period - if not set, there is no shared limit. */
+        @Positive(message = "Number of requests allowed by the exchange must be positive")
+        private Long requests;
+
+        /** Period of the exchange limit. */
+        @Rate(message = "Invalid rate limit period - Enter a long value (ex: 123) or a standard ISO 8601 duration (ex: PT10H)")
+        private String period = "PT1S";
+
     }
 
 }
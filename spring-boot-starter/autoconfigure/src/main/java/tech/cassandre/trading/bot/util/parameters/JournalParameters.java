@@ -0,0 +1,45 @@
+package tech.cassandre.trading.bot.util.parameters;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+import tech.cassandre.trading.bot.util.journal.EventJournal;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+/**
+ * Event journal parameters from application.properties.
+ */
+@Validated
+@Getter
+@Setter
+@ToString
+@ConfigurationProperties(prefix = "cassandre.trading.bot.journal")
+public class JournalParameters {
+
+    /** Enabled parameter. */
+    public static final String PARAMETER_JOURNAL_ENABLED = "cassandre.trading.bot.journal.enabled";
+
+    /** Directory parameter. */
+    public static final String PARAMETER_JOURNAL_DIRECTORY = "cassandre.trading.bot.journal.directory";
+
+    /** Segment size parameter. */
+    public static final String PARAMETER_JOURNAL_SEGMENT_SIZE = "cassandre.trading.bot.journal.segment-size";
+
+    /** Set it to true to write all flux events in the journal. */
+    @NotNull(message = "Journal enabled parameter must be true or false")
+    private Boolean enabled = false;
+
+    /** Directory where journal segments are written. */
+    @NotEmpty(message = "Journal directory must be set")
+    private String directory = "journal";
+
+    /** Size of a journal segment in bytes (64 MB by default). */
+    @Positive(message = "Journal segment size must be positive")
+    private Long segmentSize = EventJournal.DEFAULT_SEGMENT_SIZE;
+
+}
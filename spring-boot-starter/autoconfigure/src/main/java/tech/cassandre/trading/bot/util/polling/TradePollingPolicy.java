@@ -0,0 +1,97 @@
+package tech.cassandre.trading.bot.util.polling;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trade polling policy - decides when orders and trades must be retrieved from the exchange.
+ * In hot mode (an order was created, an order is open or a trade was received recently), orders and trades are polled at the maximum rate.
+ * In cold mode, they are only polled from time to time (heartbeat) to detect changes made outside of Cassandre.
+ */
+public class TradePollingPolicy {
+
+    /** Default time spent in hot mode after the last activity. */
+    private static final Duration DEFAULT_HOT_DURATION = Duration.ofMinutes(1);
+
+    /** Delay between two polls in cold mode in nanoseconds (0 means always hot). */
+    private final long coldDelay;
+
+    /** Time spent in hot mode after the last activity in nanoseconds. */
+    private final long hotDuration;
+
+    /** Time when hot mode ends (System.nanoTime()). */
+    private final AtomicLong hotModeEnd;
+
+    /** Time of the last poll (System.nanoTime()). */
+    private final AtomicLong lastPoll;
+
+    /**
+     * Constructs a policy always in hot mode.
+     */
+    public TradePollingPolicy() {
+        this(Duration.ZERO);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newColdDelay delay between two polls in cold mode (zero means always hot)
+     */
+    public TradePollingPolicy(final Duration newColdDelay) {
+        this(newColdDelay, DEFAULT_HOT_DURATION);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newColdDelay   delay between two polls in cold mode (zero means always hot)
+     * @param newHotDuration time spent in hot mode after the last activity
+     */
+    public TradePollingPolicy(final Duration newColdDelay, final Duration newHotDuration) {
+        this.coldDelay = newColdDelay.toNanos();
+        this.hotDuration = newHotDuration.toNanos();
+        final long now = System.nanoTime();
+        // We start in hot mode to retrieve the orders and trades that were made while Cassandre was stopped.
+        this.hotModeEnd = new AtomicLong(now + hotDuration);
+        this.lastPoll = new AtomicLong(now - coldDelay);
+    }
+
+    /**
+     * Switches to hot mode (called on order creation, open orders and new trades).
+     */
+    public final void markActive() {
+        final long end = System.nanoTime() + hotDuration;
+        hotModeEnd.accumulateAndGet(end, (current, candidate) -> {
+            if (candidate - current > 0) {
+                return candidate;
+            } else {
+                return current;
+            }
+        });
+    }
+
+    /**
+     * Returns true if orders and trades are polled at the maximum rate.
+     *
+     * @return true if in hot mode
+     */
+    public final boolean isHot() {
+        return coldDelay <= 0 || System.nanoTime() - hotModeEnd.get() < 0;
+    }
+
+    /**
+     * Returns true if orders and trades should be polled now - in cold mode, only one call per cold delay returns true.
+     *
+     * @return true if a poll should be made
+     */
+    public final boolean shouldPoll() {
+        final long now = System.nanoTime();
+        if (isHot()) {
+            lastPoll.set(now);
+            return true;
+        }
+        final long last = lastPoll.get();
+        return now - last >= coldDelay && lastPoll.compareAndSet(last, now);
+    }
+
+}
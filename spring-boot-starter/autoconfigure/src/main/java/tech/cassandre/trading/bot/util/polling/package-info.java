@@ -0,0 +1,4 @@
+/**
+ * Exchange polling policies.
+ */
+package tech.cassandre.trading.bot.util.polling;
@@ -0,0 +1,78 @@
+package tech.cassandre.trading.bot.util.replay;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual clock used during a replay - time only moves forward when a recorded event is replayed.
+ */
+public final class ReplayClock extends Clock {
+
+    /** Current time (epoch milliseconds) - shared by the clocks created with withZone(). */
+    private final AtomicLong currentTime;
+
+    /** Time zone. */
+    private final ZoneId zone;
+
+    /**
+     * Constructor.
+     *
+     * @param startTime start time (epoch milliseconds)
+     */
+    public ReplayClock(final long startTime) {
+        this(new AtomicLong(startTime), ZoneId.systemDefault());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newCurrentTime current time
+     * @param newZone        time zone
+     */
+    private ReplayClock(final AtomicLong newCurrentTime, final ZoneId newZone) {
+        this.currentTime = newCurrentTime;
+        this.zone = newZone;
+    }
+
+    /**
+     * Moves the clock to a new time (the clock never goes back).
+     *
+     * @param time new time (epoch milliseconds)
+     */
+    public void advanceTo(final long time) {
+        currentTime.accumulateAndGet(time, Math::max);
+    }
+
+    /**
+     * Returns the current time.
+     *
+     * @return current time
+     */
+    public ZonedDateTime now() {
+        return ZonedDateTime.ofInstant(instant(), zone);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId newZone) {
+        return new ReplayClock(currentTime, newZone);
+    }
+
+    @Override
+    public long millis() {
+        return currentTime.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(currentTime.get());
+    }
+
+}
@@ -0,0 +1,171 @@
+package tech.cassandre.trading.bot.util.replay;
+
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a replay - compares the orders created by the strategy with the ones created during the recorded session.
+ */
+public final class ReplayReport {
+
+    /** Number of events in the recorded session. */
+    private final long eventCount;
+
+    /** Number of events replayed (sent to the strategy and the position service). */
+    private final long replayedEventCount;
+
+    /** Time spent to replay the session. */
+    private final Duration duration;
+
+    /** Orders created by the strategy during the replay. */
+    private final List<OrderDTO> producedOrders;
+
+    /** Orders of the recorded session that were not created during the replay. */
+    private final List<OrderDTO> missingOrders;
+
+    /** Orders created during the replay without a match in the recorded session. */
+    private final List<OrderDTO> unexpectedOrders;
+
+    /** Difference between the time orders were created during the replay and the time they were recorded. */
+    private final Map<String, Duration> timingDifferences;
+
+    /**
+     * Constructor.
+     *
+     * @param newEventCount         number of events in the recorded session
+     * @param newReplayedEventCount number of events replayed
+     * @param newDuration           time spent to replay the session
+     * @param newProducedOrders     orders created by the strategy during the replay
+     * @param newMissingOrders      orders of the recorded session not created during the replay
+     * @param newUnexpectedOrders   orders created during the replay without a match in the recorded session
+     * @param newTimingDifferences  difference between the time matched orders were created and recorded (by order id)
+     */
+    public ReplayReport(final long newEventCount,
+                        final long newReplayedEventCount,
+                        final Duration newDuration,
+                        final List<OrderDTO> newProducedOrders,
+                        final List<OrderDTO> newMissingOrders,
+                        final List<OrderDTO> newUnexpectedOrders,
+                        final Map<String, Duration> newTimingDifferences) {
+        this.eventCount = newEventCount;
+        this.replayedEventCount = newReplayedEventCount;
+        this.duration = newDuration;
+        this.producedOrders = Collections.unmodifiableList(newProducedOrders);
+        this.missingOrders = Collections.unmodifiableList(newMissingOrders);
+        this.unexpectedOrders = Collections.unmodifiableList(newUnexpectedOrders);
+        this.timingDifferences = Collections.unmodifiableMap(newTimingDifferences);
+    }
+
+    /**
+     * Returns true if the strategy created exactly the orders of the recorded session.
+     *
+     * @return true if no order is missing or unexpected
+     */
+    public boolean isIdentical() {
+        return missingOrders.isEmpty() && unexpectedOrders.isEmpty();
+    }
+
+    /**
+     * Returns the number of orders created during the replay that match an order of the recorded session.
+     *
+     * @return number of matched orders
+     */
+    public int getMatchedOrderCount() {
+        return producedOrders.size() - unexpectedOrders.size();
+    }
+
+    /**
+     * Returns the largest difference (in absolute value) between the time an order was created during the replay and the
+     * time it was recorded.
+     *
+     * @return maximum timing difference (zero if no order was matched)
+     */
+    public Duration getMaximumTimingDifference() {
+        return timingDifferences.values()
+                .stream()
+                .map(Duration::abs)
+                .max(Duration::compareTo)
+                .orElse(Duration.ZERO);
+    }
+
+    /**
+     * Getter for eventCount.
+     *
+     * @return eventCount
+     */
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Getter for replayedEventCount.
+     *
+     * @return replayedEventCount
+     */
+    public long getReplayedEventCount() {
+        return replayedEventCount;
+    }
+
+    /**
+     * Getter for duration.
+     *
+     * @return duration
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Getter for producedOrders.
+     *
+     * @return producedOrders
+     */
+    public List<OrderDTO> getProducedOrders() {
+        return producedOrders;
+    }
+
+    /**
+     * Getter for missingOrders.
+     *
+     * @return missingOrders
+     */
+    public List<OrderDTO> getMissingOrders() {
+        return missingOrders;
+    }
+
+    /**
+     * Getter for unexpectedOrders.
+     *
+     * @return unexpectedOrders
+     */
+    public List<OrderDTO> getUnexpectedOrders() {
+        return unexpectedOrders;
+    }
+
+    /**
+     * Getter for timingDifferences.
+     *
+     * @return timingDifferences
+     */
+    public Map<String, Duration> getTimingDifferences() {
+        return timingDifferences;
+    }
+
+    @Override
+    public String toString() {
+        return "ReplayReport{"
+                + "events=" + replayedEventCount + "/" + eventCount
+                + ", duration=" + duration
+                + ", producedOrders=" + producedOrders.size()
+                + ", matchedOrders=" + getMatchedOrderCount()
+                + ", missingOrders=" + missingOrders.size()
+                + ", unexpectedOrders=" + unexpectedOrders.size()
+                + ", maximumTimingDifference=" + getMaximumTimingDifference()
+                + '}';
+    }
+
+}
@@ -0,0 +1,254 @@
+package tech.cassandre.trading.bot.util.replay;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.service.PositionService;
+import tech.cassandre.trading.bot.service.replay.TradeServiceReplayImplementation;
+import tech.cassandre.trading.bot.strategy.CassandreStrategyInterface;
+import tech.cassandre.trading.bot.util.journal.EventJournalReader;
+import tech.cassandre.trading.bot.util.journal.JournalEvent;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static tech.cassandre.trading.bot.util.journal.JournalEventType.ORDER;
+
+/**
+ * Replays a session recorded by the event journal through a strategy and a position service, without any exchange.
+ * <p>
+ * Events are sent in the order they were recorded, on the calling thread, and a virtual clock follows the recorded
+ * time. The replay runs at maximum speed or at a multiple of real time. Orders created by the strategy go to a replay
+ * trade service that matches them with the recorded orders, so the recorded order and trade updates that follow apply
+ * to them. Updates of recorded orders the strategy didn't create again are not sent. Recorded positions are not sent
+ * either as the position service rebuilds them.
+ * <p>
+ * Usage : create the position service with {@link #getTradeService()}, then call {@link #run}.
+ */
+public class ReplayRunner {
+
+    /** Speed - replay as fast as possible. */
+    public static final double MAXIMUM_SPEED = Double.POSITIVE_INFINITY;
+
+    /** Speed - replay in real time. */
+    public static final double REAL_TIME = 1;
+
+    /** Default maximum difference between the time an order was recorded and the time it's created again. */
+    public static final Duration DEFAULT_TIME_TOLERANCE = Duration.ofMinutes(1);
+
+    /** Logger. */
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /** Recorded events. */
+    private final List<JournalEvent> events;
+
+    /** Replay speed (multiple of real time). */
+    private final double speed;
+
+    /** Virtual clock. */
+    private final ReplayClock clock;
+
+    /** Ids of the recorded orders not created by a strategy (always replayed). */
+    private final Set<String> externalOrderIds = new HashSet<>();
+
+    /** Trade service used by the strategy during the replay. */
+    private final TradeServiceReplayImplementation tradeService;
+
+    /**
+     * Constructor.
+     *
+     * @param journalDirectory directory of the journal where the session was recorded
+     * @param newSpeed         replay speed - multiple of real time or {@link #MAXIMUM_SPEED}
+     * @throws IOException if the journal can't be read
+     */
+    public ReplayRunner(final Path journalDirectory, final double newSpeed) throws IOException {
+        this(new EventJournalReader(journalDirectory).readAll(), newSpeed);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newEvents recorded events
+     * @param newSpeed  replay speed - multiple of real time or {@link #MAXIMUM_SPEED}
+     */
+    public ReplayRunner(final List<JournalEvent> newEvents, final double newSpeed) {
+        this(newEvents, newSpeed, DEFAULT_TIME_TOLERANCE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newEvents        recorded events
+     * @param newSpeed         replay speed - multiple of real time or {@link #MAXIMUM_SPEED}
+     * @param newTimeTolerance maximum difference between the time an order was recorded and the time it's created again
+     */
+    public ReplayRunner(final List<JournalEvent> newEvents, final double newSpeed, final Duration newTimeTolerance) {
+        if (!(newSpeed > 0)) {
+            throw new IllegalArgumentException("Replay speed must be positive : " + newSpeed);
+        }
+        if (newTimeTolerance == null || newTimeTolerance.isNegative()) {
+            throw new IllegalArgumentException("Replay time tolerance must be positive : " + newTimeTolerance);
+        }
+        this.events = new LinkedList<>(newEvents);
+        this.speed = newSpeed;
+        if (events.isEmpty()) {
+            this.clock = new ReplayClock(System.currentTimeMillis());
+        } else {
+            this.clock = new ReplayClock(events.get(0).getTimestamp());
+        }
+
+        // Orders created by the strategy during the recorded session (first value received for each order and its time).
+        final Map<String, OrderDTO> recordedOrders = new LinkedHashMap<>();
+        final Map<String, Long> recordedTimes = new LinkedHashMap<>();
+        events.stream()
+                .filter(event -> event.getType() == ORDER)
+                .forEach(event -> {
+                    final OrderDTO order = event.getValue(OrderDTO.class);
+                    if (order.getStrategy() == null) {
+                        externalOrderIds.add(order.getOrderId());
+                    } else if (recordedOrders.putIfAbsent(order.getOrderId(), order) == null) {
+                        recordedTimes.put(order.getOrderId(), event.getTimestamp());
+                    }
+                });
+        this.tradeService = new TradeServiceReplayImplementation(clock,
+                new LinkedList<>(recordedOrders.values()),
+                recordedTimes,
+                newTimeTolerance);
+    }
+
+    /**
+     * Replays the session - the trade service of the strategy is replaced by the replay trade service.
+     *
+     * @param strategy        strategy
+     * @param positionService position service (created with the replay trade service)
+     * @return replay report
+     */
+    public final ReplayReport run(final CassandreStrategyInterface strategy, final PositionService positionService) {
+        logger.info("ReplayRunner - Replaying {} events", events.size());
+        strategy.setTradeService(tradeService);
+        final long start = System.nanoTime();
+        long replayedEventCount = 0;
+        long previousTime = clock.millis();
+        for (JournalEvent event : events) {
+            if (!waitFor(event.getTimestamp() - previousTime)) {
+                break;
+            }
+            previousTime = event.getTimestamp();
+            clock.advanceTo(event.getTimestamp());
+            if (replay(event, strategy, positionService)) {
+                replayedEventCount++;
+            }
+        }
+        final ReplayReport report = new ReplayReport(events.size(),
+                replayedEventCount,
+                Duration.ofNanos(System.nanoTime() - start),
+                tradeService.getProducedOrders(),
+                tradeService.getMissingOrders(),
+                tradeService.getUnexpectedOrders(),
+                tradeService.getTimingDifferences());
+        logger.info("ReplayRunner - Replay finished : {}", report);
+        return report;
+    }
+
+    /**
+     * Getter for tradeService.
+     *
+     * @return tradeService
+     */
+    public final TradeServiceReplayImplementation getTradeService() {
+        return tradeService;
+    }
+
+    /**
+     * Getter for clock.
+     *
+     * @return clock
+     */
+    public final ReplayClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Sends an event to the strategy and to the position service.
+     *
+     * @param event           event
+     * @param strategy        strategy
+     * @param positionService position service
+     * @return true if the event was sent
+     */
+    private boolean replay(final JournalEvent event, final CassandreStrategyInterface strategy, final PositionService positionService) {
+        switch (event.getType()) {
+            case TICKER:
+                final TickerDTO ticker = event.getValue(TickerDTO.class);
+                strategy.tickerUpdate(ticker);
+                positionService.tickerUpdate(ticker);
+                return true;
+            case ACCOUNT:
+                strategy.accountUpdate(event.getValue(AccountDTO.class));
+                return true;
+            case ORDER:
+                final OrderDTO order = event.getValue(OrderDTO.class);
+                if (!isReplayed(order.getOrderId())) {
+                    return false;
+                }
+                tradeService.orderUpdate(order);
+                strategy.orderUpdate(order);
+                positionService.orderUpdate(order);
+                return true;
+            case TRADE:
+                final TradeDTO trade = event.getValue(TradeDTO.class);
+                if (!isReplayed(trade.getOrderId())) {
+                    return false;
+                }
+                tradeService.tradeUpdate(trade);
+                strategy.tradeUpdate(trade);
+                positionService.tradeUpdate(trade);
+                return true;
+            default:
+                // Positions are rebuilt by the position service.
+                return false;
+        }
+    }
+
+    /**
+     * Returns true if the updates of a recorded order must be replayed.
+     *
+     * @param orderId recorded order id
+     * @return true if the order was created again during the replay or was not created by a strategy
+     */
+    private boolean isReplayed(final String orderId) {
+        return externalOrderIds.contains(orderId) || tradeService.isMatched(orderId);
+    }
+
+    /**
+     * Waits between two events according to the replay speed.
+     *
+     * @param delay time between the two events when they were recorded (ms)
+     * @return false if the replay was interrupted
+     */
+    private boolean waitFor(final long delay) {
+        if (Double.isInfinite(speed) || delay <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep((long) (delay / speed));
+            return true;
+        } catch (InterruptedException e) {
+            logger.warn("ReplayRunner - Replay interrupted");
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Replay of recorded sessions.
+ */
+package tech.cassandre.trading.bot.util.replay;
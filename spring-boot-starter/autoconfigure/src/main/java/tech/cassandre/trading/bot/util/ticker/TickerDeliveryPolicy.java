@@ -0,0 +1,115 @@
+package tech.cassandre.trading.bot.util.ticker;
+
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.util.pair.CurrencyPairTable;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Ticker delivery policy of a subscriber - tells which tickers are delivered.
+ * With no minimum interval and no minimum price change, every ticker is delivered. Otherwise, for each currency pair,
+ * a ticker is delivered only if the minimum interval has elapsed since the last ticker delivered and if its last price
+ * moved by at least the minimum price change (in basis points) from the last ticker delivered.
+ * Tickers not delivered are dropped, they are not delivered later.
+ */
+public class TickerDeliveryPolicy implements Predicate<TickerDTO> {
+
+    /** Basis points in one. */
+    private static final BigDecimal BASIS_POINTS = BigDecimal.valueOf(10_000);
+
+    /** Minimum interval between two tickers delivered for the same currency pair (ns). */
+    private final long minimumInterval;
+
+    /** Minimum price change since the last ticker delivered for the same currency pair (bps). */
+    private final BigDecimal minimumPriceChange;
+
+    /** Last ticker delivered for each currency pair. */
+    private final CurrencyPairTable<Delivery> lastDeliveries = new CurrencyPairTable<>();
+
+    /**
+     * Constructor.
+     *
+     * @param newMinimumInterval    minimum interval between two tickers delivered for the same currency pair (ms - 0 for none)
+     * @param newMinimumPriceChange minimum price change since the last ticker delivered for the same currency pair (bps - 0 for none)
+     */
+    public TickerDeliveryPolicy(final long newMinimumInterval, final int newMinimumPriceChange) {
+        if (newMinimumInterval < 0 || newMinimumPriceChange < 0) {
+            throw new IllegalArgumentException("Ticker minimum interval and price change can't be negative : " + newMinimumInterval + " / " + newMinimumPriceChange);
+        }
+        this.minimumInterval = TimeUnit.MILLISECONDS.toNanos(newMinimumInterval);
+        this.minimumPriceChange = BigDecimal.valueOf(newMinimumPriceChange);
+    }
+
+    /**
+     * Returns true if every ticker is delivered.
+     *
+     * @return true if there is no minimum interval nor minimum price change
+     */
+    public final boolean isDeliveringEveryTicker() {
+        return minimumInterval == 0 && minimumPriceChange.signum() == 0;
+    }
+
+    /**
+     * Returns true if the ticker must be delivered (and records it as delivered).
+     *
+     * @param ticker ticker
+     * @return true if delivered
+     */
+    @Override
+    public final synchronized boolean test(final TickerDTO ticker) {
+        if (isDeliveringEveryTicker() || ticker.getCurrencyPair() == null) {
+            return true;
+        }
+        final long now = System.nanoTime();
+        final Delivery lastDelivery = lastDeliveries.get(ticker.getCurrencyPair());
+        if (lastDelivery != null
+                && (now - lastDelivery.time < minimumInterval || !isPriceChangeEnough(lastDelivery.price, ticker.getLast()))) {
+            return false;
+        }
+        lastDeliveries.put(ticker.getCurrencyPair(), new Delivery(now, ticker.getLast()));
+        return true;
+    }
+
+    /**
+     * Returns true if the price moved enough since the last ticker delivered.
+     *
+     * @param lastPrice last price delivered
+     * @param price     new price
+     * @return true if the move is at least the minimum price change
+     */
+    private boolean isPriceChangeEnough(final BigDecimal lastPrice, final BigDecimal price) {
+        if (minimumPriceChange.signum() == 0 || lastPrice == null || price == null || lastPrice.signum() == 0) {
+            return true;
+        }
+        // |price - lastPrice| / lastPrice * 10 000 >= minimum price change.
+        return price.subtract(lastPrice).abs().multiply(BASIS_POINTS)
+                .compareTo(lastPrice.abs().multiply(minimumPriceChange)) >= 0;
+    }
+
+    /**
+     * Last ticker delivered for a currency pair.
+     */
+    private static final class Delivery {
+
+        /** Time of delivery (ns). */
+        private final long time;
+
+        /** Last price delivered. */
+        private final BigDecimal price;
+
+        /**
+         * Constructor.
+         *
+         * @param newTime  time of delivery
+         * @param newPrice last price delivered
+         */
+        private Delivery(final long newTime, final BigDecimal newPrice) {
+            this.time = newTime;
+            this.price = newPrice;
+        }
+
+    }
+
+}
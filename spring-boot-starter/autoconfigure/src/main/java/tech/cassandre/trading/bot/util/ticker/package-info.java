@@ -0,0 +1,4 @@
+/**
+ * Ticker delivery policies.
+ */
+package tech.cassandre.trading.bot.util.ticker;
@@ -0,0 +1,188 @@
+package tech.cassandre.trading.bot.util.tracker;
+
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderStatusDTO;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.CLOSED;
+
+/**
+ * Tracks the status of the orders placed by strategies until they reach a terminal status.
+ * <p>
+ * Each order follows a state machine : pending -> accepted by the exchange -> partially executed or being canceled ->
+ * terminal (filled, canceled, rejected...). An update that would move an order back (an older reply from the
+ * exchange, or a cumulative amount lower than the one already known) is refused. Once an order is terminal, it's not
+ * tracked anymore. Orders the exchange doesn't return anymore are dropped after {@link #MAXIMUM_MISSES} queries.
+ */
+public class OrderTracker {
+
+    /** Number of queries without reply after which an order is not tracked anymore. */
+    public static final int MAXIMUM_MISSES = 10;
+
+    /** Stage - order created locally. */
+    private static final int STAGE_PENDING = 0;
+
+    /** Stage - order accepted by the exchange. */
+    private static final int STAGE_ACCEPTED = 1;
+
+    /** Stage - order partially executed or waiting to be canceled or replaced. */
+    private static final int STAGE_WORKING = 2;
+
+    /** Stage - order terminal. */
+    private static final int STAGE_TERMINAL = 3;
+
+    /** Orders tracked (order id as key). */
+    private final Map<String, TrackedOrder> orders = new LinkedHashMap<>();
+
+    /**
+     * Starts tracking an order (does nothing if the order is already terminal).
+     *
+     * @param order order
+     */
+    public final synchronized void track(final OrderDTO order) {
+        if (getStage(order.getStatus()) != STAGE_TERMINAL) {
+            orders.putIfAbsent(order.getOrderId(), new TrackedOrder(order));
+        }
+    }
+
+    /**
+     * Applies an order update received from the exchange.
+     *
+     * @param order order
+     * @return false if the order is tracked and the update would move it back
+     */
+    public final synchronized boolean update(final OrderDTO order) {
+        final TrackedOrder trackedOrder = orders.get(order.getOrderId());
+        if (trackedOrder == null) {
+            return true;
+        }
+        trackedOrder.misses = 0;
+        if (getStage(order.getStatus()) < getStage(trackedOrder.order.getStatus()) || isCumulativeAmountLower(order, trackedOrder.order)) {
+            return false;
+        }
+        if (getStage(order.getStatus()) == STAGE_TERMINAL) {
+            orders.remove(order.getOrderId());
+        } else {
+            trackedOrder.order = order;
+        }
+        return true;
+    }
+
+    /**
+     * Records that the exchange didn't return a tracked order.
+     *
+     * @param orderId order id
+     * @return true if the order is not tracked anymore
+     */
+    public final synchronized boolean miss(final String orderId) {
+        final TrackedOrder trackedOrder = orders.get(orderId);
+        if (trackedOrder != null && ++trackedOrder.misses >= MAXIMUM_MISSES) {
+            orders.remove(orderId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the ids of the orders tracked (not terminal).
+     *
+     * @param excludedOrderIds order ids to exclude (for example, orders whose status was just received)
+     * @return order ids
+     */
+    public final synchronized Set<String> getTrackedOrderIds(final Collection<String> excludedOrderIds) {
+        final Set<String> orderIds = new LinkedHashSet<>(orders.keySet());
+        orderIds.removeAll(excludedOrderIds);
+        return orderIds;
+    }
+
+    /**
+     * Returns the last status known of an order.
+     *
+     * @param orderId order id
+     * @return status (null if the order is not tracked)
+     */
+    public final synchronized OrderStatusDTO getStatus(final String orderId) {
+        final TrackedOrder trackedOrder = orders.get(orderId);
+        if (trackedOrder == null) {
+            return null;
+        }
+        return trackedOrder.order.getStatus();
+    }
+
+    /**
+     * Returns the number of orders tracked.
+     *
+     * @return number of orders tracked
+     */
+    public final synchronized int size() {
+        return orders.size();
+    }
+
+    /**
+     * Returns the stage of a status in the order state machine.
+     *
+     * @param status status
+     * @return stage
+     */
+    private static int getStage(final OrderStatusDTO status) {
+        if (status == null) {
+            return STAGE_PENDING;
+        }
+        if (status.isFinal() || status == CLOSED) {
+            return STAGE_TERMINAL;
+        }
+        switch (status) {
+            case PENDING_NEW:
+            case UNKNOWN:
+                return STAGE_PENDING;
+            case NEW:
+            case OPEN:
+                return STAGE_ACCEPTED;
+            default:
+                return STAGE_WORKING;
+        }
+    }
+
+    /**
+     * Returns true if the cumulative amount of an update is lower than the one already known.
+     *
+     * @param update update
+     * @param order  order known
+     * @return true if lower
+     */
+    private static boolean isCumulativeAmountLower(final OrderDTO update, final OrderDTO order) {
+        return update.getCumulativeAmount() != null
+                && update.getCumulativeAmount().getValue() != null
+                && order.getCumulativeAmount() != null
+                && order.getCumulativeAmount().getValue() != null
+                && update.getCumulativeAmount().getValue().compareTo(order.getCumulativeAmount().getValue()) < 0;
+    }
+
+    /**
+     * Order tracked.
+     */
+    private static final class TrackedOrder {
+
+        /** Last value of the order. */
+        private OrderDTO order;
+
+        /** Number of consecutive queries without reply. */
+        private int misses;
+
+        /**
+         * Constructor.
+         *
+         * @param newOrder order
+         */
+        private TrackedOrder(final OrderDTO newOrder) {
+            this.order = newOrder;
+        }
+
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Order trackers.
+ */
+package tech.cassandre.trading.bot.util.tracker;
@@ -10,6 +10,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.annotation.DirtiesContext;
 import tech.cassandre.trading.bot.dto.user.AccountDTO;
 import tech.cassandre.trading.bot.dto.user.BalanceDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceUpdateDTO;
 import tech.cassandre.trading.bot.test.util.junit.BaseTest;
 import tech.cassandre.trading.bot.test.util.junit.configuration.Configuration;
 import tech.cassandre.trading.bot.test.util.junit.configuration.Property;
@@ -24,6 +25,7 @@ import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.verify;
@@ -318,6 +320,37 @@ public class AccountFluxTest extends BaseTest {
         assertEquals(0, 0, account03BTCBalance.get().getBorrowed().compareTo(new BigDecimal("14")));
         assertEquals(0, 0, account03BTCBalance.get().getWithdrawing().compareTo(new BigDecimal("16")));
         assertEquals(0, 0, account03BTCBalance.get().getDepositing().compareTo(new BigDecimal("17")));
+
+        // =============================================================================================================
+        // Check balance updates - only the balances that changed are sent.
+        // 3 new balances, 1 new USDT balance, 2 balances changed, 1 balance removed and 1 new account with 1 balance.
+        await().untilAsserted(() -> assertEquals(8, strategy.getBalancesUpdateReceived().size()));
+        final Iterator<BalanceUpdateDTO> balanceIterator = strategy.getBalancesUpdateReceived().iterator();
+        BalanceUpdateDTO b = balanceIterator.next();
+        assertEquals("01", b.getAccountId());
+        assertEquals(BTC, b.getCurrency());
+        assertNull(b.getPreviousBalance());
+        assertNotNull(b.getBalance());
+        balanceIterator.next();
+        balanceIterator.next();
+        b = balanceIterator.next();
+        assertEquals("01", b.getAccountId());
+        assertEquals(USDT, b.getCurrency());
+        b = balanceIterator.next();
+        assertEquals("01", b.getAccountId());
+        assertEquals(ETH, b.getCurrency());
+        assertEquals(0, new BigDecimal("5").compareTo(b.getBalance().getBorrowed()));
+        b = balanceIterator.next();
+        assertEquals("02", b.getAccountId());
+        assertEquals(BTC, b.getCurrency());
+        b = balanceIterator.next();
+        assertEquals("01", b.getAccountId());
+        assertEquals(ETH, b.getCurrency());
+        assertTrue(b.isRemoved());
+        assertNotNull(b.getPreviousBalance());
+        b = balanceIterator.next();
+        assertEquals("03", b.getAccountId());
+        assertEquals(BTC, b.getCurrency());
     }
 
 }
@@ -0,0 +1,99 @@
+package tech.cassandre.trading.bot.test.batch;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.batch.OrderFlux;
+import tech.cassandre.trading.bot.domain.Order;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderStatusDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
+import tech.cassandre.trading.bot.repository.OrderRepository;
+import tech.cassandre.trading.bot.service.TradeService;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.FILLED;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.NEW;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.PARTIALLY_FILLED;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+
+@DisplayName("Batch - Order flux saves")
+public class OrderFluxSaveTest extends BaseTest {
+
+    @Test
+    @CaseId(114)
+    @DisplayName("Check order updates are saved without reading the database")
+    public void checkSaves() {
+        // Repository that doesn't know the order and that generates the id 1 when saving.
+        final OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findByOrderId(any())).thenReturn(Optional.empty());
+        when(orderRepository.save(any())).thenAnswer(invocation -> {
+            final Order order = invocation.getArgument(0);
+            order.setId(1L);
+            return order;
+        });
+        final TradeService tradeService = mock(TradeService.class);
+        final OrderFlux orderFlux = new OrderFlux(tradeService, orderRepository);
+        final List<OrderDTO> ordersReceived = new CopyOnWriteArrayList<>();
+        orderFlux.getFlux().subscribe(ordersReceived::add);
+
+        // The local order is created then updated twice by the exchange.
+        when(tradeService.getOrders()).thenReturn(Set.of(getOrder(NEW, "0")));
+        orderFlux.update();
+        when(tradeService.getOrders()).thenReturn(Set.of(getOrder(PARTIALLY_FILLED, "1")));
+        orderFlux.update();
+        when(tradeService.getOrders()).thenReturn(Set.of(getOrder(FILLED, "2")));
+        orderFlux.update();
+
+        // Each value is saved, but the order is only searched in database before it's created (flux and save).
+        await().untilAsserted(() -> assertEquals(3, ordersReceived.size()));
+        verify(orderRepository, times(2)).findByOrderId("ORDER_000001");
+        verify(orderRepository, times(3)).save(any());
+        // The trade service is told the local order is saved so it stops returning it.
+        verify(tradeService, atLeastOnce()).orderSaved("ORDER_000001");
+        ordersReceived.forEach(order -> {
+            assertEquals(1L, order.getId());
+            assertEquals(strategyDTO, order.getStrategy());
+        });
+        assertEquals(NEW, ordersReceived.get(0).getStatus());
+        assertEquals(PARTIALLY_FILLED, ordersReceived.get(1).getStatus());
+        assertEquals(FILLED, ordersReceived.get(2).getStatus());
+        assertEquals(0, new BigDecimal("2").compareTo(ordersReceived.get(2).getCumulativeAmount().getValue()));
+    }
+
+    /**
+     * Returns the order ORDER_000001 - the exchange only returns the strategy of the order when it's created.
+     *
+     * @param status           status
+     * @param cumulativeAmount cumulative amount
+     * @return order
+     */
+    private OrderDTO getOrder(final OrderStatusDTO status, final String cumulativeAmount) {
+        final OrderDTO.OrderDTOBuilder builder = OrderDTO.builder()
+                .orderId("ORDER_000001")
+                .type(BID)
+                .currencyPair(cp1)
+                .amount(new CurrencyAmountDTO("2", cp1.getBaseCurrency()))
+                .cumulativeAmount(new CurrencyAmountDTO(cumulativeAmount, cp1.getBaseCurrency()))
+                .status(status);
+        if (status == NEW) {
+            builder.strategy(strategyDTO);
+        }
+        return builder.build();
+    }
+
+}
@@ -0,0 +1,83 @@
+package tech.cassandre.trading.bot.test.batch;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.batch.TickerFlux;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.service.MarketService;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Batch - Ticker flux subscriptions")
+public class TickerFluxSubscriptionTest extends BaseTest {
+
+    @Test
+    @CaseId(107)
+    @DisplayName("Check currency pairs subscribed at runtime")
+    public void checkSubscriptions() {
+        // Market service returning a new ticker on each call.
+        final MarketService marketService = mock(MarketService.class);
+        when(marketService.getTicker(any())).thenAnswer(invocation -> Optional.of(TickerDTO.builder()
+                .currencyPair(invocation.getArgument(0))
+                .last(BigDecimal.valueOf(System.nanoTime()))
+                .build()));
+        final TickerFlux tickerFlux = new TickerFlux(marketService);
+
+        // Nothing to poll.
+        tickerFlux.update();
+        assertTrue(tickerFlux.getPolledCurrencyPairs().isEmpty());
+
+        // Currency pairs requested at startup.
+        tickerFlux.updateRequestedCurrencyPairs(Set.of(cp1));
+        assertEquals(Set.of(cp1), tickerFlux.getPolledCurrencyPairs());
+        tickerFlux.update();
+        assertEquals(1, tickerFlux.getTickerCount(cp1));
+
+        // Subscription at runtime.
+        assertTrue(tickerFlux.subscribe(cp2));
+        assertFalse(tickerFlux.subscribe(cp2));
+        assertEquals(Set.of(cp1, cp2), tickerFlux.getPolledCurrencyPairs());
+        tickerFlux.update();
+        tickerFlux.update();
+        assertEquals(2, tickerFlux.getTickerCount(cp1));
+        assertEquals(1, tickerFlux.getTickerCount(cp2));
+        assertEquals(2, tickerFlux.getRetainedTickerCount());
+
+        // cp2 is still polled while a position on cp2 is not closed.
+        tickerFlux.subscribePosition(1, cp2);
+        assertTrue(tickerFlux.unsubscribe(cp2));
+        assertFalse(tickerFlux.unsubscribe(cp2));
+        assertEquals(Set.of(cp1, cp2), tickerFlux.getPolledCurrencyPairs());
+        tickerFlux.unsubscribePosition(1);
+        assertEquals(Set.of(cp1), tickerFlux.getPolledCurrencyPairs());
+        tickerFlux.update();
+        tickerFlux.update();
+        assertEquals(4, tickerFlux.getTickerCount(cp1));
+        assertEquals(1, tickerFlux.getTickerCount(cp2));
+        // The last ticker of cp2 is not retained anymore.
+        assertEquals(1, tickerFlux.getRetainedTickerCount());
+
+        // Position on a currency pair that was never requested.
+        final CurrencyPairDTO cp3 = new CurrencyPairDTO("BTC", "USDT");
+        tickerFlux.subscribePosition(2, cp3);
+        assertEquals(Set.of(cp1, cp3), tickerFlux.getPolledCurrencyPairs());
+        assertTrue(tickerFlux.unsubscribe(cp1));
+        assertEquals(Set.of(cp3), tickerFlux.getPolledCurrencyPairs());
+        tickerFlux.update();
+        assertEquals(1, tickerFlux.getTickerCount(cp3));
+        assertEquals(1, tickerFlux.getRetainedTickerCount());
+    }
+
+}
@@ -0,0 +1,60 @@
+package tech.cassandre.trading.bot.test.dto;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("DTO - CurrencyPairDTO")
+public class CurrencyPairDTOTest {
+
+    @Test
+    @CaseId(99)
+    @DisplayName("Check canonical instances")
+    public void checkCanonicalInstances() {
+        // Currencies.
+        assertSame(BTC, CurrencyDTO.getInstance("BTC"));
+        assertSame(BTC, CurrencyDTO.getInstance("btc"));
+        assertSame(BTC, CurrencyDTO.builder().code("BTC").build());
+        final CurrencyDTO newCurrency = CurrencyDTO.getInstance("CASSANDRE");
+        assertSame(newCurrency, CurrencyDTO.getInstance("cassandre"));
+        assertEquals(newCurrency, new CurrencyDTO("CASSANDRE"));
+        assertEquals(newCurrency.getId(), new CurrencyDTO("CASSANDRE").getId());
+        assertNotEquals(BTC.getId(), ETH.getId());
+        assertTrue(newCurrency.getId() < CurrencyDTO.getCurrencyCount());
+
+        // Currency pairs.
+        final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
+        assertSame(cp, CurrencyPairDTO.getInstance("ETH/BTC"));
+        assertSame(cp, CurrencyPairDTO.getInstance("eth", "btc"));
+        assertSame(cp, CurrencyPairDTO.getInstance(new CurrencyPair("ETH", "BTC")));
+        assertSame(cp, CurrencyPairDTO.builder().baseCurrency(ETH).quoteCurrency(BTC).build());
+        assertEquals(cp, new CurrencyPairDTO(ETH, BTC));
+        assertEquals(cp.hashCode(), new CurrencyPairDTO("ETH/BTC").hashCode());
+        assertEquals(cp.getId(), new CurrencyPairDTO(ETH, BTC).getId());
+        assertNotEquals(cp, CurrencyPairDTO.getInstance(BTC, ETH));
+        assertNotEquals(cp.getId(), CurrencyPairDTO.getInstance(ETH, USDT).getId());
+        assertTrue(cp.getId() < CurrencyPairDTO.getCurrencyPairCount());
+        assertEquals("ETH/BTC", cp.toString());
+
+        // Lookups without creation.
+        assertSame(cp, CurrencyPairDTO.getInstanceNoCreate("ETH/BTC"));
+        assertSame(cp, CurrencyPairDTO.getInstanceNoCreate("eth/btc"));
+        final int currencyPairCount = CurrencyPairDTO.getCurrencyPairCount();
+        assertNull(CurrencyPairDTO.getInstanceNoCreate("UNKNOWN/PAIR"));
+        assertNull(CurrencyPairDTO.getInstanceNoCreate("ETHBTC"));
+        assertEquals(currencyPairCount, CurrencyPairDTO.getCurrencyPairCount());
+    }
+
+}
@@ -0,0 +1,58 @@
+package tech.cassandre.trading.bot.test.service.dry;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.test.util.junit.configuration.Configuration;
+import tech.cassandre.trading.bot.test.util.junit.configuration.Property;
+import tech.cassandre.trading.bot.test.util.strategies.TestableCassandreStrategy;
+
+import java.math.BigDecimal;
+
+import static org.awaitility.Awaitility.with;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.FILLED;
+import static tech.cassandre.trading.bot.util.parameters.ExchangeParameters.Modes.PARAMETER_EXCHANGE_DRY;
+
+@SpringBootTest
+@DisplayName("Service - Dry - Trade service with scheduler")
+@Configuration({
+        @Property(key = PARAMETER_EXCHANGE_DRY, value = "true")
+})
+@DirtiesContext(classMode = AFTER_CLASS)
+@Import(TradeServiceDryModeTestMock.class)
+public class TradeServiceDryModeScheduleTest extends BaseTest {
+
+    @Autowired
+    private TestableCassandreStrategy strategy;
+
+    @Test
+    @CaseId(111)
+    @DisplayName("Check dry mode fills reach the strategy without polling")
+    public void checkFillsPushed() {
+        // The scheduler sends tickers to the strategy and to the dry trade service.
+        with().await().until(() -> strategy.getLastTickerByCurrencyPair(cp1).isPresent());
+
+        // Market order - filled immediately.
+        final OrderCreationResultDTO marketOrder = strategy.createBuyMarketOrder(cp1, new BigDecimal("0.001"));
+        assertTrue(marketOrder.isSuccessful());
+        final String marketOrderId = marketOrder.getOrder().getOrderId();
+        with().await().until(() -> strategy.getOrdersUpdateReceived().stream().anyMatch(o -> o.getOrderId().equals(marketOrderId) && o.getStatus() == FILLED));
+        with().await().until(() -> strategy.getTradesUpdateReceived().stream().anyMatch(t -> t.getOrderId().equals(marketOrderId)));
+
+        // Limit order above the market price - filled by the matching engine.
+        final OrderCreationResultDTO limitOrder = strategy.createBuyLimitOrder(cp1, new BigDecimal("0.001"), new BigDecimal("0.25"));
+        assertTrue(limitOrder.isSuccessful());
+        final String limitOrderId = limitOrder.getOrder().getOrderId();
+        with().await().until(() -> strategy.getOrdersUpdateReceived().stream().anyMatch(o -> o.getOrderId().equals(limitOrderId) && o.getStatus() == FILLED));
+        with().await().until(() -> strategy.getTradesUpdateReceived().stream().anyMatch(t -> t.getOrderId().equals(limitOrderId)));
+    }
+
+}
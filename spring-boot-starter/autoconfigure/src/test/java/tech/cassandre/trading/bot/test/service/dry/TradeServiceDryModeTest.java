@@ -9,17 +9,24 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import tech.cassandre.trading.bot.batch.TickerFlux;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderDTO;
 import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
 import tech.cassandre.trading.bot.service.TradeService;
+import tech.cassandre.trading.bot.service.dry.TradeServiceDryModeImplementation;
 import tech.cassandre.trading.bot.test.util.junit.BaseTest;
 import tech.cassandre.trading.bot.test.util.junit.configuration.Configuration;
 import tech.cassandre.trading.bot.test.util.junit.configuration.Property;
 import tech.cassandre.trading.bot.test.util.strategies.TestableCassandreStrategy;
 
 import java.math.BigDecimal;
+import java.time.ZonedDateTime;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import static org.awaitility.Awaitility.with;
@@ -29,10 +36,15 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.CANCELED;
 import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.FILLED;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.NEW;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.PARTIALLY_FILLED;
 import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
 import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
 import static tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO.ZERO;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
 import static tech.cassandre.trading.bot.util.parameters.ExchangeParameters.Modes.PARAMETER_EXCHANGE_DRY;
 
 @SpringBootTest
@@ -172,4 +184,160 @@ public class TradeServiceDryModeTest extends BaseTest {
         assertTrue(tradeService.getTrades().stream().anyMatch(t -> t.getTradeId().equals(tradeId02)));
     }
 
+    @Test
+    @CaseId(92)
+    @DisplayName("Check asynchronous order creation")
+    public void checkCreateOrderAsync() throws ExecutionException, InterruptedException {
+        tickerFlux.update();
+
+        // What we expect.
+        final String orderId01 = "DRY_ORDER_000000001";
+        final String orderId02 = "DRY_ORDER_000000002";
+
+        // We create two orders without waiting for the results.
+        final CompletableFuture<OrderCreationResultDTO> buyMarketOrder01 = strategy.createBuyMarketOrderAsync(cp1, new BigDecimal("0.001"));
+        final CompletableFuture<OrderCreationResultDTO> sellMarketOrder02 = strategy.createSellMarketOrderAsync(cp1, new BigDecimal("0.001"));
+
+        // Checking results.
+        assertTrue(buyMarketOrder01.get().isSuccessful());
+        assertEquals(orderId01, buyMarketOrder01.get().getOrder().getOrderId());
+        assertEquals(BID, buyMarketOrder01.get().getOrder().getType());
+        assertTrue(sellMarketOrder02.get().isSuccessful());
+        assertEquals(orderId02, sellMarketOrder02.get().getOrder().getOrderId());
+        assertEquals(ASK, sellMarketOrder02.get().getOrder().getType());
+
+        // Orders are received by the strategy.
+        with().await().until(() -> strategy.getOrdersUpdateReceived().stream().anyMatch(o -> o.getOrderId().equals(orderId01)));
+        with().await().until(() -> strategy.getOrdersUpdateReceived().stream().anyMatch(o -> o.getOrderId().equals(orderId02)));
+    }
+
+    @Test
+    @CaseId(97)
+    @DisplayName("Check limit orders")
+    public void checkCreateLimitOrder() {
+        tickerFlux.update();
+
+        // What we expect.
+        final String orderId01 = "DRY_ORDER_000000001";
+        final String orderId02 = "DRY_ORDER_000000002";
+
+        // Buy order below the market price - the order is waiting and its cost is locked.
+        final BigDecimal btcAvailable = getTradeAccountAvailable(BTC);
+        final OrderCreationResultDTO buyLimitOrder01 = strategy.createBuyLimitOrder(cp1, new BigDecimal("0.001"), new BigDecimal("0.1"));
+        assertTrue(buyLimitOrder01.isSuccessful());
+        assertEquals(0, btcAvailable.subtract(new BigDecimal("0.0001")).compareTo(getTradeAccountAvailable(BTC)));
+        assertEquals(orderId01, buyLimitOrder01.getOrder().getOrderId());
+        assertEquals(NEW, buyLimitOrder01.getOrder().getStatus());
+        with().await().until(() -> strategy.getOrdersUpdateReceived().stream().anyMatch(o -> o.getOrderId().equals(orderId01)));
+
+        // Sell order below the market price - the order is filled at the market price.
+        final OrderCreationResultDTO sellLimitOrder02 = strategy.createSellLimitOrder(cp1, new BigDecimal("0.002"), new BigDecimal("0.15"));
+        assertTrue(sellLimitOrder02.isSuccessful());
+        assertEquals(orderId02, sellLimitOrder02.getOrder().getOrderId());
+        with().await().until(() -> strategy.getOrdersUpdateReceived().stream().anyMatch(o -> o.getOrderId().equals(orderId02) && o.getStatus() == FILLED));
+        with().await().until(() -> strategy.getTradesUpdateReceived().stream().anyMatch(t -> t.getOrderId().equals(orderId02)));
+        final Optional<TradeDTO> trade02 = strategy.getTradesUpdateReceived().stream().filter(t -> t.getOrderId().equals(orderId02)).findFirst();
+        assertTrue(trade02.isPresent());
+        assertEquals(0, new BigDecimal("0.002").compareTo(trade02.get().getAmount().getValue()));
+        assertEquals(0, new BigDecimal("0.2").compareTo(trade02.get().getPrice().getValue()));
+
+        // The market goes down with a small size available - the buy order is partially filled.
+        ((TradeServiceDryModeImplementation) tradeService).tickerUpdate(TickerDTO.builder()
+                .currencyPair(cp1)
+                .timestamp(ZonedDateTime.now())
+                .last(new BigDecimal("0.09"))
+                .ask(new BigDecimal("0.09"))
+                .askSize(new BigDecimal("0.0004"))
+                .build());
+        with().await().until(() -> strategy.getOrdersUpdateReceived().stream().anyMatch(o -> o.getOrderId().equals(orderId01) && o.getStatus() == PARTIALLY_FILLED));
+        with().await().until(() -> strategy.getTradesUpdateReceived().stream().anyMatch(t -> t.getOrderId().equals(orderId01)));
+        final Optional<TradeDTO> trade01 = strategy.getTradesUpdateReceived().stream().filter(t -> t.getOrderId().equals(orderId01)).findFirst();
+        assertTrue(trade01.isPresent());
+        assertEquals(0, new BigDecimal("0.0004").compareTo(trade01.get().getAmount().getValue()));
+        assertEquals(0, new BigDecimal("0.1").compareTo(trade01.get().getPrice().getValue()));
+
+        // We cancel the rest of the buy order.
+        assertTrue(tradeService.cancelOrder(orderId01));
+        with().await().until(() -> strategy.getOrdersUpdateReceived().stream().anyMatch(o -> o.getOrderId().equals(orderId01) && o.getStatus() == CANCELED));
+        final Optional<OrderDTO> canceledOrder = strategy.getOrdersUpdateReceived().stream().filter(o -> o.getOrderId().equals(orderId01) && o.getStatus() == CANCELED).findFirst();
+        assertTrue(canceledOrder.isPresent());
+        assertEquals(0, new BigDecimal("0.0004").compareTo(canceledOrder.get().getCumulativeAmount().getValue()));
+        // The funds of the canceled part are released (0.0004 bought at 0.1 and 0.002 sold at 0.2).
+        assertEquals(0, btcAvailable.subtract(new BigDecimal("0.00004")).add(new BigDecimal("0.0004")).compareTo(getTradeAccountAvailable(BTC)));
+
+        // Buy order above the market price - the order is filled at the ask price, not at its limit price.
+        final String orderId03 = "DRY_ORDER_000000003";
+        final OrderCreationResultDTO buyLimitOrder03 = strategy.createBuyLimitOrder(cp1, new BigDecimal("0.0004"), new BigDecimal("0.3"));
+        assertTrue(buyLimitOrder03.isSuccessful());
+        assertEquals(orderId03, buyLimitOrder03.getOrder().getOrderId());
+        with().await().until(() -> strategy.getTradesUpdateReceived().stream().anyMatch(t -> t.getOrderId().equals(orderId03)));
+        final Optional<TradeDTO> trade03 = strategy.getTradesUpdateReceived().stream().filter(t -> t.getOrderId().equals(orderId03)).findFirst();
+        assertTrue(trade03.isPresent());
+        assertEquals(0, new BigDecimal("0.0004").compareTo(trade03.get().getAmount().getValue()));
+        assertEquals(0, new BigDecimal("0.09").compareTo(trade03.get().getPrice().getValue()));
+        // The cost locked at the limit price is released, only the cost at the ask price is spent.
+        with().await().until(() -> btcAvailable.subtract(new BigDecimal("0.00004")).add(new BigDecimal("0.0004")).subtract(new BigDecimal("0.000036")).compareTo(getTradeAccountAvailable(BTC)) == 0);
+    }
+
+    @Test
+    @CaseId(109)
+    @DisplayName("Check stop orders")
+    public void checkCreateStopOrder() {
+        tickerFlux.update();
+
+        // What we expect.
+        final String orderId01 = "DRY_ORDER_000000001";
+        final String orderId02 = "DRY_ORDER_000000002";
+
+        // Stop order below the market price - the order is waiting.
+        final OrderCreationResultDTO stopOrder01 = strategy.createSellStopOrder(cp1, new BigDecimal("0.001"), new BigDecimal("0.15"));
+        assertTrue(stopOrder01.isSuccessful());
+        assertEquals(orderId01, stopOrder01.getOrder().getOrderId());
+        assertEquals(ASK, stopOrder01.getOrder().getType());
+        assertEquals(NEW, stopOrder01.getOrder().getStatus());
+        with().await().until(() -> strategy.getOrdersUpdateReceived().stream().anyMatch(o -> o.getOrderId().equals(orderId01)));
+
+        // The market falls below the stop price - the order is sold at the bid price.
+        ((TradeServiceDryModeImplementation) tradeService).tickerUpdate(TickerDTO.builder()
+                .currencyPair(cp1)
+                .timestamp(ZonedDateTime.now())
+                .last(new BigDecimal("0.14"))
+                .bid(new BigDecimal("0.14"))
+                .build());
+        with().await().until(() -> strategy.getOrdersUpdateReceived().stream().anyMatch(o -> o.getOrderId().equals(orderId01) && o.getStatus() == FILLED));
+        with().await().until(() -> strategy.getTradesUpdateReceived().stream().anyMatch(t -> t.getOrderId().equals(orderId01)));
+        final Optional<TradeDTO> trade01 = strategy.getTradesUpdateReceived().stream().filter(t -> t.getOrderId().equals(orderId01)).findFirst();
+        assertTrue(trade01.isPresent());
+        assertEquals(ASK, trade01.get().getType());
+        assertEquals(0, new BigDecimal("0.001").compareTo(trade01.get().getAmount().getValue()));
+        assertEquals(0, new BigDecimal("0.14").compareTo(trade01.get().getPrice().getValue()));
+
+        // A waiting stop order locks the assets it sells and releases them when canceled.
+        final BigDecimal ethAvailable = getTradeAccountAvailable(ETH);
+        final OrderCreationResultDTO stopOrder02 = strategy.createSellStopOrder(cp1, new BigDecimal("0.001"), new BigDecimal("0.1"));
+        assertTrue(stopOrder02.isSuccessful());
+        assertEquals(orderId02, stopOrder02.getOrder().getOrderId());
+        assertEquals(0, ethAvailable.subtract(new BigDecimal("0.001")).compareTo(getTradeAccountAvailable(ETH)));
+        assertTrue(tradeService.cancelOrder(orderId02));
+        with().await().until(() -> strategy.getOrdersUpdateReceived().stream().anyMatch(o -> o.getOrderId().equals(orderId02) && o.getStatus() == CANCELED));
+        assertEquals(0, ethAvailable.compareTo(getTradeAccountAvailable(ETH)));
+        assertTrue(strategy.getTradesUpdateReceived().stream().noneMatch(t -> t.getOrderId().equals(orderId02)));
+
+        // Invalid stop price.
+        assertFalse(strategy.createSellStopOrder(cp1, new BigDecimal("0.001"), BigDecimal.ZERO).isSuccessful());
+    }
+
+    /**
+     * Returns the available amount of a currency in the trade account of the strategy.
+     *
+     * @param currency currency
+     * @return available amount
+     */
+    private BigDecimal getTradeAccountAvailable(final CurrencyDTO currency) {
+        return strategy.getTradeAccount()
+                .flatMap(account -> account.getBalance(currency))
+                .map(BalanceDTO::getAvailable)
+                .orElse(BigDecimal.ZERO);
+    }
+
 }
@@ -19,13 +19,21 @@ import tech.cassandre.trading.bot.dto.user.UserDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 import tech.cassandre.trading.bot.service.TradeService;
 import tech.cassandre.trading.bot.service.UserService;
+import tech.cassandre.trading.bot.service.dry.UserServiceDryModeImplementation;
 import tech.cassandre.trading.bot.test.util.junit.BaseTest;
 import tech.cassandre.trading.bot.test.util.junit.configuration.Configuration;
 import tech.cassandre.trading.bot.test.util.junit.configuration.Property;
 import tech.cassandre.trading.bot.test.util.strategies.TestableCassandreStrategy;
 
 import java.math.BigDecimal;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.awaitility.Awaitility.await;
 import static org.awaitility.Awaitility.with;
@@ -357,4 +365,50 @@ public class UserServiceDryModeTest extends BaseTest {
         assertTrue(sellMarketOrder2.getErrorMessage().contains("Not enough assets"));
     }
 
+    @Test
+    @CaseId(112)
+    @DisplayName("Check parallel balances updates")
+    public void checkParallelBalancesUpdate() throws Exception {
+        final UserServiceDryModeImplementation dryUserService = (UserServiceDryModeImplementation) userService;
+        final int threadCount = 8;
+        final int fillCount = 1_000;
+
+        // Each thread applies fills buying 0.001 ETH for 0.00001 BTC.
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> results = new LinkedList<>();
+        for (int i = 0; i < threadCount; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < fillCount; j++) {
+                    dryUserService.addToBalance(ETH, new BigDecimal("0.001"));
+                    dryUserService.addToBalance(BTC, new BigDecimal("-0.00001"));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // No fill is lost in the user service.
+        // ETH => 10 + 8 * 1000 * 0.001 = 18
+        // BTC => 0.99962937 - 8 * 1000 * 0.00001 = 0.91962937
+        final Optional<UserDTO> user = userService.getUser();
+        assertTrue(user.isPresent());
+        AccountDTO tradeAccount = user.get().getAccounts().get("trade");
+        assertEquals(0, new BigDecimal("18").compareTo(tradeAccount.getBalance(ETH).map(BalanceDTO::getAvailable).orElse(null)));
+        assertEquals(0, new BigDecimal("0.91962937").compareTo(tradeAccount.getBalance(BTC).map(BalanceDTO::getAvailable).orElse(null)));
+
+        // The strategy received the last value of each balance and kept the other ones.
+        tradeAccount = strategy.getAccounts().get("trade");
+        assertNotNull(tradeAccount);
+        assertEquals(3, tradeAccount.getBalances().size());
+        assertEquals(0, new BigDecimal("18").compareTo(tradeAccount.getBalance(ETH).map(BalanceDTO::getAvailable).orElse(null)));
+        assertEquals(0, new BigDecimal("0.91962937").compareTo(tradeAccount.getBalance(BTC).map(BalanceDTO::getAvailable).orElse(null)));
+        assertEquals(0, new BigDecimal("1000").compareTo(tradeAccount.getBalance(USDT).map(BalanceDTO::getAvailable).orElse(null)));
+    }
+
 }
@@ -0,0 +1,155 @@
+package tech.cassandre.trading.bot.test.service.xchange;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.knowm.xchange.dto.marketdata.Trade;
+import org.knowm.xchange.dto.marketdata.Trades;
+import org.knowm.xchange.service.marketdata.MarketDataService;
+import tech.cassandre.trading.bot.dto.market.CandleDTO;
+import tech.cassandre.trading.bot.service.MarketService;
+import tech.cassandre.trading.bot.service.xchange.MarketServiceXChangeImplementation;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.util.candle.CandleProvider;
+import tech.cassandre.trading.bot.util.limiter.ExchangeRateLimiter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.knowm.xchange.dto.Order.OrderType.BID;
+import static org.knowm.xchange.dto.marketdata.Trades.TradeSortType.SortByTimestamp;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("Service - XChange - Market service candles")
+public class MarketServiceCandlesTest extends BaseTest {
+
+	/** One minute in milliseconds. */
+	private static final long ONE_MINUTE = 60_000L;
+
+	@Test
+	@CaseId(91)
+	@DisplayName("Check candles built from trades")
+	public void checkCandlesBuiltFromTrades() throws IOException {
+		// Trades on three minutes (not sorted).
+		List<Trade> trades = new ArrayList<>();
+		trades.add(getTrade("1", ONE_MINUTE + 10, "10", "1"));
+		trades.add(getTrade("2", ONE_MINUTE + 50, "12", "2"));
+		trades.add(getTrade("3", ONE_MINUTE + 30, "9", "1"));
+		trades.add(getTrade("4", 2 * ONE_MINUTE + 5, "13", "3"));
+		trades.add(getTrade("5", 10, "8", "1"));
+		MarketDataService marketDataService = mock(MarketDataService.class);
+		given(marketDataService.getTrades(any())).willReturn(new Trades(trades, SortByTimestamp));
+		MarketService marketService = new MarketServiceXChangeImplementation(1, marketDataService);
+
+		// Only the two most recent candles are kept.
+		List<CandleDTO> candles = new ArrayList<>(marketService.getCandles(cp1, Duration.ofMinutes(1), 2));
+		assertEquals(2, candles.size());
+
+		// First minute.
+		CandleDTO candle = candles.get(0);
+		assertEquals(cp1, candle.getCurrencyPair());
+		assertEquals(ONE_MINUTE, candle.getTimestamp().toInstant().toEpochMilli());
+		assertEquals(0, new BigDecimal("10").compareTo(candle.getOpen()));
+		assertEquals(0, new BigDecimal("12").compareTo(candle.getHigh()));
+		assertEquals(0, new BigDecimal("9").compareTo(candle.getLow()));
+		assertEquals(0, new BigDecimal("12").compareTo(candle.getClose()));
+		assertEquals(0, new BigDecimal("4").compareTo(candle.getVolume()));
+
+		// Second minute.
+		candle = candles.get(1);
+		assertEquals(2 * ONE_MINUTE, candle.getTimestamp().toInstant().toEpochMilli());
+		assertEquals(0, new BigDecimal("13").compareTo(candle.getOpen()));
+		assertEquals(0, new BigDecimal("13").compareTo(candle.getClose()));
+		assertEquals(0, new BigDecimal("3").compareTo(candle.getVolume()));
+
+		// Invalid parameters.
+		assertTrue(marketService.getCandles(cp1, Duration.ZERO, 2).isEmpty());
+		assertTrue(marketService.getCandles(cp1, Duration.ofMinutes(1), 0).isEmpty());
+	}
+
+	@Test
+	@CaseId(118)
+	@DisplayName("Check candles retrieved with a candle provider")
+	public void checkCandlesFromCandleProvider() throws IOException {
+		// Provider returning two candles per request (newest first), one per minute in the period requested.
+		final Duration period = Duration.ofMinutes(1);
+		final CandleProvider candleProvider = mock(CandleProvider.class);
+		given(candleProvider.isSupported(period)).willReturn(true);
+		given(candleProvider.getMaximumCandlesPerRequest()).willReturn(2);
+		given(candleProvider.getCandles(eq(cp1), eq(period), any(), any())).willAnswer(invocation -> {
+			final ZonedDateTime start = invocation.getArgument(2);
+			final ZonedDateTime end = invocation.getArgument(3);
+			final List<CandleDTO> candles = new ArrayList<>();
+			for (ZonedDateTime time = end.minus(period); !time.isBefore(start); time = time.minus(period)) {
+				candles.add(CandleDTO.builder()
+						.currencyPair(cp1)
+						.timestamp(time)
+						.open(BigDecimal.ONE)
+						.high(BigDecimal.ONE)
+						.low(BigDecimal.ONE)
+						.close(BigDecimal.ONE)
+						.volume(BigDecimal.ONE)
+						.build());
+			}
+			return candles;
+		});
+		MarketDataService marketDataService = mock(MarketDataService.class);
+		MarketService marketService = new MarketServiceXChangeImplementation(1, new ExchangeRateLimiter(), marketDataService, candleProvider);
+
+		// Three candles requested - two requests are made and trades are not used.
+		List<CandleDTO> candles = new ArrayList<>(marketService.getCandles(cp1, period, 3));
+		assertEquals(3, candles.size());
+		verify(candleProvider, times(2)).getCandles(eq(cp1), eq(period), any(), any());
+		verify(marketDataService, never()).getTrades(any());
+		// Candles are sorted, consecutive and finished.
+		assertEquals(period, Duration.between(candles.get(0).getTimestamp(), candles.get(1).getTimestamp()));
+		assertEquals(period, Duration.between(candles.get(1).getTimestamp(), candles.get(2).getTimestamp()));
+		assertTrue(candles.get(2).getTimestamp().plus(period).isBefore(ZonedDateTime.now().plusSeconds(1)));
+
+		// Period not supported by the provider - candles are built from trades.
+		List<Trade> trades = new ArrayList<>();
+		trades.add(getTrade("1", ONE_MINUTE + 10, "10", "1"));
+		given(marketDataService.getTrades(any())).willReturn(new Trades(trades, SortByTimestamp));
+		assertEquals(1, marketService.getCandles(cp1, Duration.ofMinutes(2), 3).size());
+		verify(marketDataService, times(1)).getTrades(any());
+
+		// Provider failing - candles are built from trades.
+		given(candleProvider.getCandles(eq(cp1), eq(period), any(), any())).willThrow(new IOException("Provider error"));
+		assertEquals(1, marketService.getCandles(cp1, period, 3).size());
+		verify(marketDataService, times(2)).getTrades(any());
+	}
+
+	/**
+	 * Returns a public trade.
+	 *
+	 * @param id     trade id
+	 * @param time   timestamp in milliseconds
+	 * @param price  price
+	 * @param amount amount
+	 * @return trade
+	 */
+	private Trade getTrade(final String id, final long time, final String price, final String amount) {
+		return new Trade.Builder()
+				.id(id)
+				.type(BID)
+				.instrument(xChangeCP1)
+				.timestamp(new Date(time))
+				.price(new BigDecimal(price))
+				.originalAmount(new BigDecimal(amount))
+				.build();
+	}
+
+}
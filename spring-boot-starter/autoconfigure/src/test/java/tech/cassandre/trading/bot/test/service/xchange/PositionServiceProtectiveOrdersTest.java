@@ -0,0 +1,329 @@
+package tech.cassandre.trading.bot.test.service.xchange;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.batch.OrderFlux;
+import tech.cassandre.trading.bot.batch.PositionFlux;
+import tech.cassandre.trading.bot.batch.TradeFlux;
+import tech.cassandre.trading.bot.domain.Position;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionCreationResultDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.position.PositionStatusDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.repository.OrderRepository;
+import tech.cassandre.trading.bot.repository.PositionRepository;
+import tech.cassandre.trading.bot.repository.TradeRepository;
+import tech.cassandre.trading.bot.service.dry.TradeServiceDryModeImplementation;
+import tech.cassandre.trading.bot.service.dry.UserServiceDryModeImplementation;
+import tech.cassandre.trading.bot.service.intern.PositionServiceImplementation;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSING;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENED;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+
+@DisplayName("Service - XChange - Position protective orders")
+public class PositionServiceProtectiveOrdersTest extends BaseTest {
+
+    /** Simulated exchange latency (ms). */
+    private static final long LATENCY = 100L;
+
+    /** Positions saved (position id as key). */
+    private final Map<Long, PositionDTO> positions = new ConcurrentHashMap<>();
+
+    /** Trades saved (trade id as key). */
+    private final Map<String, TradeDTO> trades = new ConcurrentHashMap<>();
+
+    /** Position repository reading the positions saved. */
+    private PositionRepository positionRepository;
+
+    /** Position flux saving the positions. */
+    private PositionFlux positionFlux;
+
+    /** Dry user service (10 ETH and 0.99962937 BTC in the trade account). */
+    private UserServiceDryModeImplementation userService;
+
+    /** Dry trade service. */
+    private TradeServiceDryModeImplementation tradeService;
+
+    /** Position service receiving the orders and trades of the dry trade service. */
+    private volatile PositionServiceImplementation positionService;
+
+    @BeforeEach
+    public void setUp() {
+        // Positions are saved by the position flux and read from the repository.
+        final AtomicLong positionIds = new AtomicLong();
+        positionRepository = mock(PositionRepository.class);
+        when(positionRepository.save(any())).thenAnswer(invocation -> {
+            final Position position = invocation.getArgument(0);
+            if (position.getId() == null) {
+                position.setId(positionIds.incrementAndGet());
+            }
+            return position;
+        });
+        when(positionRepository.findByStatus(any())).thenAnswer(invocation -> {
+            final PositionStatusDTO status = invocation.getArgument(0);
+            return findPositions(p -> p.getStatus() == status);
+        });
+        when(positionRepository.findByStatusNot(any())).thenAnswer(invocation -> {
+            final PositionStatusDTO status = invocation.getArgument(0);
+            return findPositions(p -> p.getStatus() != status);
+        });
+        positionFlux = mock(PositionFlux.class);
+        doAnswer(invocation -> {
+            final PositionDTO position = invocation.getArgument(0);
+            positions.put(position.getId(), position);
+            return null;
+        }).when(positionFlux).emitValue(any());
+
+        // Orders and trades of the dry exchange are sent to the position service.
+        final OrderFlux orderFlux = mock(OrderFlux.class);
+        doAnswer(invocation -> {
+            positionService.orderUpdate(invocation.getArgument(0));
+            return null;
+        }).when(orderFlux).emitValue(any());
+        final TradeFlux tradeFlux = mock(TradeFlux.class);
+        doAnswer(invocation -> {
+            final TradeDTO trade = invocation.getArgument(0);
+            trades.put(trade.getTradeId(), trade);
+            positionService.tradeUpdate(trade);
+            return null;
+        }).when(tradeFlux).emitValue(any());
+        userService = new UserServiceDryModeImplementation();
+        tradeService = new TradeServiceDryModeImplementation(userService, mock(TradeRepository.class), mock(OrderRepository.class), LATENCY);
+        tradeService.setDependencies(orderFlux, tradeFlux);
+        positionService = new PositionServiceImplementation(positionRepository, tradeService, positionFlux, true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        tradeService.shutdown();
+    }
+
+    @Test
+    @CaseId(117)
+    @DisplayName("Check a stop order protects a position and is canceled when the stop gain rule closes it")
+    public void checkStopOrderCanceledByStopGain() {
+        // The position on 5 ETH is opened at 0.1 BTC - only a stop order at 0.08 BTC is placed, it locks the 5 ETH.
+        sendTicker("0.1", null);
+        final long positionId = openPosition("5", PositionRulesDTO.builder()
+                .stopGainPercentage(100f)
+                .stopLossPercentage(20f)
+                .build());
+        assertEquals(1, positionService.getProtectedPositionCount());
+        assertEquals("DRY_ORDER_000000002", positions.get(positionId).getProtectiveOrderId());
+        assertEquals(0, new BigDecimal("10").compareTo(getBalance(ETH)));
+
+        // The stop gain rule is triggered at 0.25 BTC - the stop order is canceled so the market order can sell the 5 ETH.
+        sendTicker("0.25", null);
+        await().untilAsserted(() -> assertEquals(CLOSED, positions.get(positionId).getStatus()));
+        assertEquals("DRY_ORDER_000000003", positions.get(positionId).getClosingOrderId());
+        assertNull(positions.get(positionId).getProtectiveOrderId());
+        assertEquals(0, positionService.getProtectedPositionCount());
+        assertEquals(0, new BigDecimal("10").compareTo(getBalance(ETH)));
+        assertEquals(0, new BigDecimal("1.74962937").compareTo(getBalance(BTC)));
+    }
+
+    @Test
+    @CaseId(122)
+    @DisplayName("Check a stop order closes a position on the exchange")
+    public void checkStopOrderClosesPosition() {
+        // The position on 5 ETH is opened at 0.1 BTC with a stop order at 0.08 BTC.
+        sendTicker("0.1", null);
+        final long positionId = openPosition("5", PositionRulesDTO.builder()
+                .stopGainPercentage(100f)
+                .stopLossPercentage(20f)
+                .build());
+
+        // The stop loss rule is triggered - the position is not closed locally, the stop order sells the 5 ETH.
+        sendTicker("0.07", null);
+        await().untilAsserted(() -> assertEquals(CLOSED, positions.get(positionId).getStatus()));
+        assertEquals("DRY_ORDER_000000002", positions.get(positionId).getClosingOrderId());
+        assertEquals(0, positionService.getProtectedPositionCount());
+        assertEquals(0, new BigDecimal("10").compareTo(getBalance(ETH)));
+        assertEquals(0, new BigDecimal("0.84962937").compareTo(getBalance(BTC)));
+    }
+
+    @Test
+    @CaseId(123)
+    @DisplayName("Check all the trades of a partially filled protective order close the position")
+    public void checkPartiallyFilledProtectiveOrder() {
+        // The position on 5 ETH is opened at 0.1 BTC - only the stop gain rule is set, a limit order at 0.2 is placed.
+        sendTicker("0.1", null);
+        final long positionId = openPosition("5", PositionRulesDTO.builder()
+                .stopGainPercentage(100f)
+                .build());
+        assertEquals("DRY_ORDER_000000002", positions.get(positionId).getProtectiveOrderId());
+
+        // Buyers take 2 ETH at 0.2 - the position is closing with the limit order.
+        sendTicker("0.2", new BigDecimal("2"));
+        await().untilAsserted(() -> assertEquals(CLOSING, positions.get(positionId).getStatus()));
+        assertEquals("DRY_ORDER_000000002", positions.get(positionId).getClosingOrderId());
+
+        // Buyers take the 3 other ETH - the two trades close the position.
+        sendTicker("0.2", new BigDecimal("10"));
+        await().untilAsserted(() -> assertEquals(CLOSED, positions.get(positionId).getStatus()));
+        assertEquals(2, positions.get(positionId).getClosingOrder().getTrades().size());
+        assertEquals(0, new BigDecimal("0.5").compareTo(positionService.getGains().get(BTC).getAmount().getValue()));
+        assertEquals(0, new BigDecimal("1.49962937").compareTo(getBalance(BTC)));
+    }
+
+    @Test
+    @CaseId(124)
+    @DisplayName("Check protective orders saved with positions are followed after a restart")
+    public void checkProtectiveOrdersAfterRestart() {
+        // Two positions on 2 ETH are opened at 0.1 BTC with a stop order at 0.08 BTC.
+        sendTicker("0.1", null);
+        final PositionRulesDTO rules = PositionRulesDTO.builder().stopLossPercentage(20f).build();
+        final long positionId1 = openPosition("2", rules);
+        final long positionId2 = openPosition("2", rules);
+        assertEquals("DRY_ORDER_000000002", positions.get(positionId1).getProtectiveOrderId());
+        assertEquals("DRY_ORDER_000000004", positions.get(positionId2).getProtectiveOrderId());
+        assertEquals(0, new BigDecimal("10").compareTo(getBalance(ETH)));
+
+        // After a restart, the stop orders are still followed.
+        positionService = new PositionServiceImplementation(positionRepository, tradeService, positionFlux, true);
+        assertEquals(2, positionService.getProtectedPositionCount());
+        sendTicker("0.07", null);
+        await().untilAsserted(() -> assertEquals(CLOSED, positions.get(positionId1).getStatus()));
+        await().untilAsserted(() -> assertEquals(CLOSED, positions.get(positionId2).getStatus()));
+        assertEquals("DRY_ORDER_000000002", positions.get(positionId1).getClosingOrderId());
+        assertEquals("DRY_ORDER_000000004", positions.get(positionId2).getClosingOrderId());
+
+        // After a restart without native stop orders, the stop order is canceled and its assets are released.
+        sendTicker("0.1", null);
+        final long positionId3 = openPosition("2", rules);
+        assertEquals("DRY_ORDER_000000006", positions.get(positionId3).getProtectiveOrderId());
+        assertEquals(0, new BigDecimal("10").compareTo(getBalance(ETH)));
+        positionService = new PositionServiceImplementation(positionRepository, tradeService, positionFlux, false);
+        assertEquals(0, positionService.getProtectedPositionCount());
+        assertNull(positions.get(positionId3).getProtectiveOrderId());
+        assertEquals(0, new BigDecimal("12").compareTo(getBalance(ETH)));
+    }
+
+    /**
+     * Returns the positions saved, like the database, their orders have the trades saved.
+     *
+     * @param filter filter
+     * @return positions
+     */
+    private List<Position> findPositions(final Predicate<PositionDTO> filter) {
+        return positions.values()
+                .stream()
+                .filter(filter)
+                .map(p -> {
+                    final PositionDTO.PositionDTOBuilder builder = p.toBuilder();
+                    if (p.getOpeningOrder() != null) {
+                        builder.openingOrder(withSavedTrades(p.getOpeningOrder()));
+                    }
+                    if (p.getClosingOrder() != null) {
+                        builder.closingOrder(withSavedTrades(p.getClosingOrder()));
+                    }
+                    return positionMapper.mapToPosition(builder.build());
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns an order with the trades saved for it.
+     *
+     * @param order order
+     * @return order with its trades
+     */
+    private OrderDTO withSavedTrades(final OrderDTO order) {
+        return order.toBuilder()
+                .clearTrades()
+                .trades(trades.values()
+                        .stream()
+                        .filter(trade -> trade.getOrderId().equals(order.getOrderId()))
+                        .collect(Collectors.toSet()))
+                .build();
+    }
+
+    /**
+     * Opens a position on cp1 and waits for it to be opened.
+     *
+     * @param amount amount
+     * @param rules  rules
+     * @return position id
+     */
+    private long openPosition(final String amount, final PositionRulesDTO rules) {
+        final PositionCreationResultDTO result = positionService.createLongPosition(strategyDTO, cp1, new BigDecimal(amount), rules);
+        assertTrue(result.isSuccessful());
+        final long positionId = result.getPosition().getId();
+        await().untilAsserted(() -> assertEquals(OPENED, getStatus(positionId)));
+        return positionId;
+    }
+
+    /**
+     * Returns the status of a position saved.
+     *
+     * @param positionId position id
+     * @return status
+     */
+    private PositionStatusDTO getStatus(final long positionId) {
+        return positions.get(positionId).getStatus();
+    }
+
+    /**
+     * Sends a ticker on cp1 to the dry exchange then to the position service.
+     *
+     * @param price   last, bid and ask price
+     * @param bidSize bid size (null for unlimited)
+     */
+    private void sendTicker(final String price, final BigDecimal bidSize) {
+        final TickerDTO ticker = TickerDTO.builder()
+                .currencyPair(cp1)
+                .last(new BigDecimal(price))
+                .bid(new BigDecimal(price))
+                .ask(new BigDecimal(price))
+                .bidSize(bidSize)
+                .timestamp(ZonedDateTime.now())
+                .build();
+        tradeService.tickerUpdate(ticker);
+        positionService.tickerUpdate(ticker);
+    }
+
+    /**
+     * Returns the available balance of a currency in the trade account.
+     *
+     * @param currency currency
+     * @return available balance
+     */
+    private BigDecimal getBalance(final CurrencyDTO currency) {
+        return userService.getUser()
+                .orElseThrow()
+                .getAccounts()
+                .get("trade")
+                .getBalance(currency)
+                .orElseThrow()
+                .getAvailable();
+    }
+
+}
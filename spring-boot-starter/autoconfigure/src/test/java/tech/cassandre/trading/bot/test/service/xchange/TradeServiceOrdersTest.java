@@ -0,0 +1,100 @@
+package tech.cassandre.trading.bot.test.service.xchange;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.knowm.xchange.dto.Order;
+import org.knowm.xchange.dto.trade.LimitOrder;
+import org.knowm.xchange.dto.trade.OpenOrders;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.repository.OrderRepository;
+import tech.cassandre.trading.bot.service.xchange.TradeServiceXChangeImplementation;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.math.BigDecimal.ONE;
+import static java.math.BigDecimal.ZERO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.FILLED;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.NEW;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.PENDING_NEW;
+
+@DisplayName("Service - XChange - Trade service orders")
+public class TradeServiceOrdersTest extends BaseTest {
+
+    @Test
+    @CaseId(121)
+    @DisplayName("Check tracked orders are retrieved while local orders are not saved")
+    public void checkOrdersWithLocalOrders() throws IOException {
+        final OrderRepository orderRepository = mock(OrderRepository.class);
+        given(orderRepository.findByOrderByTimestampAsc()).willReturn(Collections.emptyList());
+        final org.knowm.xchange.service.trade.TradeService xChangeTradeService = mock(org.knowm.xchange.service.trade.TradeService.class);
+        given(xChangeTradeService.placeLimitOrder(any())).willReturn("ORDER_000001", "ORDER_000002", "ORDER_000003");
+        final TradeServiceXChangeImplementation tradeService = new TradeServiceXChangeImplementation(1, orderRepository, xChangeTradeService);
+
+        // ORDER_000001 is saved by the order flux, ORDER_000002 and ORDER_000003 are not saved yet.
+        tradeService.createBuyLimitOrder(strategyDTO, cp1, new BigDecimal("1"), new BigDecimal("2"));
+        tradeService.createBuyLimitOrder(strategyDTO, cp1, new BigDecimal("2"), new BigDecimal("2"));
+        tradeService.createBuyLimitOrder(strategyDTO, cp1, new BigDecimal("3"), new BigDecimal("2"));
+        tradeService.orderSaved("ORDER_000001");
+        assertEquals(2, tradeService.getLocalOrderCount());
+
+        // ORDER_000002 is open on the exchange, ORDER_000001 is filled and is only returned when queried by id.
+        given(xChangeTradeService.getOpenOrders()).willReturn(new OpenOrders(List.of(getOrder("ORDER_000002", "2", ZERO, Order.OrderStatus.NEW))));
+        given(xChangeTradeService.getOrder("ORDER_000001", "ORDER_000003")).willReturn(List.<Order>of(getOrder("ORDER_000001", "1", ONE, Order.OrderStatus.FILLED)));
+
+        // The fill of the saved order is retrieved even if local orders are not saved yet.
+        final Map<String, OrderDTO> orders = tradeService.getOrders()
+                .stream()
+                .collect(Collectors.toMap(OrderDTO::getOrderId, Function.identity()));
+        assertEquals(3, orders.size());
+        assertEquals(FILLED, orders.get("ORDER_000001").getStatus());
+
+        // The exchange value of an unsaved local order is returned with the strategy of the local order.
+        assertEquals(NEW, orders.get("ORDER_000002").getStatus());
+        assertEquals(strategyDTO, orders.get("ORDER_000002").getStrategy());
+
+        // A local order unknown by the exchange is still returned.
+        assertEquals(PENDING_NEW, orders.get("ORDER_000003").getStatus());
+        assertEquals(strategyDTO, orders.get("ORDER_000003").getStrategy());
+
+        // The filled order is not tracked anymore.
+        assertEquals(2, tradeService.getTrackedOrderCount());
+    }
+
+    /**
+     * Returns an XChange buy order on cp1.
+     *
+     * @param orderId          order id
+     * @param amount           amount
+     * @param cumulativeAmount cumulative amount
+     * @param status           status
+     * @return order
+     */
+    private LimitOrder getOrder(final String orderId, final String amount, final BigDecimal cumulativeAmount, final Order.OrderStatus status) {
+        return new LimitOrder(
+                Order.OrderType.BID,
+                new BigDecimal(amount),
+                xChangeCP1,
+                orderId,
+                new Date(),
+                new BigDecimal("2"),
+                new BigDecimal("2"),
+                cumulativeAmount,
+                ZERO,
+                status,
+                null);
+    }
+
+}
@@ -8,6 +8,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.annotation.DirtiesContext;
 import tech.cassandre.trading.bot.domain.Strategy;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
 import tech.cassandre.trading.bot.dto.user.AccountDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 import tech.cassandre.trading.bot.repository.StrategyRepository;
@@ -17,14 +18,21 @@ import tech.cassandre.trading.bot.test.util.junit.configuration.Property;
 import tech.cassandre.trading.bot.test.util.strategies.TestableCassandreStrategy;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.awaitility.Awaitility.with;
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENED;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENING_FAILURE;
 import static tech.cassandre.trading.bot.dto.strategy.StrategyTypeDTO.BASIC_STRATEGY;
 import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
 import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
@@ -121,6 +129,40 @@ public class BasicCassandreStrategyTest extends BaseTest {
         // Trying to sell 1 BTC and still have 1 (not possible).
         assertFalse(strategy.canSell(BTC, new BigDecimal("1"), new BigDecimal("2")));
         assertFalse(strategy.canSell(account, BTC, new BigDecimal("1"), new BigDecimal("2")));
+
+        // Accounts and tickers are immutable snapshots - a snapshot read doesn't change with later updates.
+        final Map<String, AccountDTO> accounts = strategy.getAccounts();
+        final int accountCount = accounts.size();
+        assertThrows(UnsupportedOperationException.class, () -> accounts.put("04", account));
+        assertThrows(UnsupportedOperationException.class, () -> strategy.getLastTickers().clear());
+        // The tickers snapshot is only built again when a ticker is received.
+        assertSame(strategy.getLastTickers(), strategy.getLastTickers());
+        strategy.updateAccounts(List.of(AccountDTO.builder().accountId("04").name("Account 04").build()));
+        assertEquals(accountCount, accounts.size());
+        assertEquals(accountCount + 1, strategy.getAccounts().size());
+        assertTrue(strategy.getAccountByAccountId("04").isPresent());
+
+        // The trade account is resolved again after an account update.
+        assertEquals("03", strategy.getTradeAccount().orElseThrow().getAccountId());
+        assertTrue(strategy.canBuy(cp2, new BigDecimal("0.1")));
+        assertFalse(strategy.canBuy(cp2, new BigDecimal("0.1"), new BigDecimal("1001")));
+        assertTrue(strategy.canSell(BTC, new BigDecimal("1")));
+
+        // The status of a position is only tracked until the position is closed.
+        final int trackedPositionCount = strategy.getTrackedPositionCount();
+        final int positionStatusUpdateCount = strategy.getPositionsStatusUpdateReceived().size();
+        strategy.positionUpdate(PositionDTO.builder().id(100).currencyPair(cp2).status(OPENED).build());
+        assertEquals(trackedPositionCount + 1, strategy.getTrackedPositionCount());
+        strategy.positionUpdate(PositionDTO.builder().id(100).currencyPair(cp2).status(CLOSED).build());
+        assertEquals(trackedPositionCount, strategy.getTrackedPositionCount());
+        assertEquals(positionStatusUpdateCount + 2, strategy.getPositionsStatusUpdateReceived().size());
+
+        // A position that failed to open is still emitted by the position service - its status update is sent once.
+        strategy.positionUpdate(PositionDTO.builder().id(101).currencyPair(cp2).status(OPENING_FAILURE).build());
+        strategy.positionUpdate(PositionDTO.builder().id(101).currencyPair(cp2).status(OPENING_FAILURE).build());
+        strategy.positionUpdate(PositionDTO.builder().id(100).currencyPair(cp2).status(CLOSED).build());
+        assertEquals(trackedPositionCount, strategy.getTrackedPositionCount());
+        assertEquals(positionStatusUpdateCount + 3, strategy.getPositionsStatusUpdateReceived().size());
     }
 
 }
@@ -0,0 +1,108 @@
+package tech.cassandre.trading.bot.test.util.accumulator;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.util.accumulator.EventAccumulator;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Util - Event accumulator")
+public class EventAccumulatorTest extends BaseTest {
+
+	@Test
+	@CaseId(105)
+	@DisplayName("Check batches delivered when full or after linger time")
+	public void checkEventAccumulator() {
+		final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+		final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		final EventAccumulator<Integer> accumulator = new EventAccumulator<>(3, 500, scheduler, batches::add);
+
+		// A full batch is delivered at once.
+		accumulator.add(1);
+		accumulator.add(2);
+		assertTrue(batches.isEmpty());
+		assertEquals(2, accumulator.getSize());
+		accumulator.add(3);
+		assertEquals(1, batches.size());
+		assertEquals(List.of(1, 2, 3), batches.get(0));
+		assertEquals(0, accumulator.getSize());
+
+		// An incomplete batch is delivered after the linger time.
+		accumulator.add(4);
+		accumulator.add(5);
+		await().until(() -> batches.size() == 2);
+		assertEquals(List.of(4, 5), batches.get(1));
+		assertEquals(0, accumulator.getSize());
+
+		// Flush delivers what's waiting.
+		accumulator.add(6);
+		accumulator.flush();
+		assertEquals(List.of(6), batches.get(2));
+		accumulator.flush();
+		assertEquals(3, batches.size());
+
+		// Once the scheduler is shut down, batches are only delivered when full or flushed.
+		scheduler.shutdownNow();
+		accumulator.add(7);
+		assertEquals(1, accumulator.getSize());
+		accumulator.flush();
+		assertEquals(List.of(7), batches.get(3));
+
+		// Invalid parameters.
+		assertThrows(IllegalArgumentException.class, () -> new EventAccumulator<Integer>(0, 500, scheduler, batches::add));
+		assertThrows(IllegalArgumentException.class, () -> new EventAccumulator<Integer>(3, 0, scheduler, batches::add));
+	}
+
+	@Test
+	@CaseId(116)
+	@DisplayName("Check events added while a batch is delivered")
+	public void checkEventsAddedDuringDelivery() throws InterruptedException {
+		final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+		final CountDownLatch deliveryStarted = new CountDownLatch(1);
+		final CountDownLatch deliveryAllowed = new CountDownLatch(1);
+		final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		final EventAccumulator<Integer> accumulator = new EventAccumulator<>(3, 60_000, scheduler, batch -> {
+			deliveryStarted.countDown();
+			try {
+				deliveryAllowed.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			batches.add(batch);
+		});
+
+		// A slow delivery on another thread.
+		accumulator.add(1);
+		final Thread delivery = new Thread(accumulator::flush);
+		delivery.start();
+		assertTrue(deliveryStarted.await(10, SECONDS));
+
+		// Events are added and a full batch is taken while the handler is still running.
+		accumulator.add(2);
+		accumulator.add(3);
+		accumulator.add(4);
+		assertEquals(0, accumulator.getSize());
+		assertTrue(batches.isEmpty());
+
+		// Batches are delivered one at a time, in order, by the delivering thread.
+		deliveryAllowed.countDown();
+		delivery.join();
+		assertEquals(2, batches.size());
+		assertEquals(List.of(1), batches.get(0));
+		assertEquals(List.of(2, 3, 4), batches.get(1));
+		scheduler.shutdownNow();
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Event accumulator tests.
+ */
+package tech.cassandre.trading.bot.test.util.accumulator;
@@ -0,0 +1,158 @@
+package tech.cassandre.trading.bot.test.util.bus;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.util.bus.BusEventType;
+import tech.cassandre.trading.bot.util.bus.EventBus;
+
+import java.math.BigDecimal;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.util.bus.BusEventType.ORDER;
+import static tech.cassandre.trading.bot.util.bus.BusEventType.TICKER;
+
+@DisplayName("Util - Event bus")
+public class EventBusTest extends BaseTest {
+
+	@Test
+	@CaseId(103)
+	@DisplayName("Check events delivered in order to all consumers")
+	public void checkEventBus() {
+		// Bus smaller than the number of events so the ring wraps and publishers wait for the slow consumer.
+		final int eventCount = 100;
+		final EventBus eventBus = new EventBus(8);
+		final List<Object> fastConsumerEvents = new CopyOnWriteArrayList<>();
+		final List<BusEventType> fastConsumerTypes = new CopyOnWriteArrayList<>();
+		final List<Long> fastConsumerSequences = new CopyOnWriteArrayList<>();
+		final List<Object> slowConsumerEvents = new CopyOnWriteArrayList<>();
+		eventBus.addConsumer("fast", (sequence, type, event) -> {
+			fastConsumerSequences.add(sequence);
+			fastConsumerTypes.add(type);
+			fastConsumerEvents.add(event);
+		});
+		eventBus.addConsumer("slow", (sequence, type, event) -> {
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			slowConsumerEvents.add(event);
+		});
+		eventBus.addConsumer("failing", (sequence, type, event) -> {
+			throw new IllegalStateException("Consumer error");
+		});
+		eventBus.start();
+		assertThrows(IllegalStateException.class, () -> eventBus.addConsumer("late", (sequence, type, event) -> {
+		}));
+
+		// Publishing tickers and orders.
+		final List<Object> events = new LinkedList<>();
+		for (int i = 0; i < eventCount; i++) {
+			if (i % 2 == 0) {
+				events.add(TickerDTO.builder().currencyPair(cp1).last(new BigDecimal(i)).build());
+			} else {
+				events.add(OrderDTO.builder().orderId("ORDER_" + i).currencyPair(cp1).build());
+			}
+		}
+		events.forEach(event -> assertTrue(eventBus.publish(event)));
+		assertFalse(eventBus.publish("Not an event"));
+		assertEquals(eventCount - 1, eventBus.getCursor());
+
+		// Closing the bus delivers the remaining events.
+		eventBus.close();
+		assertEquals(0, eventBus.getBacklog());
+		assertEquals(events, fastConsumerEvents);
+		assertEquals(events, slowConsumerEvents);
+		assertEquals(TICKER, fastConsumerTypes.get(0));
+		assertEquals(ORDER, fastConsumerTypes.get(1));
+
+		// Events of all types share the same global sequence.
+		for (int i = 0; i < eventCount; i++) {
+			assertEquals(i, fastConsumerSequences.get(i));
+		}
+	}
+
+	@Test
+	@CaseId(115)
+	@DisplayName("Check consumers publishing events while the ring is full")
+	public void checkConsumersPublishing() {
+		// Each ticker read by the first consumer makes it publish an order, as the position service does.
+		final int tickerCount = 50;
+		final EventBus eventBus = new EventBus(4);
+		final List<Object> slowConsumerEvents = new CopyOnWriteArrayList<>();
+		eventBus.addConsumer("publishing", (sequence, type, event) -> {
+			if (type == TICKER) {
+				assertTrue(eventBus.publish(OrderDTO.builder()
+						.orderId("ORDER_" + ((TickerDTO) event).getLast())
+						.currencyPair(cp1)
+						.build()));
+			}
+		});
+		eventBus.addConsumer("slow", (sequence, type, event) -> {
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			slowConsumerEvents.add(event);
+		});
+		eventBus.start();
+
+		// The consumer never waits for the slots it has not read yet, so all events are delivered.
+		for (int i = 0; i < tickerCount; i++) {
+			assertTrue(eventBus.publish(TickerDTO.builder().currencyPair(cp1).last(new BigDecimal(i)).build()));
+		}
+		await().untilAsserted(() -> assertEquals(tickerCount * 2, slowConsumerEvents.size()));
+		eventBus.close();
+		assertEquals(tickerCount * 2 - 1, eventBus.getCursor());
+		assertEquals(0, eventBus.getBacklog());
+
+		// Each order is received after the ticker that created it.
+		for (int i = 0; i < tickerCount; i++) {
+			final String orderId = "ORDER_" + i;
+			final int orderIndex = indexOf(slowConsumerEvents, event -> event instanceof OrderDTO && ((OrderDTO) event).getOrderId().equals(orderId));
+			final BigDecimal last = new BigDecimal(i);
+			final int tickerIndex = indexOf(slowConsumerEvents, event -> event instanceof TickerDTO && ((TickerDTO) event).getLast().equals(last));
+			assertTrue(tickerIndex >= 0);
+			assertTrue(tickerIndex < orderIndex);
+		}
+	}
+
+	@Test
+	@CaseId(104)
+	@DisplayName("Check event bus size")
+	public void checkEventBusSize() {
+		assertThrows(IllegalArgumentException.class, () -> new EventBus(0));
+		assertThrows(IllegalArgumentException.class, () -> new EventBus(100));
+		new EventBus(EventBus.DEFAULT_SIZE).close();
+	}
+
+	/**
+	 * Returns the index of the first event matching a condition.
+	 *
+	 * @param events    events
+	 * @param condition condition
+	 * @return index (-1 if not found)
+	 */
+	private int indexOf(final List<Object> events, final Predicate<Object> condition) {
+		for (int i = 0; i < events.size(); i++) {
+			if (condition.test(events.get(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Event bus tests.
+ */
+package tech.cassandre.trading.bot.test.util.bus;
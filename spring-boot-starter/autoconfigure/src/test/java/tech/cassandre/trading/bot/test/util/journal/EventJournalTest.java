@@ -0,0 +1,120 @@
+package tech.cassandre.trading.bot.test.util.journal;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.util.journal.EventJournal;
+import tech.cassandre.trading.bot.util.journal.EventJournalReader;
+import tech.cassandre.trading.bot.util.journal.JournalEvent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+import static tech.cassandre.trading.bot.util.journal.JournalEventType.ACCOUNT;
+import static tech.cassandre.trading.bot.util.journal.JournalEventType.ORDER;
+import static tech.cassandre.trading.bot.util.journal.JournalEventType.POSITION;
+import static tech.cassandre.trading.bot.util.journal.JournalEventType.TICKER;
+import static tech.cassandre.trading.bot.util.journal.JournalEventType.TRADE;
+
+@DisplayName("Util - Event journal")
+public class EventJournalTest extends BaseTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	@CaseId(101)
+	@DisplayName("Check events written and read")
+	public void checkEventJournal() throws IOException {
+		// Events.
+		final TickerDTO ticker = TickerDTO.builder()
+				.currencyPair(cp1)
+				.last(new BigDecimal("0.031"))
+				.bid(new BigDecimal("0.030"))
+				.bidSize(new BigDecimal("12.5"))
+				.timestamp(ZonedDateTime.now())
+				.build();
+		final AccountDTO account = AccountDTO.builder()
+				.accountId("trade")
+				.name("trade")
+				.balance(BTC, BalanceDTO.builder().currency(BTC).total(new BigDecimal("1.5")).available(BigDecimal.ONE).build())
+				.balance(ETH, BalanceDTO.builder().currency(ETH).total(BigDecimal.TEN).build())
+				.build();
+		final TradeDTO trade = TradeDTO.builder()
+				.tradeId("T1")
+				.type(BID)
+				.orderId("O1")
+				.currencyPair(cp1)
+				.amount(new CurrencyAmountDTO(BigDecimal.ONE, ETH))
+				.price(new CurrencyAmountDTO(new BigDecimal("0.031"), BTC))
+				.timestamp(ZonedDateTime.now())
+				.build();
+		final OrderDTO order = getPendingOrder(strategyDTO, "O1", BID, BigDecimal.ONE, cp1);
+		final PositionDTO position = new PositionDTO(1, strategyDTO, cp1, BigDecimal.ONE, "O1", PositionRulesDTO.builder().stopGainPercentage(10f).build());
+
+		// Write and read.
+		EventJournal journal = new EventJournal(directory);
+		assertTrue(journal.append(ticker));
+		assertTrue(journal.append(account));
+		assertTrue(journal.append(order));
+		assertTrue(journal.append(trade));
+		assertTrue(journal.append(position));
+		assertFalse(journal.append("Not an event"));
+		assertEquals(5, journal.getEventCount());
+		journal.close();
+		assertFalse(journal.append(ticker));
+
+		List<JournalEvent> events = new EventJournalReader(directory).readAll();
+		assertEquals(5, events.size());
+		assertEquals(TICKER, events.get(0).getType());
+		assertEquals(ticker, events.get(0).getValue());
+		assertEquals(new BigDecimal("12.5"), events.get(0).getValue(TickerDTO.class).getBidSize());
+		assertEquals(ACCOUNT, events.get(1).getType());
+		assertEquals(account, events.get(1).getValue());
+		assertEquals(0, new BigDecimal("1.5").compareTo(events.get(1).getValue(AccountDTO.class).getBalance(BTC).get().getTotal()));
+		assertEquals(ORDER, events.get(2).getType());
+		assertEquals(order, events.get(2).getValue());
+		assertEquals("01", events.get(2).getValue(OrderDTO.class).getStrategy().getStrategyId());
+		assertEquals(TRADE, events.get(3).getType());
+		assertEquals(trade, events.get(3).getValue());
+		assertEquals(POSITION, events.get(4).getType());
+		assertEquals(position, events.get(4).getValue());
+		assertEquals(10f, events.get(4).getValue(PositionDTO.class).getRules().getStopGainPercentage());
+
+		// Small segments - the journal rolls to new segments and a reopened journal never modifies existing ones.
+		journal = new EventJournal(directory, 256);
+		for (int i = 0; i < 10; i++) {
+			assertTrue(journal.append(trade));
+		}
+		journal.close();
+		try (Stream<Path> files = Files.list(directory)) {
+			assertTrue(files.count() > 2);
+		}
+		events = new EventJournalReader(directory).readAll();
+		assertEquals(15, events.size());
+		assertEquals(ticker, events.get(0).getValue());
+		assertEquals(trade, events.get(14).getValue());
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Event journal tests.
+ */
+package tech.cassandre.trading.bot.test.util.journal;
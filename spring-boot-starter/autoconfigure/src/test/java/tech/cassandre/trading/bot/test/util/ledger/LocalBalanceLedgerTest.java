@@ -0,0 +1,219 @@
+package tech.cassandre.trading.bot.test.util.ledger;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.util.ledger.LocalBalanceLedger;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+
+@DisplayName("Util - Local balance ledger")
+public class LocalBalanceLedgerTest extends BaseTest {
+
+	@Test
+	@CaseId(98)
+	@DisplayName("Check reservations, trades and reconciliation")
+	public void checkLedger() {
+		LocalBalanceLedger ledger = new LocalBalanceLedger();
+		assertFalse(ledger.isInitialized());
+
+		// First account update: 1 BTC and 10 ETH.
+		ledger.reconcile(getAccount(new BigDecimal("1"), new BigDecimal("10")));
+		assertTrue(ledger.isInitialized());
+		assertEquals(0, new BigDecimal("1").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+		assertTrue(ledger.getDrifts().isEmpty());
+
+		// Buying 2 ETH at 0.1 BTC reserves 0.2 BTC.
+		OrderDTO order = OrderDTO.builder()
+				.orderId("ORDER_1")
+				.type(BID)
+				.currencyPair(cp1)
+				.amount(new CurrencyAmountDTO("2", ETH))
+				.build();
+		ledger.reserve(order, new BigDecimal("0.1"));
+		assertEquals(1, ledger.getReservationCount());
+		assertEquals(0, new BigDecimal("0.8").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+		assertTrue(ledger.isAvailable(BTC, new BigDecimal("0.8")));
+		assertFalse(ledger.isAvailable(BTC, new BigDecimal("0.81")));
+
+		// 1 ETH is bought at 0.09 BTC with a 0.001 BTC fee - the same trade received twice is applied once.
+		TradeDTO trade = TradeDTO.builder()
+				.tradeId("TRADE_1")
+				.orderId("ORDER_1")
+				.type(BID)
+				.currencyPair(cp1)
+				.amount(new CurrencyAmountDTO("1", ETH))
+				.price(new CurrencyAmountDTO("0.09", BTC))
+				.fee(new CurrencyAmountDTO("0.001", BTC))
+				.build();
+		ledger.applyTrade(trade);
+		ledger.applyTrade(trade);
+		assertEquals(0, new BigDecimal("11").compareTo(ledger.getAvailable(ETH).orElseThrow()));
+		assertEquals(0, new BigDecimal("0.799").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+
+		// The order is canceled, 0.11 BTC are released.
+		ledger.release("ORDER_1");
+		assertEquals(0, ledger.getReservationCount());
+		assertEquals(0, new BigDecimal("0.909").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+
+		// The exchange says we have 0.9 BTC - local balances are replaced and the drift is kept.
+		ledger.reconcile(getAccount(new BigDecimal("0.9"), new BigDecimal("11")));
+		assertEquals(0, new BigDecimal("0.9").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+		assertEquals(1, ledger.getDrifts().size());
+		assertEquals(0, new BigDecimal("0.009").compareTo(ledger.getDrifts().get(BTC)));
+	}
+
+	@Test
+	@CaseId(110)
+	@DisplayName("Check reservations made before orders are sent")
+	public void checkPendingReservations() {
+		LocalBalanceLedger ledger = new LocalBalanceLedger();
+		ledger.reconcile(getAccount(new BigDecimal("1"), new BigDecimal("10")));
+
+		// Two orders are being sent - their funds are reserved before the exchange replies.
+		String reservation1 = ledger.reservePending(BID, cp1, new BigDecimal("5"), new BigDecimal("0.1"));
+		String reservation2 = ledger.reservePending(ASK, cp1, new BigDecimal("4"), null);
+		assertNotNull(reservation1);
+		assertNotNull(reservation2);
+		assertEquals(2, ledger.getReservationCount());
+		assertEquals(0, new BigDecimal("0.5").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+		assertEquals(0, new BigDecimal("6").compareTo(ledger.getAvailable(ETH).orElseThrow()));
+		assertFalse(ledger.isAvailable(BTC, new BigDecimal("0.6")));
+
+		// A buy order without price can't be reserved.
+		assertNull(ledger.reservePending(BID, cp1, new BigDecimal("1"), null));
+
+		// The first order is created - its reservation now follows the order id.
+		ledger.confirm(reservation1, "ORDER_1");
+		ledger.release(reservation1);
+		assertEquals(0, new BigDecimal("0.5").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+		ledger.release("ORDER_1");
+		assertEquals(0, new BigDecimal("1").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+
+		// The second order failed - its funds are released.
+		ledger.release(reservation2);
+		assertEquals(0, ledger.getReservationCount());
+		assertEquals(0, new BigDecimal("10").compareTo(ledger.getAvailable(ETH).orElseThrow()));
+	}
+
+	@Test
+	@CaseId(113)
+	@DisplayName("Check reconciliation with outstanding reservations")
+	public void checkReconciliationWithReservations() {
+		LocalBalanceLedger ledger = new LocalBalanceLedger();
+		ledger.reconcile(getAccount(new BigDecimal("1"), new BigDecimal("10")));
+
+		// An order is created (0.2 BTC reserved) and another one is being sent (4 ETH reserved).
+		ledger.reserve(OrderDTO.builder()
+				.orderId("ORDER_1")
+				.type(BID)
+				.currencyPair(cp1)
+				.amount(new CurrencyAmountDTO("2", ETH))
+				.build(), new BigDecimal("0.1"));
+		String reservation2 = ledger.reservePending(ASK, cp1, new BigDecimal("4"), null);
+		assertEquals(0, new BigDecimal("0.8").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+		assertEquals(0, new BigDecimal("6").compareTo(ledger.getAvailable(ETH).orElseThrow()));
+
+		// 1 ETH is bought at 0.1 BTC by the first order before the account update.
+		TradeDTO trade1 = TradeDTO.builder()
+				.tradeId("TRADE_1")
+				.orderId("ORDER_1")
+				.type(BID)
+				.currencyPair(cp1)
+				.amount(new CurrencyAmountDTO("1", ETH))
+				.price(new CurrencyAmountDTO("0.1", BTC))
+				.timestamp(ZonedDateTime.now())
+				.build();
+		ledger.applyTrade(trade1);
+		assertEquals(0, new BigDecimal("0.8").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+		assertEquals(0, new BigDecimal("7").compareTo(ledger.getAvailable(ETH).orElseThrow()));
+
+		// The exchange froze the funds of the first order but doesn't know the second one yet - no drift.
+		ledger.reconcile(getAccount(new BigDecimal("0.8"), new BigDecimal("11")));
+		assertEquals(0, new BigDecimal("0.8").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+		assertEquals(0, new BigDecimal("7").compareTo(ledger.getAvailable(ETH).orElseThrow()));
+		assertTrue(ledger.getDrifts().isEmpty());
+
+		// The trade applied before the account update is already in it - receiving it again doesn't change balances.
+		ledger.applyTrade(trade1);
+		assertEquals(0, new BigDecimal("0.8").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+		assertEquals(0, new BigDecimal("7").compareTo(ledger.getAvailable(ETH).orElseThrow()));
+
+		// A trade received after the account update is applied, even if the exchange clock dates it before.
+		ledger.applyTrade(TradeDTO.builder()
+				.tradeId("TRADE_2")
+				.orderId("ORDER_1")
+				.type(BID)
+				.currencyPair(cp1)
+				.amount(new CurrencyAmountDTO("1", ETH))
+				.price(new CurrencyAmountDTO("0.1", BTC))
+				.timestamp(ZonedDateTime.now().minusMinutes(1))
+				.build());
+		assertEquals(0, new BigDecimal("0.8").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+		assertEquals(0, new BigDecimal("8").compareTo(ledger.getAvailable(ETH).orElseThrow()));
+
+		// The first order is over - its funds were frozen by the exchange and spent.
+		ledger.release("ORDER_1");
+		assertEquals(0, new BigDecimal("0.8").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+
+		// The second order failed - its funds are released.
+		ledger.release(reservation2);
+		assertEquals(0, ledger.getReservationCount());
+		assertEquals(0, new BigDecimal("12").compareTo(ledger.getAvailable(ETH).orElseThrow()));
+
+		// Orders and trades after the account update are applied.
+		ledger.reserve(OrderDTO.builder()
+				.orderId("ORDER_3")
+				.type(BID)
+				.currencyPair(cp1)
+				.amount(new CurrencyAmountDTO("1", ETH))
+				.build(), new BigDecimal("0.1"));
+		ledger.applyTrade(TradeDTO.builder()
+				.tradeId("TRADE_3")
+				.orderId("ORDER_3")
+				.type(BID)
+				.currencyPair(cp1)
+				.amount(new CurrencyAmountDTO("1", ETH))
+				.price(new CurrencyAmountDTO("0.1", BTC))
+				.timestamp(ZonedDateTime.now().plusMinutes(1))
+				.build());
+		ledger.release("ORDER_3");
+		assertEquals(0, new BigDecimal("0.7").compareTo(ledger.getAvailable(BTC).orElseThrow()));
+		assertEquals(0, new BigDecimal("13").compareTo(ledger.getAvailable(ETH).orElseThrow()));
+	}
+
+	/**
+	 * Returns an account with BTC and ETH balances.
+	 *
+	 * @param btc BTC available
+	 * @param eth ETH available
+	 * @return account
+	 */
+	private AccountDTO getAccount(final BigDecimal btc, final BigDecimal eth) {
+		Map<CurrencyDTO, BalanceDTO> balances = new HashMap<>();
+		balances.put(BTC, BalanceDTO.builder().currency(BTC).available(btc).build());
+		balances.put(ETH, BalanceDTO.builder().currency(ETH).available(eth).build());
+		return AccountDTO.builder().accountId("trade").name("trade").balances(balances).build();
+	}
+
+}
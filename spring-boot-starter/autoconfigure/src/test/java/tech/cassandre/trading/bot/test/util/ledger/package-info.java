@@ -0,0 +1,4 @@
+/**
+ * Local balance ledger tests.
+ */
+package tech.cassandre.trading.bot.test.util.ledger;
@@ -0,0 +1,53 @@
+package tech.cassandre.trading.bot.test.util.limiter;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.util.limiter.AdaptiveRateController;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Util - Adaptive rate controller")
+public class AdaptiveRateControllerTest extends BaseTest {
+
+	@Test
+	@CaseId(95)
+	@DisplayName("Check rate decrease and increase")
+	public void checkAdditiveIncreaseMultiplicativeDecrease() throws InterruptedException {
+		// Maximum rate of 10 requests per second and no cooldown.
+		AdaptiveRateController controller = new AdaptiveRateController(10, Duration.ZERO);
+		assertTrue(Double.isInfinite(controller.getCurrentRate()));
+		controller.pace(true);
+		controller.pace(true);
+
+		// Errors not related to the exchange load don't change anything.
+		controller.reportFailure(new IOException("Connection reset"));
+		assertTrue(Double.isInfinite(controller.getCurrentRate()));
+		controller.reportSuccess();
+		assertTrue(Double.isInfinite(controller.getCurrentRate()));
+
+		// Low quota - rate divided by two starting from the maximum rate.
+		controller.reportQuota(5, 100);
+		assertEquals(5, controller.getCurrentRate(), 0.001);
+		controller.reportQuota(0, 100);
+		assertEquals(2.5, controller.getCurrentRate(), 0.001);
+
+		// Enough quota - nothing changes.
+		controller.reportQuota(50, 100);
+		assertEquals(2.5, controller.getCurrentRate(), 0.001);
+
+		// Successful requests - rate increased by 5% of the original rate until requests are no longer paced.
+		controller.reportSuccess();
+		assertEquals(3, controller.getCurrentRate(), 0.001);
+		for (int i = 0; i < 20; i++) {
+			controller.reportSuccess();
+		}
+		assertTrue(Double.isInfinite(controller.getCurrentRate()));
+	}
+
+}
@@ -0,0 +1,71 @@
+package tech.cassandre.trading.bot.test.util.limiter;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.util.limiter.ExchangeRateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.util.limiter.RequestPriority.HISTORY;
+import static tech.cassandre.trading.bot.util.limiter.RequestPriority.ORDER;
+import static tech.cassandre.trading.bot.util.limiter.RequestPriority.ORDER_STATUS;
+import static tech.cassandre.trading.bot.util.limiter.RequestPriority.TICKER;
+
+@DisplayName("Util - Exchange rate limiter")
+public class ExchangeRateLimiterTest extends BaseTest {
+
+	@Test
+	@CaseId(93)
+	@DisplayName("Check priorities")
+	public void checkPriorities() throws InterruptedException {
+		// 10 requests per hour.
+		ExchangeRateLimiter rateLimiter = new ExchangeRateLimiter(10, Duration.ofHours(1));
+		assertTrue(rateLimiter.isEnabled());
+		assertEquals(10, rateLimiter.getAvailableTokens());
+
+		// History requests must leave 3 tokens to others.
+		for (int i = 0; i < 7; i++) {
+			rateLimiter.acquire(HISTORY);
+		}
+		assertEquals(3, rateLimiter.getAvailableTokens());
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<?> historyRequest = executor.submit(() -> {
+			rateLimiter.acquire(HISTORY);
+			return null;
+		});
+		TimeUnit.SECONDS.sleep(1);
+		assertFalse(historyRequest.isDone());
+		historyRequest.cancel(true);
+		executor.shutdownNow();
+
+		// Tickers must leave 2 tokens, order status 1 token and orders can use everything.
+		rateLimiter.acquire(TICKER);
+		assertEquals(2, rateLimiter.getAvailableTokens());
+		rateLimiter.acquire(ORDER_STATUS);
+		assertEquals(1, rateLimiter.getAvailableTokens());
+		rateLimiter.acquire(ORDER);
+		assertEquals(0, rateLimiter.getAvailableTokens());
+	}
+
+	@Test
+	@CaseId(94)
+	@DisplayName("Check limiter without limit")
+	public void checkWithoutLimit() throws InterruptedException {
+		ExchangeRateLimiter rateLimiter = new ExchangeRateLimiter();
+		assertFalse(rateLimiter.isEnabled());
+		for (int i = 0; i < 1000; i++) {
+			rateLimiter.acquire(HISTORY);
+		}
+		assertEquals(Long.MAX_VALUE, rateLimiter.getAvailableTokens());
+	}
+
+}
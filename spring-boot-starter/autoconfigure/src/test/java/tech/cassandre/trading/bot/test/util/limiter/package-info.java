@@ -0,0 +1,4 @@
+/**
+ * Rate limiter tests.
+ */
+package tech.cassandre.trading.bot.test.util.limiter;
\ No newline at end of file
@@ -0,0 +1,62 @@
+package tech.cassandre.trading.bot.test.util.pair;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.util.pair.CurrencyPairTable;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Util - Currency pair table")
+public class CurrencyPairTableTest extends BaseTest {
+
+	@Test
+	@CaseId(100)
+	@DisplayName("Check values, counters and map view")
+	public void checkCurrencyPairTable() {
+		CurrencyPairTable<String> table = new CurrencyPairTable<>();
+		assertNull(table.get(cp1));
+		assertEquals(0, table.size());
+
+		// Values and counters.
+		assertNull(table.put(cp1, "value1"));
+		assertEquals("value1", table.put(new CurrencyPairDTO("ETH/BTC"), "value2"));
+		assertEquals("value2", table.get(cp1));
+		assertEquals(1, table.size());
+		assertEquals(1, table.incrementCounter(cp1));
+		assertEquals(2, table.incrementCounter(cp1));
+		assertEquals(0, table.getCounter(cp2));
+
+		// The table grows when new currency pairs are created.
+		CurrencyPairDTO lastCurrencyPair = null;
+		for (int i = 0; i < 200; i++) {
+			lastCurrencyPair = CurrencyPairDTO.getInstance("TABLE" + i, "BTC");
+		}
+		table.put(lastCurrencyPair, "value3");
+		assertEquals("value3", table.get(lastCurrencyPair));
+		assertEquals("value2", table.get(cp1));
+		assertEquals(2, table.getCounter(cp1));
+
+		// Map view.
+		Map<CurrencyPairDTO, String> map = table.asMap();
+		assertEquals(2, map.size());
+		assertTrue(map.containsKey(cp1));
+		assertFalse(map.containsKey(cp2));
+		map.put(cp2, "value4");
+		assertEquals("value4", table.get(cp2));
+		assertEquals(3, map.entrySet().size());
+		assertEquals("value4", map.remove(cp2));
+		assertEquals(2, table.size());
+		map.clear();
+		assertEquals(0, table.size());
+		assertNull(table.get(cp1));
+	}
+
+}
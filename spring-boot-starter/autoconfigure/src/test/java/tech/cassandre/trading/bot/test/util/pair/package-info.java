@@ -0,0 +1,4 @@
+/**
+ * Per currency pair state tests.
+ */
+package tech.cassandre.trading.bot.test.util.pair;
@@ -0,0 +1,48 @@
+package tech.cassandre.trading.bot.test.util.polling;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.util.polling.TradePollingPolicy;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Util - Trade polling policy")
+public class TradePollingPolicyTest extends BaseTest {
+
+	@Test
+	@CaseId(96)
+	@DisplayName("Check hot and cold modes")
+	public void checkHotAndColdModes() throws InterruptedException {
+		// Default policy is always hot.
+		TradePollingPolicy alwaysHot = new TradePollingPolicy();
+		assertTrue(alwaysHot.isHot());
+		assertTrue(alwaysHot.shouldPoll());
+		assertTrue(alwaysHot.shouldPoll());
+
+		// Policy with 1 second between cold polls and 500 ms of hot mode after an activity.
+		TradePollingPolicy policy = new TradePollingPolicy(Duration.ofSeconds(1), Duration.ofMillis(500));
+		assertTrue(policy.isHot());
+		TimeUnit.MILLISECONDS.sleep(600);
+
+		// Cold mode - only one poll per second.
+		assertFalse(policy.isHot());
+		assertTrue(policy.shouldPoll());
+		assertFalse(policy.shouldPoll());
+		TimeUnit.MILLISECONDS.sleep(1100);
+		assertTrue(policy.shouldPoll());
+		assertFalse(policy.shouldPoll());
+
+		// An order is created - hot mode.
+		policy.markActive();
+		assertTrue(policy.isHot());
+		assertTrue(policy.shouldPoll());
+		assertTrue(policy.shouldPoll());
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Polling policy tests.
+ */
+package tech.cassandre.trading.bot.test.util.polling;
@@ -0,0 +1,190 @@
+package tech.cassandre.trading.bot.test.util.replay;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.service.PositionService;
+import tech.cassandre.trading.bot.strategy.BasicCassandreStrategy;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.util.journal.JournalEvent;
+import tech.cassandre.trading.bot.util.replay.ReplayReport;
+import tech.cassandre.trading.bot.util.replay.ReplayRunner;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.NEW;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+import static tech.cassandre.trading.bot.util.journal.JournalEventType.ORDER;
+import static tech.cassandre.trading.bot.util.journal.JournalEventType.TICKER;
+import static tech.cassandre.trading.bot.util.journal.JournalEventType.TRADE;
+
+@DisplayName("Util - Replay runner")
+public class ReplayRunnerTest extends BaseTest {
+
+	@Test
+	@CaseId(102)
+	@DisplayName("Check replay of a recorded session")
+	public void checkReplay() {
+		// Recorded session : the strategy bought when price went over 0.03, then sold and an order was created outside the strategy.
+		final long start = System.currentTimeMillis();
+		final List<JournalEvent> events = new LinkedList<>();
+		events.add(new JournalEvent(TICKER, start, TickerDTO.builder().currencyPair(cp1).last(new BigDecimal("0.02")).build()));
+		events.add(new JournalEvent(TICKER, start + 1000, TickerDTO.builder().currencyPair(cp1).last(new BigDecimal("0.04")).build()));
+		events.add(new JournalEvent(ORDER, start + 1100, getOrder("O1", BID, true)));
+		events.add(new JournalEvent(TRADE, start + 1200, TradeDTO.builder()
+				.tradeId("T1")
+				.type(BID)
+				.orderId("O1")
+				.currencyPair(cp1)
+				.amount(new CurrencyAmountDTO(BigDecimal.ONE, ETH))
+				.price(new CurrencyAmountDTO(new BigDecimal("0.04"), BTC))
+				.build()));
+		events.add(new JournalEvent(ORDER, start + 1300, getOrder("O2", ASK, true)));
+		events.add(new JournalEvent(ORDER, start + 1400, getOrder("X1", ASK, false)));
+
+		// Replay.
+		final ReplayRunner runner = new ReplayRunner(events, ReplayRunner.MAXIMUM_SPEED);
+		final ReplayStrategy strategy = new ReplayStrategy();
+		strategy.setStrategyDTO(strategyDTO);
+		final PositionService positionService = mock(PositionService.class);
+		final ReplayReport report = runner.run(strategy, positionService);
+
+		// The buy order was created again and got the recorded order id, the sell order was not.
+		assertEquals(6, report.getEventCount());
+		assertEquals(5, report.getReplayedEventCount());
+		assertEquals(1, report.getProducedOrders().size());
+		assertEquals("O1", report.getProducedOrders().get(0).getOrderId());
+		assertEquals(1, report.getMatchedOrderCount());
+		assertEquals(1, report.getMissingOrders().size());
+		assertEquals("O2", report.getMissingOrders().get(0).getOrderId());
+		assertEquals(0, report.getUnexpectedOrders().size());
+		assertFalse(report.isIdentical());
+		assertEquals(start + 1400, runner.getClock().millis());
+		// The buy order was created 100 ms earlier than when it was recorded.
+		assertEquals(Duration.ofMillis(-100), report.getTimingDifferences().get("O1"));
+		assertEquals(Duration.ofMillis(100), report.getMaximumTimingDifference());
+
+		// Updates received.
+		assertEquals(2, strategy.orderUpdates);
+		assertEquals(1, strategy.tradeUpdates);
+		verify(positionService, times(2)).tickerUpdate(any());
+		verify(positionService, times(2)).orderUpdate(any());
+		verify(positionService, times(1)).tradeUpdate(any());
+	}
+
+	@Test
+	@CaseId(119)
+	@DisplayName("Check replay orders are matched with a time tolerance")
+	public void checkReplayTimeTolerance() {
+		// Recorded session : the strategy bought 5 seconds after the price went over 0.03.
+		final long start = System.currentTimeMillis();
+		final List<JournalEvent> events = new LinkedList<>();
+		events.add(new JournalEvent(TICKER, start, TickerDTO.builder().currencyPair(cp1).last(new BigDecimal("0.04")).build()));
+		events.add(new JournalEvent(ORDER, start + 5000, getOrder("O1", BID, true)));
+
+		// With a one second tolerance, the order created during the replay is not the recorded one.
+		ReplayRunner runner = new ReplayRunner(events, ReplayRunner.MAXIMUM_SPEED, Duration.ofSeconds(1));
+		ReplayStrategy strategy = new ReplayStrategy();
+		strategy.setStrategyDTO(strategyDTO);
+		ReplayReport report = runner.run(strategy, mock(PositionService.class));
+		assertEquals(0, report.getMatchedOrderCount());
+		assertEquals(1, report.getUnexpectedOrders().size());
+		assertEquals(1, report.getMissingOrders().size());
+		assertTrue(report.getTimingDifferences().isEmpty());
+		assertEquals(0, strategy.orderUpdates);
+
+		// With the default tolerance, it's matched and the difference is reported.
+		runner = new ReplayRunner(events, ReplayRunner.MAXIMUM_SPEED);
+		strategy = new ReplayStrategy();
+		strategy.setStrategyDTO(strategyDTO);
+		report = runner.run(strategy, mock(PositionService.class));
+		assertEquals(1, report.getMatchedOrderCount());
+		assertTrue(report.isIdentical());
+		assertEquals(Duration.ofSeconds(-5), report.getTimingDifferences().get("O1"));
+		assertEquals(1, strategy.orderUpdates);
+	}
+
+	/**
+	 * Returns a recorded order.
+	 *
+	 * @param orderId        order id
+	 * @param type           type
+	 * @param createdLocally true if created by the strategy
+	 * @return order
+	 */
+	private OrderDTO getOrder(final String orderId, final OrderTypeDTO type, final boolean createdLocally) {
+		final OrderDTO.OrderDTOBuilder builder = OrderDTO.builder()
+				.orderId(orderId)
+				.type(type)
+				.currencyPair(cp1)
+				.amount(new CurrencyAmountDTO(BigDecimal.ONE, ETH))
+				.status(NEW);
+		if (createdLocally) {
+			builder.strategy(strategyDTO);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Strategy buying once when the price goes over 0.03.
+	 */
+	private static final class ReplayStrategy extends BasicCassandreStrategy {
+
+		/** Number of order updates received. */
+		private int orderUpdates;
+
+		/** Number of trade updates received. */
+		private int tradeUpdates;
+
+		@Override
+		public Set<CurrencyPairDTO> getRequestedCurrencyPairs() {
+			return Set.of(new CurrencyPairDTO(ETH, BTC));
+		}
+
+		@Override
+		public Optional<AccountDTO> getTradeAccount(final Set<AccountDTO> accounts) {
+			return accounts.stream().findFirst();
+		}
+
+		@Override
+		public void onTickerUpdate(final TickerDTO ticker) {
+			if (ticker.getLast().compareTo(new BigDecimal("0.03")) > 0) {
+				createBuyMarketOrder(ticker.getCurrencyPair(), BigDecimal.ONE);
+			}
+		}
+
+		@Override
+		public void onOrderUpdate(final OrderDTO order) {
+			orderUpdates++;
+		}
+
+		@Override
+		public void onTradeUpdate(final TradeDTO trade) {
+			tradeUpdates++;
+		}
+
+	}
+
+}
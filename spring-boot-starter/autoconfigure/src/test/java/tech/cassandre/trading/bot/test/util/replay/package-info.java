@@ -0,0 +1,4 @@
+/**
+ * Replay tests.
+ */
+package tech.cassandre.trading.bot.test.util.replay;
@@ -8,6 +8,7 @@ import tech.cassandre.trading.bot.dto.position.PositionDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderDTO;
 import tech.cassandre.trading.bot.dto.trade.TradeDTO;
 import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceUpdateDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 import tech.cassandre.trading.bot.strategy.BasicCassandreStrategy;
 import tech.cassandre.trading.bot.strategy.CassandreStrategy;
@@ -48,6 +49,9 @@ public class TestableCassandreStrategy extends BasicCassandreStrategy {
     /** Accounts update received. */
     private final List<AccountDTO> accountsUpdateReceived = new LinkedList<>();
 
+    /** Balances update received. */
+    private final List<BalanceUpdateDTO> balancesUpdateReceived = new LinkedList<>();
+
     /** Tickers update received. */
     private final List<TickerDTO> tickersUpdateReceived = new LinkedList<>();
 
@@ -94,6 +98,12 @@ public class TestableCassandreStrategy extends BasicCassandreStrategy {
         }
     }
 
+    @Override
+    public final void onBalanceUpdate(final BalanceUpdateDTO balanceUpdate) {
+        balancesUpdateReceived.add(balanceUpdate);
+        logger.info("TestableStrategy-onBalanceUpdate " + getCount(balancesUpdateReceived) + " : " + balanceUpdate);
+    }
+
     @Override
     public final void onTickerUpdate(final TickerDTO ticker) {
         tickersUpdateReceived.add(ticker);
@@ -169,6 +179,15 @@ public class TestableCassandreStrategy extends BasicCassandreStrategy {
         return accountsUpdateReceived;
     }
 
+    /**
+     * Getter balancesUpdateReceived.
+     *
+     * @return balancesUpdateReceived
+     */
+    public final List<BalanceUpdateDTO> getBalancesUpdateReceived() {
+        return balancesUpdateReceived;
+    }
+
     /**
      * Getter lastTickersReceived.
      *
@@ -0,0 +1,110 @@
+package tech.cassandre.trading.bot.test.util.ticker;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.strategy.BasicCassandreStrategy;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.util.ticker.TickerDeliveryPolicy;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Util - Ticker delivery policy")
+public class TickerDeliveryPolicyTest extends BaseTest {
+
+	@Test
+	@CaseId(106)
+	@DisplayName("Check tickers delivered according to the policy")
+	public void checkTickerDeliveryPolicy() {
+		// No policy - every ticker is delivered.
+		final TickerDeliveryPolicy everyTicker = new TickerDeliveryPolicy(0, 0);
+		assertTrue(everyTicker.isDeliveringEveryTicker());
+		assertTrue(everyTicker.test(getTicker(cp1, "100")));
+		assertTrue(everyTicker.test(getTicker(cp1, "100")));
+
+		// Minimum interval - only the first ticker of each currency pair is delivered during the interval.
+		final TickerDeliveryPolicy interval = new TickerDeliveryPolicy(60_000, 0);
+		assertFalse(interval.isDeliveringEveryTicker());
+		assertTrue(interval.test(getTicker(cp1, "100")));
+		assertFalse(interval.test(getTicker(cp1, "200")));
+		assertTrue(interval.test(getTicker(cp2, "100")));
+		assertFalse(interval.test(getTicker(cp2, "100")));
+
+		// Minimum price change of 50 bps (0.5%) from the last ticker delivered.
+		final TickerDeliveryPolicy priceChange = new TickerDeliveryPolicy(0, 50);
+		assertTrue(priceChange.test(getTicker(cp1, "100")));
+		assertFalse(priceChange.test(getTicker(cp1, "100.4")));
+		assertFalse(priceChange.test(getTicker(cp1, "99.6")));
+		assertTrue(priceChange.test(getTicker(cp1, "100.5")));
+		assertFalse(priceChange.test(getTicker(cp1, "100.6")));
+		assertTrue(priceChange.test(getTicker(cp1, "99.9")));
+
+		// Invalid parameters.
+		assertThrows(IllegalArgumentException.class, () -> new TickerDeliveryPolicy(-1, 0));
+		assertThrows(IllegalArgumentException.class, () -> new TickerDeliveryPolicy(0, -1));
+	}
+
+	@Test
+	@CaseId(120)
+	@DisplayName("Check tickers not delivered still update the strategy last tickers")
+	public void checkLastTickersWithPolicy() {
+		final DeliveryStrategy strategy = new DeliveryStrategy();
+		strategy.setTickerDeliveryPolicy(new TickerDeliveryPolicy(60_000, 0));
+
+		// Only the first ticker is delivered, but the last ticker is the last one received.
+		strategy.tickerUpdate(getTicker(cp1, "100"));
+		strategy.tickerUpdate(getTicker(cp1, "200"));
+		assertEquals(1, strategy.tickersReceived.size());
+		assertEquals(0, new BigDecimal("100").compareTo(strategy.tickersReceived.get(0).getLast()));
+		assertEquals(0, new BigDecimal("200").compareTo(strategy.getLastTickers().get(cp1).getLast()));
+	}
+
+	/**
+	 * Returns a ticker.
+	 *
+	 * @param currencyPair currency pair
+	 * @param last         last price
+	 * @return ticker
+	 */
+	private TickerDTO getTicker(final CurrencyPairDTO currencyPair, final String last) {
+		return TickerDTO.builder().currencyPair(currencyPair).last(new BigDecimal(last)).build();
+	}
+
+	/**
+	 * Strategy keeping the tickers delivered.
+	 */
+	private final class DeliveryStrategy extends BasicCassandreStrategy {
+
+		/** Tickers delivered. */
+		private final List<TickerDTO> tickersReceived = new CopyOnWriteArrayList<>();
+
+		@Override
+		public Set<CurrencyPairDTO> getRequestedCurrencyPairs() {
+			return Set.of(cp1);
+		}
+
+		@Override
+		public Optional<AccountDTO> getTradeAccount(final Set<AccountDTO> accounts) {
+			return accounts.stream().findFirst();
+		}
+
+		@Override
+		public void onTickerUpdate(final TickerDTO ticker) {
+			tickersReceived.add(ticker);
+		}
+
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Ticker delivery policy tests.
+ */
+package tech.cassandre.trading.bot.test.util.ticker;
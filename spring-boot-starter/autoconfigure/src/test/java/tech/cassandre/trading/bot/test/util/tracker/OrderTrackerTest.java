@@ -0,0 +1,93 @@
+package tech.cassandre.trading.bot.test.util.tracker;
+
+import io.qase.api.annotation.CaseId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderStatusDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
+import tech.cassandre.trading.bot.test.util.junit.BaseTest;
+import tech.cassandre.trading.bot.util.tracker.OrderTracker;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.CANCELED;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.FILLED;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.NEW;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.PARTIALLY_FILLED;
+import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.PENDING_NEW;
+import static tech.cassandre.trading.bot.util.tracker.OrderTracker.MAXIMUM_MISSES;
+
+@DisplayName("Util - Order tracker")
+public class OrderTrackerTest extends BaseTest {
+
+	@Test
+	@CaseId(108)
+	@DisplayName("Check order status state machine")
+	public void checkOrderTracker() {
+		final OrderTracker tracker = new OrderTracker();
+
+		// Orders created - terminal orders are not tracked.
+		tracker.track(getOrder("ORDER_000001", PENDING_NEW, "0"));
+		tracker.track(getOrder("ORDER_000002", PENDING_NEW, "0"));
+		tracker.track(getOrder("ORDER_000003", FILLED, "1"));
+		assertEquals(2, tracker.size());
+		assertEquals(Set.of("ORDER_000001", "ORDER_000002"), tracker.getTrackedOrderIds(Collections.emptySet()));
+		assertEquals(Set.of("ORDER_000002"), tracker.getTrackedOrderIds(Set.of("ORDER_000001")));
+
+		// Orders not tracked are always accepted.
+		assertTrue(tracker.update(getOrder("ORDER_000004", NEW, "0")));
+
+		// ORDER_000001 is partially filled, then an older reply arrives.
+		assertTrue(tracker.update(getOrder("ORDER_000001", NEW, "0")));
+		assertTrue(tracker.update(getOrder("ORDER_000001", PARTIALLY_FILLED, "0.5")));
+		assertFalse(tracker.update(getOrder("ORDER_000001", NEW, "0")));
+		assertFalse(tracker.update(getOrder("ORDER_000001", PARTIALLY_FILLED, "0.2")));
+		assertEquals(PARTIALLY_FILLED, tracker.getStatus("ORDER_000001"));
+
+		// ORDER_000001 is filled - it's not tracked anymore.
+		assertTrue(tracker.update(getOrder("ORDER_000001", FILLED, "1")));
+		assertNull(tracker.getStatus("ORDER_000001"));
+		assertEquals(1, tracker.size());
+
+		// ORDER_000002 is not returned by the exchange anymore.
+		for (int i = 1; i < MAXIMUM_MISSES; i++) {
+			assertFalse(tracker.miss("ORDER_000002"));
+		}
+		assertTrue(tracker.update(getOrder("ORDER_000002", NEW, "0")));
+		assertFalse(tracker.miss("ORDER_000002"));
+		for (int i = 2; i < MAXIMUM_MISSES; i++) {
+			assertFalse(tracker.miss("ORDER_000002"));
+		}
+		assertTrue(tracker.miss("ORDER_000002"));
+		assertEquals(0, tracker.size());
+
+		// A canceled order is terminal.
+		tracker.track(getOrder("ORDER_000005", NEW, "0"));
+		assertTrue(tracker.update(getOrder("ORDER_000005", CANCELED, "0")));
+		assertEquals(0, tracker.size());
+	}
+
+	/**
+	 * Returns an order.
+	 *
+	 * @param orderId          order id
+	 * @param status           status
+	 * @param cumulativeAmount cumulative amount
+	 * @return order
+	 */
+	private OrderDTO getOrder(final String orderId, final OrderStatusDTO status, final String cumulativeAmount) {
+		return OrderDTO.builder()
+				.orderId(orderId)
+				.currencyPair(cp1)
+				.status(status)
+				.cumulativeAmount(new CurrencyAmountDTO(cumulativeAmount, cp1.getBaseCurrency()))
+				.build();
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Order tracker tests.
+ */
+package tech.cassandre.trading.bot.test.util.tracker;